@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Measures time from JVM launch to the first successful GET /api/health for three startup modes:
+#   baseline  - extracted jar, no archive
+#   cds       - extracted jar with the AppCDS archive from ./gradlew cdsArchive
+#   aot+cds   - Spring AOT bean definitions plus the archive from ./gradlew aotCdsArchive
+#
+# Usage: scripts/startup-benchmark.sh <java> <extracted app jar> <cds dir>
+# Environment: RUNS (default 5), PORT (default 18080)
+set -euo pipefail
+
+JAVA=${1:?java executable}
+APP_JAR=${2:?extracted application jar}
+CDS_DIR=${3:?directory holding app.jsa and app-aot.jsa}
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+HEALTH_URL="http://127.0.0.1:${PORT}/api/health"
+
+now_ms() {
+  date +%s%3N
+}
+
+# Launch the app, poll /api/health until it answers 200, print the elapsed milliseconds and stop the app
+time_to_health() {
+  local start pid elapsed
+  start=$(now_ms)
+  "$JAVA" "$@" -jar "$APP_JAR" --server.port="$PORT" --http-learn.warmup.enabled=false >/dev/null 2>&1 &
+  pid=$!
+  until curl -fsS -o /dev/null "$HEALTH_URL" 2>/dev/null; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "application exited before becoming healthy" >&2
+      return 1
+    fi
+    sleep 0.01
+  done
+  elapsed=$(( $(now_ms) - start ))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$elapsed"
+}
+
+# Run one mode RUNS times and print min / median / max
+bench() {
+  local name=$1
+  shift
+  local samples=()
+  for ((i = 0; i < RUNS; i++)); do
+    samples+=("$(time_to_health "$@")")
+  done
+  local sorted
+  sorted=$(printf '%s\n' "${samples[@]}" | sort -n)
+  printf '%-10s min %6s ms   median %6s ms   max %6s ms\n' "$name" \
+    "$(head -n1 <<<"$sorted")" "$(sed -n "$(( (RUNS + 1) / 2 ))p" <<<"$sorted")" "$(tail -n1 <<<"$sorted")"
+}
+
+echo "Time to first successful /api/health over ${RUNS} runs"
+bench baseline
+bench cds "-XX:SharedArchiveFile=${CDS_DIR}/app.jsa"
+bench aot+cds "-XX:SharedArchiveFile=${CDS_DIR}/app-aot.jsa" -Dspring.aot.enabled=true
@@ -0,0 +1,69 @@
+package com.http_learn.benchmark;
+
+import com.http_learn.config.ResourceProperties;
+import com.http_learn.store.InMemoryResourceRepository;
+import com.http_learn.store.Resource;
+import com.http_learn.store.ResourceRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed read/write throughput of the resource store on every core
+ * Each operation picks a random existing id and reads it, or replaces it; one write in four is a create
+ * followed by a delete instead, so the store keeps its size while ids and map bins keep churning
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=ResourceRepositoryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(Threads.MAX)
+public class ResourceRepositoryBenchmark {
+
+    private static final byte[] DATA = "{\"color\":\"blue\",\"size\":42}".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"100000", "1000000"})
+    private int entries;
+
+    @Param({"50", "90", "99"})
+    private int readPercent;
+
+    private ResourceRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ResourceProperties properties = new ResourceProperties();
+        properties.setInitialCapacity(entries * 2);
+        repository = new InMemoryResourceRepository(properties);
+        for (int i = 0; i < entries; i++) {
+            repository.create("resource-" + i, DATA);
+        }
+    }
+
+    @Benchmark
+    public Object mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = 1 + random.nextInt(entries);
+        int roll = random.nextInt(100);
+        if (roll < readPercent) {
+            return repository.find(id);
+        }
+        if ((roll & 3) != 0) {
+            return repository.update(id, "updated", DATA);
+        }
+        Resource created = repository.create("churn", DATA);
+        return repository.delete(created.id());
+    }
+}
@@ -0,0 +1,66 @@
+package com.http_learn.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.http_learn.dto.InformationalResponseDto;
+import com.http_learn.dto.SuccessResponseDto;
+import com.http_learn.enums.SuccessStatusCode;
+import com.http_learn.service.SuccessStatusService;
+import com.http_learn.service.impl.InformationalStatusServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encode time and payload size of JSON, CBOR and Smile for both response DTOs
+ * Payload sizes are printed once per trial since JMH only reports timings
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=SerializationFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private SuccessResponseDto successResponse;
+    private InformationalResponseDto informationalResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new ObjectMapper();
+        };
+        successResponse = new SuccessStatusService().getStatusResponseWithData(SuccessStatusCode.CREATED, "POST");
+        informationalResponse = new InformationalStatusServiceImpl().getAllStatusCodes();
+
+        System.out.printf("%n[%s] SuccessResponseDto=%d bytes, InformationalResponseDto=%d bytes%n",
+                format,
+                mapper.writeValueAsBytes(successResponse).length,
+                mapper.writeValueAsBytes(informationalResponse).length);
+    }
+
+    @Benchmark
+    public byte[] encodeSuccessResponse() throws Exception {
+        return mapper.writeValueAsBytes(successResponse);
+    }
+
+    @Benchmark
+    public byte[] encodeInformationalResponse() throws Exception {
+        return mapper.writeValueAsBytes(informationalResponse);
+    }
+}
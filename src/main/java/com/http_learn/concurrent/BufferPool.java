@@ -0,0 +1,61 @@
+package com.http_learn.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of fixed-size byte buffers
+ *
+ * Streaming endpoints borrow a buffer per request instead of allocating one, so steady-state
+ * copying produces no garbage. When the pool is empty a fresh buffer is handed out, and buffers
+ * returned to a full pool are simply dropped, so the pool never blocks and never grows past its bound
+ */
+public class BufferPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<byte[]> buffers;
+
+    /**
+     * Create an empty pool
+     *
+     * @param bufferSize size of every buffer
+     * @param maxPooled most idle buffers kept
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize < 1 || maxPooled < 1) {
+            throw new IllegalArgumentException("bufferSize and maxPooled must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * Borrow a buffer; its contents are undefined
+     *
+     * @return a pooled or new buffer
+     */
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    /**
+     * Return a buffer obtained from acquire()
+     *
+     * @param buffer the buffer
+     */
+    public void release(byte[] buffer) {
+        if (buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Get the number of idle buffers
+     *
+     * @return pooled count
+     */
+    public int idle() {
+        return buffers.size();
+    }
+}
@@ -0,0 +1,195 @@
+package com.http_learn.concurrent;
+
+import com.http_learn.config.BulkheadProperties;
+import com.http_learn.dto.BulkheadStatsDto;
+import com.http_learn.exception.ServiceOverloadedException;
+import com.http_learn.jfr.BulkheadTaskEvent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded executor isolating one class of traffic
+ * A slow group can only ever fill its own threads and queue; when both are full,
+ * the configured rejection policy decides which request is shed
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int threads;
+    private final int queueCapacity;
+    private final BulkheadProperties.RejectionPolicy rejectionPolicy;
+    private final int retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    /**
+     * Create a bulkhead
+     *
+     * @param name bulkhead name, used for thread names and metrics
+     * @param spec capacity and rejection settings
+     */
+    public Bulkhead(String name, BulkheadProperties.Spec spec) {
+        if (spec.getThreads() < 1 || spec.getQueueCapacity() < 1) {
+            throw new IllegalArgumentException("Bulkhead " + name + " needs at least one thread and one queue slot");
+        }
+        this.name = name;
+        this.threads = spec.getThreads();
+        this.queueCapacity = spec.getQueueCapacity();
+        this.rejectionPolicy = spec.getRejection();
+        this.retryAfterSeconds = spec.getRetryAfterSeconds();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(name), rejectionHandler(rejectionPolicy));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Run a task in this bulkhead
+     *
+     * @param task the work to run
+     * @param <T> result type
+     * @return future completed with the task result, or exceptionally with ServiceOverloadedException
+     *         if the task was discarded from the queue
+     * @throws ServiceOverloadedException if the bulkhead is full and the policy is ABORT
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        BulkheadTask<T> bulkheadTask = new BulkheadTask<>(task, System.nanoTime());
+        submitted.increment();
+        try {
+            executor.execute(bulkheadTask);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            BulkheadTaskEvent.notRun(name, BulkheadTaskEvent.Outcome.REJECTED, 0);
+            throw overloaded();
+        }
+        return bulkheadTask.future;
+    }
+
+    /**
+     * Get a metrics snapshot
+     *
+     * @return current saturation and counters
+     */
+    public BulkheadStatsDto stats() {
+        return BulkheadStatsDto.builder()
+                .name(name)
+                .threads(threads)
+                .activeThreads(executor.getActiveCount())
+                .queueCapacity(queueCapacity)
+                .queued(executor.getQueue().size())
+                .rejectionPolicy(rejectionPolicy.name())
+                .submitted(submitted.sum())
+                .completed(executor.getCompletedTaskCount())
+                .rejected(rejected.sum())
+                .failed(failed.sum())
+                .averageQueueWaitMs(averageQueueWaitMillis())
+                .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Stop accepting work and let queued tasks finish
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private double averageQueueWaitMillis() {
+        long started = executor.getCompletedTaskCount() + executor.getActiveCount();
+        return started > 0 ? queueWaitNanos.sum() / 1e6 / started : 0.0;
+    }
+
+    private ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException("The " + name + " bulkhead is full, retry later", retryAfterSeconds);
+    }
+
+    private RejectedExecutionHandler rejectionHandler(BulkheadProperties.RejectionPolicy policy) {
+        return switch (policy) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD_OLDEST -> (runnable, pool) -> {
+                if (pool.isShutdown()) {
+                    throw new RejectedExecutionException("Bulkhead " + name + " is shut down");
+                }
+                BlockingQueue<Runnable> queue = pool.getQueue();
+                Runnable oldest = queue.poll();
+                if (oldest instanceof BulkheadTask<?> discarded) {
+                    rejected.increment();
+                    discarded.future.completeExceptionally(overloaded());
+                    BulkheadTaskEvent.notRun(name, BulkheadTaskEvent.Outcome.DISCARDED,
+                            System.nanoTime() - discarded.enqueuedAt);
+                }
+                if (!queue.offer(runnable)) {
+                    throw new RejectedExecutionException("Bulkhead " + name + " is full");
+                }
+            };
+        };
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Task wrapper that owns the caller's future and records queue wait time
+     */
+    private final class BulkheadTask<T> implements Runnable {
+
+        private final Callable<T> task;
+        private final long enqueuedAt;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private BulkheadTask(Callable<T> task, long enqueuedAt) {
+            this.task = task;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public void run() {
+            long queueWait = System.nanoTime() - enqueuedAt;
+            queueWaitNanos.add(queueWait);
+            if (future.isDone()) {
+                BulkheadTaskEvent.notRun(name, BulkheadTaskEvent.Outcome.CANCELLED, queueWait);
+                return;
+            }
+            BulkheadTaskEvent event = new BulkheadTaskEvent();
+            event.begin();
+            try {
+                future.complete(task.call());
+                event.complete(name, BulkheadTaskEvent.Outcome.COMPLETED, queueWait);
+            } catch (Throwable ex) {
+                failed.increment();
+                event.complete(name, BulkheadTaskEvent.Outcome.FAILED, queueWait);
+                future.completeExceptionally(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.http_learn.concurrent;
+
+import com.http_learn.config.BulkheadProperties;
+import com.http_learn.dto.BulkheadStatsDto;
+import com.http_learn.service.SaturationProbe;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the configured bulkheads
+ * Also reports their queue depth to the health evaluation, so readiness drops before a queue overflows
+ */
+@Slf4j
+@Component
+public class BulkheadRegistry implements SaturationProbe {
+
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+    public BulkheadRegistry(BulkheadProperties properties) {
+        properties.getBulkheads().forEach((name, spec) -> {
+            bulkheads.put(name, new Bulkhead(name, spec));
+            log.info("Bulkhead '{}' ready with {} threads, queue {} and {} rejection",
+                    name, spec.getThreads(), spec.getQueueCapacity(), spec.getRejection());
+        });
+    }
+
+    /**
+     * Get a bulkhead by name
+     *
+     * @param name the configured name
+     * @return the bulkhead
+     * @throws IllegalStateException if no such bulkhead is configured
+     */
+    public Bulkhead get(String name) {
+        Bulkhead bulkhead = bulkheads.get(name);
+        if (bulkhead == null) {
+            throw new IllegalStateException("No bulkhead configured under http-learn.bulkheads." + name);
+        }
+        return bulkhead;
+    }
+
+    /**
+     * Get metrics for every bulkhead
+     *
+     * @return one snapshot per bulkhead
+     */
+    public List<BulkheadStatsDto> stats() {
+        return bulkheads.values().stream().map(Bulkhead::stats).toList();
+    }
+
+    @Override
+    public List<QueueSample> sampleQueues() {
+        return bulkheads.values().stream()
+                .map(bulkhead -> new QueueSample(bulkhead.getName(), bulkhead.getQueueDepth(), bulkhead.getQueueCapacity()))
+                .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        bulkheads.values().forEach(Bulkhead::shutdown);
+    }
+}
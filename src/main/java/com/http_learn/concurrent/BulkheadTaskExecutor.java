@@ -0,0 +1,53 @@
+package com.http_learn.concurrent;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Spring task executor backed by a bulkhead
+ * Lets Spring MVC run its async work (StreamingResponseBody and Callable return values) on a bounded pool
+ * whose saturation shows up in the bulkhead metrics and readiness, and whose rejection is a 503 with
+ * Retry-After rather than a silent wait in an unbounded queue
+ */
+public class BulkheadTaskExecutor implements AsyncTaskExecutor {
+
+    private final Bulkhead bulkhead;
+
+    public BulkheadTaskExecutor(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submit(task);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return submit(Executors.callable(task));
+    }
+
+    /**
+     * Run a task in the bulkhead
+     * The returned future runs the task itself, so cancelling it (as Spring does on an async timeout)
+     * interrupts the thread streaming the response
+     *
+     * @param task the work to run
+     * @param <T> result type
+     * @return future of the task
+     * @throws com.http_learn.exception.ServiceOverloadedException if the bulkhead is full
+     */
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        bulkhead.submit(() -> {
+            future.run();
+            return null;
+        });
+        return future;
+    }
+}
@@ -0,0 +1,282 @@
+package com.http_learn.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel driven by a single ticker thread
+ *
+ * Timeouts are hashed into a ring of buckets by deadline; every tick the ticker expires one bucket.
+ * Scheduling and cancelling are lock-free queue offers, and the ticker alone touches the buckets,
+ * so a pending timeout costs one small object and no thread. Expired tasks run on the ticker thread
+ * and must therefore be short (e.g. dispatching an async request back to the container)
+ *
+ * Timeouts never fire before their deadline and usually within two ticks after it
+ */
+@Slf4j
+public class HashedTimingWheel {
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<WheelTimeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Thread ticker;
+    private final long startNanos;
+
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * Create and start a timing wheel
+     *
+     * @param name ticker thread name
+     * @param tickDuration resolution of the wheel
+     * @param unit unit of tickDuration
+     * @param wheelSize number of buckets, rounded up to a power of two
+     */
+    public HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0 || wheelSize < 1) {
+            throw new IllegalArgumentException("tickDuration and wheelSize must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+        this.ticker = new Thread(this::run, name);
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Schedule a task
+     *
+     * @param task the task, run on the ticker thread
+     * @param delay delay before the task runs
+     * @param unit unit of delay
+     * @return handle that can cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel is stopped");
+        }
+        long deadline = System.nanoTime() + Math.max(0, unit.toNanos(delay)) - startNanos;
+        WheelTimeout timeout = new WheelTimeout(task, deadline);
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Get the number of timeouts that have neither fired nor been cancelled
+     *
+     * @return pending count
+     */
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    /**
+     * Stop the ticker; pending timeouts are dropped
+     */
+    public void stop() {
+        running = false;
+        ticker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = waitForNextTick();
+            if (deadline < 0) {
+                continue;
+            }
+            removeCancelled();
+            transferScheduled();
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * Sleep until the end of the current tick
+     *
+     * @return the tick deadline relative to start, or -1 if interrupted by stop()
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startNanos;
+            long sleepNanos = deadline - now;
+            if (sleepNanos <= 0) {
+                return now;
+            }
+            LockSupport.parkNanos(this, sleepNanos);
+            if (!running) {
+                return -1;
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            WheelTimeout timeout = scheduled.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != WheelTimeout.INIT) {
+                continue;
+            }
+            long targetTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (targetTick - tick) / wheel.length;
+            // Never schedule into the past: overdue timeouts go into the current bucket
+            long bucketTick = Math.max(targetTick, tick);
+            wheel[(int) (bucketTick & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Handle to a scheduled task
+     */
+    public interface Timeout {
+
+        /**
+         * Cancel the task if it has not run yet
+         *
+         * @return true if this call cancelled it
+         */
+        boolean cancel();
+
+        /**
+         * Whether the task has run
+         *
+         * @return true once expired
+         */
+        boolean isExpired();
+    }
+
+    private final class WheelTimeout implements Timeout {
+
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+
+        // Only touched by the ticker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTimeout next;
+        private WheelTimeout prev;
+
+        private WheelTimeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED)) {
+                return;
+            }
+            pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                log.warn("Timing wheel task failed", ex);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts, only accessed by the ticker thread
+     */
+    private final class Bucket {
+
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        private void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expire(long deadline) {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.state.get() == WheelTimeout.CANCELLED) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.next = null;
+            timeout.prev = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.http_learn.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative longs with log-linear buckets
+ *
+ * Values below 8 are counted exactly, larger ones in eight sub-buckets per power of two, so every
+ * reported percentile is within 12.5% of the true value while the whole long range fits in 488 counters.
+ * Snapshots read the counters one by one and are approximate under concurrent updates
+ */
+public class LogLinearHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Number of buckets, i.e. the length of a counts array
+     */
+    public static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Count one value; negative values count as 0
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        counts.incrementAndGet(bucket(Math.max(0, value)));
+    }
+
+    /**
+     * Add the current counts to an array of length {@link #BUCKETS}
+     *
+     * @param target the array to add to
+     * @return number of values added
+     */
+    public long addTo(long[] target) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.get(i);
+            target[i] += count;
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Zero every counter
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Find a percentile in a counts array
+     *
+     * @param counts counts per bucket
+     * @param total sum of the counts
+     * @param quantile between 0 and 1
+     * @return upper bound of the bucket holding the percentile, 0 when empty
+     */
+    public static long percentile(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return bucketUpperBound(i);
+            }
+        }
+        return bucketUpperBound(counts.length - 1);
+    }
+
+    /**
+     * Map a value to its bucket
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * Largest value that maps to a bucket
+     */
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long mantissa = SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,23 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for per-route allocation accounting
+ * Bound from the http-learn.allocations section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.allocations")
+public class AllocationProperties {
+
+    /**
+     * Whether the allocation tracking filter is registered at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Routes tracked individually; further routes are folded into one overflow entry
+     */
+    private int maxRoutes = 200;
+}
@@ -0,0 +1,66 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for the per-route-group bulkhead executors
+ * Bound from the http-learn.bulkheads section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn")
+public class BulkheadProperties {
+
+    /**
+     * Bulkheads by name; controllers look them up by the same name
+     */
+    private Map<String, Spec> bulkheads = new LinkedHashMap<>();
+
+    /**
+     * Capacity of one bulkhead
+     */
+    @Data
+    public static class Spec {
+
+        /**
+         * Worker threads, i.e. the maximum number of requests of this group processed at once
+         */
+        private int threads = 4;
+
+        /**
+         * Requests that may wait for a worker before the rejection policy applies
+         */
+        private int queueCapacity = 50;
+
+        private RejectionPolicy rejection = RejectionPolicy.ABORT;
+
+        /**
+         * Value of the Retry-After header when a request is rejected
+         */
+        private int retryAfterSeconds = 1;
+    }
+
+    /**
+     * What happens to a request when the bulkhead is full
+     */
+    public enum RejectionPolicy {
+
+        /**
+         * Reject the new request with 503
+         */
+        ABORT,
+
+        /**
+         * Reject the request that has waited longest with 503 and queue the new one
+         */
+        DISCARD_OLDEST,
+
+        /**
+         * Run the new request on the calling request thread; gives up isolation for this group
+         */
+        CALLER_RUNS
+    }
+}
@@ -0,0 +1,54 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the adaptive concurrency limiter
+ * Bound from the http-learn.concurrency-limit section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Whether the limiter filter is registered at all
+     */
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 500;
+
+    /**
+     * Weight of a new limit estimate against the current limit
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * How much slower than the minimum latency a request may be before the limit shrinks
+     */
+    private double rttTolerance = 2.0;
+
+    /**
+     * How long a minimum latency estimate is trusted before it is re-probed
+     */
+    private long minRttWindowMs = 30000;
+
+    /**
+     * Value of the Retry-After header on rejected requests
+     */
+    private int retryAfterSeconds = 1;
+
+    /**
+     * Path prefixes that are never limited: load balancer probes and operations endpoints must always get through,
+     * and long transfers would hold a permit for minutes and then report their duration as a latency sample
+     */
+    private List<String> bypassPaths = new ArrayList<>(List.of("/api/health", "/api/ops",
+            "/api/success/ok/bytes/", "/api/success/ok/stream-bytes/", "/api/success/echo", "/api/resources/ingest"));
+}
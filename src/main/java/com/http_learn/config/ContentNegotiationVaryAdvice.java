@@ -0,0 +1,37 @@
+package com.http_learn.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds Vary: Accept to every body written by a message converter
+ *
+ * The converter is chosen from Accept (JSON, CBOR or Smile, see MessageConverterConfig), so one URL has
+ * several representations and shared caches, the in-process response cache included, must key on it.
+ * Applies to every controller and to the exception handlers
+ */
+@ControllerAdvice
+public class ContentNegotiationVaryAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        if (headers.getVary().stream().noneMatch(name -> name.equals("*") || name.equalsIgnoreCase(HttpHeaders.ACCEPT))) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return body;
+    }
+}
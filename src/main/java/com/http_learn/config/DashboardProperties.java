@@ -0,0 +1,38 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the live operations dashboard
+ * Bound from the http-learn.dashboard section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.dashboard")
+public class DashboardProperties {
+
+    /**
+     * Whether per-route metrics are collected and streamed at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Length of the rolling window rates and percentiles are computed over
+     */
+    private int windowSeconds = 10;
+
+    /**
+     * Routes tracked individually; further routes are folded into one overflow entry
+     */
+    private int maxRoutes = 200;
+
+    /**
+     * Lifetime of one event stream; browsers reconnect on their own when it ends
+     */
+    private long streamTimeoutMs = 1_800_000;
+
+    /**
+     * Seconds an event stream may stay stuck on one write (e.g. a client that stopped reading) before it is closed
+     */
+    private int maxLagSeconds = 5;
+}
@@ -0,0 +1,33 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for simulated slow responses (?delay=...&status=...)
+ * Bound from the http-learn.delay section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.delay")
+public class DelayProperties {
+
+    /**
+     * Whether the delay filter is registered at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Resolution of the timing wheel
+     */
+    private long tickMs = 10;
+
+    /**
+     * Buckets in the timing wheel; one lap covers tickMs * wheelSize
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Longest delay a client may ask for
+     */
+    private long maxDelayMs = 60000;
+}
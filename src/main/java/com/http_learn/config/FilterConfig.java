@@ -0,0 +1,251 @@
+package com.http_learn.config;
+
+import com.http_learn.concurrent.HashedTimingWheel;
+import com.http_learn.filter.AllocationTracker;
+import com.http_learn.filter.AllocationTrackingFilter;
+import com.http_learn.filter.ClientRateLimiter;
+import com.http_learn.filter.ConcurrencyLimitFilter;
+import com.http_learn.filter.DelayFilter;
+import com.http_learn.filter.IdempotencyCache;
+import com.http_learn.filter.IdempotencyFilter;
+import com.http_learn.filter.InternalTraffic;
+import com.http_learn.filter.ResponseCache;
+import com.http_learn.filter.ResponseCacheFilter;
+import com.http_learn.filter.RateLimitFilter;
+import com.http_learn.filter.RouteMetrics;
+import com.http_learn.filter.RouteMetricsFilter;
+import com.http_learn.jfr.JfrRequestFilter;
+import com.http_learn.timing.ServerTimingFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter registration
+ * Keeps the order of all request filters in one place; lower values run first
+ */
+@Configuration
+public class FilterConfig {
+
+    /**
+     * Server timing wraps every other filter, so the filters phase covers all of them
+     */
+    public static final int SERVER_TIMING_ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    /**
+     * The dispatch marker runs last and closes the filters phase
+     */
+    public static final int SERVER_TIMING_DISPATCH_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    /**
+     * JFR request events start right after server timing, so they can share its phase marks
+     */
+    public static final int JFR_REQUEST_ORDER = Ordered.HIGHEST_PRECEDENCE + 5;
+
+    /**
+     * Allocation tracking wraps the protections, so filter work is charged to the request too
+     */
+    public static final int ALLOCATION_TRACKING_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    /**
+     * Dashboard metrics wrap the protections, so throttled and shed requests show up as they were answered
+     */
+    public static final int ROUTE_METRICS_ORDER = Ordered.HIGHEST_PRECEDENCE + 20;
+
+    /**
+     * Rate limiting runs first among the protections: an abusive client must not even take a concurrency permit
+     */
+    public static final int RATE_LIMIT_ORDER = Ordered.HIGHEST_PRECEDENCE + 50;
+
+    /**
+     * Idempotent replays are answered after rate limiting but before simulated delays and the concurrency limit,
+     * so a retried request costs one lookup and never a permit
+     */
+    public static final int IDEMPOTENCY_ORDER = Ordered.HIGHEST_PRECEDENCE + 60;
+
+    /**
+     * Simulated delays park the request after rate limiting but before it takes a concurrency permit,
+     * so waiting requests count against the client's budget but not against server capacity
+     */
+    public static final int DELAY_ORDER = Ordered.HIGHEST_PRECEDENCE + 75;
+
+    /**
+     * Cache hits are served after rate limiting but without taking a concurrency permit;
+     * delayed requests never reach the cache, so a simulated slow response stays slow
+     */
+    public static final int RESPONSE_CACHE_ORDER = Ordered.HIGHEST_PRECEDENCE + 90;
+
+    /**
+     * Concurrency limiting runs early so rejected requests cost as little as possible
+     */
+    public static final int CONCURRENCY_LIMIT_ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    /**
+     * Register the adaptive concurrency limiter for the API routes
+     *
+     * @param properties limiter settings
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "http-learn.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(new ConcurrencyLimitFilter(properties));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(CONCURRENCY_LIMIT_ORDER);
+        return registration;
+    }
+
+    /**
+     * Register per-client rate limiting for the API routes
+     *
+     * @param rateLimiter the client buckets
+     * @param internalTraffic marker of requests the application sends to itself
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "http-learn.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(ClientRateLimiter rateLimiter, InternalTraffic internalTraffic) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, internalTraffic));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(RATE_LIMIT_ORDER);
+        return registration;
+    }
+
+    /**
+     * Timing wheel that releases delayed requests
+     *
+     * @param properties delay settings
+     * @return the running wheel, stopped on shutdown
+     */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "http-learn.delay", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public HashedTimingWheel delayTimingWheel(DelayProperties properties) {
+        return new HashedTimingWheel("delay-wheel", properties.getTickMs(), TimeUnit.MILLISECONDS, properties.getWheelSize());
+    }
+
+    /**
+     * Register simulated delays and status overrides for the API routes
+     *
+     * @param delayTimingWheel the timing wheel
+     * @param properties delay settings
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "http-learn.delay", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<DelayFilter> delayFilter(HashedTimingWheel delayTimingWheel, DelayProperties properties) {
+        FilterRegistrationBean<DelayFilter> registration = new FilterRegistrationBean<>(new DelayFilter(delayTimingWheel, properties));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(DELAY_ORDER);
+        return registration;
+    }
+
+    /**
+     * Register the shared response cache for the API routes
+     *
+     * @param responseCache the cache
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "http-learn.response-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(ResponseCache responseCache) {
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>(new ResponseCacheFilter(responseCache));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(RESPONSE_CACHE_ORDER);
+        return registration;
+    }
+
+    /**
+     * Register per-request phase timing for every route
+     *
+     * @param properties timing settings
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "http-learn.server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ServerTimingProperties properties) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter(properties));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(SERVER_TIMING_ORDER);
+        return registration;
+    }
+
+    /**
+     * Register the marker closing the filters phase of timed requests (Server-Timing and JFR request events)
+     *
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter.DispatchMarker> serverTimingDispatchMarker() {
+        FilterRegistrationBean<ServerTimingFilter.DispatchMarker> registration = new FilterRegistrationBean<>(new ServerTimingFilter.DispatchMarker());
+        registration.addUrlPatterns("/*");
+        registration.setOrder(SERVER_TIMING_DISPATCH_ORDER);
+        return registration;
+    }
+
+    /**
+     * Register per-route allocation accounting for every route
+     *
+     * @param allocationTracker the per-route distributions
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "http-learn.allocations", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<AllocationTrackingFilter> allocationTrackingFilter(AllocationTracker allocationTracker) {
+        FilterRegistrationBean<AllocationTrackingFilter> registration = new FilterRegistrationBean<>(new AllocationTrackingFilter(allocationTracker));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(ALLOCATION_TRACKING_ORDER);
+        return registration;
+    }
+
+    /**
+     * Register JFR request events for every route
+     *
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "http-learn.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<JfrRequestFilter> jfrRequestFilter() {
+        FilterRegistrationBean<JfrRequestFilter> registration = new FilterRegistrationBean<>(new JfrRequestFilter());
+        registration.addUrlPatterns("/*");
+        registration.setOrder(JFR_REQUEST_ORDER);
+        return registration;
+    }
+
+    /**
+     * Register live dashboard metrics for the API routes
+     *
+     * @param routeMetrics the per-route rolling windows
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "http-learn.dashboard", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RouteMetricsFilter> routeMetricsFilter(RouteMetrics routeMetrics) {
+        FilterRegistrationBean<RouteMetricsFilter> registration = new FilterRegistrationBean<>(new RouteMetricsFilter(routeMetrics));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(ROUTE_METRICS_ORDER);
+        return registration;
+    }
+
+    /**
+     * Register Idempotency-Key replay for the configured POST routes
+     *
+     * @param idempotencyCache the stored responses
+     * @param properties idempotency settings
+     * @param rateLimitProperties the API keys clients are told apart by
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "http-learn.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyCache idempotencyCache, IdempotencyProperties properties,
+                                                                       RateLimitProperties rateLimitProperties) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyCache, properties, rateLimitProperties));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(IDEMPOTENCY_ORDER);
+        return registration;
+    }
+}
@@ -0,0 +1,58 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Thresholds for the background health evaluation
+ * Bound from the http-learn.health section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.health")
+public class HealthProperties {
+
+    /**
+     * Delay between two evaluations in milliseconds
+     */
+    private long intervalMs = 1000;
+
+    /**
+     * Liveness fails when the latest snapshot is older than this, i.e. the evaluator itself is stuck
+     */
+    private long maxSnapshotAgeMs = 30000;
+
+    /**
+     * Readiness fails below this share of free old-generation heap (after the last GC)
+     */
+    private double minHeapHeadroom = 0.10;
+
+    /**
+     * Liveness fails below this share of free heap; the instance is unlikely to recover on its own
+     */
+    private double criticalHeapHeadroom = 0.02;
+
+    /**
+     * Readiness fails when more than this share of wall-clock time was spent in GC pauses
+     */
+    private double maxGcPauseRatio = 0.20;
+
+    /**
+     * Readiness fails when more than this share of request threads is busy
+     */
+    private double maxThreadSaturation = 0.90;
+
+    /**
+     * Readiness fails when any job queue is fuller than this share of its capacity
+     */
+    private double maxQueueSaturation = 0.80;
+
+    /**
+     * Readiness fails when the disk holding diskPath has less usable space than this
+     */
+    private long minFreeDiskMb = 100;
+
+    /**
+     * Path whose file system is checked for free space
+     */
+    private String diskPath = ".";
+}
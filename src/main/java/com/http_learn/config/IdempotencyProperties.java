@@ -0,0 +1,51 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for Idempotency-Key replay of unsafe requests
+ * Bound from the http-learn.idempotency section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Whether the idempotency filter is registered at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Exact paths whose POST requests honour the Idempotency-Key header
+     */
+    private List<String> paths = new ArrayList<>(List.of("/api/success/created"));
+
+    /**
+     * How long a key and its stored response are kept after the first request
+     */
+    private long ttlSeconds = 86400;
+
+    /**
+     * Most keys kept at once; the oldest are evicted first
+     */
+    private int maxEntries = 10000;
+
+    /**
+     * Largest request body that is fingerprinted; larger requests with a key are rejected
+     */
+    private int maxRequestBytes = 1024 * 1024;
+
+    /**
+     * Largest response body that is stored for replay; larger responses are not replayed
+     */
+    private int maxResponseBytes = 16 * 1024;
+
+    /**
+     * How long a duplicate waits for the original request before giving up with 409
+     */
+    private long waitTimeoutMs = 30000;
+}
@@ -0,0 +1,67 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for JDK Flight Recorder integration
+ * Bound from the http-learn.jfr section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.jfr")
+public class JfrProperties {
+
+    /**
+     * Whether the request event filter is registered at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Token required in X-Ops-Token to start a recording; recordings are disabled while empty
+     */
+    private String token = "";
+
+    /**
+     * JFR settings a recording is started with: "default" (low overhead) or "profile"
+     */
+    private String settings = "profile";
+
+    /**
+     * Longest recording a client may ask for
+     */
+    private int maxDurationSeconds = 300;
+
+    /**
+     * Size limit of a recording; older chunks are dropped beyond it
+     */
+    private long maxSizeBytes = 256L * 1024 * 1024;
+
+    /**
+     * Continuous execution sampling feeding the hot method summary
+     */
+    private HotMethods hotMethods = new HotMethods();
+
+    @Data
+    public static class HotMethods {
+
+        /**
+         * Whether the in-process sampling stream runs at all
+         */
+        private boolean enabled = true;
+
+        /**
+         * Interval between execution samples of each running thread
+         */
+        private long samplePeriodMs = 20;
+
+        /**
+         * Length of one rolling window
+         */
+        private int windowSeconds = 10;
+
+        /**
+         * Number of windows summarised; the summary covers windowSeconds * windows
+         */
+        private int windows = 6;
+    }
+}
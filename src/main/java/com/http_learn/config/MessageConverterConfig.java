@@ -0,0 +1,40 @@
+package com.http_learn.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Message converter configuration for binary response formats
+ * Registers CBOR and Smile converters so every controller can answer
+ * with application/cbor or application/x-jackson-smile when the Accept header asks for it
+ */
+@Configuration
+public class MessageConverterConfig {
+
+    /**
+     * CBOR converter sharing the application's Jackson settings
+     *
+     * @param builder the Jackson builder configured by Spring Boot (prototype scoped)
+     * @return converter for application/cbor
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Smile converter sharing the application's Jackson settings
+     *
+     * @param builder the Jackson builder configured by Spring Boot (prototype scoped)
+     * @return converter for application/x-jackson-smile
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
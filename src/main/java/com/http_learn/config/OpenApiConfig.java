@@ -5,6 +5,7 @@ import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.servers.Server;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -13,8 +14,12 @@ import java.util.List;
 /**
  * OpenAPI configuration for Swagger documentation
  * Provides comprehensive API documentation with examples
+ *
+ * Only active while springdoc scans the controllers at runtime; production serves the document
+ * generated at build time instead (see StaticOpenApiController)
  */
 @Configuration
+@ConditionalOnProperty(prefix = "springdoc.api-docs", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class OpenApiConfig {
 
     @Bean
@@ -0,0 +1,63 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for the caching reverse proxy
+ * Bound from the http-learn.proxy section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.proxy")
+public class ProxyProperties {
+
+    /**
+     * Upstreams by route name; requests under /api/proxy/{name}/ are forwarded to the route's upstream
+     */
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    /**
+     * Timeout for opening a connection to an upstream
+     */
+    private long connectTimeoutMs = 2000;
+
+    /**
+     * Timeout for an upstream response, from sending the request to the end of the body
+     */
+    private long requestTimeoutMs = 10000;
+
+    /**
+     * Largest upstream body that is buffered; bigger responses fail with 502
+     */
+    private int maxBodyBytes = 1024 * 1024;
+
+    /**
+     * Most cached upstream responses across all routes before the oldest are evicted
+     */
+    private int maxEntries = 10000;
+
+    /**
+     * Total weight of cached upstream responses (bodies plus kept headers) before the oldest are evicted
+     */
+    private long maxBytes = 64L * 1024 * 1024;
+
+    /**
+     * One proxied upstream
+     */
+    @Data
+    public static class Route {
+
+        /**
+         * Base URI the path after the route prefix is appended to, e.g. http://catalog.internal:8080/api
+         */
+        private String upstream;
+
+        /**
+         * How long a successful upstream response is served from the cache; 0 only coalesces concurrent fetches
+         */
+        private long ttlSeconds = 30;
+    }
+}
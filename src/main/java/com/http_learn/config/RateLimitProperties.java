@@ -0,0 +1,72 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for per-client rate limiting
+ * Bound from the http-learn.rate-limit section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether the rate limiting filter is registered at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Header identifying API clients; clients without a known key are keyed by remote address
+     */
+    private String apiKeyHeader = "X-API-Key";
+
+    /**
+     * API keys that get buckets of their own; any other key is ignored
+     */
+    private List<String> apiKeys = new ArrayList<>();
+
+    /**
+     * Buckets that stayed full for this long are evicted
+     */
+    private long idleEvictionMs = 300000;
+
+    /**
+     * Number of independent map stripes per route group, rounded up to a power of two
+     */
+    private int stripes = 16;
+
+    /**
+     * Path prefixes that are never rate limited
+     */
+    private List<String> bypassPaths = new ArrayList<>(List.of("/api/health"));
+
+    /**
+     * Route groups, matched by longest path prefix
+     */
+    private List<Group> groups = new ArrayList<>();
+
+    /**
+     * Limits for one group of routes
+     */
+    @Data
+    public static class Group {
+
+        private String name;
+
+        private String pathPrefix;
+
+        /**
+         * Bucket size: the largest burst a client may send
+         */
+        private int capacity = 100;
+
+        /**
+         * Tokens added per second
+         */
+        private double refillPerSecond = 50;
+    }
+}
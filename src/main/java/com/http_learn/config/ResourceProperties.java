@@ -0,0 +1,88 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the /api/resources store
+ * Bound from the http-learn.resources section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.resources")
+public class ResourceProperties {
+
+    /**
+     * Where resources are kept: memory (lost on restart) or mapped (memory-mapped segment files in directory)
+     */
+    private String storage = "memory";
+
+    /**
+     * Expected number of resources; the index is sized for it up front so it never rehashes on the way there
+     */
+    private int initialCapacity = 65536;
+
+    /**
+     * Largest serialized data document of one resource
+     */
+    private int maxDataBytes = 64 * 1024;
+
+    /**
+     * Most operations accepted in one bulk request
+     */
+    private int bulkMaxOperations = 1000;
+
+    /**
+     * Most partitions a bulk request is split into; partitions run in parallel on the bulk bulkhead
+     */
+    private int bulkPartitions = 4;
+
+    /**
+     * Operations per partition below which a bulk request is not split further
+     */
+    private int bulkPartitionSize = 32;
+
+    /**
+     * Lines handed to an ingest worker at once, and stored with one batched write
+     */
+    private int ingestBatchLines = 1000;
+
+    /**
+     * Bytes after which an ingest batch is handed over even if it has fewer lines
+     */
+    private int ingestBatchBytes = 1024 * 1024;
+
+    /**
+     * Batches of one ingest request parsed or stored at once; reading the request stops while all are busy
+     */
+    private int ingestMaxInFlightBatches = 8;
+
+    /**
+     * Longest accepted NDJSON line; longer lines are skipped and reported
+     */
+    private int ingestMaxLineBytes = 128 * 1024;
+
+    /**
+     * Per-line errors listed in an ingest summary; further failures are only counted
+     */
+    private int ingestMaxErrors = 100;
+
+    /**
+     * Directory holding the segment files of the mapped storage
+     */
+    private String directory = "data/resources";
+
+    /**
+     * Size of one segment file of the mapped storage; a full segment is sealed and a new one started
+     */
+    private int segmentBytes = 64 * 1024 * 1024;
+
+    /**
+     * Share of dead bytes (overwritten or deleted records) at which a sealed segment is compacted
+     */
+    private double compactionThreshold = 0.5;
+
+    /**
+     * How often sealed segments are checked for compaction
+     */
+    private long compactionIntervalMs = 60000;
+}
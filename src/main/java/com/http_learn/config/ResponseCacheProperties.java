@@ -0,0 +1,58 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the in-process shared HTTP response cache
+ * Bound from the http-learn.response-cache section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.response-cache")
+public class ResponseCacheProperties {
+
+    /**
+     * Whether the response cache filter is registered at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Total weight of cached responses (bodies plus headers) before least recently used ones are evicted
+     */
+    private long maxBytes = 64L * 1024 * 1024;
+
+    /**
+     * Largest single response body that is captured for caching
+     */
+    private int maxEntryBytes = 1024 * 1024;
+
+    /**
+     * Number of independently locked LRU segments, rounded up to a power of two
+     */
+    private int segments = 16;
+
+    /**
+     * Most Vary variants kept per URL
+     */
+    private int maxVariants = 8;
+
+    /**
+     * Timeout of a background revalidation request
+     */
+    private long revalidateTimeoutMs = 10000;
+
+    /**
+     * Scheme, host and port background revalidations are sent to, e.g. when the TLS certificate does not cover
+     * the server address; empty derives it from server.ssl, server.address and the bound port
+     */
+    private String revalidateBaseUrl = "";
+
+    /**
+     * Path prefixes that are never cached, nor wrapped for capture
+     */
+    private List<String> bypassPaths = new ArrayList<>(List.of("/api/health", "/api/ops",
+            "/api/success/ok/bytes/", "/api/success/ok/stream-bytes/", "/api/success/echo", "/api/resources/ingest"));
+}
@@ -0,0 +1,33 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for per-request phase timing (Server-Timing)
+ * Bound from the http-learn.server-timing section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.server-timing")
+public class ServerTimingProperties {
+
+    /**
+     * Whether the timing filters are registered at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Request header that switches timing on for one request
+     */
+    private String requestHeader = "X-Debug-Timing";
+
+    /**
+     * Value the request header must carry; any value is accepted when empty
+     */
+    private String token = "";
+
+    /**
+     * Whether every timed request is also logged with all of its phases
+     */
+    private boolean trace = false;
+}
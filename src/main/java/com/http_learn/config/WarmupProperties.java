@@ -0,0 +1,95 @@
+package com.http_learn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the JIT warm-up phase that runs before the instance reports ready
+ * Bound from the http-learn.warmup section of application.yml
+ */
+@Data
+@ConfigurationProperties(prefix = "http-learn.warmup")
+public class WarmupProperties {
+
+    /**
+     * Whether warm-up runs at all; when disabled readiness is not gated
+     */
+    private boolean enabled = true;
+
+    /**
+     * Parallel warm-up clients, enough to exercise the contended paths without saturating the instance
+     */
+    private int concurrency = 4;
+
+    /**
+     * Warm-up always runs at least this long
+     */
+    private long minDurationMs = 2000;
+
+    /**
+     * Warm-up gives up and opens readiness after this long even if compilation has not settled
+     */
+    private long maxDurationMs = 60000;
+
+    /**
+     * Length of one sampling window of the JIT compilation counter
+     */
+    private long settleWindowMs = 1000;
+
+    /**
+     * A window counts as quiet when the JIT spent less than this many milliseconds compiling during it
+     */
+    private long settleThresholdMs = 20;
+
+    /**
+     * Consecutive quiet windows after which compilation is considered settled
+     */
+    private int settleWindows = 3;
+
+    /**
+     * Timeout of a single warm-up request
+     */
+    private long requestTimeoutMs = 5000;
+
+    /**
+     * Request mix replayed during warm-up
+     */
+    private List<Request> requests = new ArrayList<>();
+
+    /**
+     * One synthetic request of the warm-up mix
+     */
+    @Data
+    public static class Request {
+
+        private String method = "GET";
+
+        /**
+         * Path including any query string
+         */
+        private String path;
+
+        /**
+         * Accept header, e.g. to warm up a binary message converter
+         */
+        private String accept;
+
+        /**
+         * Content-Type of the body, if any
+         */
+        private String contentType;
+
+        /**
+         * Request body, if any
+         */
+        private String body;
+
+        /**
+         * Relative share of this request in the mix
+         */
+        private int weight = 1;
+    }
+}
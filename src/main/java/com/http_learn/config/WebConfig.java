@@ -1,16 +1,33 @@
 package com.http_learn.config;
 
+import com.http_learn.concurrent.BulkheadRegistry;
+import com.http_learn.concurrent.BulkheadTaskExecutor;
+import com.http_learn.timing.ServerTimingInterceptor;
+import com.http_learn.util.AsyncTimeouts;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * Web configuration for the application
- * Handles CORS and other web-related configurations
+ * Handles CORS, interceptors and other web-related configurations
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    /**
+     * Bulkhead that runs streamed response bodies
+     */
+    static final String STREAMS_BULKHEAD = "streams";
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public WebConfig(BulkheadRegistry bulkheadRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
     /**
      * Configure CORS settings
      * 
@@ -24,4 +41,30 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .maxAge(3600);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Register handler interceptors
+     *
+     * @param registry the interceptor registry
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Inert unless the request is timed, so it is registered for every route
+        registry.addInterceptor(new ServerTimingInterceptor());
+    }
+
+    /**
+     * Run streamed bodies on the streams bulkhead and let handlers raise the async timeout of their own requests
+     * Without an executor of its own, Spring MVC would queue every stream behind the 8 threads of the shared
+     * application task executor, where a few long downloads starve all other streams without any rejection
+     *
+     * @param configurer the async support configurer
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new BulkheadTaskExecutor(bulkheadRegistry.get(STREAMS_BULKHEAD)));
+        AsyncTimeouts timeouts = new AsyncTimeouts();
+        configurer.registerCallableInterceptors(timeouts);
+        configurer.registerDeferredResultInterceptors(timeouts);
+    }
+}
@@ -0,0 +1,191 @@
+package com.http_learn.controller;
+
+import com.http_learn.dto.HotMethodsDto;
+import com.http_learn.exception.ExpectedException;
+import com.http_learn.jfr.HotMethodProfiler;
+import com.http_learn.service.FlightRecordingService;
+import com.http_learn.util.AsyncTimeouts;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST Controller exposing JDK Flight Recorder data of the running instance
+ */
+@RestController
+@RequestMapping("/api/ops/jfr")
+@RequiredArgsConstructor
+@Tag(name = "Operations", description = "Operational metrics of the running instance")
+public class FlightRecorderController {
+
+    /**
+     * Time beyond the recording itself for dumping it and for the download
+     */
+    private static final Duration DOWNLOAD_ALLOWANCE = Duration.ofMinutes(2);
+
+    private final FlightRecordingService flightRecordingService;
+    private final ObjectProvider<HotMethodProfiler> hotMethodProfiler;
+
+    /**
+     * Record for a while and download the recording
+     *
+     * @param token the ops token
+     * @param seconds recording duration
+     * @param request the request, whose async timeout covers the recording
+     * @return the .jfr file, once the recording has finished
+     */
+    @Operation(
+        summary = "Record and Download a Flight Recording",
+        description = "Starts a bounded JFR recording (custom http_learn events included), waits for it to finish without holding a request thread and streams the .jfr file back. Requires the X-Ops-Token header; one recording at a time."
+    )
+    @PostMapping(value = "/recordings", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> record(
+            @RequestHeader(value = "X-Ops-Token", required = false) String token,
+            @Parameter(description = "Recording duration in seconds") @RequestParam(defaultValue = "30") int seconds,
+            HttpServletRequest request) {
+        flightRecordingService.authorize(token);
+        AsyncTimeouts.set(request, Duration.ofSeconds(seconds).plus(DOWNLOAD_ALLOWANCE));
+        CompletableFuture<Path> recording = flightRecordingService.record(seconds);
+        RecordingDownload download = new RecordingDownload(flightRecordingService);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.registerDeferredResultInterceptor(RecordingDownload.class, download);
+        asyncManager.registerCallableInterceptor(RecordingDownload.class, download);
+        return recording.thenApply(download::respond);
+    }
+
+    /**
+     * Get the rolling hot method summary
+     *
+     * @param limit methods per list
+     * @return most sampled methods of the last minute
+     */
+    @Operation(
+        summary = "Get Hot Methods",
+        description = "Returns the methods most often found running by continuous JFR execution sampling over the rolling period, both as top frames (self time) and as innermost application frames."
+    )
+    @GetMapping("/hot-methods")
+    public ResponseEntity<HotMethodsDto> getHotMethods(
+            @Parameter(description = "Methods per list") @RequestParam(defaultValue = "20") int limit) {
+        HotMethodProfiler profiler = hotMethodProfiler.getIfAvailable();
+        if (profiler == null) {
+            throw new ExpectedException(HttpStatus.NOT_FOUND, "Hot method sampling is disabled");
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(profiler.summary(Math.max(1, Math.min(limit, 200))));
+    }
+
+    /**
+     * Owns a dumped recording until it has been streamed
+     *
+     * The file is deleted once the download ends, and also when the request ends without one: an async
+     * timeout or a client disconnect while the recording runs, or while the file is being streamed
+     */
+    private static final class RecordingDownload implements DeferredResultProcessingInterceptor, CallableProcessingInterceptor {
+
+        private final FlightRecordingService flightRecordingService;
+        private Path file;
+        private boolean abandoned;
+
+        private RecordingDownload(FlightRecordingService flightRecordingService) {
+            this.flightRecordingService = flightRecordingService;
+        }
+
+        private ResponseEntity<StreamingResponseBody> respond(Path dumped) {
+            long size;
+            synchronized (this) {
+                if (abandoned) {
+                    flightRecordingService.delete(dumped);
+                    throw new CancellationException("The request ended before the recording was ready");
+                }
+                file = dumped;
+            }
+            try {
+                size = Files.size(dumped);
+            } catch (IOException ex) {
+                abandon();
+                throw new UncheckedIOException(ex);
+            }
+            StreamingResponseBody body = out -> {
+                try {
+                    Files.copy(dumped, out);
+                } finally {
+                    abandon();
+                }
+            };
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(dumped.getFileName().toString()).build().toString())
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(size)
+                    .body(body);
+        }
+
+        private void abandon() {
+            Path dumped;
+            synchronized (this) {
+                abandoned = true;
+                dumped = file;
+                file = null;
+            }
+            flightRecordingService.delete(dumped);
+        }
+
+        @Override
+        public <T> boolean handleTimeout(NativeWebRequest request, DeferredResult<T> deferredResult) {
+            abandon();
+            return true;
+        }
+
+        @Override
+        public <T> boolean handleError(NativeWebRequest request, DeferredResult<T> deferredResult, Throwable t) {
+            abandon();
+            return true;
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, DeferredResult<T> deferredResult) {
+            // With a result the download phase follows and cleans up after itself
+            if (!deferredResult.hasResult()) {
+                abandon();
+            }
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+            abandon();
+        }
+    }
+}
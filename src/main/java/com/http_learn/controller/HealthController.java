@@ -1,26 +1,67 @@
 package com.http_learn.controller;
 
+import com.http_learn.dto.HealthSnapshot;
+import com.http_learn.service.HealthService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Simple health check controller
+ * Health check controller
+ * Serves the snapshot published by the background evaluator, so probes never run checks themselves
  */
 @RestController
 @RequestMapping("/api/health")
+@RequiredArgsConstructor
 public class HealthController {
 
+    private static final Map<String, String> PROBE_UP = Map.of("status", "UP");
+    private static final Map<String, String> PROBE_DOWN = Map.of("status", "DOWN");
+
+    private final HealthService healthService;
+
+    /**
+     * Full health view with every check
+     *
+     * @return 200 while live, 503 otherwise
+     */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> health() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
-        response.put("message", "HTTP Learn API is running");
-        response.put("timestamp", System.currentTimeMillis());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<HealthSnapshot> health() {
+        HttpStatus status = healthService.isLive() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .cacheControl(CacheControl.noStore())
+                .body(healthService.getSnapshot());
+    }
+
+    /**
+     * Liveness view: fails only when the process should be restarted
+     *
+     * @return 200 while live, 503 otherwise
+     */
+    @GetMapping("/liveness")
+    public ResponseEntity<Map<String, String>> liveness() {
+        return probe(healthService.isLive());
+    }
+
+    /**
+     * Readiness view: fails as soon as the instance is saturated, so the load balancer drains it
+     *
+     * @return 200 while ready, 503 otherwise
+     */
+    @GetMapping("/readiness")
+    public ResponseEntity<Map<String, String>> readiness() {
+        return probe(healthService.isReady());
+    }
+
+    private static ResponseEntity<Map<String, String>> probe(boolean up) {
+        return ResponseEntity.status(up ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .cacheControl(CacheControl.noStore())
+                .body(up ? PROBE_UP : PROBE_DOWN);
     }
-} 
\ No newline at end of file
+}
@@ -1,7 +1,9 @@
 package com.http_learn.controller;
 
+import com.http_learn.concurrent.BulkheadRegistry;
 import com.http_learn.dto.InformationalResponseDto;
 import com.http_learn.enums.InformationalStatusCode;
+import com.http_learn.exception.ExpectedException;
 import com.http_learn.service.InformationalStatusService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,12 +13,19 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * REST Controller for informational status codes demonstration
  * Follows REST principles and proper separation of concerns
@@ -29,7 +38,10 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*")
 public class InformationalStatusController {
 
+    private static final int MAX_UPLOAD_BYTES = 1024 * 1024;
+
     private final InformationalStatusService informationalStatusService;
+    private final BulkheadRegistry bulkheadRegistry;
 
     /**
      * Get 100 Continue status response
@@ -163,6 +175,7 @@ public class InformationalStatusController {
      * Handle upload example demonstrating 100 Continue usage
      * 
      * @param expectHeader the Expect header value
+     * @param request the request, whose body is read on the uploads bulkhead
      * @return ResponseEntity with appropriate status and response
      */
     @Operation(
@@ -188,34 +201,48 @@ public class InformationalStatusController {
         )
     })
     @PostMapping("/upload-example")
-    public ResponseEntity<InformationalResponseDto> uploadExample(
+    public CompletableFuture<ResponseEntity<InformationalResponseDto>> uploadExample(
             @RequestHeader(value = "Expect", required = false) String expectHeader,
-            @RequestBody(required = false) String requestBody) {
+            HttpServletRequest request) {
 
         log.info("Received Expect header: {}", expectHeader);
-        log.info("Received request body: {}", requestBody);
-
-        // Handle 100-continue info for documentation only (Tomcat already handles the actual 100)
-        InformationalResponseDto response;
-
-        if ("100-continue".equalsIgnoreCase(expectHeader)) {
-            log.info("Handling 100 Continue for upload example");
-            log.info("requestBody: {}", requestBody);
-            response = InformationalResponseDto.builder()
-                    .status("100 Continue (Handled by server)")
-                    .message("Server acknowledged Expect: 100-continue header. The actual 100 Continue was sent by Tomcat before this controller was called.")
-                    .description("Request body has now been received: {}Proceeding with final processing.")
-                    .nextStep("Response returned successfully.")
-                    .build();
-        } else {
-            response = InformationalResponseDto.builder()
-                    .status("200 OK")
-                    .message("Request processed successfully")
-                    .description("No Expect header detected. Normal request processed.")
-                    .build();
-        }
 
-        return ResponseEntity.ok(response);
+        // Receiving the body is the slow part of an upload, so it is read by the uploads bulkhead rather than
+        // by the Tomcat worker: a burst of slow uploads ties up the bulkhead's threads, not the shared pool
+        return bulkheadRegistry.get("uploads").submit(() -> {
+            String requestBody = readBody(request);
+            log.info("Received request body of {} characters", requestBody.length());
+            InformationalResponseDto response;
+
+            if ("100-continue".equalsIgnoreCase(expectHeader)) {
+                log.info("Handling 100 Continue for upload example");
+                response = InformationalResponseDto.builder()
+                        .status("100 Continue (Handled by server)")
+                        .message("Server acknowledged Expect: 100-continue header. The actual 100 Continue was sent by Tomcat before this controller was called.")
+                        .description("Request body has now been received: {}Proceeding with final processing.")
+                        .nextStep("Response returned successfully.")
+                        .build();
+            } else {
+                response = InformationalResponseDto.builder()
+                        .status("200 OK")
+                        .message("Request processed successfully")
+                        .description("No Expect header detected. Normal request processed.")
+                        .build();
+            }
+
+            return ResponseEntity.ok(response);
+        });
     }
 
-} 
\ No newline at end of file
+    private static String readBody(HttpServletRequest request) throws IOException {
+        byte[] body;
+        try (InputStream in = request.getInputStream()) {
+            body = in.readNBytes(MAX_UPLOAD_BYTES + 1);
+        }
+        if (body.length > MAX_UPLOAD_BYTES) {
+            throw new ExpectedException(HttpStatus.PAYLOAD_TOO_LARGE, "Upload may be at most " + MAX_UPLOAD_BYTES + " bytes");
+        }
+        String encoding = request.getCharacterEncoding();
+        return new String(body, encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8);
+    }
+}
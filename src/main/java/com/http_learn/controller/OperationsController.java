@@ -0,0 +1,194 @@
+package com.http_learn.controller;
+
+import com.http_learn.concurrent.BulkheadRegistry;
+import com.http_learn.dto.AllocationStatsDto;
+import com.http_learn.dto.BulkheadStatsDto;
+import com.http_learn.dto.DashboardSnapshotDto;
+import com.http_learn.dto.ProxyStatsDto;
+import com.http_learn.dto.ResponseCacheStatsDto;
+import com.http_learn.dto.WarmupStatusDto;
+import com.http_learn.exception.ExpectedException;
+import com.http_learn.filter.AllocationTracker;
+import com.http_learn.filter.ResponseCache;
+import com.http_learn.service.DashboardService;
+import com.http_learn.service.ProxyService;
+import com.http_learn.service.WarmupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * REST Controller exposing operational metrics of the running instance
+ */
+@RestController
+@RequestMapping("/api/ops")
+@RequiredArgsConstructor
+@Tag(name = "Operations", description = "Operational metrics of the running instance")
+public class OperationsController {
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ObjectProvider<ResponseCache> responseCache;
+    private final WarmupService warmupService;
+    private final ObjectProvider<AllocationTracker> allocationTracker;
+    private final ObjectProvider<DashboardService> dashboardService;
+    private final ProxyService proxyService;
+
+    /**
+     * Get saturation metrics of every bulkhead
+     *
+     * @return one entry per bulkhead
+     */
+    @Operation(
+        summary = "Get Bulkhead Metrics",
+        description = "Returns threads, queue depth and rejection counters of every bulkhead executor."
+    )
+    @GetMapping("/bulkheads")
+    public ResponseEntity<List<BulkheadStatsDto>> getBulkheads() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(bulkheadRegistry.stats());
+    }
+
+    /**
+     * Get response cache metrics
+     *
+     * @return hit, miss and eviction counters
+     */
+    @Operation(
+        summary = "Get Response Cache Metrics",
+        description = "Returns size, hit, stale-hit, miss, eviction and revalidation counters of the in-process response cache."
+    )
+    @GetMapping("/response-cache")
+    public ResponseEntity<ResponseCacheStatsDto> getResponseCache() {
+        ResponseCache cache = responseCache.getIfAvailable();
+        if (cache == null) {
+            throw new ExpectedException(HttpStatus.NOT_FOUND, "Response cache is disabled");
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(cache.stats());
+    }
+
+    /**
+     * Get caching reverse proxy metrics
+     *
+     * @return hit, coalesced and miss counters
+     */
+    @Operation(
+        summary = "Get Proxy Metrics",
+        description = "Returns cached entries, hit, coalesced, miss, transformation, upstream error and eviction counters of the caching reverse proxy."
+    )
+    @GetMapping("/proxy")
+    public ResponseEntity<ProxyStatsDto> getProxy() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(proxyService.stats());
+    }
+
+    /**
+     * Get progress of the JIT warm-up phase
+     *
+     * @return warm-up state, duration and counters
+     */
+    @Operation(
+        summary = "Get Warm-up Status",
+        description = "Returns the state of the startup warm-up phase, how long it took, how many synthetic requests it sent and how long the JIT spent compiling meanwhile."
+    )
+    @GetMapping("/warmup")
+    public ResponseEntity<WarmupStatusDto> getWarmup() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(warmupService.status());
+    }
+
+    /**
+     * Get heap allocation per request of every route
+     *
+     * @return one distribution per route, largest total allocation first
+     */
+    @Operation(
+        summary = "Get Allocation per Route",
+        description = "Returns bytes allocated per request (mean, p50, p90, p99, max) for every route, measured with the request thread's allocation counter."
+    )
+    @GetMapping("/allocations")
+    public ResponseEntity<List<AllocationStatsDto>> getAllocations() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(requireAllocationTracker().stats());
+    }
+
+    /**
+     * Reset the allocation distributions, e.g. before a load test
+     *
+     * @return empty response
+     */
+    @Operation(
+        summary = "Reset Allocation per Route",
+        description = "Clears every allocation distribution."
+    )
+    @DeleteMapping("/allocations")
+    public ResponseEntity<Void> resetAllocations() {
+        requireAllocationTracker().reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Get the latest per-route traffic snapshot
+     *
+     * @return rate, error rate and latency percentiles of every active route
+     */
+    @Operation(
+        summary = "Get Live Dashboard Snapshot",
+        description = "Returns request rate, 5xx error rate and p50/p90/p99 latency of every API route over the rolling window, as last aggregated."
+    )
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardSnapshotDto> getDashboard() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(requireDashboardService().snapshot());
+    }
+
+    /**
+     * Stream per-route traffic snapshots, one "metrics" event per second
+     *
+     * @return the event stream
+     */
+    @Operation(
+        summary = "Stream Live Dashboard",
+        description = "Server-sent event stream with one 'metrics' event per second carrying the same snapshot as GET /api/ops/dashboard. Every subscriber receives the same pre-serialized event."
+    )
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDashboard() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(requireDashboardService().subscribe());
+    }
+
+    private DashboardService requireDashboardService() {
+        DashboardService service = dashboardService.getIfAvailable();
+        if (service == null) {
+            throw new ExpectedException(HttpStatus.NOT_FOUND, "Live dashboard is disabled");
+        }
+        return service;
+    }
+
+    private AllocationTracker requireAllocationTracker() {
+        AllocationTracker tracker = allocationTracker.getIfAvailable();
+        if (tracker == null) {
+            throw new ExpectedException(HttpStatus.NOT_FOUND, "Allocation tracking is disabled");
+        }
+        return tracker;
+    }
+}
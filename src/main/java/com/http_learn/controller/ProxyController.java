@@ -0,0 +1,64 @@
+package com.http_learn.controller;
+
+import com.http_learn.service.ProxyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST Controller for the caching reverse proxy
+ * The live counterpart of the 203 Non-Authoritative Information demonstration
+ */
+@RestController
+@RequestMapping(ProxyController.PREFIX)
+@RequiredArgsConstructor
+@Tag(name = "Proxy", description = "Cached, coalesced reads from configured upstream APIs")
+public class ProxyController {
+
+    static final String PREFIX = "/api/proxy";
+
+    private final ProxyService proxyService;
+
+    /**
+     * Forward a read to the upstream of a route
+     */
+    @Operation(
+        summary = "Proxy a GET Request",
+        description = "Forwards the path after /api/proxy/{route} and the query to the route's upstream. Concurrent requests for "
+            + "the same URL share one upstream fetch and successful responses are cached for the route's TTL. "
+            + "fields=a,b keeps only those top-level JSON fields and Accept: application/cbor transcodes JSON to CBOR; "
+            + "either answers 203 because the response differs from what the upstream sent."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK - The upstream response, unchanged (other upstream statuses are passed through too)"),
+        @ApiResponse(responseCode = "203", description = "Non-Authoritative Information - The upstream JSON response, projected or transcoded"),
+        @ApiResponse(responseCode = "404", description = "Not Found - No route with that name"),
+        @ApiResponse(responseCode = "502", description = "Bad Gateway - The upstream is unreachable, sent invalid JSON or a body over the limit"),
+        @ApiResponse(responseCode = "504", description = "Gateway Timeout - The upstream did not answer in time")
+    })
+    @GetMapping("/{route}/**")
+    public CompletableFuture<ResponseEntity<byte[]>> forward(
+            @Parameter(description = "Route name from http-learn.proxy.routes", example = "catalog")
+            @PathVariable String route,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        // The raw path after the route segment, still percent-encoded as the client sent it
+        int slash = uri.indexOf('/', request.getContextPath().length() + PREFIX.length() + 1);
+        String path = slash < 0 ? "" : uri.substring(slash);
+        return proxyService.forward(route, path, request.getQueryString(), accept);
+    }
+}
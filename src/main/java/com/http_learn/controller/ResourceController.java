@@ -0,0 +1,284 @@
+package com.http_learn.controller;
+
+import com.http_learn.dto.BulkRequestDto;
+import com.http_learn.dto.BulkResponseDto;
+import com.http_learn.dto.IngestSummaryDto;
+import com.http_learn.dto.ResourceDto;
+import com.http_learn.dto.ResourceRequestDto;
+import com.http_learn.service.ResourceIngestService;
+import com.http_learn.service.ResourceService;
+import com.http_learn.util.EntityTags;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST Controller for the in-memory resource store
+ * The resources behind the 201 Created, 200 OK and 204 No Content demonstrations
+ */
+@RestController
+@RequestMapping("/api/resources")
+@RequiredArgsConstructor
+@Tag(name = "Resources", description = "Create, read, replace and delete stored resources")
+public class ResourceController {
+
+    /**
+     * Encodings of a resource, in the order of the message converters: JSON unless the client prefers a binary format
+     */
+    private static final List<MediaType> REPRESENTATIONS = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+
+    private final ResourceService resourceService;
+    private final ResourceIngestService resourceIngestService;
+
+    /**
+     * Build the URL of a resource
+     *
+     * @param id the id
+     * @return the relative resource URL
+     */
+    public static URI location(long id) {
+        return URI.create("/api/resources/" + id);
+    }
+
+    /**
+     * Pick the representation of a resource from the Accept header
+     * The ETag names the representation, so it has to be known before the body is written: the chosen type is
+     * set as Content-Type, which makes the message converters encode with exactly that one
+     *
+     * @param accept the Accept header, or null if there is none
+     * @return the content type to answer with
+     * @throws HttpMediaTypeNotAcceptableException if none of the representations is acceptable
+     */
+    static MediaType representation(String accept) throws HttpMediaTypeNotAcceptableException {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException ex) {
+            throw new HttpMediaTypeNotAcceptableException(ex.getMessage());
+        }
+        // Highest quality first, then the most specific
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType representation : REPRESENTATIONS) {
+                if (type.includes(representation)) {
+                    return representation;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(REPRESENTATIONS);
+    }
+
+    private static String listing(String prefix, String after, int limit) {
+        StringBuilder url = new StringBuilder("/api/resources?");
+        if (prefix != null) {
+            url.append("prefix=").append(URLEncoder.encode(prefix, StandardCharsets.UTF_8)).append('&');
+        }
+        return url.append("after=").append(after).append("&limit=").append(limit).toString();
+    }
+
+    /**
+     * List resources
+     */
+    @Operation(
+        summary = "List Resources",
+        description = "Returns one page of resources as a JSON array: in creation order, or in name order when a name prefix is given. "
+            + "If there are more, a Link header with rel=\"next\" points to the following page; its opaque after cursor "
+            + "stays valid while resources are added and deleted."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK - The page, possibly empty"),
+        @ApiResponse(responseCode = "400", description = "Bad Request - Invalid limit or cursor")
+    })
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> list(
+            @Parameter(description = "Only names starting with this; switches to name order") @RequestParam(required = false) String prefix,
+            @Parameter(description = "Cursor from the Link header of the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Most resources on the page, 1 to 1000") @RequestParam(defaultValue = "50") int limit) {
+        ResourceService.ResourcePage page = resourceService.list(prefix, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (page.next() != null) {
+            response.header(HttpHeaders.LINK, "<" + listing(prefix, page.next(), limit) + ">; rel=\"next\"");
+        }
+        return response.body(page.body());
+    }
+
+    /**
+     * Create a resource
+     */
+    @Operation(
+        summary = "Create Resource",
+        description = "Stores a new resource under the next id and answers 201 Created with its URL in the Location header "
+            + "and its version as ETag."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Created - The resource was stored"),
+        @ApiResponse(responseCode = "400", description = "Bad Request - Missing or invalid name")
+    })
+    @PostMapping
+    public ResponseEntity<ResourceDto> create(@Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                              @RequestBody ResourceRequestDto request) throws HttpMediaTypeNotAcceptableException {
+        MediaType representation = representation(accept);
+        ResourceDto resource = resourceService.create(request);
+        return ResponseEntity.created(location(resource.getId()))
+                .contentType(representation)
+                .eTag(EntityTags.of(resource.getVersion(), representation))
+                .body(resource);
+    }
+
+    /**
+     * Run a batch of resource operations
+     */
+    @Operation(
+        summary = "Bulk Resource Operations",
+        description = "Runs a batch of CREATE, UPDATE and DELETE operations in parallel partitions and answers 207 Multi-Status "
+            + "with the status and resource of every operation. Operations on the same id run in the given order; "
+            + "a failed operation does not stop the others."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "207", description = "Multi-Status - One result per operation, in request order"),
+        @ApiResponse(responseCode = "400", description = "Bad Request - No operations"),
+        @ApiResponse(responseCode = "413", description = "Payload Too Large - More operations than allowed in one request")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResponseDto> bulk(@RequestBody BulkRequestDto request) {
+        return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(resourceService.bulk(request));
+    }
+
+    /**
+     * Load resources from an NDJSON stream
+     */
+    @Operation(
+        summary = "Ingest Resources",
+        description = "Creates one resource per line of an application/x-ndjson body, each line shaped like the body of POST /api/resources. "
+            + "The body is streamed: it is parsed in batches by a bounded worker pool and reading pauses while the workers are busy. "
+            + "Rejected lines are reported in the summary and do not stop the others."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK - Counts and the first rejected lines"),
+        @ApiResponse(responseCode = "415", description = "Unsupported Media Type - The body is not application/x-ndjson")
+    })
+    @PostMapping(value = "/ingest", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<IngestSummaryDto> ingest(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(resourceIngestService.ingest(request.getInputStream()));
+    }
+
+    /**
+     * Get a resource
+     */
+    @Operation(
+        summary = "Get Resource",
+        description = "Returns the current version of a resource with a strong ETag naming its version and representation "
+            + "(JSON, CBOR or Smile, by Accept). With If-None-Match naming the current ETag the answer is 304 Not Modified without a body."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK - The resource"),
+        @ApiResponse(responseCode = "304", description = "Not Modified - The resource is still at the version in If-None-Match"),
+        @ApiResponse(responseCode = "404", description = "Not Found - No resource with this id")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ResourceDto> get(@Parameter(description = "Resource id") @PathVariable long id,
+                                           @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
+            throws HttpMediaTypeNotAcceptableException {
+        MediaType representation = representation(accept);
+        ResourceDto resource = resourceService.get(id);
+        // Spring answers 304 itself when If-None-Match names this ETag
+        return ResponseEntity.ok()
+                .contentType(representation)
+                .eTag(EntityTags.of(resource.getVersion(), representation))
+                .body(resource);
+    }
+
+    /**
+     * Replace a resource
+     */
+    @Operation(
+        summary = "Replace Resource",
+        description = "Replaces the name and data of a resource and returns the new version. "
+            + "With If-Match the replace only happens if the resource is still at the version of that ETag, in any representation, "
+            + "so concurrent writers cannot lose each other's updates."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK - The updated resource"),
+        @ApiResponse(responseCode = "400", description = "Bad Request - Missing or invalid name"),
+        @ApiResponse(responseCode = "404", description = "Not Found - No resource with this id and no If-Match"),
+        @ApiResponse(responseCode = "412", description = "Precondition Failed - The resource changed since the ETag in If-Match, or no longer exists; "
+            + "the current ETag is returned")
+    })
+    @PutMapping("/{id}")
+    public ResponseEntity<ResourceDto> replace(@Parameter(description = "Resource id") @PathVariable long id,
+                                               @Parameter(description = "ETag the change is based on")
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                               @RequestBody ResourceRequestDto request) throws HttpMediaTypeNotAcceptableException {
+        MediaType representation = representation(accept);
+        ResourceDto resource = resourceService.replace(id, request, ifMatch, representation);
+        return ResponseEntity.ok()
+                .contentType(representation)
+                .eTag(EntityTags.of(resource.getVersion(), representation))
+                .body(resource);
+    }
+
+    /**
+     * Delete a resource
+     */
+    @Operation(
+        summary = "Delete Resource",
+        description = "Removes a resource and answers 204 No Content. With If-Match only if it is still at the version of that ETag."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "No Content - The resource was deleted"),
+        @ApiResponse(responseCode = "404", description = "Not Found - No resource with this id and no If-Match"),
+        @ApiResponse(responseCode = "412", description = "Precondition Failed - The resource changed since the ETag in If-Match, or no longer exists")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@Parameter(description = "Resource id") @PathVariable long id,
+                                       @Parameter(description = "ETag the deletion is based on")
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                       @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation;
+        try {
+            representation = representation(accept);
+        } catch (HttpMediaTypeNotAcceptableException ex) {
+            // No body to encode; the type only shapes the current ETag of a 412
+            representation = MediaType.APPLICATION_JSON;
+        }
+        resourceService.delete(id, ifMatch, representation);
+        return ResponseEntity.noContent().build();
+    }
+}
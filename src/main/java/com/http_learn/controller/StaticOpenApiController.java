@@ -0,0 +1,164 @@
+package com.http_learn.controller;
+
+import com.http_learn.exception.ExpectedException;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves the OpenAPI document generated at build time when runtime scanning is off (springdoc.api-docs.enabled=false)
+ *
+ * The document and its gzip variant are loaded once at startup. The plain path is revalidated with a strong ETag,
+ * and a content-addressed path (announced in Content-Location) is immutable for a year
+ */
+@Hidden
+@RestController
+@ConditionalOnProperty(prefix = "springdoc.api-docs", name = "enabled", havingValue = "false")
+public class StaticOpenApiController {
+
+    private static final String DOCUMENT = "openapi/openapi.json";
+    private static final String COMPRESSED_DOCUMENT = DOCUMENT + ".gz";
+    private static final String DOCS_PATH = "${springdoc.api-docs.path:/v3/api-docs}";
+
+    private final byte[] document;
+    private final byte[] compressed;
+    private final String version;
+    private final String etag;
+    private final String versionedPath;
+
+    public StaticOpenApiController(@Value(DOCS_PATH) String docsPath)
+            throws IOException {
+        ClassPathResource resource = new ClassPathResource(DOCUMENT);
+        if (!resource.exists()) {
+            throw new IllegalStateException(DOCUMENT + " is missing from the classpath; bootJar packages it from "
+                    + "src/test/resources/openapi, or set springdoc.api-docs.enabled=true");
+        }
+        this.document = read(resource);
+        ClassPathResource compressedResource = new ClassPathResource(COMPRESSED_DOCUMENT);
+        this.compressed = compressedResource.exists() ? read(compressedResource) : gzip(document);
+        this.version = sha256(document).substring(0, 16);
+        this.etag = "\"" + version + "\"";
+        this.versionedPath = docsPath + "/" + version;
+    }
+
+    /**
+     * Get the OpenAPI document; clients revalidate with If-None-Match
+     *
+     * @param ifNoneMatch the If-None-Match header
+     * @param acceptEncoding the Accept-Encoding header
+     * @return the document, or 304 if the client copy is current
+     */
+    @GetMapping(DOCS_PATH)
+    public ResponseEntity<byte[]> getDocument(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(ifNoneMatch, acceptEncoding, CacheControl.noCache().cachePublic());
+    }
+
+    /**
+     * Get one specific version of the OpenAPI document; never changes, so it is cacheable for a year
+     *
+     * @param version content hash from the Content-Location of the plain path
+     * @param ifNoneMatch the If-None-Match header
+     * @param acceptEncoding the Accept-Encoding header
+     * @return the document, 304 if the client copy is current, 404 for any other version
+     */
+    @GetMapping(DOCS_PATH + "/{version}")
+    public ResponseEntity<byte[]> getVersionedDocument(
+            @PathVariable String version,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (!this.version.equals(version)) {
+            throw new ExpectedException(HttpStatus.NOT_FOUND, "Unknown OpenAPI document version");
+        }
+        return serve(ifNoneMatch, acceptEncoding, CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable());
+    }
+
+    private ResponseEntity<byte[]> serve(String ifNoneMatch, String acceptEncoding, CacheControl cacheControl) {
+        if (ifNoneMatch != null && matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_LOCATION, versionedPath);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? compressed : document);
+    }
+
+    private boolean matches(String ifNoneMatch) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] read(ClassPathResource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
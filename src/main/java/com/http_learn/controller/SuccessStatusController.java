@@ -1,21 +1,37 @@
 package com.http_learn.controller;
 
+import com.http_learn.dto.BulkRequestDto;
+import com.http_learn.dto.ResourceDto;
+import com.http_learn.dto.ResourceRequestDto;
 import com.http_learn.dto.SuccessResponseDto;
 import com.http_learn.enums.SuccessStatusCode;
+import com.http_learn.filter.IdempotencyFilter;
+import com.http_learn.service.EchoService;
+import com.http_learn.service.ResourceService;
 import com.http_learn.service.SuccessStatusService;
+import com.http_learn.service.SyntheticPayloadService;
+import com.http_learn.util.AsyncTimeouts;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
 
 /**
  * REST Controller for successful status codes demonstration
@@ -29,7 +45,14 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*")
 public class SuccessStatusController {
 
+    private static final ResourceRequestDto DEFAULT_RESOURCE = ResourceRequestDto.builder()
+            .name("New Resource")
+            .build();
+
     private final SuccessStatusService successStatusService;
+    private final SyntheticPayloadService syntheticPayloadService;
+    private final EchoService echoService;
+    private final ResourceService resourceService;
 
     /**
      * Get 200 OK status response
@@ -70,13 +93,102 @@ public class SuccessStatusController {
         return ResponseEntity.status(statusCode).body(response);
     }
 
+    /**
+     * Get 200 OK with n bytes of deterministic synthetic data
+     */
+    @Operation(
+        summary = "Get n Synthetic Bytes",
+        description = "Returns exactly n bytes of deterministic pseudo-random data with a Content-Length header. The same n and seed always produce the same bytes. Intended for throughput testing of clients and proxies."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK - n bytes of application/octet-stream"),
+        @ApiResponse(responseCode = "400", description = "Bad Request - n is negative or above the configured maximum")
+    })
+    @GetMapping("/ok/bytes/{n}")
+    public ResponseEntity<StreamingResponseBody> getBytes(
+            @Parameter(description = "Number of bytes to return") @PathVariable long n,
+            @Parameter(description = "Selects the byte sequence") @RequestParam(defaultValue = "0") long seed,
+            HttpServletRequest request) {
+        log.debug("Handling request for {} synthetic bytes with seed {}", n, seed);
+
+        StreamingResponseBody body = syntheticPayloadService.fixedBody(n, seed);
+        AsyncTimeouts.set(request, syntheticPayloadService.getStreamTimeout());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(n)
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
+    /**
+     * Get 200 OK with n bytes of deterministic synthetic data, streamed in flushed chunks
+     */
+    @Operation(
+        summary = "Stream n Synthetic Bytes",
+        description = "Streams n bytes of deterministic pseudo-random data using chunked transfer encoding, flushing after every chunk."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK - n bytes of application/octet-stream, chunked"),
+        @ApiResponse(responseCode = "400", description = "Bad Request - n or chunk out of range")
+    })
+    @GetMapping("/ok/stream-bytes/{n}")
+    public ResponseEntity<StreamingResponseBody> streamBytes(
+            @Parameter(description = "Number of bytes to return") @PathVariable long n,
+            @Parameter(description = "Selects the byte sequence") @RequestParam(defaultValue = "0") long seed,
+            @Parameter(description = "Bytes per flushed chunk") @RequestParam(defaultValue = "65536") int chunk,
+            HttpServletRequest request) {
+        log.debug("Handling streaming request for {} synthetic bytes with seed {} in chunks of {}", n, seed, chunk);
+
+        StreamingResponseBody body = syntheticPayloadService.chunkedBody(n, seed, chunk);
+        AsyncTimeouts.set(request, syntheticPayloadService.getStreamTimeout());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
+    /**
+     * Echo the request body back as the response body
+     */
+    @Operation(
+        summary = "Echo Request Body",
+        description = "Streams the request body straight back with the same Content-Type, Content-Encoding and Content-Length. The body is copied through a pooled buffer and never held in memory, and response bytes start flowing before the upload finishes. Intended for round-trip throughput testing of proxies and clients."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK - the request body, byte for byte")
+    })
+    @RequestMapping(value = "/echo", method = {RequestMethod.POST, RequestMethod.PUT})
+    public ResponseEntity<StreamingResponseBody> echo(HttpServletRequest request) throws IOException {
+        log.debug("Handling echo request of {} bytes", request.getContentLengthLong());
+
+        String contentType = request.getContentType();
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        long contentLength = request.getContentLengthLong();
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                .cacheControl(CacheControl.noStore());
+        if (contentEncoding != null) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        }
+        if (contentLength >= 0) {
+            builder.contentLength(contentLength);
+        }
+        AsyncTimeouts.set(request, echoService.getStreamTimeout());
+        return builder.body(echoService.echoBody(request.getInputStream()));
+    }
+
     /**
      * Get 201 Created status response
      */
     @Operation(
         summary = "Get 201 Created Status",
-        description = "Returns a 201 Created status response. Used when a new resource has been created."
+        description = "Creates a real resource (from the optional body, or a default one) and returns 201 Created with its URL in the Location header. "
+            + "With an Idempotency-Key header the request runs once; retries with the same key and body get the stored response back, marked with Idempotent-Replayed: true."
     )
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.KEY_HEADER, description = "Client-chosen key that makes retries of this request safe, e.g. a UUID")
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "201",
@@ -85,16 +197,20 @@ public class SuccessStatusController {
                 mediaType = "application/json",
                 schema = @Schema(implementation = SuccessResponseDto.class)
             )
-        )
+        ),
+        @ApiResponse(responseCode = "409", description = "Conflict - The original request with this Idempotency-Key is still running or failed"),
+        @ApiResponse(responseCode = "422", description = "Unprocessable Content - The Idempotency-Key was already used for a different request body")
     })
     @PostMapping("/created")
-    public ResponseEntity<SuccessResponseDto> getCreated() {
+    public ResponseEntity<SuccessResponseDto> getCreated(@RequestBody(required = false) ResourceRequestDto request) {
         log.info("Handling request for 201 Created status");
-        
-        SuccessResponseDto response = successStatusService.getStatusResponseWithData(SuccessStatusCode.CREATED, "POST");
-        int statusCode = successStatusService.getHttpStatusCode(SuccessStatusCode.CREATED);
-        
-        return ResponseEntity.status(statusCode).body(response);
+
+        ResourceDto resource = resourceService.create(request != null ? request : DEFAULT_RESOURCE);
+        SuccessResponseDto response = successStatusService.getStatusResponse(SuccessStatusCode.CREATED);
+        response.setMethod("POST");
+        response.setData(resource);
+
+        return ResponseEntity.created(ResourceController.location(resource.getId())).body(response);
     }
 
     /**
@@ -117,10 +233,10 @@ public class SuccessStatusController {
     @PostMapping("/accepted")
     public ResponseEntity<SuccessResponseDto> getAccepted() {
         log.info("Handling request for 202 Accepted status");
-        
+
         SuccessResponseDto response = successStatusService.getStatusResponseWithData(SuccessStatusCode.ACCEPTED, "POST");
         int statusCode = successStatusService.getHttpStatusCode(SuccessStatusCode.ACCEPTED);
-        
+
         return ResponseEntity.status(statusCode).body(response);
     }
 
@@ -129,7 +245,7 @@ public class SuccessStatusController {
      */
     @Operation(
         summary = "Get 204 No Content Status",
-        description = "Returns a 204 No Content status response. Used when no content should be returned."
+        description = "Returns a 204 No Content status response. Used when no content should be returned. With ?id= the resource with that id is deleted first (404 if there is none)."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -139,11 +255,17 @@ public class SuccessStatusController {
                 mediaType = "application/json",
                 schema = @Schema(implementation = SuccessResponseDto.class)
             )
-        )
+        ),
+        @ApiResponse(responseCode = "404", description = "Not Found - No resource with the given id")
     })
     @DeleteMapping("/no-content")
-    public ResponseEntity<SuccessResponseDto> getNoContent() {
+    public ResponseEntity<SuccessResponseDto> getNoContent(
+            @Parameter(description = "Id of a resource to delete") @RequestParam(required = false) Long id) {
         log.info("Handling request for 204 No Content status");
+
+        if (id != null) {
+            resourceService.delete(id);
+        }
         
         SuccessResponseDto response = successStatusService.getStatusResponse(SuccessStatusCode.NO_CONTENT);
         int statusCode = successStatusService.getHttpStatusCode(SuccessStatusCode.NO_CONTENT);
@@ -172,10 +294,10 @@ public class SuccessStatusController {
     public ResponseEntity<SuccessResponseDto> getPartialContent(
             @RequestHeader(value = "Range", required = false) String rangeHeader) {
         log.info("Handling request for 206 Partial Content status with range: {}", rangeHeader);
-        
+
         SuccessResponseDto response = successStatusService.getStatusResponseWithData(SuccessStatusCode.PARTIAL_CONTENT, "GET");
         int statusCode = successStatusService.getHttpStatusCode(SuccessStatusCode.PARTIAL_CONTENT);
-        
+
         return ResponseEntity.status(statusCode)
                 .header("Content-Range", "bytes 0-1023/2048")
                 .body(response);
@@ -213,7 +335,8 @@ public class SuccessStatusController {
      */
     @Operation(
         summary = "Get 203 Non-Authoritative Information Status",
-        description = "Returns a 203 Non-Authoritative Information status response. Used when response is modified by proxy."
+        description = "Returns a 203 Non-Authoritative Information status response. Used when response is modified by proxy. "
+            + "GET /api/proxy/{route}/... answers 203 for real when it projects or transcodes an upstream response."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -240,7 +363,8 @@ public class SuccessStatusController {
      */
     @Operation(
         summary = "Get 207 Multi-Status Status",
-        description = "Returns a 207 Multi-Status status response. Used in WebDAV for multiple operations."
+        description = "Returns a 207 Multi-Status status response. Used in WebDAV for multiple operations. "
+            + "With a body of resource operations they are run like POST /api/resources/bulk and their results returned in data."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -253,10 +377,14 @@ public class SuccessStatusController {
         )
     })
     @PostMapping("/multi-status")
-    public ResponseEntity<SuccessResponseDto> getMultiStatus() {
+    public ResponseEntity<SuccessResponseDto> getMultiStatus(@RequestBody(required = false) BulkRequestDto request) {
         log.info("Handling request for 207 Multi-Status status");
         
         SuccessResponseDto response = successStatusService.getStatusResponse(SuccessStatusCode.MULTI_STATUS);
+        if (request != null) {
+            response.setMethod("POST");
+            response.setData(resourceService.bulk(request));
+        }
         int statusCode = successStatusService.getHttpStatusCode(SuccessStatusCode.MULTI_STATUS);
         
         return ResponseEntity.status(statusCode).body(response);
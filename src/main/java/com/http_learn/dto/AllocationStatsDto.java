@@ -0,0 +1,38 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Heap allocation per request of one route
+ */
+@Value
+@Builder
+@Schema(description = "Heap allocation per request of one route")
+public class AllocationStatsDto {
+
+    @Schema(description = "HTTP method and route pattern", example = "GET /api/success/ok/bytes/{n}")
+    String route;
+
+    @Schema(description = "Requests measured")
+    long requests;
+
+    @Schema(description = "Bytes allocated by all measured requests")
+    long totalBytes;
+
+    @Schema(description = "Mean bytes allocated per request")
+    long meanBytes;
+
+    @Schema(description = "Median bytes per request (within 12.5%)")
+    long p50Bytes;
+
+    @Schema(description = "90th percentile of bytes per request (within 12.5%)")
+    long p90Bytes;
+
+    @Schema(description = "99th percentile of bytes per request (within 12.5%)")
+    long p99Bytes;
+
+    @Schema(description = "Largest allocation of a single request")
+    long maxBytes;
+}
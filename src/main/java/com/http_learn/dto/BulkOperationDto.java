@@ -0,0 +1,32 @@
+package com.http_learn.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.http_learn.enums.BulkOperationType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One operation of a bulk request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One create, update or delete in a bulk request")
+public class BulkOperationDto {
+
+    @Schema(description = "What to do", example = "UPDATE", requiredMode = Schema.RequiredMode.REQUIRED)
+    private BulkOperationType op;
+
+    @Schema(description = "Resource id; required for UPDATE and DELETE", example = "123")
+    private Long id;
+
+    @Schema(description = "Display name for CREATE and UPDATE, 1 to 200 characters", example = "New Resource")
+    private String name;
+
+    @Schema(description = "JSON document stored with the resource for CREATE and UPDATE", type = "object", example = "{\"color\": \"blue\"}")
+    private JsonNode data;
+}
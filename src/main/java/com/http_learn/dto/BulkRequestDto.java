@@ -0,0 +1,23 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of a bulk request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A batch of resource operations")
+public class BulkRequestDto {
+
+    @Schema(description = "Operations; those on the same id run in the given order", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<BulkOperationDto> operations;
+}
@@ -0,0 +1,28 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Body of a 207 Multi-Status answer to a bulk request
+ */
+@Value
+@Builder
+@Schema(description = "Per-operation outcomes of a bulk request")
+public class BulkResponseDto {
+
+    @Schema(description = "Number of operations", example = "3")
+    int total;
+
+    @Schema(description = "Operations that succeeded", example = "2")
+    int succeeded;
+
+    @Schema(description = "Operations that failed", example = "1")
+    int failed;
+
+    @Schema(description = "One result per operation, in request order")
+    List<BulkResultDto> results;
+}
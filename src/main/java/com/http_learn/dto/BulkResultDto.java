@@ -0,0 +1,28 @@
+package com.http_learn.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Outcome of one operation of a bulk request
+ */
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one operation of a bulk request")
+public class BulkResultDto {
+
+    @Schema(description = "Position of the operation in the request", example = "0")
+    int index;
+
+    @Schema(description = "HTTP status the operation would have been answered with on its own", example = "201")
+    int status;
+
+    @Schema(description = "The resource after a successful CREATE or UPDATE")
+    ResourceDto resource;
+
+    @Schema(description = "Why the operation failed", example = "Resource 123 does not exist")
+    String error;
+}
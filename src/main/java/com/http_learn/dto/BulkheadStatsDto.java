@@ -0,0 +1,47 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Saturation metrics of one bulkhead
+ */
+@Value
+@Builder
+@Schema(description = "Saturation metrics of one bulkhead executor")
+public class BulkheadStatsDto {
+
+    @Schema(description = "Bulkhead name", example = "uploads")
+    String name;
+
+    @Schema(description = "Worker threads")
+    int threads;
+
+    @Schema(description = "Workers currently running a request")
+    int activeThreads;
+
+    @Schema(description = "Maximum queued requests")
+    int queueCapacity;
+
+    @Schema(description = "Requests waiting for a worker")
+    int queued;
+
+    @Schema(description = "What happens when the bulkhead is full", example = "ABORT")
+    String rejectionPolicy;
+
+    @Schema(description = "Requests submitted since startup")
+    long submitted;
+
+    @Schema(description = "Requests completed since startup")
+    long completed;
+
+    @Schema(description = "Requests shed since startup")
+    long rejected;
+
+    @Schema(description = "Requests that failed with an exception since startup")
+    long failed;
+
+    @Schema(description = "Average time a request waited for a worker, in milliseconds")
+    double averageQueueWaitMs;
+}
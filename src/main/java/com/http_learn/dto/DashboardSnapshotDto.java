@@ -0,0 +1,25 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Per-route traffic aggregated once per second for the live dashboard
+ */
+@Value
+@Builder
+@Schema(description = "Per-route traffic aggregated once per second for the live dashboard")
+public class DashboardSnapshotDto {
+
+    @Schema(description = "When the snapshot was taken (epoch milliseconds)")
+    long timestamp;
+
+    @Schema(description = "Length of the rolling window in seconds")
+    int windowSeconds;
+
+    @Schema(description = "Routes with traffic in the window, busiest first")
+    List<RouteMetricsDto> routes;
+}
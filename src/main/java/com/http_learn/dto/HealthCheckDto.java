@@ -0,0 +1,29 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Result of a single health check
+ */
+@Value
+@Builder
+@Schema(description = "Result of a single background health check")
+public class HealthCheckDto {
+
+    @Schema(description = "Check name", example = "heap")
+    String name;
+
+    @Schema(description = "UP when the observed value is within the threshold, DOWN otherwise", example = "UP")
+    String status;
+
+    @Schema(description = "Observed value", example = "0.63")
+    double observed;
+
+    @Schema(description = "Threshold the observed value is compared against", example = "0.1")
+    double threshold;
+
+    @Schema(description = "What the values mean", example = "free share of old generation after last GC (min)")
+    String detail;
+}
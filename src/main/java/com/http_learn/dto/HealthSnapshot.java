@@ -0,0 +1,41 @@
+package com.http_learn.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Immutable health verdict published by the background evaluator
+ */
+@Value
+@Builder
+@Schema(description = "Latest health verdict of the application")
+public class HealthSnapshot {
+
+    @Schema(description = "UP when ready, OUT_OF_SERVICE when live but not ready, DOWN when not live", example = "UP")
+    String status;
+
+    @Schema(description = "Human-readable summary", example = "HTTP Learn API is running")
+    String message;
+
+    @Schema(description = "Epoch millis at which the checks were evaluated")
+    long timestamp;
+
+    @Schema(description = "Whether the process is healthy enough to keep running")
+    boolean live;
+
+    @Schema(description = "Whether the instance should receive traffic")
+    boolean ready;
+
+    @Schema(description = "Individual check results")
+    List<HealthCheckDto> checks;
+
+    /**
+     * Monotonic evaluation time, used to detect a stalled evaluator
+     */
+    @JsonIgnore
+    long evaluatedAtNanos;
+}
@@ -0,0 +1,46 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Rolling summary of the methods most often found running by JFR execution sampling
+ */
+@Value
+@Builder
+@Schema(description = "Rolling summary of the methods most often found running by JFR execution sampling")
+public class HotMethodsDto {
+
+    @Schema(description = "Length of the period summarised, in seconds")
+    long periodSeconds;
+
+    @Schema(description = "Execution samples taken in the period")
+    long samples;
+
+    @Schema(description = "Methods on top of the stack (self time), most sampled first")
+    List<Method> topFrames;
+
+    @Schema(description = "Innermost application (com.http_learn) method on the stack, most sampled first")
+    List<Method> applicationFrames;
+
+    /**
+     * One sampled method
+     */
+    @Value
+    @Builder
+    @Schema(description = "One sampled method")
+    public static class Method {
+
+        @Schema(description = "Declaring class and method name", example = "com.fasterxml.jackson.core.json.UTF8JsonGenerator.writeString")
+        String method;
+
+        @Schema(description = "Samples attributed to the method")
+        long samples;
+
+        @Schema(description = "Share of all samples in the period, in percent")
+        double percent;
+    }
+}
@@ -0,0 +1,20 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A line of an ingest request that could not be stored
+ */
+@Value
+@Builder
+@Schema(description = "A line of an ingest request that could not be stored")
+public class IngestErrorDto {
+
+    @Schema(description = "Line number, starting at 1", example = "42")
+    long line;
+
+    @Schema(description = "Why the line was rejected", example = "name must be 1 to 200 characters")
+    String error;
+}
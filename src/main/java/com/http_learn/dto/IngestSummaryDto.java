@@ -0,0 +1,31 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of an NDJSON ingest request
+ */
+@Value
+@Builder
+@Schema(description = "Outcome of an NDJSON ingest request")
+public class IngestSummaryDto {
+
+    @Schema(description = "Non-blank lines read", example = "1000000")
+    long lines;
+
+    @Schema(description = "Resources created", example = "999998")
+    long created;
+
+    @Schema(description = "Lines rejected", example = "2")
+    long failed;
+
+    @Schema(description = "Time from the first byte read to the last resource stored", example = "2140")
+    long elapsedMs;
+
+    @Schema(description = "The rejected lines with the lowest numbers; at most http-learn.resources.ingest-max-errors")
+    List<IngestErrorDto> errors;
+}
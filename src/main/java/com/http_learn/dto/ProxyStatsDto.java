@@ -0,0 +1,41 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Metrics of the caching reverse proxy
+ */
+@Value
+@Builder
+@Schema(description = "Metrics of the caching reverse proxy")
+public class ProxyStatsDto {
+
+    @Schema(description = "Cached or in-flight upstream responses")
+    long entries;
+
+    @Schema(description = "Current weight of cached responses in bytes")
+    long bytes;
+
+    @Schema(description = "Weight limit in bytes")
+    long maxBytes;
+
+    @Schema(description = "Requests served from a fresh cached response")
+    long hits;
+
+    @Schema(description = "Requests that joined a fetch already in flight")
+    long coalesced;
+
+    @Schema(description = "Requests that started an upstream fetch")
+    long misses;
+
+    @Schema(description = "Responses transformed by the proxy and answered with 203")
+    long transformed;
+
+    @Schema(description = "Upstream fetches that failed, timed out or exceeded the body limit")
+    long upstreamErrors;
+
+    @Schema(description = "Cached responses evicted to stay within the entry and weight limits")
+    long evictions;
+}
@@ -0,0 +1,37 @@
+package com.http_learn.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.http_learn.util.RawJsonSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * A stored resource
+ */
+@Value
+@Builder
+@Schema(description = "A stored resource")
+public class ResourceDto {
+
+    @Schema(description = "Identifier assigned on creation", example = "123")
+    long id;
+
+    @Schema(description = "Starts at 1 and grows by one with every update", example = "1")
+    long version;
+
+    @Schema(description = "Display name", example = "New Resource")
+    String name;
+
+    @JsonSerialize(using = RawJsonSerializer.class)
+    @Schema(description = "Arbitrary JSON document stored with the resource", type = "object")
+    byte[] data;
+
+    @Schema(description = "Creation time")
+    Instant createdAt;
+
+    @Schema(description = "Time of the last update")
+    Instant updatedAt;
+}
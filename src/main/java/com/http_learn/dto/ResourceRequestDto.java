@@ -0,0 +1,25 @@
+package com.http_learn.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of a request creating or replacing a resource
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Body of a request creating or replacing a resource")
+public class ResourceRequestDto {
+
+    @Schema(description = "Display name, 1 to 200 characters", example = "New Resource", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String name;
+
+    @Schema(description = "Arbitrary JSON document stored with the resource", type = "object", example = "{\"color\": \"blue\"}")
+    private JsonNode data;
+}
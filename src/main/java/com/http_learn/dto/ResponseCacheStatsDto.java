@@ -0,0 +1,41 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Metrics of the in-process response cache
+ */
+@Value
+@Builder
+@Schema(description = "Metrics of the in-process response cache")
+public class ResponseCacheStatsDto {
+
+    @Schema(description = "Cached URLs, each holding one or more Vary variants")
+    long urls;
+
+    @Schema(description = "Current weight of cached responses in bytes")
+    long bytes;
+
+    @Schema(description = "Weight limit in bytes")
+    long maxBytes;
+
+    @Schema(description = "Requests served from a fresh entry")
+    long hits;
+
+    @Schema(description = "Requests served from a stale entry while it was revalidated")
+    long staleHits;
+
+    @Schema(description = "Cacheable requests that had to go to the handler")
+    long misses;
+
+    @Schema(description = "Responses stored")
+    long stores;
+
+    @Schema(description = "URLs evicted to stay within the weight limit")
+    long evictions;
+
+    @Schema(description = "Background revalidations started")
+    long revalidations;
+}
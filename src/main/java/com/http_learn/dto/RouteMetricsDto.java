@@ -0,0 +1,35 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Traffic of one route over the rolling window
+ */
+@Value
+@Builder
+@Schema(description = "Traffic of one route over the rolling window")
+public class RouteMetricsDto {
+
+    @Schema(description = "HTTP method and route pattern", example = "GET /api/success/ok")
+    String route;
+
+    @Schema(description = "Requests in the window")
+    long requests;
+
+    @Schema(description = "Requests per second")
+    double requestsPerSecond;
+
+    @Schema(description = "Share of responses with a 5xx status, between 0 and 1")
+    double errorRate;
+
+    @Schema(description = "Median latency in milliseconds (within 12.5%)")
+    double p50Ms;
+
+    @Schema(description = "90th percentile latency in milliseconds (within 12.5%)")
+    double p90Ms;
+
+    @Schema(description = "99th percentile latency in milliseconds (within 12.5%)")
+    double p99Ms;
+}
@@ -0,0 +1,29 @@
+package com.http_learn.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Progress and outcome of the JIT warm-up phase
+ */
+@Value
+@Builder
+@Schema(description = "Progress and outcome of the JIT warm-up phase")
+public class WarmupStatusDto {
+
+    @Schema(description = "PENDING, RUNNING, SETTLED, TIMED_OUT, FAILED or DISABLED", example = "SETTLED")
+    String state;
+
+    @Schema(description = "Time spent warming up so far, in milliseconds")
+    long durationMs;
+
+    @Schema(description = "Warm-up requests sent")
+    long requests;
+
+    @Schema(description = "Warm-up requests that failed to get any response")
+    long failures;
+
+    @Schema(description = "Time the JIT spent compiling during warm-up, in milliseconds, -1 if not supported")
+    long compilationTimeMs;
+}
@@ -0,0 +1,22 @@
+package com.http_learn.enums;
+
+/**
+ * Enum representing the resource operations allowed in a bulk request
+ */
+public enum BulkOperationType {
+
+    /**
+     * Create a resource; answered with 201
+     */
+    CREATE,
+
+    /**
+     * Replace the name and data of a resource; answered with 200
+     */
+    UPDATE,
+
+    /**
+     * Delete a resource; answered with 204
+     */
+    DELETE
+}
@@ -0,0 +1,92 @@
+package com.http_learn.enums;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Enum representing the latency profiles available for simulated slow responses
+ */
+public enum LatencyDistribution {
+
+    /**
+     * Always exactly the requested delay
+     */
+    FIXED {
+        @Override
+        public long sample(long delayNanos, long jitterNanos, RandomGenerator random) {
+            return delayNanos;
+        }
+    },
+
+    /**
+     * Uniform between delay - jitter and delay + jitter
+     */
+    UNIFORM {
+        @Override
+        public long sample(long delayNanos, long jitterNanos, RandomGenerator random) {
+            if (jitterNanos <= 0) {
+                return delayNanos;
+            }
+            return delayNanos - jitterNanos + random.nextLong(2 * jitterNanos + 1);
+        }
+    },
+
+    /**
+     * Normal with mean delay and standard deviation jitter
+     */
+    NORMAL {
+        @Override
+        public long sample(long delayNanos, long jitterNanos, RandomGenerator random) {
+            return delayNanos + (long) (random.nextGaussian() * jitterNanos);
+        }
+    },
+
+    /**
+     * Exponential with mean delay, a memoryless service time; jitter is ignored
+     */
+    EXPONENTIAL {
+        @Override
+        public long sample(long delayNanos, long jitterNanos, RandomGenerator random) {
+            return (long) (random.nextExponential() * delayNanos);
+        }
+    },
+
+    /**
+     * Log-normal with median delay, the long-tailed shape of real backend latency;
+     * jitter sets the spread (sigma = ln(1 + jitter / delay))
+     */
+    LOGNORMAL {
+        @Override
+        public long sample(long delayNanos, long jitterNanos, RandomGenerator random) {
+            if (delayNanos <= 0) {
+                return 0;
+            }
+            double sigma = Math.log1p((double) Math.max(0, jitterNanos) / delayNanos);
+            return (long) (delayNanos * Math.exp(sigma * random.nextGaussian()));
+        }
+    };
+
+    /**
+     * Draw one delay
+     *
+     * @param delayNanos central delay (mean or median depending on the distribution)
+     * @param jitterNanos spread around the central delay
+     * @param random random source
+     * @return delay in nanoseconds, may be negative and must be clamped by the caller
+     */
+    public abstract long sample(long delayNanos, long jitterNanos, RandomGenerator random);
+
+    /**
+     * Resolve a distribution from a query parameter
+     *
+     * @param value case-insensitive name, null for FIXED
+     * @return the distribution
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static LatencyDistribution fromParameter(String value) {
+        if (value == null || value.isEmpty()) {
+            return FIXED;
+        }
+        return valueOf(value.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,36 @@
+package com.http_learn.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base class for errors that are part of normal request handling (bad input, missing resources, overload)
+ * These exceptions are stackless: filling in a stack trace is the most expensive part of throwing,
+ * and the trace carries no information for an error the application raises on purpose
+ */
+@Getter
+public class ExpectedException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    /**
+     * Create an expected exception
+     *
+     * @param status the HTTP status to answer with
+     * @param message client-safe detail, echoed in the problem response
+     */
+    public ExpectedException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+
+    /**
+     * Extra headers to send with the problem response
+     *
+     * @return headers, or null if there are none
+     */
+    public HttpHeaders getHeaders() {
+        return null;
+    }
+}
@@ -1,83 +1,121 @@
 package com.http_learn.exception;
 
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.context.request.WebRequest;
-
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Global exception handler for the application
- * Provides consistent error responses across all endpoints
+ * Provides consistent RFC 9457 problem responses across all endpoints
+ *
+ * Error handling is kept cheap because a client flooding the service with bad requests turns it into the hot path:
+ * bodies are rendered from preallocated templates, unexpected failures never echo their message,
+ * and logging is deduplicated per exception signature
  */
 @Slf4j
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String INTERNAL_ERROR_DETAIL = "An unexpected error occurred";
+
+    private final ThrottledExceptionLogger throttledLog;
+
+    public GlobalExceptionHandler(@Value("${http-learn.errors.log-interval-ms:10000}") long logIntervalMillis) {
+        this.throttledLog = new ThrottledExceptionLogger(log, logIntervalMillis);
+    }
+
     /**
      * Handle generic exceptions
-     * 
+     * The exception message is logged but never returned, since it may expose internals
+     *
      * @param ex the exception
-     * @param request the web request
-     * @return ResponseEntity with error details
+     * @param request the servlet request
+     * @return ResponseEntity with problem details
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex, WebRequest request) {
-        log.error("Unhandled exception occurred: {}", ex.getMessage(), ex);
-        
-        Map<String, Object> errorResponse = createErrorResponse(
-            HttpStatus.INTERNAL_SERVER_ERROR,
-            "Internal Server Error",
-            ex.getMessage(),
-            request.getDescription(false)
-        );
-        
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    public ResponseEntity<byte[]> handleGenericException(Exception ex, HttpServletRequest request) {
+        throttledLog.error(ex, request.getRequestURI());
+
+        return problem(ProblemTemplate.of(HttpStatus.INTERNAL_SERVER_ERROR), INTERNAL_ERROR_DETAIL, request, null);
+    }
+
+    /**
+     * Handle errors the application raises on purpose
+     * These are stackless and logged at debug level only
+     *
+     * @param ex the exception
+     * @param request the servlet request
+     * @return ResponseEntity with problem details
+     */
+    @ExceptionHandler(ExpectedException.class)
+    public ResponseEntity<byte[]> handleExpectedException(ExpectedException ex, HttpServletRequest request) {
+        log.debug("Expected exception on {}: {} {}", request.getRequestURI(), ex.getStatus().value(), ex.getMessage());
+
+        return problem(ProblemTemplate.of(ex.getStatus()), ex.getMessage(), request, ex.getHeaders());
     }
 
     /**
      * Handle IllegalArgumentException
-     * 
+     *
      * @param ex the exception
-     * @param request the web request
-     * @return ResponseEntity with error details
+     * @param request the servlet request
+     * @return ResponseEntity with problem details
      */
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
-        log.warn("Illegal argument exception: {}", ex.getMessage());
-        
-        Map<String, Object> errorResponse = createErrorResponse(
-            HttpStatus.BAD_REQUEST,
-            "Bad Request",
-            ex.getMessage(),
-            request.getDescription(false)
-        );
-        
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    public ResponseEntity<byte[]> handleIllegalArgumentException(IllegalArgumentException ex, HttpServletRequest request) {
+        throttledLog.warn(ex, request.getRequestURI());
+
+        return problem(ProblemTemplate.of(HttpStatus.BAD_REQUEST), ex.getMessage(), request, null);
+    }
+
+    /**
+     * Handle malformed requests rejected by Spring MVC before reaching a controller
+     * (unknown paths, unsupported methods or media types, unreadable bodies, bad parameters)
+     *
+     * @param ex the exception
+     * @param request the servlet request
+     * @return ResponseEntity with problem details
+     */
+    @ExceptionHandler({ServletException.class, HttpMessageNotReadableException.class, TypeMismatchException.class})
+    public ResponseEntity<byte[]> handleRequestException(Exception ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        HttpHeaders headers = null;
+        if (ex instanceof ErrorResponse errorResponse) {
+            HttpStatus resolved = HttpStatus.resolve(errorResponse.getStatusCode().value());
+            status = resolved != null ? resolved : HttpStatus.BAD_REQUEST;
+            headers = errorResponse.getHeaders();
+        }
+        throttledLog.warn(ex, request.getRequestURI());
+
+        ProblemTemplate template = ProblemTemplate.of(status);
+        return problem(template, status.getReasonPhrase(), request, headers);
     }
 
     /**
-     * Create a standardized error response
-     * 
-     * @param status the HTTP status
-     * @param error the error type
-     * @param message the error message
-     * @param path the request path
-     * @return Map containing error details
+     * Build a problem response from a template
+     *
+     * @param template the preallocated template
+     * @param detail client-safe detail
+     * @param request the servlet request
+     * @param headers extra headers to carry over (e.g. Allow), may be null
+     * @return ResponseEntity with an application/problem+json body
      */
-    private Map<String, Object> createErrorResponse(HttpStatus status, String error, String message, String path) {
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("timestamp", LocalDateTime.now());
-        errorResponse.put("status", status.value());
-        errorResponse.put("error", error);
-        errorResponse.put("message", message);
-        errorResponse.put("path", path);
-        
-        return errorResponse;
+    private ResponseEntity<byte[]> problem(ProblemTemplate template, String detail, HttpServletRequest request, HttpHeaders headers) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(template.getStatus())
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON);
+        if (headers != null && !headers.isEmpty()) {
+            builder.headers(headers);
+        }
+        return builder.body(template.render(detail, request.getRequestURI()));
     }
-} 
\ No newline at end of file
+}
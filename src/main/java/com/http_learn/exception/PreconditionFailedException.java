@@ -0,0 +1,33 @@
+package com.http_learn.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Raised when an If-Match precondition does not hold
+ * Answered with 412 and the current ETag, if the resource still exists, so the client can re-read and retry
+ */
+public class PreconditionFailedException extends ExpectedException {
+
+    private final String currentETag;
+
+    /**
+     * Create a precondition failure
+     *
+     * @param message client-safe detail
+     * @param currentETag ETag of the current version, or null if there is none
+     */
+    public PreconditionFailedException(String message, String currentETag) {
+        super(HttpStatus.PRECONDITION_FAILED, message);
+        this.currentETag = currentETag;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (currentETag != null) {
+            headers.setETag(currentETag);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,87 @@
+package com.http_learn.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Preallocated RFC 9457 problem document for one HTTP status
+ * The constant part of the JSON body is encoded once; rendering only appends the detail and instance members
+ */
+public final class ProblemTemplate {
+
+    private static final byte[] DETAIL = bytes(",\"detail\":\"");
+    private static final byte[] INSTANCE = bytes("\",\"instance\":\"");
+    private static final byte[] END = bytes("\"}");
+
+    private static final Map<HttpStatus, ProblemTemplate> TEMPLATES = new EnumMap<>(HttpStatus.class);
+
+    static {
+        for (HttpStatus status : HttpStatus.values()) {
+            TEMPLATES.put(status, new ProblemTemplate(status));
+        }
+    }
+
+    private final HttpStatus status;
+    private final byte[] prefix;
+
+    private ProblemTemplate(HttpStatus status) {
+        this.status = status;
+        this.prefix = bytes("{\"type\":\"about:blank\",\"title\":\"" + status.getReasonPhrase()
+                + "\",\"status\":" + status.value());
+    }
+
+    /**
+     * Get the template for a status
+     *
+     * @param status the HTTP status
+     * @return the shared template
+     */
+    public static ProblemTemplate of(HttpStatus status) {
+        return TEMPLATES.get(status);
+    }
+
+    /**
+     * Get the status this template describes
+     *
+     * @return the HTTP status
+     */
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Render the problem document
+     *
+     * @param detail human-readable explanation, must be safe to show to clients
+     * @param instance the request path the problem occurred on
+     * @return UTF-8 encoded application/problem+json body
+     */
+    public byte[] render(String detail, String instance) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        byte[] quotedDetail = encoder.quoteAsUTF8(detail != null ? detail : status.getReasonPhrase());
+        byte[] quotedInstance = encoder.quoteAsUTF8(instance != null ? instance : "");
+
+        byte[] body = new byte[prefix.length + DETAIL.length + quotedDetail.length
+                + INSTANCE.length + quotedInstance.length + END.length];
+        int position = append(body, 0, prefix);
+        position = append(body, position, DETAIL);
+        position = append(body, position, quotedDetail);
+        position = append(body, position, INSTANCE);
+        position = append(body, position, quotedInstance);
+        append(body, position, END);
+        return body;
+    }
+
+    private static int append(byte[] target, int position, byte[] source) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
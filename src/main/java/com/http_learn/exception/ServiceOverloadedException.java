@@ -0,0 +1,31 @@
+package com.http_learn.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Raised when a request is shed because a bounded resource is full
+ * Answered with 503 and a Retry-After header
+ */
+public class ServiceOverloadedException extends ExpectedException {
+
+    private final int retryAfterSeconds;
+
+    /**
+     * Create an overload exception
+     *
+     * @param message client-safe detail
+     * @param retryAfterSeconds value of the Retry-After header
+     */
+    public ServiceOverloadedException(String message, int retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Integer.toString(retryAfterSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,171 @@
+package com.http_learn.exception;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate-limited exception logger
+ * Occurrences are deduplicated by signature (exception type plus throwing frame); each signature
+ * logs at most once per interval and reports how many similar occurrences were suppressed in between.
+ * Once MAX_SIGNATURES are tracked, signatures whose interval has elapsed are evicted (at most once per
+ * interval) to make room; only while none are idle do new signatures share a single overflow window
+ */
+public class ThrottledExceptionLogger {
+
+    /**
+     * Upper bound on tracked signatures, so a flood of distinct failures cannot grow the map without limit
+     */
+    static final int MAX_SIGNATURES = 1024;
+
+    private static final Signature OVERFLOW = new Signature(Throwable.class, null);
+
+    private final Logger log;
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<Signature, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong nextEvictionNanos = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Create a logger using the system clock
+     *
+     * @param log the logger to write to
+     * @param intervalMillis minimum time between two full reports of the same signature
+     */
+    public ThrottledExceptionLogger(Logger log, long intervalMillis) {
+        this(log, intervalMillis, System::nanoTime);
+    }
+
+    ThrottledExceptionLogger(Logger log, long intervalMillis, LongSupplier nanoClock) {
+        this.log = log;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Log an unexpected failure at ERROR with its stack trace, unless the same signature was logged recently
+     *
+     * @param ex the exception
+     * @param path the request path, for context
+     * @return true if the occurrence was written to the log
+     */
+    public boolean error(Throwable ex, String path) {
+        long now = nanoClock.getAsLong();
+        long suppressed = windowFor(ex, now).tryAcquire(now, intervalNanos);
+        if (suppressed < 0) {
+            return false;
+        }
+        if (suppressed > 0) {
+            log.error("Unhandled {} on {} ({} similar occurrences suppressed)", ex.getClass().getName(), path, suppressed, ex);
+        } else {
+            log.error("Unhandled {} on {}", ex.getClass().getName(), path, ex);
+        }
+        return true;
+    }
+
+    /**
+     * Log a client-caused failure at WARN without a stack trace, unless the same signature was logged recently
+     *
+     * @param ex the exception
+     * @param path the request path, for context
+     * @return true if the occurrence was written to the log
+     */
+    public boolean warn(Throwable ex, String path) {
+        long now = nanoClock.getAsLong();
+        long suppressed = windowFor(ex, now).tryAcquire(now, intervalNanos);
+        if (suppressed < 0) {
+            return false;
+        }
+        if (suppressed > 0) {
+            log.warn("{} on {}: {} ({} similar occurrences suppressed)", ex.getClass().getSimpleName(), path, ex.getMessage(), suppressed);
+        } else {
+            log.warn("{} on {}: {}", ex.getClass().getSimpleName(), path, ex.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of signatures currently tracked
+     *
+     * @return tracked signature count
+     */
+    public int trackedSignatures() {
+        return windows.size();
+    }
+
+    private Window windowFor(Throwable ex, long now) {
+        Signature signature = Signature.of(ex);
+        Window window = windows.get(signature);
+        if (window != null) {
+            return window;
+        }
+        if (windows.size() >= MAX_SIGNATURES && !evictIdle(now)) {
+            return windows.computeIfAbsent(OVERFLOW, key -> new Window());
+        }
+        return windows.computeIfAbsent(signature, key -> new Window());
+    }
+
+    /**
+     * Drop the windows whose interval has elapsed; their next occurrence would be logged anyway,
+     * so all that is lost is a suppressed count nobody has reported yet. Runs at most once per interval
+     *
+     * @param now current nanoTime
+     * @return true if there is room for another signature
+     */
+    private boolean evictIdle(long now) {
+        long due = nextEvictionNanos.get();
+        if ((due != Long.MIN_VALUE && now - due < 0) || !nextEvictionNanos.compareAndSet(due, now + intervalNanos)) {
+            return false;
+        }
+        windows.values().removeIf(window -> window.isIdle(now));
+        return windows.size() < MAX_SIGNATURES;
+    }
+
+    /**
+     * Exception type plus the frame it was thrown from
+     * Stackless exceptions have no frame and collapse to their type
+     */
+    private record Signature(Class<?> type, StackTraceElement origin) {
+
+        static Signature of(Throwable ex) {
+            StackTraceElement[] trace = ex.getStackTrace();
+            return new Signature(ex.getClass(), trace.length > 0 ? trace[0] : null);
+        }
+    }
+
+    /**
+     * Per-signature log window
+     */
+    private static final class Window {
+
+        private final AtomicLong nextReportNanos = new AtomicLong(Long.MIN_VALUE);
+        private final LongAdder suppressed = new LongAdder();
+
+        /**
+         * Claim the right to log
+         *
+         * @return the number of occurrences suppressed since the last report, or -1 if this one is suppressed
+         */
+        long tryAcquire(long now, long intervalNanos) {
+            long next = nextReportNanos.get();
+            if ((next == Long.MIN_VALUE || now - next >= 0) && nextReportNanos.compareAndSet(next, now + intervalNanos)) {
+                return suppressed.sumThenReset();
+            }
+            suppressed.increment();
+            return -1;
+        }
+
+        /**
+         * Whether the interval of the last report has elapsed
+         */
+        boolean isIdle(long now) {
+            long next = nextReportNanos.get();
+            return next == Long.MIN_VALUE || now - next >= 0;
+        }
+    }
+}
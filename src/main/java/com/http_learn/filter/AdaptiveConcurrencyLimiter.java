@@ -0,0 +1,148 @@
+package com.http_learn.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free adaptive concurrency limit using a gradient algorithm
+ *
+ * The limiter keeps an estimate of the no-load latency (the minimum RTT seen in a sliding probe window)
+ * and compares every completed request against it. While latency stays close to the minimum the limit
+ * grows by a queue allowance of sqrt(limit); as soon as latency climbs, the gradient minRtt / rtt drops
+ * below one and the limit shrinks proportionally, before queues build up in the thread pool
+ *
+ * All state lives in atomics, so admission costs one increment and completion a handful of CAS operations
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final long minRttWindowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong minRttNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong minRttResetAt;
+
+    /**
+     * Create a limiter
+     *
+     * @param initialLimit starting concurrency limit
+     * @param minLimit lower bound for the limit
+     * @param maxLimit upper bound for the limit
+     * @param smoothing weight of a new estimate against the current limit, between 0 and 1
+     * @param rttTolerance how much slower than the minimum RTT a request may be before the limit shrinks
+     * @param minRttWindowNanos how long a minimum RTT estimate is trusted before it is re-probed
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                                      double rttTolerance, long minRttWindowNanos) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = Math.max(1.0, rttTolerance);
+        this.minRttWindowNanos = minRttWindowNanos;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+        this.minRttResetAt = new AtomicLong(System.nanoTime() + minRttWindowNanos);
+    }
+
+    /**
+     * Try to admit a request
+     *
+     * @return true if admitted; the caller must then call {@link #release(long)} exactly once
+     */
+    public boolean tryAcquire() {
+        int limit = getLimit();
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Release an admitted request and feed its latency into the limit estimate
+     *
+     * @param rttNanos time the request spent in the application
+     */
+    public void release(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (rttNanos <= 0) {
+            return;
+        }
+        long minRtt = updateMinRtt(rttNanos);
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * minRtt / rttNanos));
+        long current;
+        double next;
+        do {
+            current = limitBits.get();
+            double limit = Double.longBitsToDouble(current);
+            // Do not grow while the application does not even use half of the limit
+            if (gradient >= 1.0 && inFlightAtCompletion < limit / 2) {
+                return;
+            }
+            double estimate = limit * gradient + Math.sqrt(limit);
+            next = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + estimate * smoothing));
+            if (next == limit) {
+                return;
+            }
+        } while (!limitBits.compareAndSet(current, Double.doubleToRawLongBits(next)));
+    }
+
+    /**
+     * Release an admitted request without feeding its latency into the estimate
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Get the current concurrency limit
+     *
+     * @return limit rounded down
+     */
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    /**
+     * Get the number of admitted requests still running
+     *
+     * @return in-flight count
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the current no-load latency estimate
+     *
+     * @return minimum RTT in nanoseconds, or Long.MAX_VALUE before the first sample
+     */
+    public long getMinRttNanos() {
+        return minRttNanos.get();
+    }
+
+    private long updateMinRtt(long rttNanos) {
+        long now = System.nanoTime();
+        long resetAt = minRttResetAt.get();
+        if (now - resetAt >= 0 && minRttResetAt.compareAndSet(resetAt, now + minRttWindowNanos)) {
+            // Start a new probe window so the estimate can follow a legitimately slower baseline
+            minRttNanos.set(rttNanos);
+            return rttNanos;
+        }
+        long min = minRttNanos.get();
+        while (rttNanos < min) {
+            if (minRttNanos.compareAndSet(min, rttNanos)) {
+                return rttNanos;
+            }
+            min = minRttNanos.get();
+        }
+        return min;
+    }
+}
@@ -0,0 +1,148 @@
+package com.http_learn.filter;
+
+import com.http_learn.concurrent.LogLinearHistogram;
+import com.http_learn.config.AllocationProperties;
+import com.http_learn.dto.AllocationStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bytes-allocated-per-request distributions per route
+ *
+ * Allocation is read from the HotSpot per-thread allocation counter, so only work done on the request
+ * thread is attributed (work handed to bulkheads or async executors is not). Each route keeps a
+ * log-linear histogram, i.e. percentiles within 12.5%
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "http-learn.allocations", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AllocationTracker {
+
+    /**
+     * Route of requests that never reached a handler mapping (e.g. cache hits, rejected requests)
+     */
+    static final String UNMAPPED = "[unmapped]";
+
+    /**
+     * Route collecting everything beyond the configured number of routes
+     */
+    static final String OVERFLOW = "[other]";
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final int maxRoutes;
+    private final Map<String, RouteHistogram> routes = new ConcurrentHashMap<>();
+
+    public AllocationTracker(AllocationProperties properties) {
+        this.threads = supportedThreadMXBean();
+        this.maxRoutes = Math.max(1, properties.getMaxRoutes());
+        if (threads == null) {
+            log.warn("Thread allocation counters are not available on this JVM; allocation tracking is off");
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean supportedThreadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * Whether the JVM exposes per-thread allocation counters
+     *
+     * @return true if requests can be measured
+     */
+    boolean isSupported() {
+        return threads != null;
+    }
+
+    /**
+     * Read the allocation counter of the current thread
+     *
+     * @return bytes allocated by this thread since it started
+     */
+    long currentThreadAllocatedBytes() {
+        return threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Record the allocation of one request
+     *
+     * @param route method and route pattern
+     * @param bytes bytes allocated while handling it
+     */
+    void record(String route, long bytes) {
+        RouteHistogram histogram = routes.get(route);
+        if (histogram == null) {
+            String key = routes.size() < maxRoutes ? route : OVERFLOW;
+            histogram = routes.computeIfAbsent(key, k -> new RouteHistogram());
+        }
+        histogram.record(Math.max(0, bytes));
+    }
+
+    /**
+     * Get the distributions of every route, largest total allocation first
+     *
+     * @return one entry per route
+     */
+    public List<AllocationStatsDto> stats() {
+        List<AllocationStatsDto> stats = new ArrayList<>(routes.size());
+        routes.forEach((route, histogram) -> stats.add(histogram.snapshot(route)));
+        stats.sort(Comparator.comparingLong(AllocationStatsDto::getTotalBytes).reversed());
+        return stats;
+    }
+
+    /**
+     * Forget every distribution, e.g. before a load test
+     */
+    public void reset() {
+        routes.clear();
+    }
+
+    /**
+     * Histogram of one route; updates are lock-free, snapshots are approximate under concurrent updates
+     */
+    private static final class RouteHistogram {
+
+        private final LogLinearHistogram histogram = new LogLinearHistogram();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private void record(long bytes) {
+            histogram.record(bytes);
+            total.add(bytes);
+            max.accumulate(bytes);
+        }
+
+        private AllocationStatsDto snapshot(String route) {
+            long[] counts = new long[LogLinearHistogram.BUCKETS];
+            long requests = histogram.addTo(counts);
+            long totalBytes = total.sum();
+            long maxBytes = max.get();
+            return AllocationStatsDto.builder()
+                    .route(route)
+                    .requests(requests)
+                    .totalBytes(totalBytes)
+                    .meanBytes(requests > 0 ? totalBytes / requests : 0)
+                    .p50Bytes(Math.min(maxBytes, LogLinearHistogram.percentile(counts, requests, 0.50)))
+                    .p90Bytes(Math.min(maxBytes, LogLinearHistogram.percentile(counts, requests, 0.90)))
+                    .p99Bytes(Math.min(maxBytes, LogLinearHistogram.percentile(counts, requests, 0.99)))
+                    .maxBytes(maxBytes)
+                    .build();
+        }
+    }
+}
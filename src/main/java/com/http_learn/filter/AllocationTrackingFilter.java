@@ -0,0 +1,121 @@
+package com.http_learn.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter measuring the heap allocated by each request on its request thread
+ *
+ * The thread allocation counter is read before and after every dispatch of the request, including
+ * async dispatches, so a request parked by the delay filter or handled through a DeferredResult is
+ * charged for each stretch it spends on a container thread. The total is recorded under the matched
+ * route pattern once the request completes
+ */
+public class AllocationTrackingFilter extends OncePerRequestFilter {
+
+    private static final String SAMPLE_ATTRIBUTE = AllocationTrackingFilter.class.getName() + ".SAMPLE";
+
+    private final AllocationTracker tracker;
+
+    public AllocationTrackingFilter(AllocationTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !tracker.isSupported();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long before = tracker.currentThreadAllocatedBytes();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long allocated = tracker.currentThreadAllocatedBytes() - before;
+            Sample sample = (Sample) request.getAttribute(SAMPLE_ATTRIBUTE);
+            if (sample == null) {
+                sample = new Sample();
+                request.setAttribute(SAMPLE_ATTRIBUTE, sample);
+            }
+            sample.add(allocated, request);
+
+            if (request.isAsyncStarted()) {
+                if (!sample.async) {
+                    sample.async = true;
+                    request.getAsyncContext().addListener(new CompletionListener(sample, request.getMethod()));
+                }
+            } else if (!sample.async) {
+                tracker.record(sample.route(request.getMethod()), sample.bytes);
+            }
+        }
+    }
+
+    /**
+     * Allocation of one request summed over its dispatches
+     */
+    private static final class Sample {
+
+        private volatile long bytes;
+        private volatile String pattern;
+        private volatile boolean async;
+
+        private void add(long allocated, HttpServletRequest request) {
+            bytes += allocated;
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String matched) {
+                pattern = matched;
+            }
+        }
+
+        private String route(String method) {
+            String matched = pattern;
+            return matched != null ? method + " " + matched : AllocationTracker.UNMAPPED;
+        }
+    }
+
+    /**
+     * Records an async request once its last dispatch is done
+     */
+    private final class CompletionListener implements AsyncListener {
+
+        private final Sample sample;
+        private final String method;
+
+        private CompletionListener(Sample sample, String method) {
+            this.sample = sample;
+            this.method = method;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            tracker.record(sample.route(method), sample.bytes);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
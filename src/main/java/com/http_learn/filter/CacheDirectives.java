@@ -0,0 +1,103 @@
+package com.http_learn.filter;
+
+import java.util.Enumeration;
+import java.util.Locale;
+
+/**
+ * Parsed Cache-Control directives relevant to a shared cache (RFC 9111 section 5.2)
+ *
+ * @param noStore no-store
+ * @param noCache no-cache
+ * @param privateResponse private
+ * @param publicResponse public
+ * @param maxAge max-age in seconds, -1 if absent
+ * @param sharedMaxAge s-maxage in seconds, -1 if absent
+ * @param staleWhileRevalidate stale-while-revalidate in seconds, 0 if absent
+ */
+record CacheDirectives(boolean noStore, boolean noCache, boolean privateResponse, boolean publicResponse,
+                       long maxAge, long sharedMaxAge, long staleWhileRevalidate) {
+
+    static final CacheDirectives NONE = new CacheDirectives(false, false, false, false, -1, -1, 0);
+
+    /**
+     * Freshness lifetime for a shared cache: s-maxage wins over max-age
+     *
+     * @return lifetime in seconds, -1 if the response carries no explicit freshness
+     */
+    long sharedFreshnessSeconds() {
+        return sharedMaxAge >= 0 ? sharedMaxAge : maxAge;
+    }
+
+    /**
+     * Parse all Cache-Control header values
+     *
+     * @param values the header values, may be null
+     * @return the directives, NONE if there are none
+     */
+    static CacheDirectives parse(Enumeration<String> values) {
+        if (values == null || !values.hasMoreElements()) {
+            return NONE;
+        }
+        StringBuilder joined = new StringBuilder(values.nextElement());
+        while (values.hasMoreElements()) {
+            joined.append(',').append(values.nextElement());
+        }
+        return parse(joined.toString());
+    }
+
+    /**
+     * Parse one Cache-Control header value
+     * Unknown directives are ignored, malformed delta-seconds count as absent
+     *
+     * @param header the header value, may be null
+     * @return the directives, NONE if there are none
+     */
+    static CacheDirectives parse(String header) {
+        if (header == null || header.isBlank()) {
+            return NONE;
+        }
+        boolean noStore = false;
+        boolean noCache = false;
+        boolean privateResponse = false;
+        boolean publicResponse = false;
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        long staleWhileRevalidate = 0;
+
+        for (String directive : header.split(",")) {
+            int equals = directive.indexOf('=');
+            String name = (equals < 0 ? directive : directive.substring(0, equals)).trim().toLowerCase(Locale.ROOT);
+            String value = equals < 0 ? null : unquote(directive.substring(equals + 1).trim());
+            switch (name) {
+                case "no-store" -> noStore = true;
+                case "no-cache" -> noCache = true;
+                case "private" -> privateResponse = true;
+                case "public" -> publicResponse = true;
+                case "max-age" -> maxAge = seconds(value, maxAge);
+                case "s-maxage" -> sharedMaxAge = seconds(value, sharedMaxAge);
+                case "stale-while-revalidate" -> staleWhileRevalidate = Math.max(0, seconds(value, 0));
+                default -> {
+                }
+            }
+        }
+        return new CacheDirectives(noStore, noCache, privateResponse, publicResponse, maxAge, sharedMaxAge, staleWhileRevalidate);
+    }
+
+    private static String unquote(String value) {
+        return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                ? value.substring(1, value.length() - 1)
+                : value;
+    }
+
+    private static long seconds(String value, long fallback) {
+        if (value == null || value.isEmpty()) {
+            return fallback;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value));
+        } catch (NumberFormatException ex) {
+            // Delta-seconds too large for a long mean "forever"; callers clamp lifetimes anyway
+            return value.chars().allMatch(Character::isDigit) ? Long.MAX_VALUE : fallback;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.http_learn.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One stored response variant
+ * Immutable apart from the revalidation flag, so it can be served concurrently without copying
+ */
+final class CachedResponse {
+
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final String target;
+    private final int status;
+    private final String contentType;
+    private final String[] headerNames;
+    private final String[] headerValues;
+    private final byte[] body;
+    private final String etag;
+    private final String[] varyNames;
+    private final String[] varyValues;
+    private final long storedAtNanos;
+    private final long freshUntilNanos;
+    private final long staleUntilNanos;
+    private final int weight;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    CachedResponse(String target, int status, String contentType, String[] headerNames, String[] headerValues,
+                   byte[] body, String etag, String[] varyNames, String[] varyValues,
+                   long storedAtNanos, long freshUntilNanos, long staleUntilNanos) {
+        this.target = target;
+        this.status = status;
+        this.contentType = contentType;
+        this.headerNames = headerNames;
+        this.headerValues = headerValues;
+        this.body = body;
+        this.etag = etag;
+        this.varyNames = varyNames;
+        this.varyValues = varyValues;
+        this.storedAtNanos = storedAtNanos;
+        this.freshUntilNanos = freshUntilNanos;
+        this.staleUntilNanos = staleUntilNanos;
+
+        int headerBytes = 0;
+        for (int i = 0; i < headerNames.length; i++) {
+            headerBytes += 2 * (headerNames[i].length() + headerValues[i].length());
+        }
+        this.weight = ENTRY_OVERHEAD + body.length + headerBytes;
+    }
+
+    /**
+     * Normalise the values of a request header for Vary matching:
+     * multiple fields are joined and whitespace around list separators is dropped
+     *
+     * @param values the header values
+     * @return the normalised value, empty if the header is absent
+     */
+    static String normalizeVaryValue(Enumeration<String> values) {
+        if (values == null || !values.hasMoreElements()) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder();
+        while (values.hasMoreElements()) {
+            for (String part : values.nextElement().split(",")) {
+                String trimmed = part.trim();
+                if (!trimmed.isEmpty()) {
+                    if (!normalized.isEmpty()) {
+                        normalized.append(',');
+                    }
+                    normalized.append(trimmed);
+                }
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Whether this variant was selected by the same Vary header values as the request
+     *
+     * @param request the request
+     * @return true if every varying header matches
+     */
+    boolean matches(HttpServletRequest request) {
+        for (int i = 0; i < varyNames.length; i++) {
+            if (!varyValues[i].equals(normalizeVaryValue(request.getHeaders(varyNames[i])))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether another entry is the same variant of the same URL
+     *
+     * @param other the other entry
+     * @return true if this entry replaces the other
+     */
+    boolean sameVariantAs(CachedResponse other) {
+        return Arrays.equals(varyNames, other.varyNames) && Arrays.equals(varyValues, other.varyValues);
+    }
+
+    /**
+     * Claim the single background revalidation of this entry
+     *
+     * @return true if the caller should revalidate
+     */
+    boolean startRevalidation() {
+        return revalidating.compareAndSet(false, true);
+    }
+
+    void endRevalidation() {
+        revalidating.set(false);
+    }
+
+    String getTarget() {
+        return target;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    String getContentType() {
+        return contentType;
+    }
+
+    String[] getHeaderNames() {
+        return headerNames;
+    }
+
+    String[] getHeaderValues() {
+        return headerValues;
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+
+    String getEtag() {
+        return etag;
+    }
+
+    String[] getVaryNames() {
+        return varyNames;
+    }
+
+    String[] getVaryValues() {
+        return varyValues;
+    }
+
+    long getStoredAtNanos() {
+        return storedAtNanos;
+    }
+
+    boolean isFresh(long now) {
+        return now - freshUntilNanos < 0;
+    }
+
+    boolean isUsable(long now) {
+        return now - staleUntilNanos < 0;
+    }
+
+    int getWeight() {
+        return weight;
+    }
+}
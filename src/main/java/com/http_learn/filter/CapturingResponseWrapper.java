@@ -0,0 +1,137 @@
+package com.http_learn.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Response wrapper that passes the body through unchanged while keeping a copy for the response cache
+ * or the idempotency cache
+ *
+ * Unlike a buffering wrapper it never delays the client: bytes are written through immediately.
+ * Capturing is abandoned as soon as the response exceeds the size limit, is written through a Writer,
+ * or, for the response cache, turns out to be uncacheable (decided from its Cache-Control header on the first write)
+ */
+final class CapturingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int limit;
+    private final boolean honorCacheControl;
+
+    private ServletOutputStream outputStream;
+    private ByteArrayOutputStream capture;
+    private boolean decided;
+    private boolean abandoned;
+
+    CapturingResponseWrapper(HttpServletResponse response, int limit) {
+        this(response, limit, true);
+    }
+
+    CapturingResponseWrapper(HttpServletResponse response, int limit, boolean honorCacheControl) {
+        super(response);
+        this.limit = limit;
+        this.honorCacheControl = honorCacheControl;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        // Bytes written through a Writer are not seen by the tee; such responses are simply not stored
+        abandoned = true;
+        capture = null;
+        return super.getWriter();
+    }
+
+    /**
+     * Get the captured body
+     *
+     * @return the complete body, or null if capturing was abandoned
+     */
+    byte[] capturedBody() {
+        if (abandoned) {
+            return null;
+        }
+        return capture != null ? capture.toByteArray() : new byte[0];
+    }
+
+    private void capture(byte[] b, int off, int len) {
+        if (abandoned) {
+            return;
+        }
+        if (!decided) {
+            decided = true;
+            if (honorCacheControl) {
+                CacheDirectives directives = CacheDirectives.parse(String.join(",", getHeaders(HttpHeaders.CACHE_CONTROL)));
+                if (directives.noStore() || directives.privateResponse() || directives.sharedFreshnessSeconds() < 0) {
+                    abandoned = true;
+                    return;
+                }
+            }
+            capture = new ByteArrayOutputStream(Math.min(limit, 8192));
+        }
+        if (capture.size() + len > limit) {
+            abandoned = true;
+            capture = null;
+            return;
+        }
+        capture.write(b, off, len);
+    }
+
+    /**
+     * Output stream writing to the client and to the capture buffer
+     */
+    private final class TeeOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final byte[] single = new byte[1];
+
+        private TeeOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            single[0] = (byte) b;
+            capture(single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            capture(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
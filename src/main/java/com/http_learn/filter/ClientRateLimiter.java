@@ -0,0 +1,231 @@
+package com.http_learn.filter;
+
+import com.http_learn.config.RateLimitProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token buckets for every configured route group
+ * Buckets are kept in striped concurrent maps and evicted once they have been full for the idle period
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "http-learn.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ClientRateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<RouteGroup> groups;
+    private final List<String> bypassPaths;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final long idleEvictionNanos;
+
+    public ClientRateLimiter(RateLimitProperties properties) {
+        int stripes = Integer.highestOneBit(Math.max(1, properties.getStripes() - 1)) << 1;
+        this.groups = properties.getGroups().stream()
+                .map(group -> new RouteGroup(group, stripes))
+                .sorted(Comparator.comparingInt((RouteGroup group) -> group.pathPrefix.length()).reversed())
+                .toList();
+        this.bypassPaths = List.copyOf(properties.getBypassPaths());
+        this.apiKeyHeader = properties.getApiKeyHeader();
+        this.apiKeys = Set.copyOf(properties.getApiKeys());
+        this.idleEvictionNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleEvictionMs());
+    }
+
+    /**
+     * Get the header that identifies API clients
+     *
+     * @return header name
+     */
+    public String getApiKeyHeader() {
+        return apiKeyHeader;
+    }
+
+    /**
+     * Whether an API key is one of the configured keys
+     * Only those get their own buckets: an unchecked key would let a client start over with a full
+     * bucket on every request just by making up a new key, and grow the key map by one entry each time
+     *
+     * @param apiKey header value, may be null
+     * @return true if the key is configured
+     */
+    public boolean isKnownApiKey(String apiKey) {
+        return apiKey != null && apiKeys.contains(apiKey);
+    }
+
+    /**
+     * Find the route group limiting a path
+     *
+     * @param path the request URI
+     * @return the group with the longest matching prefix, or null if the path is not limited
+     */
+    public RouteGroup groupFor(String path) {
+        for (int i = 0; i < bypassPaths.size(); i++) {
+            if (path.startsWith(bypassPaths.get(i))) {
+                return null;
+            }
+        }
+        for (int i = 0; i < groups.size(); i++) {
+            RouteGroup group = groups.get(i);
+            if (path.startsWith(group.pathPrefix)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drop buckets that have been full for longer than the idle period
+     * A client that comes back simply gets a fresh, full bucket, which is exactly what it would have had
+     */
+    @Scheduled(fixedDelayString = "${http-learn.rate-limit.idle-eviction-ms:300000}")
+    public void evictIdle() {
+        long threshold = System.nanoTime() - idleEvictionNanos;
+        int evicted = 0;
+        for (RouteGroup group : groups) {
+            evicted += group.evictIdle(threshold);
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    /**
+     * Limits and buckets of one route group
+     * Header values are precomputed so the allow path never formats numbers
+     */
+    public static final class RouteGroup {
+
+        private final String name;
+        private final String pathPrefix;
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+        private final String limitHeader;
+        private final String policyHeader;
+        private final String[] counts;
+        private final ConcurrentHashMap<String, TokenBucket>[] addressBuckets;
+        private final ConcurrentHashMap<String, TokenBucket>[] keyBuckets;
+        private final int stripeMask;
+
+        @SuppressWarnings("unchecked")
+        RouteGroup(RateLimitProperties.Group group, int stripes) {
+            if (group.getCapacity() < 1 || group.getRefillPerSecond() <= 0) {
+                throw new IllegalArgumentException("Rate limit group " + group.getName() + " needs capacity >= 1 and refill > 0");
+            }
+            this.name = group.getName();
+            this.pathPrefix = group.getPathPrefix();
+            this.emissionIntervalNanos = Math.max(1, (long) (NANOS_PER_SECOND / group.getRefillPerSecond()));
+            this.burstNanos = emissionIntervalNanos * group.getCapacity();
+            this.limitHeader = Integer.toString(group.getCapacity());
+            long windowSeconds = Math.max(1, (burstNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+            this.policyHeader = group.getCapacity() + ";w=" + windowSeconds;
+
+            int maxCount = (int) Math.max(group.getCapacity(), windowSeconds + 1);
+            this.counts = new String[maxCount + 1];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = Integer.toString(i);
+            }
+
+            this.addressBuckets = new ConcurrentHashMap[stripes];
+            this.keyBuckets = new ConcurrentHashMap[stripes];
+            for (int i = 0; i < stripes; i++) {
+                addressBuckets[i] = new ConcurrentHashMap<>();
+                keyBuckets[i] = new ConcurrentHashMap<>();
+            }
+            this.stripeMask = stripes - 1;
+        }
+
+        /**
+         * Take a token for a client
+         *
+         * @param clientId API key or remote address
+         * @param apiKey whether clientId is an API key (keys and addresses never share buckets)
+         * @param nowNanos current monotonic time
+         * @return decision as returned by {@link TokenBucket#tryConsume}
+         */
+        public long tryConsume(String clientId, boolean apiKey, long nowNanos) {
+            ConcurrentHashMap<String, TokenBucket>[] buckets = apiKey ? keyBuckets : addressBuckets;
+            int hash = clientId.hashCode();
+            ConcurrentHashMap<String, TokenBucket> stripe = buckets[(hash ^ (hash >>> 16)) & stripeMask];
+            TokenBucket bucket = stripe.get(clientId);
+            if (bucket == null) {
+                bucket = stripe.computeIfAbsent(clientId, key -> new TokenBucket(nowNanos));
+            }
+            return bucket.tryConsume(nowNanos, emissionIntervalNanos, burstNanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getLimitHeader() {
+            return limitHeader;
+        }
+
+        public String getPolicyHeader() {
+            return policyHeader;
+        }
+
+        /**
+         * Tokens left after an allowed request
+         *
+         * @param decision non-negative decision
+         * @return RateLimit-Remaining value
+         */
+        public String remainingHeader(long decision) {
+            return count((burstNanos - decision) / emissionIntervalNanos);
+        }
+
+        /**
+         * Seconds until the bucket is full again
+         *
+         * @param decision non-negative decision
+         * @return RateLimit-Reset value
+         */
+        public String resetHeader(long decision) {
+            return count((decision + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        }
+
+        /**
+         * Seconds until the next token is available
+         *
+         * @param decision negative decision
+         * @return Retry-After value
+         */
+        public String retryAfterHeader(long decision) {
+            long waitNanos = -1 - decision;
+            return count(Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND));
+        }
+
+        private String count(long value) {
+            if (value < 0) {
+                return counts[0];
+            }
+            return value < counts.length ? counts[(int) value] : Long.toString(value);
+        }
+
+        private int evictIdle(long thresholdNanos) {
+            int evicted = 0;
+            for (int i = 0; i <= stripeMask; i++) {
+                evicted += evictIdle(addressBuckets[i], thresholdNanos);
+                evicted += evictIdle(keyBuckets[i], thresholdNanos);
+            }
+            return evicted;
+        }
+
+        private static int evictIdle(ConcurrentHashMap<String, TokenBucket> stripe, long thresholdNanos) {
+            int before = stripe.size();
+            stripe.values().removeIf(bucket -> bucket.isIdleSince(thresholdNanos));
+            return before - stripe.size();
+        }
+    }
+}
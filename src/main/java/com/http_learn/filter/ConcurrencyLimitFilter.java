@@ -0,0 +1,156 @@
+package com.http_learn.filter;
+
+import com.http_learn.config.ConcurrencyLimitProperties;
+import com.http_learn.exception.ProblemTemplate;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter that bounds in-flight work with an adaptive concurrency limit
+ * Requests above the limit are rejected immediately with 503 and Retry-After instead of queueing
+ * in the Tomcat thread pool, which keeps latency flat for the requests that are admitted
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitFilter.class.getName() + ".PERMIT";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final List<String> bypassPaths;
+    private final String retryAfter;
+    private final byte[] rejectionBody;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        this.limiter = new AdaptiveConcurrencyLimiter(
+                properties.getInitialLimit(),
+                properties.getMinLimit(),
+                properties.getMaxLimit(),
+                properties.getSmoothing(),
+                properties.getRttTolerance(),
+                TimeUnit.MILLISECONDS.toNanos(properties.getMinRttWindowMs()));
+        this.bypassPaths = List.copyOf(properties.getBypassPaths());
+        this.retryAfter = Integer.toString(properties.getRetryAfterSeconds());
+        this.rejectionBody = ProblemTemplate.of(HttpStatus.SERVICE_UNAVAILABLE)
+                .render("Concurrency limit reached, retry later", "");
+    }
+
+    /**
+     * Get the limiter, for metrics
+     *
+     * @return the adaptive limiter
+     */
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Async dispatches are seen too, so requests parked before this filter (e.g. by the delay filter)
+     * take their permit when they are dispatched back; requests that already hold one pass straight through
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (int i = 0; i < bypassPaths.size(); i++) {
+            if (path.startsWith(bypassPaths.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            reject(response);
+            return;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The request keeps its permit until the async work completes
+                request.getAsyncContext().addListener(new ReleaseListener(start));
+            } else {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(rejectionBody.length);
+        response.getOutputStream().write(rejectionBody);
+    }
+
+    /**
+     * Releases the permit of an async request exactly once
+     */
+    private final class ReleaseListener implements AsyncListener {
+
+        private final long start;
+        private boolean released;
+
+        private ReleaseListener(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // A timeout is the strongest overload signal there is, so it feeds the estimate too
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private synchronized void release(boolean sample) {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (sample) {
+                limiter.release(System.nanoTime() - start);
+            } else {
+                limiter.releaseWithoutSample();
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.http_learn.filter;
+
+import com.http_learn.concurrent.HashedTimingWheel;
+import com.http_learn.config.DelayProperties;
+import com.http_learn.enums.LatencyDistribution;
+import com.http_learn.exception.ProblemTemplate;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter simulating slow or failing backends on any API endpoint
+ * Supported query parameters: delay (e.g. 250ms, 1.5s, or bare milliseconds), jitter (same format),
+ * dist (see LatencyDistribution) and status (overrides a successful response status)
+ *
+ * A delayed request is put into async mode and parked on the timing wheel, then dispatched back
+ * to the container when its delay elapses, so waiting requests hold no thread. This is the
+ * container-level equivalent of returning a DeferredResult, and works for every endpoint unchanged
+ */
+public class DelayFilter extends OncePerRequestFilter {
+
+    private static final long ASYNC_TIMEOUT_MARGIN_MS = 30_000;
+
+    private final HashedTimingWheel wheel;
+    private final long maxDelayNanos;
+
+    public DelayFilter(HashedTimingWheel wheel, DelayProperties properties) {
+        this.wheel = wheel;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(properties.getMaxDelayMs());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String query = request.getQueryString();
+        if (query == null || (!query.contains("delay=") && !query.contains("status="))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Read from the raw query string: getParameter() would consume form bodies
+        String delayValue = queryParameter(query, "delay");
+        String jitterValue = queryParameter(query, "jitter");
+        String statusValue = queryParameter(query, "status");
+
+        long delayNanos = delayValue != null ? parseDuration(delayValue) : 0;
+        long jitterNanos = jitterValue != null ? parseDuration(jitterValue) : 0;
+        if (delayNanos < 0 || jitterNanos < 0 || delayNanos > maxDelayNanos) {
+            reject(request, response, "delay and jitter must be durations such as 250ms or 1.5s, at most "
+                    + TimeUnit.NANOSECONDS.toMillis(maxDelayNanos) + "ms");
+            return;
+        }
+
+        LatencyDistribution distribution;
+        try {
+            distribution = LatencyDistribution.fromParameter(queryParameter(query, "dist"));
+        } catch (IllegalArgumentException ex) {
+            reject(request, response, "dist must be one of fixed, uniform, normal, exponential, lognormal");
+            return;
+        }
+
+        HttpServletResponse target = response;
+        if (statusValue != null) {
+            int status = parseStatus(statusValue);
+            if (status < 0) {
+                reject(request, response, "status must be between 200 and 599");
+                return;
+            }
+            target = new StatusOverrideResponse(response, status);
+        }
+
+        long sampled = delayNanos > 0
+                ? distribution.sample(delayNanos, jitterNanos, ThreadLocalRandom.current())
+                : 0;
+        long waitNanos = Math.min(maxDelayNanos, Math.max(0, sampled));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, target);
+            return;
+        }
+
+        // The async dispatch replays the chain with the same request and (possibly wrapped) response;
+        // this filter skips async dispatches, so the request then proceeds to the handler
+        AsyncContext asyncContext = request.startAsync(request, target);
+        asyncContext.setTimeout(TimeUnit.NANOSECONDS.toMillis(waitNanos) + ASYNC_TIMEOUT_MARGIN_MS);
+        HashedTimingWheel.Timeout timeout = wheel.schedule(asyncContext::dispatch, waitNanos, TimeUnit.NANOSECONDS);
+        asyncContext.addListener(new CancelListener(timeout));
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String detail) throws IOException {
+        byte[] body = ProblemTemplate.of(HttpStatus.BAD_REQUEST).render(detail, request.getRequestURI());
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Find a parameter in a raw query string
+     *
+     * @param query the query string
+     * @param name the parameter name
+     * @return the raw value, or null if absent
+     */
+    static String queryParameter(String query, String name) {
+        int from = 0;
+        while (from < query.length()) {
+            int end = query.indexOf('&', from);
+            if (end < 0) {
+                end = query.length();
+            }
+            if (end - from > name.length() && query.charAt(from + name.length()) == '='
+                    && query.startsWith(name, from)) {
+                return query.substring(from + name.length() + 1, end);
+            }
+            from = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Parse a duration such as 250ms, 1.5s or 250 (milliseconds)
+     *
+     * @param value the raw value
+     * @return the duration in nanoseconds, or -1 if malformed
+     */
+    static long parseDuration(String value) {
+        double scale = TimeUnit.MILLISECONDS.toNanos(1);
+        String number = value;
+        if (value.endsWith("ms")) {
+            number = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("s")) {
+            number = value.substring(0, value.length() - 1);
+            scale = TimeUnit.SECONDS.toNanos(1);
+        }
+        try {
+            double amount = Double.parseDouble(number);
+            return amount >= 0 && Double.isFinite(amount) ? (long) (amount * scale) : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private static int parseStatus(String value) {
+        try {
+            int status = Integer.parseInt(value);
+            return status >= 200 && status <= 599 ? status : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Replaces successful statuses set by the handler with the requested one;
+     * genuine errors raised while handling the request still surface unchanged
+     */
+    private static final class StatusOverrideResponse extends HttpServletResponseWrapper {
+
+        private final int status;
+
+        private StatusOverrideResponse(HttpServletResponse response, int status) {
+            super(response);
+            this.status = status;
+            response.setStatus(status);
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            super.setStatus(sc < 400 ? status : sc);
+        }
+    }
+
+    /**
+     * Drops the pending dispatch when the async request times out or fails
+     */
+    private static final class CancelListener implements AsyncListener {
+
+        private final HashedTimingWheel.Timeout timeout;
+
+        private CancelListener(HashedTimingWheel.Timeout timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            timeout.cancel();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            timeout.cancel();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            timeout.cancel();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
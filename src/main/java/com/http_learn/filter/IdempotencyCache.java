@@ -0,0 +1,201 @@
+package com.http_learn.filter;
+
+import com.http_learn.config.IdempotencyProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded store of Idempotency-Key claims and the responses they produced
+ *
+ * The first request with a key claims it and runs; duplicates find the claim and share its future, so
+ * they wait for the original instead of repeating the work. Every key lives for the same TTL, which
+ * makes insertion order the expiry order: one FIFO queue serves both expiry and the size bound, and
+ * neither needs a lock or a sweeper thread. The bound never evicts a key whose original is still running,
+ * since that would let a retry run the request a second time; it may be exceeded until those finish
+ */
+@Component
+@ConditionalOnProperty(prefix = "http-learn.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public IdempotencyCache(IdempotencyProperties properties) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(properties.getTtlSeconds());
+        this.maxEntries = Math.max(1, properties.getMaxEntries());
+    }
+
+    /**
+     * Claim a key, or find the request that already claimed it
+     *
+     * @param key the scoped idempotency key
+     * @param fingerprint digest of the request the key is used for
+     * @param now current System.nanoTime()
+     * @return the claim; original is true if the caller must run the request and complete the entry
+     */
+    Claim claim(String key, byte[] fingerprint, long now) {
+        expire(now);
+        Entry created = new Entry(key, fingerprint, now + ttlNanos);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                order.add(created);
+                if (queued.incrementAndGet() > maxEntries) {
+                    evictOldest();
+                }
+                return new Claim(created, true);
+            }
+            if (!existing.isExpired(now)) {
+                return new Claim(existing, false);
+            }
+            entries.remove(key, existing);
+        }
+    }
+
+    /**
+     * Finish a claimed entry and release everyone waiting on it
+     *
+     * @param entry the entry returned by an original claim
+     * @param response the response to replay, or null if the request failed and the key should be released
+     */
+    void complete(Entry entry, StoredResponse response) {
+        if (response == null) {
+            entries.remove(entry.key, entry);
+        }
+        entry.response.complete(response);
+    }
+
+    /**
+     * Number of keys currently held
+     */
+    int size() {
+        return entries.size();
+    }
+
+    private void expire(long now) {
+        Entry head;
+        while ((head = order.peek()) != null && head.isExpired(now)) {
+            if (order.remove(head)) {
+                queued.decrementAndGet();
+                entries.remove(head.key, head);
+            }
+        }
+    }
+
+    private void evictOldest() {
+        Iterator<Entry> oldestFirst = order.iterator();
+        while (queued.get() > maxEntries && oldestFirst.hasNext()) {
+            Entry oldest = oldestFirst.next();
+            if (!oldest.response.isDone()) {
+                continue;
+            }
+            if (order.remove(oldest)) {
+                queued.decrementAndGet();
+                // Requests already waiting on an evicted entry still get its response through the shared future
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    /**
+     * Result of claiming a key
+     *
+     * @param entry the entry holding the key
+     * @param original whether the caller created the entry
+     */
+    record Claim(Entry entry, boolean original) {
+    }
+
+    /**
+     * One key with the fingerprint of its request and the eventual response
+     */
+    static final class Entry {
+
+        private final String key;
+        private final byte[] fingerprint;
+        private final long expiresAtNanos;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        private Entry(String key, byte[] fingerprint, long expiresAtNanos) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        /**
+         * Whether a request carries the same method, target and body as the one that claimed the key
+         *
+         * @param other fingerprint of the other request
+         * @return true if the requests match
+         */
+        boolean matches(byte[] other) {
+            return MessageDigest.isEqual(fingerprint, other);
+        }
+
+        /**
+         * Get the response of the original request
+         *
+         * @return future completed with the stored response, or with null if the original failed
+         */
+        CompletableFuture<StoredResponse> response() {
+            return response;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    /**
+     * Serialized response of an original request, replayed byte for byte
+     */
+    static final class StoredResponse {
+
+        private final int status;
+        private final String contentType;
+        private final String[] headerNames;
+        private final String[] headerValues;
+        private final byte[] body;
+
+        StoredResponse(int status, String contentType, String[] headerNames, String[] headerValues, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.headerNames = headerNames;
+            this.headerValues = headerValues;
+            this.body = body;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        String getContentType() {
+            return contentType;
+        }
+
+        String[] getHeaderNames() {
+            return headerNames;
+        }
+
+        String[] getHeaderValues() {
+            return headerValues;
+        }
+
+        byte[] getBody() {
+            return body;
+        }
+    }
+}
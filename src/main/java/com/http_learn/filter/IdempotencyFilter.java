@@ -0,0 +1,379 @@
+package com.http_learn.filter;
+
+import com.http_learn.config.IdempotencyProperties;
+import com.http_learn.config.RateLimitProperties;
+import com.http_learn.exception.ProblemTemplate;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servlet filter making POST requests with an Idempotency-Key header safe to retry
+ *
+ * The first request with a key runs normally while its response is captured; a final response below 500
+ * is stored and replayed byte for byte to every retry with the same key, marked with Idempotent-Replayed.
+ * Duplicates arriving while the original still runs are parked in async mode until it completes, so they
+ * hold no thread. A key reused with a different request body or target is answered with 422; if the
+ * original fails, the key is released and waiting duplicates get 409 so they can retry.
+ * Keys are scoped by client the way the rate limiter tells clients apart (a configured API key, otherwise the
+ * remote address) and by target, so clients that happen to choose the same key never share responses
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyCache cache;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final Set<String> paths;
+    private final int maxRequestBytes;
+    private final int maxResponseBytes;
+    private final long waitTimeoutMs;
+
+    public IdempotencyFilter(IdempotencyCache cache, IdempotencyProperties properties, RateLimitProperties rateLimitProperties) {
+        this.cache = cache;
+        this.apiKeyHeader = rateLimitProperties.getApiKeyHeader();
+        this.apiKeys = Set.copyOf(rateLimitProperties.getApiKeys());
+        this.paths = Set.copyOf(properties.getPaths());
+        this.maxRequestBytes = properties.getMaxRequestBytes();
+        this.maxResponseBytes = properties.getMaxResponseBytes();
+        this.waitTimeoutMs = properties.getWaitTimeoutMs();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(request, response, HttpStatus.BAD_REQUEST, KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = readBody(request);
+        if (body == null) {
+            reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Requests with an " + KEY_HEADER + " may carry at most " + maxRequestBytes + " bytes");
+            return;
+        }
+
+        byte[] fingerprint = fingerprint(request, body);
+        IdempotencyCache.Claim claim = cache.claim(scopedKey(request, key), fingerprint, System.nanoTime());
+        IdempotencyCache.Entry entry = claim.entry();
+        if (!claim.original()) {
+            if (!entry.matches(fingerprint)) {
+                reject(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        KEY_HEADER + " was already used for a different request");
+                return;
+            }
+            awaitOriginal(entry.response(), request, response);
+            return;
+        }
+
+        // Headers set by earlier filters (e.g. rate limit counters) belong to this exchange, not to the stored response
+        Set<String> exchangeHeaders = new HashSet<>();
+        for (String name : response.getHeaderNames()) {
+            exchangeHeaders.add(name.toLowerCase(Locale.ROOT));
+        }
+        CapturingResponseWrapper wrapper = new CapturingResponseWrapper(response, maxResponseBytes, false);
+        try {
+            filterChain.doFilter(new BufferedBodyRequest(request, body), wrapper);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            cache.complete(entry, null);
+            throw ex;
+        }
+        if (!request.isAsyncStarted()) {
+            cache.complete(entry, stored(wrapper, exchangeHeaders));
+            return;
+        }
+        request.getAsyncContext().addListener(new CompletionListener(entry, wrapper, exchangeHeaders));
+    }
+
+    /**
+     * Scope a key to the client and target it was sent for
+     * Keys and addresses are prefixed differently, so an API key can never collide with an address
+     *
+     * @param request the request carrying the key
+     * @param key the Idempotency-Key header
+     * @return the key the cache stores the claim under
+     */
+    String scopedKey(HttpServletRequest request, String key) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        String client = apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "address:" + request.getRemoteAddr();
+        return client + " " + request.getRequestURI() + " " + key;
+    }
+
+    /**
+     * Answer a duplicate from the original's response, waiting for it without a thread if it is still running
+     */
+    private void awaitOriginal(CompletableFuture<IdempotencyCache.StoredResponse> original,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (original.isDone()) {
+            replay(original.join(), request, response);
+            return;
+        }
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(waitTimeoutMs);
+        AtomicBoolean answered = new AtomicBoolean();
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                if (answered.compareAndSet(false, true)) {
+                    reject(request, response, HttpStatus.CONFLICT,
+                            "The original request with this " + KEY_HEADER + " is still in progress");
+                    asyncContext.complete();
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                answered.set(true);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        original.whenComplete((stored, ex) -> {
+            if (!answered.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                replay(stored, request, response);
+            } catch (IOException ignored) {
+                // The waiting client went away
+            } finally {
+                asyncContext.complete();
+            }
+        });
+    }
+
+    private void replay(IdempotencyCache.StoredResponse stored, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (stored == null) {
+            reject(request, response, HttpStatus.CONFLICT,
+                    "The original request with this " + KEY_HEADER + " failed; retry it");
+            return;
+        }
+        response.setStatus(stored.getStatus());
+        String[] names = stored.getHeaderNames();
+        String[] values = stored.getHeaderValues();
+        for (int i = 0; i < names.length; i++) {
+            response.addHeader(names[i], values[i]);
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        byte[] body = stored.getBody();
+        response.setContentLength(body.length);
+        if (body.length > 0) {
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * Snapshot a finished original response for replay
+     *
+     * @return the stored response, or null if it failed or could not be captured
+     */
+    private static IdempotencyCache.StoredResponse stored(CapturingResponseWrapper response, Set<String> exchangeHeaders) {
+        int status = response.getStatus();
+        byte[] body = response.capturedBody();
+        if (body == null || status >= 500) {
+            return null;
+        }
+        List<String> headerNames = new ArrayList<>();
+        List<String> headerValues = new ArrayList<>();
+        for (String name : response.getHeaderNames()) {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            if (ResponseCacheFilter.UNSTORED_HEADERS.contains(lowerName) || exchangeHeaders.contains(lowerName)) {
+                continue;
+            }
+            for (String value : response.getHeaders(name)) {
+                headerNames.add(name);
+                headerValues.add(value);
+            }
+        }
+        return new IdempotencyCache.StoredResponse(status, response.getContentType(),
+                headerNames.toArray(String[]::new), headerValues.toArray(String[]::new), body);
+    }
+
+    /**
+     * Read the whole request body, bounded by the configured limit
+     *
+     * @return the body, or null if it is too large
+     */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > maxRequestBytes) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxRequestBytes + 1);
+        return body.length > maxRequestBytes ? null : body;
+    }
+
+    /**
+     * Digest of everything that makes two requests the same: target, content type and body
+     */
+    static byte[] fingerprint(HttpServletRequest request, byte[] body) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+        String query = request.getQueryString();
+        String contentType = request.getContentType();
+        digest.update((request.getRequestURI() + '?' + (query != null ? query : "") + '\n'
+                + (contentType != null ? contentType : "") + '\n').getBytes(StandardCharsets.UTF_8));
+        digest.update(body);
+        return digest.digest();
+    }
+
+    private static void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String detail)
+            throws IOException {
+        byte[] body = ProblemTemplate.of(status).render(detail, request.getRequestURI());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Stores the response of an async original once its last dispatch is done
+     */
+    private final class CompletionListener implements AsyncListener {
+
+        private final IdempotencyCache.Entry entry;
+        private final CapturingResponseWrapper response;
+        private final Set<String> exchangeHeaders;
+
+        private CompletionListener(IdempotencyCache.Entry entry, CapturingResponseWrapper response, Set<String> exchangeHeaders) {
+            this.entry = entry;
+            this.response = response;
+            this.exchangeHeaders = exchangeHeaders;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            cache.complete(entry, stored(response, exchangeHeaders));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Request wrapper serving a body that was already read for fingerprinting
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new IllegalStateException("The request body was already read");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
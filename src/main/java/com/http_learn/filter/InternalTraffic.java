@@ -0,0 +1,42 @@
+package com.http_learn.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Marks requests the application sends to itself over loopback (warm-up, cache revalidation)
+ *
+ * Such requests carry a per-process random token, so they can skip client-facing protections
+ * like rate limiting and cache lookups; a client cannot forge the token without reading process memory
+ */
+@Component
+public class InternalTraffic {
+
+    /**
+     * Header carrying the token
+     */
+    public static final String HEADER = "X-Internal-Token";
+
+    private final String token = UUID.randomUUID().toString();
+
+    /**
+     * Get the token to send with internal requests
+     *
+     * @return the token
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Whether a request was sent by this process
+     *
+     * @param request the request
+     * @return true if it carries the token
+     */
+    public boolean isInternal(HttpServletRequest request) {
+        return token.equals(request.getHeader(HEADER));
+    }
+}
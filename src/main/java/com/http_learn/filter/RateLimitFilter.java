@@ -0,0 +1,71 @@
+package com.http_learn.filter;
+
+import com.http_learn.exception.ProblemTemplate;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter enforcing per-client rate limits
+ * Clients are identified by API key when they send a configured one and by remote address otherwise;
+ * every limited response carries RateLimit-* headers, rejected ones get 429 with Retry-After.
+ * Requests the application sends to itself are not limited
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LIMIT = "RateLimit-Limit";
+    private static final String REMAINING = "RateLimit-Remaining";
+    private static final String RESET = "RateLimit-Reset";
+    private static final String POLICY = "RateLimit-Policy";
+
+    private final ClientRateLimiter rateLimiter;
+    private final InternalTraffic internalTraffic;
+    private final byte[] rejectionBody;
+
+    public RateLimitFilter(ClientRateLimiter rateLimiter, InternalTraffic internalTraffic) {
+        this.rateLimiter = rateLimiter;
+        this.internalTraffic = internalTraffic;
+        this.rejectionBody = ProblemTemplate.of(HttpStatus.TOO_MANY_REQUESTS)
+                .render("Rate limit exceeded, retry later", "");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ClientRateLimiter.RouteGroup group = rateLimiter.groupFor(request.getRequestURI());
+        if (group == null || internalTraffic.isInternal(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String apiKey = request.getHeader(rateLimiter.getApiKeyHeader());
+        long decision = rateLimiter.isKnownApiKey(apiKey)
+                ? group.tryConsume(apiKey, true, System.nanoTime())
+                : group.tryConsume(request.getRemoteAddr(), false, System.nanoTime());
+
+        response.setHeader(LIMIT, group.getLimitHeader());
+        response.setHeader(POLICY, group.getPolicyHeader());
+        if (decision >= 0) {
+            response.setHeader(REMAINING, group.remainingHeader(decision));
+            response.setHeader(RESET, group.resetHeader(decision));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String retryAfter = group.retryAfterHeader(decision);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(REMAINING, "0");
+        response.setHeader(RESET, retryAfter);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(rejectionBody.length);
+        response.getOutputStream().write(rejectionBody);
+    }
+}
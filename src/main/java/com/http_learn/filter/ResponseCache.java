@@ -0,0 +1,355 @@
+package com.http_learn.filter;
+
+import com.http_learn.config.ResponseCacheProperties;
+import com.http_learn.dto.ResponseCacheStatsDto;
+import com.http_learn.util.LocalServerUrl;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process shared HTTP response cache
+ *
+ * Entries are grouped per normalised URL (all Vary variants of one URL share a slot) in lock-striped
+ * segments, each an access-ordered LRU bounded by the byte weight of its responses. Stale entries inside
+ * their stale-while-revalidate window are served while exactly one background request refreshes them;
+ * that request goes through the full stack to this server's own connector (see revalidate-base-url),
+ * marked as internal traffic so it skips the lookup
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "http-learn.response-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCache {
+
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final Segment[] segments;
+    private final int mask;
+    private final int maxVariants;
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final List<String> bypassPaths;
+    private final Duration revalidateTimeout;
+    private final ServerProperties server;
+    private final InternalTraffic internalTraffic;
+    private final HttpClient httpClient;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    private volatile String baseUrl;
+
+    public ResponseCache(ResponseCacheProperties properties, ServerProperties server, InternalTraffic internalTraffic) {
+        int count = Integer.highestOneBit(Math.max(1, properties.getSegments() - 1)) << 1;
+        long segmentBudget = Math.max(1, properties.getMaxBytes() / count);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(segmentBudget);
+        }
+        this.mask = count - 1;
+        this.maxVariants = Math.max(1, properties.getMaxVariants());
+        this.maxBytes = properties.getMaxBytes();
+        // A single entry may never be larger than the segment it lives in
+        this.maxEntryBytes = (int) Math.min(properties.getMaxEntryBytes(), segmentBudget / 2);
+        this.bypassPaths = List.copyOf(properties.getBypassPaths());
+        this.revalidateTimeout = Duration.ofMillis(properties.getRevalidateTimeoutMs());
+        this.server = server;
+        this.internalTraffic = internalTraffic;
+        if (StringUtils.hasText(properties.getRevalidateBaseUrl())) {
+            this.baseUrl = StringUtils.trimTrailingCharacter(properties.getRevalidateBaseUrl().trim(), '/');
+        }
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(revalidateTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * Derive the base URL for background revalidation once the application's server is listening,
+     * unless one is configured
+     *
+     * @param event the web server initialized event
+     */
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        // A separate management server has its own namespace, port and TLS settings
+        if (baseUrl == null && event.getApplicationContext().getServerNamespace() == null) {
+            // Cached targets are request URIs and already start with the context path
+            baseUrl = LocalServerUrl.baseUrl(server, event.getWebServer().getPort());
+        }
+    }
+
+    /**
+     * Build the primary cache key of a request: path plus query parameters in sorted order,
+     * so the same resource requested with reordered parameters shares one entry
+     *
+     * @param request the request
+     * @return the key
+     */
+    static String primaryKey(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String query = request.getQueryString();
+        if (query == null || query.isEmpty()) {
+            return path;
+        }
+        String[] parameters = query.split("&");
+        Arrays.sort(parameters);
+        StringBuilder key = new StringBuilder(path.length() + query.length() + 1).append(path);
+        char separator = '?';
+        for (String parameter : parameters) {
+            if (!parameter.isEmpty()) {
+                key.append(separator).append(parameter);
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Whether a path is excluded from caching
+     *
+     * @param path the request URI
+     * @return true if never cached
+     */
+    boolean isBypassed(String path) {
+        for (int i = 0; i < bypassPaths.size(); i++) {
+            if (path.startsWith(bypassPaths.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find a usable (fresh, or stale within its stale-while-revalidate window) variant
+     *
+     * @param key the primary key
+     * @param request the request, for Vary matching
+     * @param now current nanoTime
+     * @return the entry, or null on a miss
+     */
+    CachedResponse lookup(String key, HttpServletRequest request, long now) {
+        CachedResponse entry = segmentFor(key).lookup(key, request, now);
+        if (entry == null) {
+            misses.increment();
+        } else if (entry.isFresh(now)) {
+            hits.increment();
+        } else {
+            staleHits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Store a response, replacing the same variant of the same URL
+     *
+     * @param key the primary key
+     * @param entry the response
+     */
+    void store(String key, CachedResponse entry) {
+        evictions.add(segmentFor(key).store(key, entry, maxVariants));
+        stores.increment();
+    }
+
+    /**
+     * Drop every variant of a URL, e.g. after a successful unsafe request to it
+     *
+     * @param key the primary key
+     */
+    void invalidate(String key) {
+        segmentFor(key).invalidate(key);
+    }
+
+    /**
+     * Refresh a stale entry in the background, at most once at a time per entry
+     *
+     * @param entry the stale entry
+     */
+    void revalidate(CachedResponse entry) {
+        String base = baseUrl;
+        if (base == null || !entry.startRevalidation()) {
+            return;
+        }
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + entry.getTarget()))
+                    .timeout(revalidateTimeout)
+                    .header(InternalTraffic.HEADER, internalTraffic.getToken())
+                    .GET();
+            // Reproduce the request headers that selected this variant
+            String[] varyNames = entry.getVaryNames();
+            String[] varyValues = entry.getVaryValues();
+            for (int i = 0; i < varyNames.length; i++) {
+                if (!varyValues[i].isEmpty() && !RESTRICTED_HEADERS.contains(varyNames[i])) {
+                    builder.header(varyNames[i], varyValues[i]);
+                }
+            }
+            revalidations.increment();
+            httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> {
+                        entry.endRevalidation();
+                        if (ex != null) {
+                            log.debug("Background revalidation of {} failed: {}", entry.getTarget(), ex.toString());
+                        }
+                    });
+        } catch (RuntimeException ex) {
+            entry.endRevalidation();
+            log.debug("Background revalidation of {} not started: {}", entry.getTarget(), ex.toString());
+        }
+    }
+
+    /**
+     * Whether a request was sent by this process (e.g. a revalidation) and must reach the handler
+     *
+     * @param request the request
+     * @return true for internal requests
+     */
+    boolean isInternal(HttpServletRequest request) {
+        return internalTraffic.isInternal(request);
+    }
+
+    int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /**
+     * Get cache metrics
+     *
+     * @return a snapshot of the counters
+     */
+    public ResponseCacheStatsDto stats() {
+        long entries = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                entries += segment.entries.size();
+                bytes += segment.bytes;
+            }
+        }
+        return ResponseCacheStatsDto.builder()
+                .urls(entries)
+                .bytes(bytes)
+                .maxBytes(maxBytes)
+                .hits(hits.sum())
+                .staleHits(staleHits.sum())
+                .misses(misses.sum())
+                .stores(stores.sum())
+                .evictions(evictions.sum())
+                .revalidations(revalidations.sum())
+                .build();
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    /**
+     * One LRU segment; all access is synchronized on the segment
+     */
+    private static final class Segment {
+
+        private final long budget;
+        private final LinkedHashMap<String, Variants> entries = new LinkedHashMap<>(64, 0.75f, true);
+        private long bytes;
+
+        private Segment(long budget) {
+            this.budget = budget;
+        }
+
+        private synchronized CachedResponse lookup(String key, HttpServletRequest request, long now) {
+            Variants variants = entries.get(key);
+            if (variants == null) {
+                return null;
+            }
+            CachedResponse match = null;
+            Iterator<CachedResponse> iterator = variants.list.iterator();
+            while (iterator.hasNext()) {
+                CachedResponse entry = iterator.next();
+                if (!entry.isUsable(now)) {
+                    iterator.remove();
+                    variants.weight -= entry.getWeight();
+                    bytes -= entry.getWeight();
+                } else if (match == null && entry.matches(request)) {
+                    match = entry;
+                }
+            }
+            if (variants.list.isEmpty()) {
+                entries.remove(key);
+            }
+            return match;
+        }
+
+        /**
+         * @return number of URLs evicted to make room
+         */
+        private synchronized int store(String key, CachedResponse entry, int maxVariants) {
+            Variants variants = entries.computeIfAbsent(key, k -> new Variants());
+            long delta = entry.getWeight();
+            List<CachedResponse> list = variants.list;
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i).sameVariantAs(entry)) {
+                    delta -= list.remove(i).getWeight();
+                    break;
+                }
+            }
+            if (list.size() >= maxVariants) {
+                delta -= list.remove(0).getWeight();
+            }
+            list.add(entry);
+            variants.weight += delta;
+            bytes += delta;
+
+            int evicted = 0;
+            Iterator<Map.Entry<String, Variants>> eldest = entries.entrySet().iterator();
+            while (bytes > budget && eldest.hasNext()) {
+                Map.Entry<String, Variants> candidate = eldest.next();
+                if (candidate.getKey().equals(key)) {
+                    continue;
+                }
+                bytes -= candidate.getValue().weight;
+                eldest.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+
+        private synchronized void invalidate(String key) {
+            Variants variants = entries.remove(key);
+            if (variants != null) {
+                bytes -= variants.weight;
+            }
+        }
+    }
+
+    /**
+     * All stored variants of one URL
+     */
+    private static final class Variants {
+
+        private final List<CachedResponse> list = new ArrayList<>(1);
+        private long weight;
+    }
+}
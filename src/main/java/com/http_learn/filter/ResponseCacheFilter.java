@@ -0,0 +1,239 @@
+package com.http_learn.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter implementing a shared HTTP cache in front of the handlers (RFC 9111)
+ *
+ * Only GET responses with explicit freshness (max-age or s-maxage) are stored; no-store, private,
+ * no-cache, Set-Cookie, Vary: * and partial responses are never stored. A hit is written straight from
+ * the filter without reaching the DispatcherServlet. Requests with Cache-Control: no-store bypass the
+ * cache, no-cache or max-age=0 force a fresh response, and successful unsafe requests invalidate the URL
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String CACHE_STATUS = "X-Cache";
+    private static final long MAX_LIFETIME_SECONDS = TimeUnit.DAYS.toSeconds(365);
+    static final Set<String> UNSTORED_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade",
+            "proxy-authenticate", "proxy-authorization", "content-length", "content-type", "date", "age",
+            "server-timing", CACHE_STATUS.toLowerCase(Locale.ROOT));
+    private static final Set<String> UNSAFE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final ResponseCache cache;
+
+    public ResponseCacheFilter(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return cache.isBypassed(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String method = request.getMethod();
+        if (UNSAFE_METHODS.contains(method)) {
+            filterChain.doFilter(request, response);
+            String key = ResponseCache.primaryKey(request);
+            onCompletion(request, () -> {
+                if (response.getStatus() < 400) {
+                    cache.invalidate(key);
+                }
+            });
+            return;
+        }
+        if (!HttpMethod.GET.matches(method)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CacheDirectives requestDirectives = CacheDirectives.parse(request.getHeaders(HttpHeaders.CACHE_CONTROL));
+        if (requestDirectives.noStore()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = ResponseCache.primaryKey(request);
+        long start = System.nanoTime();
+        boolean mayServeStored = !requestDirectives.noCache() && requestDirectives.maxAge() != 0
+                && !cache.isInternal(request);
+        if (mayServeStored) {
+            CachedResponse entry = cache.lookup(key, request, start);
+            if (entry != null) {
+                boolean fresh = entry.isFresh(start);
+                if (!fresh) {
+                    cache.revalidate(entry);
+                }
+                serve(entry, request, response, start, fresh);
+                return;
+            }
+        }
+
+        // Headers set by earlier filters (e.g. rate limit counters) belong to this exchange, not to the stored response
+        Set<String> exchangeHeaders = new HashSet<>();
+        for (String name : response.getHeaderNames()) {
+            exchangeHeaders.add(name.toLowerCase(Locale.ROOT));
+        }
+        CapturingResponseWrapper wrapper = new CapturingResponseWrapper(response, cache.getMaxEntryBytes());
+        wrapper.setHeader(CACHE_STATUS, "MISS");
+        filterChain.doFilter(request, wrapper);
+        onCompletion(request, () -> storeIfCacheable(key, request, wrapper, exchangeHeaders, start));
+    }
+
+    /**
+     * Run an action once the response is complete, which for async requests is after the async cycle ends
+     */
+    private static void onCompletion(HttpServletRequest request, Runnable action) {
+        if (!request.isAsyncStarted()) {
+            action.run();
+            return;
+        }
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                action.run();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                event.getAsyncContext().addListener(this);
+            }
+        });
+    }
+
+    private void storeIfCacheable(String key, HttpServletRequest request, CapturingResponseWrapper response,
+                                  Set<String> exchangeHeaders, long start) {
+        int status = response.getStatus();
+        byte[] body = response.capturedBody();
+        if (body == null || status < 200 || status == HttpStatus.PARTIAL_CONTENT.value()
+                || response.containsHeader(HttpHeaders.SET_COOKIE)) {
+            return;
+        }
+
+        CacheDirectives directives = CacheDirectives.parse(String.join(",", response.getHeaders(HttpHeaders.CACHE_CONTROL)));
+        long freshness = Math.min(directives.sharedFreshnessSeconds(), MAX_LIFETIME_SECONDS);
+        if (directives.noStore() || directives.noCache() || directives.privateResponse() || freshness < 0) {
+            return;
+        }
+        // A shared cache may only store answers to authenticated requests when the origin explicitly allows it
+        if (request.getHeader(HttpHeaders.AUTHORIZATION) != null
+                && !directives.publicResponse() && directives.sharedMaxAge() < 0) {
+            return;
+        }
+        long staleWindow = Math.min(directives.staleWhileRevalidate(), MAX_LIFETIME_SECONDS);
+        if (freshness == 0 && staleWindow == 0) {
+            return;
+        }
+
+        List<String> varyNames = new ArrayList<>();
+        for (String vary : response.getHeaders(HttpHeaders.VARY)) {
+            for (String name : vary.split(",")) {
+                String trimmed = name.trim().toLowerCase(Locale.ROOT);
+                if (trimmed.equals("*")) {
+                    return;
+                }
+                if (!trimmed.isEmpty() && !varyNames.contains(trimmed)) {
+                    varyNames.add(trimmed);
+                }
+            }
+        }
+        String[] varyValues = new String[varyNames.size()];
+        for (int i = 0; i < varyValues.length; i++) {
+            varyValues[i] = CachedResponse.normalizeVaryValue(request.getHeaders(varyNames.get(i)));
+        }
+
+        List<String> headerNames = new ArrayList<>();
+        List<String> headerValues = new ArrayList<>();
+        for (String name : response.getHeaderNames()) {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            if (UNSTORED_HEADERS.contains(lowerName) || exchangeHeaders.contains(lowerName)) {
+                continue;
+            }
+            for (String value : response.getHeaders(name)) {
+                headerNames.add(name);
+                headerValues.add(value);
+            }
+        }
+
+        String query = request.getQueryString();
+        String target = query != null ? request.getRequestURI() + "?" + query : request.getRequestURI();
+        long freshUntil = start + TimeUnit.SECONDS.toNanos(freshness);
+        cache.store(key, new CachedResponse(target, status, response.getContentType(),
+                headerNames.toArray(String[]::new), headerValues.toArray(String[]::new), body,
+                response.getHeader(HttpHeaders.ETAG), varyNames.toArray(String[]::new), varyValues,
+                start, freshUntil, freshUntil + TimeUnit.SECONDS.toNanos(staleWindow)));
+    }
+
+    private static void serve(CachedResponse entry, HttpServletRequest request, HttpServletResponse response,
+                              long now, boolean fresh) throws IOException {
+        boolean notModified = entry.getEtag() != null && etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), entry.getEtag());
+        response.setStatus(notModified ? HttpStatus.NOT_MODIFIED.value() : entry.getStatus());
+        String[] names = entry.getHeaderNames();
+        String[] values = entry.getHeaderValues();
+        for (int i = 0; i < names.length; i++) {
+            response.addHeader(names[i], values[i]);
+        }
+        response.setHeader(HttpHeaders.AGE, Long.toString(TimeUnit.NANOSECONDS.toSeconds(now - entry.getStoredAtNanos())));
+        response.setHeader(CACHE_STATUS, fresh ? "HIT" : "STALE");
+        if (notModified) {
+            return;
+        }
+        if (entry.getContentType() != null) {
+            response.setContentType(entry.getContentType());
+        }
+        byte[] body = entry.getBody();
+        response.setContentLength(body.length);
+        if (body.length > 0) {
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * Weak comparison of an If-None-Match header against a stored ETag
+     */
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String stored = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeak(trimmed).equals(stored)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,196 @@
+package com.http_learn.filter;
+
+import com.http_learn.concurrent.LogLinearHistogram;
+import com.http_learn.config.DashboardProperties;
+import com.http_learn.dto.DashboardSnapshotDto;
+import com.http_learn.dto.RouteMetricsDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free rolling window of request rate, error rate and latency per route
+ *
+ * Every route owns a ring of one-second slots. Request threads only add to the slot of the current
+ * second; the once-per-second {@link #tick()} clears the slots of the next seconds ahead of time and
+ * reads the completed ones, so recording never takes a lock or races with a reset
+ */
+@Component
+@ConditionalOnProperty(prefix = "http-learn.dashboard", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RouteMetrics {
+
+    /**
+     * Route collecting everything beyond the configured number of routes
+     */
+    static final String OVERFLOW = "[other]";
+
+    /**
+     * Route of requests no handler mapping matched
+     */
+    static final String UNMAPPED = "[unmapped]";
+
+    /**
+     * Slots cleared ahead of the current second, so a tick may run late by this much minus one second
+     */
+    private static final int CLEARED_AHEAD = 2;
+
+    private final int windowSeconds;
+    private final int slotCount;
+    private final int maxRoutes;
+    private final Map<String, RouteWindow> routes = new ConcurrentHashMap<>();
+
+    public RouteMetrics(DashboardProperties properties) {
+        this.windowSeconds = Math.max(1, properties.getWindowSeconds());
+        this.slotCount = windowSeconds + CLEARED_AHEAD + 1;
+        this.maxRoutes = Math.max(1, properties.getMaxRoutes());
+    }
+
+    /**
+     * Record one completed request
+     *
+     * @param route method and route pattern
+     * @param status response status
+     * @param latencyNanos time from the first filter to completion
+     */
+    void record(String route, int status, long latencyNanos) {
+        record(route, status, latencyNanos, currentSecond());
+    }
+
+    void record(String route, int status, long latencyNanos, long second) {
+        RouteWindow window = routes.get(route);
+        if (window == null) {
+            String key = routes.size() < maxRoutes ? route : OVERFLOW;
+            window = routes.computeIfAbsent(key, k -> new RouteWindow(slotCount, second));
+        }
+        Slot slot = window.slots[(int) Math.floorMod(second, (long) slotCount)];
+        slot.requests.increment();
+        if (status >= 500) {
+            slot.errors.increment();
+        }
+        slot.latencyMicros.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    /**
+     * Aggregate the completed seconds of the window and prepare the slots of the coming seconds
+     *
+     * @return the snapshot, busiest route first
+     */
+    public DashboardSnapshotDto tick() {
+        return tick(currentSecond(), System.currentTimeMillis());
+    }
+
+    DashboardSnapshotDto tick(long second, long timestamp) {
+        List<RouteMetricsDto> snapshot = new ArrayList<>();
+        long[] counts = new long[LogLinearHistogram.BUCKETS];
+        routes.forEach((route, window) -> {
+            for (int ahead = 1; ahead <= CLEARED_AHEAD; ahead++) {
+                window.clear(second + ahead, slotCount);
+            }
+            RouteMetricsDto metrics = window.aggregate(route, second, windowSeconds, slotCount, counts);
+            if (metrics != null) {
+                snapshot.add(metrics);
+            }
+        });
+        snapshot.sort(Comparator.comparingLong(RouteMetricsDto::getRequests).reversed());
+        return DashboardSnapshotDto.builder()
+                .timestamp(timestamp)
+                .windowSeconds(windowSeconds)
+                .routes(snapshot)
+                .build();
+    }
+
+    /**
+     * Seconds of the monotonic clock, shared by recording and aggregation
+     */
+    static long currentSecond() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+    }
+
+    /**
+     * Slots of one route
+     */
+    private static final class RouteWindow {
+
+        private final Slot[] slots;
+
+        private RouteWindow(int slotCount, long second) {
+            this.slots = new Slot[slotCount];
+            for (int i = 0; i < slotCount; i++) {
+                slots[i] = new Slot();
+            }
+            // The slots a new route starts writing to immediately are valid from the start
+            for (int i = 0; i <= CLEARED_AHEAD; i++) {
+                slots[(int) Math.floorMod(second + i, (long) slotCount)].second = second + i;
+            }
+        }
+
+        private void clear(long second, int slotCount) {
+            Slot slot = slots[(int) Math.floorMod(second, (long) slotCount)];
+            if (slot.second != second) {
+                slot.requests.reset();
+                slot.errors.reset();
+                slot.latencyMicros.reset();
+                slot.second = second;
+            }
+        }
+
+        /**
+         * @return metrics of the seconds before the current one, or null without traffic
+         */
+        private RouteMetricsDto aggregate(String route, long second, int windowSeconds, int slotCount, long[] counts) {
+            Arrays.fill(counts, 0);
+            long requests = 0;
+            long errors = 0;
+            long measured = 0;
+            for (long s = second - windowSeconds; s < second; s++) {
+                Slot slot = slots[(int) Math.floorMod(s, (long) slotCount)];
+                // A slot that was not cleared for this second (e.g. after a late tick) holds nothing usable
+                if (slot.second != s) {
+                    continue;
+                }
+                requests += slot.requests.sum();
+                errors += slot.errors.sum();
+                measured += slot.latencyMicros.addTo(counts);
+            }
+            if (requests == 0) {
+                return null;
+            }
+            return RouteMetricsDto.builder()
+                    .route(route)
+                    .requests(requests)
+                    .requestsPerSecond(round((double) requests / windowSeconds))
+                    .errorRate(round((double) errors / requests))
+                    .p50Ms(millis(LogLinearHistogram.percentile(counts, measured, 0.50)))
+                    .p90Ms(millis(LogLinearHistogram.percentile(counts, measured, 0.90)))
+                    .p99Ms(millis(LogLinearHistogram.percentile(counts, measured, 0.99)))
+                    .build();
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+
+    /**
+     * Counters of one second
+     */
+    private static final class Slot {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LogLinearHistogram latencyMicros = new LogLinearHistogram();
+        private volatile long second = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,87 @@
+package com.http_learn.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter feeding every completed API request into the live dashboard metrics
+ *
+ * Latency runs from entering this filter to the end of the request, so requests handled
+ * asynchronously are recorded by a listener once they complete. Event streams are left out,
+ * since their duration says nothing about the latency of the route
+ */
+public class RouteMetricsFilter extends OncePerRequestFilter {
+
+    private final RouteMetrics routeMetrics;
+
+    public RouteMetricsFilter(RouteMetrics routeMetrics) {
+        this.routeMetrics = routeMetrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                async = true;
+                request.getAsyncContext().addListener(new CompletionListener(start));
+            }
+        } finally {
+            if (!async) {
+                record(request, response, start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long start) {
+        String contentType = response.getContentType();
+        if (contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern instanceof String matched ? request.getMethod() + " " + matched : RouteMetrics.UNMAPPED;
+        routeMetrics.record(route, response.getStatus(), System.nanoTime() - start);
+    }
+
+    /**
+     * Records an async request once its last dispatch is done
+     */
+    private final class CompletionListener implements AsyncListener {
+
+        private final long start;
+
+        private CompletionListener(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record((HttpServletRequest) event.getSuppliedRequest(), (HttpServletResponse) event.getSuppliedResponse(), start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.http_learn.filter;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Lock-free token bucket for one client
+ *
+ * The bucket is stored as a single timestamp, the theoretical arrival time (TAT) of the next request
+ * in the generic cell rate algorithm. Refill is implied by the passage of time, so there is no timer,
+ * and a decision is one compare-and-set on a primitive field with no allocation
+ */
+final class TokenBucket {
+
+    private static final AtomicLongFieldUpdater<TokenBucket> TAT =
+            AtomicLongFieldUpdater.newUpdater(TokenBucket.class, "tat");
+
+    private volatile long tat;
+
+    TokenBucket(long nowNanos) {
+        this.tat = nowNanos;
+    }
+
+    /**
+     * Try to take one token
+     *
+     * @param nowNanos current monotonic time
+     * @param emissionIntervalNanos time it takes to refill one token
+     * @param burstNanos capacity multiplied by the emission interval
+     * @return when allowed, the time until the bucket is full again (zero or positive);
+     *         when denied, minus one minus the time until the next token is available
+     */
+    long tryConsume(long nowNanos, long emissionIntervalNanos, long burstNanos) {
+        while (true) {
+            long current = tat;
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long debt = next - nowNanos;
+            if (debt > burstNanos) {
+                return -1 - (debt - burstNanos);
+            }
+            if (TAT.compareAndSet(this, current, next)) {
+                return debt;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has been full since before the given time
+     *
+     * @param thresholdNanos monotonic time
+     * @return true if no token has been owed since the threshold
+     */
+    boolean isIdleSince(long thresholdNanos) {
+        return tat - thresholdNanos <= 0;
+    }
+}
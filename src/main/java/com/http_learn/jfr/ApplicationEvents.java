@@ -0,0 +1,23 @@
+package com.http_learn.jfr;
+
+import jdk.jfr.Event;
+
+import java.util.List;
+
+/**
+ * The custom JFR event types of the application
+ *
+ * Recordings without explicit settings for an event fall back to its defaults, which enable it. Streams and
+ * recordings that only want some events therefore switch these off or on explicitly
+ */
+public final class ApplicationEvents {
+
+    /**
+     * Every custom event type
+     */
+    public static final List<Class<? extends Event>> TYPES = List.of(
+            HttpRequestEvent.class, UploadChunkEvent.class, BulkheadTaskEvent.class);
+
+    private ApplicationEvents() {
+    }
+}
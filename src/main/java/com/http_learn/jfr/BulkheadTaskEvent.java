@@ -0,0 +1,68 @@
+package com.http_learn.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event covering the lifecycle of one bulkhead task (uploads, bulk, ingest): time spent queued,
+ * then the event duration is the time spent running; rejected and discarded tasks have no run time
+ */
+@Name("http_learn.BulkheadTask")
+@Label("Bulkhead Task")
+@Category({"HTTP Learn", "Bulkheads"})
+@Description("One task submitted to a bulkhead executor")
+@StackTrace(false)
+public class BulkheadTaskEvent extends Event {
+
+    /**
+     * How a task left the bulkhead
+     */
+    public enum Outcome {
+        COMPLETED, FAILED, CANCELLED, REJECTED, DISCARDED
+    }
+
+    @Label("Bulkhead")
+    private String bulkhead;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Queue Wait")
+    @Timespan
+    private long queueWait;
+
+    /**
+     * Commit an event for a task that never ran
+     *
+     * @param bulkhead bulkhead name
+     * @param outcome how the task ended
+     * @param queueWaitNanos time spent in the queue
+     */
+    public static void notRun(String bulkhead, Outcome outcome, long queueWaitNanos) {
+        BulkheadTaskEvent event = new BulkheadTaskEvent();
+        event.begin();
+        event.complete(bulkhead, outcome, queueWaitNanos);
+    }
+
+    /**
+     * End the event (started with begin()) and commit it if it is enabled and above its threshold
+     *
+     * @param bulkhead bulkhead name
+     * @param outcome how the task ended
+     * @param queueWaitNanos time spent in the queue
+     */
+    public void complete(String bulkhead, Outcome outcome, long queueWaitNanos) {
+        end();
+        if (shouldCommit()) {
+            this.bulkhead = bulkhead;
+            this.outcome = outcome.name();
+            this.queueWait = queueWaitNanos;
+            commit();
+        }
+    }
+}
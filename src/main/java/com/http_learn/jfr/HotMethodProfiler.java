@@ -0,0 +1,189 @@
+package com.http_learn.jfr;
+
+import com.http_learn.config.JfrProperties;
+import com.http_learn.dto.HotMethodsDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process JFR consumer keeping a rolling summary of hot methods
+ *
+ * A RecordingStream samples running Java threads (jdk.ExecutionSample) and counts, per time window,
+ * the method on top of each sampled stack and the innermost application method. Only the sampling
+ * event is enabled, so the stream costs one stack walk per running thread and sample period
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "http-learn.jfr.hot-methods", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HotMethodProfiler {
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String APPLICATION_PACKAGE = "com.http_learn.";
+
+    private final Duration samplePeriod;
+    private final long windowMillis;
+    private final Window[] windows;
+
+    private RecordingStream stream;
+
+    public HotMethodProfiler(JfrProperties properties) {
+        JfrProperties.HotMethods settings = properties.getHotMethods();
+        this.samplePeriod = Duration.ofMillis(Math.max(10, settings.getSamplePeriodMs()));
+        this.windowMillis = Math.max(1, settings.getWindowSeconds()) * 1000L;
+        this.windows = new Window[Math.max(1, settings.getWindows())];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new Window();
+        }
+    }
+
+    /**
+     * Start the sampling stream on its own thread
+     */
+    @PostConstruct
+    public void start() {
+        try {
+            RecordingStream recordingStream = new RecordingStream();
+            recordingStream.enable(EXECUTION_SAMPLE).withPeriod(samplePeriod);
+            // Without this the stream would switch the request events on for every request
+            ApplicationEvents.TYPES.forEach(recordingStream::disable);
+            // Samples are consumed as they arrive; nothing needs to stay on disk
+            recordingStream.setMaxAge(Duration.ofSeconds(10));
+            recordingStream.onEvent(EXECUTION_SAMPLE, this::onSample);
+            recordingStream.startAsync();
+            stream = recordingStream;
+        } catch (RuntimeException ex) {
+            log.warn("JFR execution sampling is not available, hot method summary is off: {}", ex.toString());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onSample(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        String top = methodName(frames.get(0).getMethod());
+        String application = null;
+        for (RecordedFrame frame : frames) {
+            RecordedMethod method = frame.getMethod();
+            if (method != null && method.getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                application = methodName(method);
+                break;
+            }
+        }
+        record(event.getStartTime().toEpochMilli(), top, application);
+    }
+
+    private static String methodName(RecordedMethod method) {
+        return method == null ? "[unknown]" : method.getType().getName() + "." + method.getName();
+    }
+
+    /**
+     * Count one sample in the window its timestamp falls into
+     *
+     * @param epochMillis sample time
+     * @param top method on top of the stack
+     * @param application innermost application method, or null
+     */
+    synchronized void record(long epochMillis, String top, String application) {
+        long windowStart = epochMillis - epochMillis % windowMillis;
+        Window window = windows[(int) ((epochMillis / windowMillis) % windows.length)];
+        if (window.start != windowStart) {
+            if (window.start > windowStart) {
+                // A late sample for a window that has already been recycled
+                return;
+            }
+            window.reset(windowStart);
+        }
+        window.samples++;
+        window.topFrames.merge(top, 1L, Long::sum);
+        if (application != null) {
+            window.applicationFrames.merge(application, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Summarise the windows still inside the rolling period
+     *
+     * @param limit methods per list
+     * @return the summary
+     */
+    public HotMethodsDto summary(int limit) {
+        return summary(System.currentTimeMillis(), limit);
+    }
+
+    synchronized HotMethodsDto summary(long nowMillis, int limit) {
+        long oldest = nowMillis - nowMillis % windowMillis - (windows.length - 1) * windowMillis;
+        long samples = 0;
+        Map<String, Long> topFrames = new HashMap<>();
+        Map<String, Long> applicationFrames = new HashMap<>();
+        for (Window window : windows) {
+            if (window.start < oldest || window.samples == 0) {
+                continue;
+            }
+            samples += window.samples;
+            window.topFrames.forEach((method, count) -> topFrames.merge(method, count, Long::sum));
+            window.applicationFrames.forEach((method, count) -> applicationFrames.merge(method, count, Long::sum));
+        }
+        return HotMethodsDto.builder()
+                .periodSeconds(windows.length * windowMillis / 1000)
+                .samples(samples)
+                .topFrames(top(topFrames, samples, limit))
+                .applicationFrames(top(applicationFrames, samples, limit))
+                .build();
+    }
+
+    private static List<HotMethodsDto.Method> top(Map<String, Long> counts, long samples, int limit) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        List<HotMethodsDto.Method> methods = new ArrayList<>(Math.min(limit, entries.size()));
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            Map.Entry<String, Long> entry = entries.get(i);
+            methods.add(HotMethodsDto.Method.builder()
+                    .method(entry.getKey())
+                    .samples(entry.getValue())
+                    .percent(Math.round(entry.getValue() * 10000.0 / samples) / 100.0)
+                    .build());
+        }
+        return methods;
+    }
+
+    /**
+     * Sample counts of one time window
+     */
+    private static final class Window {
+
+        private long start = Long.MIN_VALUE;
+        private long samples;
+        private final Map<String, Long> topFrames = new HashMap<>();
+        private final Map<String, Long> applicationFrames = new HashMap<>();
+
+        private void reset(long windowStart) {
+            start = windowStart;
+            samples = 0;
+            topFrames.clear();
+            applicationFrames.clear();
+        }
+    }
+}
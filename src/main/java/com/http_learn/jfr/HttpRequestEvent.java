@@ -0,0 +1,56 @@
+package com.http_learn.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event covering one HTTP request, from the first filter to the end of the response
+ */
+@Name("http_learn.HttpRequest")
+@Label("HTTP Request")
+@Category({"HTTP Learn", "Requests"})
+@Description("One HTTP request handled by the application, with its phase durations")
+@StackTrace(false)
+class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Route")
+    @Description("Matched route pattern, or the path when no handler matched")
+    String route;
+
+    @Label("Status")
+    int status;
+
+    @Label("Status Code")
+    @Description("SuccessStatusCode or InformationalStatusCode constant matching the status, if any")
+    String statusCode;
+
+    @Label("Response Bytes")
+    @Description("Body bytes written through the output stream, plus characters written through the writer")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Filters")
+    @Timespan
+    long filters;
+
+    @Label("Mapping")
+    @Timespan
+    long mapping;
+
+    @Label("Handler")
+    @Timespan
+    long handler;
+
+    @Label("Serialize")
+    @Timespan
+    long serialize;
+}
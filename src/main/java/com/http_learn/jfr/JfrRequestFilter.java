@@ -0,0 +1,128 @@
+package com.http_learn.jfr;
+
+import com.http_learn.enums.InformationalStatusCode;
+import com.http_learn.enums.SuccessStatusCode;
+import com.http_learn.timing.ServerTiming;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter emitting one {@link HttpRequestEvent} per request while a flight recording is running
+ *
+ * When no recording enables the event the filter only allocates the (escape-analysed) event and
+ * checks isEnabled(); otherwise it collects phase durations through {@link ServerTiming}, without
+ * reporting them to the client, and counts the response body
+ */
+public class JfrRequestFilter extends OncePerRequestFilter {
+
+    private static final String[] STATUS_CODES = statusCodes();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        if (!event.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        event.begin();
+        ServerTiming timing = ServerTiming.of(request);
+        if (timing == null) {
+            timing = ServerTiming.start(request, false);
+        }
+        CountingResponseWrapper counting = new CountingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, counting);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(event, timing, request, counting));
+            } else {
+                commit(event, timing, request, counting);
+            }
+        }
+    }
+
+    private static void commit(HttpRequestEvent event, ServerTiming timing, HttpServletRequest request,
+                               CountingResponseWrapper response) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        timing.markCompleted();
+        int status = response.getStatus();
+        event.method = request.getMethod();
+        event.route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                ? pattern
+                : request.getRequestURI();
+        event.status = status;
+        event.statusCode = status >= 0 && status < STATUS_CODES.length ? STATUS_CODES[status] : null;
+        event.responseBytes = response.getWritten();
+        event.filters = timing.filtersNanos();
+        event.mapping = timing.mappingNanos();
+        event.handler = timing.handlerNanos();
+        event.serialize = timing.serializeNanos();
+        event.commit();
+    }
+
+    /**
+     * Index the status code enums by numeric code
+     */
+    private static String[] statusCodes() {
+        String[] names = new String[600];
+        for (InformationalStatusCode code : InformationalStatusCode.values()) {
+            if (code.getCode() < names.length) {
+                names[code.getCode()] = code.name();
+            }
+        }
+        for (SuccessStatusCode code : SuccessStatusCode.values()) {
+            names[code.getCode()] = code.name();
+        }
+        return names;
+    }
+
+    /**
+     * Commits the event of an async request once its response is complete
+     */
+    private static final class CompletionListener implements AsyncListener {
+
+        private final HttpRequestEvent event;
+        private final ServerTiming timing;
+        private final HttpServletRequest request;
+        private final CountingResponseWrapper response;
+
+        private CompletionListener(HttpRequestEvent event, ServerTiming timing, HttpServletRequest request,
+                                   CountingResponseWrapper response) {
+            this.event = event;
+            this.timing = timing;
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent asyncEvent) {
+            commit(event, timing, request, response);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent asyncEvent) {
+        }
+
+        @Override
+        public void onError(AsyncEvent asyncEvent) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent asyncEvent) {
+            asyncEvent.getAsyncContext().addListener(this);
+        }
+    }
+}
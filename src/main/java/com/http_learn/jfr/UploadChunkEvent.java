@@ -0,0 +1,44 @@
+package com.http_learn.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering one read from a streamed request body; its duration is the time spent waiting for the chunk
+ */
+@Name("http_learn.UploadChunk")
+@Label("Upload Chunk")
+@Category({"HTTP Learn", "Uploads"})
+@Description("One chunk read from a streamed request body")
+@StackTrace(false)
+public class UploadChunkEvent extends Event {
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    @Label("Offset")
+    @Description("Bytes of the body read before this chunk")
+    @DataAmount
+    private long offset;
+
+    /**
+     * End the event and commit it if it is enabled and above its threshold
+     *
+     * @param bytes bytes read, -1 at end of stream
+     * @param offset bytes read before
+     */
+    public void complete(long bytes, long offset) {
+        end();
+        if (shouldCommit()) {
+            this.bytes = bytes;
+            this.offset = offset;
+            commit();
+        }
+    }
+}
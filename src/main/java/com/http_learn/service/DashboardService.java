@@ -0,0 +1,221 @@
+package com.http_learn.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.http_learn.config.DashboardProperties;
+import com.http_learn.dto.DashboardSnapshotDto;
+import com.http_learn.filter.RouteMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the per-route dashboard metrics to every open event stream once per second
+ *
+ * The snapshot is aggregated and serialized once per tick and the same event is written to all
+ * subscribers, so an open dashboard costs one write per second instead of a poll request with its
+ * own aggregation and serialization
+ *
+ * Aggregation runs alone on the dashboard thread; writes happen on push threads, at most one in flight per
+ * subscriber. A subscriber still busy with an earlier event skips the new one, and one that stays stuck
+ * for max-lag-seconds (a stalled client with a full TCP window) is dropped, so it can neither delay the
+ * metrics ring nor the other dashboards
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "http-learn.dashboard", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DashboardService {
+
+    private static final String EVENT_NAME = "metrics";
+
+    private final RouteMetrics routeMetrics;
+    private final ObjectMapper objectMapper;
+    private final DashboardProperties properties;
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger pushThreads = new AtomicInteger();
+    // One thread per write in flight, and each subscriber has at most one
+    private final ExecutorService pusher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-push-" + pushThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile DashboardSnapshotDto latest;
+    private volatile Set<DataWithMediaType> latestEvent;
+
+    public DashboardService(RouteMetrics routeMetrics, ObjectMapper objectMapper, DashboardProperties properties) {
+        this.routeMetrics = routeMetrics;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.latest = DashboardSnapshotDto.builder()
+                .timestamp(System.currentTimeMillis())
+                .windowSeconds(properties.getWindowSeconds())
+                .routes(List.of())
+                .build();
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        pusher.shutdownNow();
+        subscribers.keySet().forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+
+    /**
+     * Get the latest snapshot
+     *
+     * @return metrics of the last completed window
+     */
+    public DashboardSnapshotDto snapshot() {
+        return latest;
+    }
+
+    /**
+     * Open an event stream receiving a metrics event per second, starting with the latest snapshot
+     *
+     * @return the emitter to return from the handler
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(properties.getStreamTimeoutMs()));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(ex -> subscribers.remove(emitter));
+        subscribers.put(emitter, new Subscriber(emitter));
+
+        Set<DataWithMediaType> event = latestEvent;
+        try {
+            // Not yet handed to the container, so the emitter only buffers this event
+            send(emitter, event != null ? event : event(latest));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Dashboard snapshot cannot be serialized", ex);
+        }
+        return emitter;
+    }
+
+    /**
+     * Get the number of open event streams
+     *
+     * @return subscriber count
+     */
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    void tick() {
+        try {
+            DashboardSnapshotDto snapshot = routeMetrics.tick();
+            latest = snapshot;
+            if (subscribers.isEmpty()) {
+                latestEvent = null;
+                return;
+            }
+            Set<DataWithMediaType> event = event(snapshot);
+            latestEvent = event;
+            for (Subscriber subscriber : subscribers.values()) {
+                push(subscriber, event);
+            }
+        } catch (JsonProcessingException | RuntimeException ex) {
+            // An exception would cancel the fixed-rate schedule
+            log.warn("Dashboard tick failed", ex);
+        }
+    }
+
+    /**
+     * Hand an event to a push thread unless the subscriber is still writing an earlier one
+     */
+    private void push(Subscriber subscriber, Set<DataWithMediaType> event) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            if (subscriber.skipped.incrementAndGet() > properties.getMaxLagSeconds()) {
+                drop(subscriber);
+            }
+            return;
+        }
+        subscriber.skipped.set(0);
+        try {
+            pusher.execute(() -> {
+                try {
+                    send(subscriber.emitter, event);
+                } finally {
+                    subscriber.sending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Shutting down
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.emitter) == null) {
+            return;
+        }
+        log.debug("Dropping a dashboard stream that is {} s behind", subscriber.skipped.get());
+        try {
+            // Completing waits for the stuck write to end, so it must not happen on the dashboard thread
+            pusher.execute(subscriber.emitter::complete);
+        } catch (RejectedExecutionException ignored) {
+            // Shutting down; the container ends the stream
+        }
+    }
+
+    private Set<DataWithMediaType> event(DashboardSnapshotDto snapshot) throws JsonProcessingException {
+        return SseEmitter.event()
+                .name(EVENT_NAME)
+                .data(objectMapper.writeValueAsString(snapshot))
+                .build();
+    }
+
+    private void send(SseEmitter emitter, Set<DataWithMediaType> event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away or the stream already ended; the container completes it
+            subscribers.remove(emitter);
+        }
+    }
+
+    /**
+     * One open event stream and whether a write to it is in flight
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicInteger skipped = new AtomicInteger();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
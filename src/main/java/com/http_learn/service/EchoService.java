@@ -0,0 +1,94 @@
+package com.http_learn.service;
+
+import com.http_learn.concurrent.BufferPool;
+import com.http_learn.jfr.UploadChunkEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+
+/**
+ * Service streaming request bodies back to the client for round-trip throughput tests
+ *
+ * The body is never materialised: it is copied through one pooled buffer per request, and the output
+ * is flushed whenever no more input is buffered, so response bytes start flowing while the client
+ * is still sending (full duplex) without flushing on every read of a fast upload
+ */
+@Service
+public class EchoService {
+
+    private final BufferPool bufferPool;
+    private final Duration streamTimeout;
+
+    public EchoService(@Value("${http-learn.echo.buffer-size:16384}") int bufferSize,
+                       @Value("${http-learn.echo.pooled-buffers:64}") int pooledBuffers,
+                       @Value("${http-learn.echo.stream-timeout-ms:600000}") long streamTimeoutMs) {
+        this.bufferPool = new BufferPool(bufferSize, pooledBuffers);
+        this.streamTimeout = Duration.ofMillis(streamTimeoutMs);
+    }
+
+    /**
+     * How long one echo may stream; the body is as large as the client's upload
+     *
+     * @return async timeout for echo requests
+     */
+    public Duration getStreamTimeout() {
+        return streamTimeout;
+    }
+
+    /**
+     * Create a body that echoes the given input
+     *
+     * @param in the request body
+     * @return streaming body
+     */
+    public StreamingResponseBody echoBody(InputStream in) {
+        return out -> copy(in, out);
+    }
+
+    /**
+     * Copy the input to the output until end of stream
+     *
+     * @param in the request body
+     * @param out the response stream
+     * @return number of bytes copied
+     * @throws IOException if either side goes away
+     */
+    long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = bufferPool.acquire();
+        long total = 0;
+        try {
+            int read;
+            while ((read = readChunk(in, buffer, total)) >= 0) {
+                out.write(buffer, 0, read);
+                total += read;
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } finally {
+            bufferPool.release(buffer);
+        }
+        return total;
+    }
+
+    /**
+     * Read one chunk of the upload, timed as a JFR event
+     */
+    private static int readChunk(InputStream in, byte[] buffer, long offset) throws IOException {
+        UploadChunkEvent event = new UploadChunkEvent();
+        event.begin();
+        int read = in.read(buffer);
+        event.complete(read, offset);
+        return read;
+    }
+
+    BufferPool getBufferPool() {
+        return bufferPool;
+    }
+}
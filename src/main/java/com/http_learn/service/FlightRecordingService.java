@@ -0,0 +1,122 @@
+package com.http_learn.service;
+
+import com.http_learn.config.JfrProperties;
+import com.http_learn.exception.ExpectedException;
+import com.http_learn.jfr.ApplicationEvents;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.text.ParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * On-demand JDK Flight Recorder recordings for profiling a running instance without attaching tools
+ *
+ * One recording runs at a time, bounded in duration and size. The request thread is released while it
+ * runs; when the duration elapses the recording is dumped to a temporary file that the caller streams
+ * back and deletes, also when the download never happens
+ */
+@Slf4j
+@Service
+public class FlightRecordingService {
+
+    private final JfrProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public FlightRecordingService(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Check the ops token of a request
+     *
+     * @param token the X-Ops-Token header value
+     * @throws ExpectedException 404 while no token is configured, 401 if the token does not match
+     */
+    public void authorize(String token) {
+        String expected = properties.getToken();
+        if (expected == null || expected.isEmpty()) {
+            throw new ExpectedException(HttpStatus.NOT_FOUND, "Flight recordings are disabled; set http-learn.jfr.token to enable them");
+        }
+        if (token == null || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            throw new ExpectedException(HttpStatus.UNAUTHORIZED, "A valid X-Ops-Token header is required");
+        }
+    }
+
+    /**
+     * Start a recording
+     *
+     * @param seconds how long to record
+     * @return future completed with the dumped recording once the duration has elapsed
+     * @throws ExpectedException 400 for a duration out of range, 409 while another recording runs
+     */
+    public CompletableFuture<Path> record(int seconds) {
+        if (seconds < 1 || seconds > properties.getMaxDurationSeconds()) {
+            throw new ExpectedException(HttpStatus.BAD_REQUEST, "seconds must be between 1 and " + properties.getMaxDurationSeconds());
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new ExpectedException(HttpStatus.CONFLICT, "A flight recording is already running");
+        }
+
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(properties.getSettings()));
+        } catch (IOException | ParseException ex) {
+            running.set(false);
+            throw new IllegalStateException("JFR settings " + properties.getSettings() + " cannot be loaded", ex);
+        }
+        recording.setName("http-learn-on-demand");
+        // Explicit, so they stay on even though the hot method stream switches them off
+        ApplicationEvents.TYPES.forEach(recording::enable);
+        recording.setToDisk(true);
+        recording.setMaxSize(properties.getMaxSizeBytes());
+        recording.start();
+        log.info("Flight recording started for {} s", seconds);
+
+        CompletableFuture<Path> result = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(seconds, TimeUnit.SECONDS).execute(() -> {
+            Path file = null;
+            try {
+                recording.stop();
+                file = Files.createTempFile("http-learn-", ".jfr");
+                file.toFile().deleteOnExit();
+                recording.dump(file);
+                log.info("Flight recording finished: {} bytes", Files.size(file));
+                result.complete(file);
+            } catch (IOException | RuntimeException ex) {
+                delete(file);
+                result.completeExceptionally(ex);
+            } finally {
+                recording.close();
+                running.set(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Delete a dumped recording, e.g. one whose download was abandoned
+     *
+     * @param file the recording, or null
+     */
+    public void delete(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Flight recording {} could not be deleted: {}", file, ex.toString());
+        }
+    }
+}
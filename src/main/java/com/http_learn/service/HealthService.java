@@ -0,0 +1,31 @@
+package com.http_learn.service;
+
+import com.http_learn.dto.HealthSnapshot;
+
+/**
+ * Service interface for the application health model
+ * Checks run in the background; callers only ever read the latest published snapshot
+ */
+public interface HealthService {
+
+    /**
+     * Get the latest health snapshot
+     *
+     * @return immutable snapshot, never null
+     */
+    HealthSnapshot getSnapshot();
+
+    /**
+     * Whether the process is alive and should not be restarted
+     *
+     * @return true if live
+     */
+    boolean isLive();
+
+    /**
+     * Whether the instance should receive traffic
+     *
+     * @return true if ready
+     */
+    boolean isReady();
+}
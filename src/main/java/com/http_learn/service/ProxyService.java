@@ -0,0 +1,563 @@
+package com.http_learn.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.http_learn.config.ProxyProperties;
+import com.http_learn.dto.ProxyStatsDto;
+import com.http_learn.exception.ExpectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caching reverse proxy in front of slow internal read APIs
+ *
+ * GET requests under a route are forwarded to its upstream over one shared JDK HttpClient, which keeps
+ * idle connections to each upstream open for reuse. Upstream responses are keyed by their URL, so every
+ * client asking for the same URL shares one fetch: the first request starts it, requests arriving while it
+ * runs wait on the same future, and a successful response is then served from memory until its route's TTL
+ * runs out. Client headers are not forwarded, so one cached response is valid for every client. Cached
+ * responses are bounded by count and by byte weight, oldest first, and an expired one is dropped as soon
+ * as a request finds it
+ *
+ * The proxy can reshape JSON responses: ?fields=a,b keeps only those top-level fields (of the document, or
+ * of every object in a top-level array) and Accept: application/cbor transcodes to CBOR. A transformed
+ * response is answered with 203 Non-Authoritative Information, as it is no longer what the origin sent
+ */
+@Slf4j
+@Service
+public class ProxyService {
+
+    /**
+     * Response header telling whether the upstream response came from the cache (HIT), from a fetch
+     * started by another request (COALESCED) or from a fetch started by this one (MISS)
+     */
+    public static final String CACHE_HEADER = "X-Proxy-Cache";
+
+    private static final String VIA = "1.1 http-learn";
+    private static final String UPSTREAM_ACCEPT = "application/json, */*;q=0.5";
+
+    private final Map<String, Target> targets;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final int maxBodyBytes;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+
+    /**
+     * In-flight and cached entries by upstream URL; requests look entries up here without locking
+     */
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Cached entries in the order they were stored, with their total weight; guarded by the map's monitor
+     */
+    private final LinkedHashMap<String, Entry> cached = new LinkedHashMap<>();
+    private long cachedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder transformed = new LongAdder();
+    private final LongAdder upstreamErrors = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ProxyService(ProxyProperties properties, ObjectMapper objectMapper,
+                        MappingJackson2CborHttpMessageConverter cborConverter) {
+        this.targets = Map.copyOf(targets(properties));
+        this.requestTimeout = Duration.ofMillis(properties.getRequestTimeoutMs());
+        this.maxBodyBytes = properties.getMaxBodyBytes();
+        this.maxEntries = Math.max(1, properties.getMaxEntries());
+        this.maxBytes = Math.max(1, properties.getMaxBytes());
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
+        // Internal APIs rarely speak cleartext HTTP/2, so skip the h2c upgrade attempt on every new connection
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * Forward a GET request to the upstream of a route
+     *
+     * @param route the route name
+     * @param path the raw path after the route prefix, empty or starting with /
+     * @param query the raw query string, may be null; a fields parameter is applied here and not forwarded
+     * @param accept the Accept header of the client, may be null
+     * @return the upstream response, as sent (status of the upstream) or transformed (203)
+     */
+    public CompletableFuture<ResponseEntity<byte[]>> forward(String route, String path, String query, String accept) {
+        Target target = targets.get(route);
+        if (target == null) {
+            throw new ExpectedException(HttpStatus.NOT_FOUND, "No proxy route named " + route);
+        }
+        List<String> forwarded = new ArrayList<>();
+        Set<String> fields = null;
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("fields=")) {
+                    fields = fields(parameter.substring("fields=".length()));
+                } else if (!parameter.isEmpty()) {
+                    forwarded.add(parameter);
+                }
+            }
+        }
+        // Sorted like the response cache key, so reordered parameters share one fetch
+        Collections.sort(forwarded);
+        URI uri = target.resolve(path, String.join("&", forwarded));
+        boolean cbor = acceptsCbor(accept);
+        Set<String> projection = fields;
+
+        long now = System.nanoTime();
+        String key = uri.toString();
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.isFresh(now)) {
+            forget(entry);
+        }
+        if (entry == null || !entry.isFresh(now)) {
+            Entry created = new Entry(key);
+            entry = entries.compute(key, (k, current) -> current != null && current.isFresh(now) ? current : created);
+            if (entry == created) {
+                misses.increment();
+                fetch(target, uri, created);
+                return created.response.handle((upstream, failure) -> respond(upstream, failure, "MISS", projection, cbor));
+            }
+        }
+        if (entry.response.isDone()) {
+            hits.increment();
+            return entry.response.handle((upstream, failure) -> respond(upstream, failure, "HIT", projection, cbor));
+        }
+        coalesced.increment();
+        return entry.response.handle((upstream, failure) -> respond(upstream, failure, "COALESCED", projection, cbor));
+    }
+
+    /**
+     * Get proxy metrics
+     *
+     * @return entry count and counters
+     */
+    public ProxyStatsDto stats() {
+        long bytes;
+        synchronized (cached) {
+            bytes = cachedBytes;
+        }
+        return ProxyStatsDto.builder()
+                .entries(entries.size())
+                .bytes(bytes)
+                .maxBytes(maxBytes)
+                .hits(hits.sum())
+                .coalesced(coalesced.sum())
+                .misses(misses.sum())
+                .transformed(transformed.sum())
+                .upstreamErrors(upstreamErrors.sum())
+                .evictions(evictions.sum())
+                .build();
+    }
+
+    private void fetch(Target target, URI uri, Entry entry) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header(HttpHeaders.ACCEPT, UPSTREAM_ACCEPT)
+                .header(HttpHeaders.VIA, VIA)
+                .GET()
+                .build();
+        httpClient.sendAsync(request, info -> new LimitedBody(maxBodyBytes))
+                .whenComplete((response, failure) -> {
+                    if (failure != null) {
+                        upstreamErrors.increment();
+                        entries.remove(entry.key, entry);
+                        entry.response.completeExceptionally(failure);
+                        return;
+                    }
+                    Upstream upstream = new Upstream(response.statusCode(),
+                            response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null),
+                            response.headers().firstValue(HttpHeaders.ETAG).orElse(null),
+                            response.headers().firstValue(HttpHeaders.LAST_MODIFIED).orElse(null),
+                            response.body(), System.nanoTime());
+                    // Written before completion, so whoever sees the entry done also sees its expiry
+                    long weight = entry.key.length() + upstream.weight();
+                    if (target.ttlNanos > 0 && isCacheable(response) && weight <= maxBytes) {
+                        entry.expiresAt = upstream.fetchedAt + target.ttlNanos;
+                        remember(entry, weight);
+                    } else {
+                        entries.remove(entry.key, entry);
+                    }
+                    entry.response.complete(upstream);
+                });
+    }
+
+    /**
+     * Only plain successful responses are kept; errors and responses the upstream marked as not shareable
+     * are handed to the requests waiting on them and then forgotten
+     */
+    private static boolean isCacheable(HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        for (String value : response.headers().allValues(HttpHeaders.CACHE_CONTROL)) {
+            String directives = value.toLowerCase(Locale.ROOT);
+            if (directives.contains("no-store") || directives.contains("private")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Track a cached entry, then drop expired entries from the oldest end and evict the oldest fresh ones
+     * while the cache is over its entry or weight limit
+     */
+    private void remember(Entry entry, long weight) {
+        long now = System.nanoTime();
+        synchronized (cached) {
+            entry.weight = weight;
+            // Removed first so the new entry goes to the newest end
+            Entry replaced = cached.remove(entry.key);
+            if (replaced != null) {
+                cachedBytes -= replaced.weight;
+            }
+            cached.put(entry.key, entry);
+            cachedBytes += weight;
+            Iterator<Entry> oldest = cached.values().iterator();
+            while (oldest.hasNext()) {
+                Entry candidate = oldest.next();
+                boolean expired = !candidate.isFresh(now);
+                if (candidate == entry || !expired && cached.size() <= maxEntries && cachedBytes <= maxBytes) {
+                    break;
+                }
+                oldest.remove();
+                cachedBytes -= candidate.weight;
+                if (entries.remove(candidate.key, candidate) && !expired) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop an expired entry a request has found, so its body is released before the next fetch completes
+     */
+    private void forget(Entry entry) {
+        synchronized (cached) {
+            if (cached.remove(entry.key, entry)) {
+                cachedBytes -= entry.weight;
+            }
+        }
+        entries.remove(entry.key, entry);
+    }
+
+    private ResponseEntity<byte[]> respond(Upstream upstream, Throwable failure, String cacheState,
+                                           Set<String> fields, boolean cbor) {
+        if (failure != null) {
+            throw upstreamFailure(failure);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.VIA, VIA);
+        headers.set(CACHE_HEADER, cacheState);
+        if ("HIT".equals(cacheState)) {
+            headers.set(HttpHeaders.AGE, Long.toString(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - upstream.fetchedAt)));
+        }
+
+        boolean transformable = upstream.status == 200 && isJson(upstream.contentType);
+        if (transformable) {
+            // The same URL is answered as JSON or CBOR depending on Accept
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        boolean transform = (fields != null || cbor) && transformable;
+        if (!transform) {
+            if (upstream.contentType != null) {
+                headers.set(HttpHeaders.CONTENT_TYPE, upstream.contentType);
+            }
+            if (upstream.etag != null) {
+                headers.set(HttpHeaders.ETAG, upstream.etag);
+            }
+            if (upstream.lastModified != null) {
+                headers.set(HttpHeaders.LAST_MODIFIED, upstream.lastModified);
+            }
+            return ResponseEntity.status(upstream.status).headers(headers).body(upstream.body);
+        }
+
+        byte[] body;
+        try {
+            JsonNode document = objectMapper.readTree(upstream.body);
+            if (fields != null) {
+                document = project(document, fields);
+            }
+            body = cbor ? cborMapper.writeValueAsBytes(document) : objectMapper.writeValueAsBytes(document);
+        } catch (IOException ex) {
+            throw new ExpectedException(HttpStatus.BAD_GATEWAY, "Upstream sent invalid JSON");
+        }
+        transformed.increment();
+        headers.setContentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON);
+        return ResponseEntity.status(HttpStatus.NON_AUTHORITATIVE_INFORMATION).headers(headers).body(body);
+    }
+
+    private JsonNode project(JsonNode document, Set<String> fields) {
+        if (document.isObject()) {
+            ObjectNode projected = objectMapper.createObjectNode();
+            for (String field : fields) {
+                JsonNode value = document.get(field);
+                if (value != null) {
+                    projected.set(field, value);
+                }
+            }
+            return projected;
+        }
+        if (document.isArray()) {
+            ArrayNode projected = objectMapper.createArrayNode();
+            for (JsonNode element : document) {
+                projected.add(element.isObject() ? project(element, fields) : element);
+            }
+            return projected;
+        }
+        return document;
+    }
+
+    private static ExpectedException upstreamFailure(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof ExpectedException expected) {
+            return expected;
+        }
+        if (cause instanceof HttpTimeoutException) {
+            return new ExpectedException(HttpStatus.GATEWAY_TIMEOUT, "Upstream did not answer in time");
+        }
+        if (cause instanceof BodyTooLargeException) {
+            return new ExpectedException(HttpStatus.BAD_GATEWAY, cause.getMessage());
+        }
+        log.warn("Proxied upstream request failed: {}", cause.toString());
+        return new ExpectedException(HttpStatus.BAD_GATEWAY, "Upstream is unreachable");
+    }
+
+    private static Set<String> fields(String value) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : URLDecoder.decode(value, StandardCharsets.UTF_8).split(",")) {
+            if (!field.isBlank()) {
+                fields.add(field.trim());
+            }
+        }
+        return fields.isEmpty() ? null : fields;
+    }
+
+    private static boolean acceptsCbor(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.getQualityValue() > 0 && MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(type)) {
+                    return true;
+                }
+            }
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+        return false;
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            return MediaType.APPLICATION_JSON.equalsTypeAndSubtype(type) || type.getSubtype().endsWith("+json");
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
+
+    private static Map<String, Target> targets(ProxyProperties properties) {
+        Map<String, Target> targets = new HashMap<>();
+        properties.getRoutes().forEach((name, route) -> {
+            URI upstream = route.getUpstream() == null ? null : URI.create(route.getUpstream());
+            if (upstream == null || upstream.getHost() == null
+                    || !("http".equals(upstream.getScheme()) || "https".equals(upstream.getScheme()))) {
+                throw new IllegalStateException("Proxy route " + name + " needs an absolute http(s) upstream URI");
+            }
+            String base = upstream.toString();
+            if (base.endsWith("/")) {
+                base = base.substring(0, base.length() - 1);
+            }
+            targets.put(name, new Target(base, TimeUnit.SECONDS.toNanos(Math.max(0, route.getTtlSeconds()))));
+        });
+        return targets;
+    }
+
+    /**
+     * Resolved upstream of a route
+     *
+     * @param base upstream URI without a trailing slash
+     * @param ttlNanos how long a response stays fresh
+     */
+    private record Target(String base, long ttlNanos) {
+
+        URI resolve(String path, String query) {
+            checkSegments(path);
+            URI uri;
+            try {
+                uri = URI.create(base + path + (query.isEmpty() ? "" : "?" + query));
+            } catch (IllegalArgumentException ex) {
+                throw new ExpectedException(HttpStatus.BAD_REQUEST, "Invalid proxy path");
+            }
+            return uri;
+        }
+
+        /**
+         * Reject paths that could climb out of the upstream base path
+         * The path is forwarded still encoded, and upstreams decode %2e%2e as .. and %2f as /, so each
+         * segment is checked decoded: no dot segments (also with ;parameters, as servlet containers strip
+         * them) and no encoded separators
+         */
+        private static void checkSegments(String path) {
+            for (String segment : path.split("/", -1)) {
+                String decoded;
+                try {
+                    decoded = URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException ex) {
+                    throw new ExpectedException(HttpStatus.BAD_REQUEST, "Invalid proxy path");
+                }
+                int parameters = decoded.indexOf(';');
+                String name = parameters < 0 ? decoded : decoded.substring(0, parameters);
+                if (name.equals(".") || name.equals("..") || decoded.indexOf('/') >= 0 || decoded.indexOf('\\') >= 0) {
+                    throw new ExpectedException(HttpStatus.BAD_REQUEST, "Invalid proxy path");
+                }
+            }
+        }
+    }
+
+    /**
+     * Buffered upstream response
+     */
+    private record Upstream(int status, String contentType, String etag, String lastModified, byte[] body, long fetchedAt) {
+
+        /**
+         * Approximate memory held by the response: body plus the header values kept
+         */
+        long weight() {
+            return body.length + length(contentType) + length(etag) + length(lastModified);
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+
+    /**
+     * One upstream URL: in flight until its response completes, then fresh until expiresAt
+     */
+    private static final class Entry {
+
+        private final String key;
+        private final CompletableFuture<Upstream> response = new CompletableFuture<>();
+        private volatile long expiresAt;
+        private long weight;
+
+        Entry(String key) {
+            this.key = key;
+        }
+
+        boolean isFresh(long now) {
+            return !response.isDone() || now - expiresAt < 0;
+        }
+    }
+
+    /**
+     * Collects an upstream body, giving up as soon as it grows past the limit instead of buffering it whole
+     */
+    private static final class LimitedBody implements HttpResponse.BodySubscriber<byte[]> {
+
+        private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final int limit;
+        private Flow.Subscription subscription;
+
+        LimitedBody(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (body.isDone()) {
+                return;
+            }
+            for (ByteBuffer buffer : buffers) {
+                if (out.size() + buffer.remaining() > limit) {
+                    subscription.cancel();
+                    body.completeExceptionally(new BodyTooLargeException(limit));
+                    return;
+                }
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                out.write(bytes, 0, bytes.length);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            body.complete(out.toByteArray());
+        }
+    }
+
+    private static final class BodyTooLargeException extends IOException {
+
+        BodyTooLargeException(int limit) {
+            super("Upstream response is larger than " + limit + " bytes");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.http_learn.service;
+
+import com.http_learn.dto.HealthCheckDto;
+
+/**
+ * Condition that must hold before the instance reports ready
+ * Implemented by components that need to finish work (e.g. JIT warm-up) before taking traffic;
+ * gates never affect liveness
+ */
+public interface ReadinessGate {
+
+    /**
+     * Report the current state of the gate
+     *
+     * @return a check that is UP once the gate is open
+     */
+    HealthCheckDto readinessCheck();
+}
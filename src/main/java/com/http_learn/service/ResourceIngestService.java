@@ -0,0 +1,338 @@
+package com.http_learn.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.http_learn.concurrent.Bulkhead;
+import com.http_learn.concurrent.BulkheadRegistry;
+import com.http_learn.config.ResourceProperties;
+import com.http_learn.dto.IngestErrorDto;
+import com.http_learn.dto.IngestSummaryDto;
+import com.http_learn.exception.ExpectedException;
+import com.http_learn.store.NewResource;
+import com.http_learn.store.ResourceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulk load of resources from a newline-delimited JSON stream
+ *
+ * The request thread reads the body in fixed-size chunks and cuts it into batches of lines; it never
+ * holds more than the batch it is filling. Each batch is parsed by a worker of the ingest bulkhead with
+ * Jackson's streaming parser and stored with one batched write. At most a fixed number of batches per
+ * request are in flight; while all are busy the request thread stops reading, so a fast client is held
+ * back by TCP flow control instead of by heap
+ *
+ * Each line is one object with a name and an optional data document, like the body of POST /api/resources
+ */
+@Slf4j
+@Service
+public class ResourceIngestService {
+
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    private final ResourceRepository repository;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final JsonFactory jsonFactory;
+    private final int maxDataBytes;
+    private final int batchLines;
+    private final int batchBytes;
+    private final int maxInFlightBatches;
+    private final int maxLineBytes;
+    private final int maxErrors;
+
+    public ResourceIngestService(ResourceRepository repository, BulkheadRegistry bulkheadRegistry,
+                                 ObjectMapper objectMapper, ResourceProperties properties) {
+        this.repository = repository;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.jsonFactory = objectMapper.getFactory();
+        this.maxDataBytes = properties.getMaxDataBytes();
+        this.batchLines = Math.max(1, properties.getIngestBatchLines());
+        this.batchBytes = Math.max(1, properties.getIngestBatchBytes());
+        this.maxInFlightBatches = Math.max(1, properties.getIngestMaxInFlightBatches());
+        this.maxLineBytes = properties.getIngestMaxLineBytes();
+        this.maxErrors = properties.getIngestMaxErrors();
+    }
+
+    /**
+     * Create one resource per line of an NDJSON stream
+     * Blank lines are skipped; a rejected line is reported and does not stop the others
+     *
+     * @param input the request body
+     * @return counts and the first rejected lines
+     * @throws IOException if reading the body fails
+     */
+    public IngestSummaryDto ingest(InputStream input) throws IOException {
+        long started = System.nanoTime();
+        Bulkhead bulkhead = bulkheadRegistry.get("ingest");
+        Progress progress = new Progress();
+        byte[] chunk = new byte[CHUNK_BYTES];
+        LineBatch batch = new LineBatch();
+        long lineNumber = 1;
+        boolean skipping = false;
+
+        try {
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                int start = 0;
+                for (int i = 0; i < read; i++) {
+                    if (chunk[i] != '\n') {
+                        continue;
+                    }
+                    if (!skipping && append(batch, chunk, start, i - start, lineNumber, progress)) {
+                        batch.endLine(lineNumber);
+                    }
+                    skipping = false;
+                    lineNumber++;
+                    start = i + 1;
+                    if (batch.isFull()) {
+                        dispatch(bulkhead, batch, progress);
+                        batch = new LineBatch();
+                    }
+                }
+                if (!skipping) {
+                    skipping = !append(batch, chunk, start, read - start, lineNumber, progress);
+                }
+            }
+            // The last line may end without a newline
+            if (!skipping) {
+                batch.endLine(lineNumber);
+            }
+            if (batch.size() > 0) {
+                dispatch(bulkhead, batch, progress);
+            }
+        } finally {
+            // Every in-flight batch holds a permit until it is stored
+            progress.inFlight.acquireUninterruptibly(maxInFlightBatches);
+        }
+
+        IngestSummaryDto summary = progress.summary((System.nanoTime() - started) / 1_000_000);
+        log.info("Ingested {} resources from {} lines, {} rejected, in {} ms",
+                summary.getCreated(), summary.getLines(), summary.getFailed(), summary.getElapsedMs());
+        return summary;
+    }
+
+    /**
+     * Add bytes to the line being collected, dropping the line once it grows past the limit
+     *
+     * @return false if the line was dropped
+     */
+    private boolean append(LineBatch batch, byte[] chunk, int from, int length, long lineNumber, Progress progress) {
+        if (batch.pendingBytes() + length > maxLineBytes) {
+            batch.discardPending();
+            progress.reject(lineNumber, "Line is longer than " + maxLineBytes + " bytes");
+            return false;
+        }
+        batch.append(chunk, from, length);
+        return true;
+    }
+
+    private void dispatch(Bulkhead bulkhead, LineBatch batch, Progress progress) {
+        progress.inFlight.acquireUninterruptibly();
+        try {
+            bulkhead.submit(() -> {
+                try {
+                    store(batch, progress);
+                } finally {
+                    progress.inFlight.release();
+                }
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            progress.inFlight.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Parse the lines of a batch and store the valid ones with one write
+     */
+    private void store(LineBatch batch, Progress progress) {
+        List<NewResource> resources = new ArrayList<>(batch.size());
+        long[] lines = new long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                resources.add(parse(batch.bytes, batch.starts[i], batch.ends[i] - batch.starts[i]));
+                lines[resources.size() - 1] = batch.lineNumbers[i];
+            } catch (ExpectedException ex) {
+                progress.reject(batch.lineNumbers[i], ex.getMessage());
+            }
+        }
+        if (resources.isEmpty()) {
+            return;
+        }
+        try {
+            repository.createAll(resources);
+            progress.created.add(resources.size());
+        } catch (RuntimeException ex) {
+            log.error("Storing an ingest batch of {} resources failed", resources.size(), ex);
+            for (int i = 0; i < resources.size(); i++) {
+                progress.reject(lines[i], "Could not store the resource");
+            }
+        }
+    }
+
+    /**
+     * Parse one line, copying its data document token by token without building a tree
+     */
+    private NewResource parse(byte[] bytes, int offset, int length) {
+        String name = null;
+        byte[] data = null;
+        try (JsonParser parser = jsonFactory.createParser(bytes, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ExpectedException(HttpStatus.BAD_REQUEST, "Line is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("name".equals(field)) {
+                    if (value != JsonToken.VALUE_STRING) {
+                        throw new ExpectedException(HttpStatus.BAD_REQUEST, "name must be a string");
+                    }
+                    name = parser.getText();
+                } else if ("data".equals(field)) {
+                    data = value == JsonToken.VALUE_NULL ? null : copy(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new ExpectedException(HttpStatus.BAD_REQUEST, "Line holds more than one JSON value");
+            }
+        } catch (JsonProcessingException ex) {
+            throw new ExpectedException(HttpStatus.BAD_REQUEST, "Invalid JSON: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new ExpectedException(HttpStatus.BAD_REQUEST, "Unreadable line");
+        }
+        ResourceService.validateName(name);
+        if (data != null && data.length > maxDataBytes) {
+            throw new ExpectedException(HttpStatus.PAYLOAD_TOO_LARGE, "data may be at most " + maxDataBytes + " bytes");
+        }
+        return new NewResource(name, data);
+    }
+
+    private byte[] copy(JsonParser parser) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Counters and errors of one ingest request, shared by its workers
+     */
+    private final class Progress {
+
+        private final Semaphore inFlight = new Semaphore(maxInFlightBatches);
+        private final LongAdder created = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final TreeMap<Long, String> errors = new TreeMap<>();
+
+        void reject(long line, String error) {
+            failed.increment();
+            synchronized (errors) {
+                errors.put(line, error);
+                if (errors.size() > maxErrors) {
+                    errors.pollLastEntry();
+                }
+            }
+        }
+
+        IngestSummaryDto summary(long elapsedMs) {
+            List<IngestErrorDto> listed;
+            synchronized (errors) {
+                listed = errors.entrySet().stream()
+                        .map(entry -> IngestErrorDto.builder().line(entry.getKey()).error(entry.getValue()).build())
+                        .toList();
+            }
+            return IngestSummaryDto.builder()
+                    .lines(created.sum() + failed.sum())
+                    .created(created.sum())
+                    .failed(failed.sum())
+                    .elapsedMs(elapsedMs)
+                    .errors(listed)
+                    .build();
+        }
+    }
+
+    /**
+     * Lines collected for one worker, packed into a single array
+     */
+    private final class LineBatch {
+
+        private byte[] bytes = new byte[Math.min(batchBytes, CHUNK_BYTES)];
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private long[] lineNumbers = new long[16];
+        private int size;
+        private int lineStart;
+        private int end;
+
+        void append(byte[] source, int from, int length) {
+            if (end + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, end + length));
+            }
+            System.arraycopy(source, from, bytes, end, length);
+            end += length;
+        }
+
+        int pendingBytes() {
+            return end - lineStart;
+        }
+
+        void discardPending() {
+            end = lineStart;
+        }
+
+        /**
+         * Finish the line being collected; blank lines are dropped and a trailing CR is removed
+         */
+        void endLine(long lineNumber) {
+            int lineEnd = end;
+            if (lineEnd > lineStart && bytes[lineEnd - 1] == '\r') {
+                lineEnd--;
+            }
+            boolean blank = true;
+            for (int i = lineStart; i < lineEnd && blank; i++) {
+                blank = bytes[i] == ' ' || bytes[i] == '\t';
+            }
+            if (blank) {
+                end = lineStart;
+                return;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                lineNumbers = Arrays.copyOf(lineNumbers, size * 2);
+            }
+            starts[size] = lineStart;
+            ends[size] = lineEnd;
+            lineNumbers[size] = lineNumber;
+            size++;
+            lineStart = end;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isFull() {
+            return size >= batchLines || end >= batchBytes;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.http_learn.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.http_learn.concurrent.Bulkhead;
+import com.http_learn.concurrent.BulkheadRegistry;
+import com.http_learn.config.ResourceProperties;
+import com.http_learn.dto.BulkOperationDto;
+import com.http_learn.dto.BulkRequestDto;
+import com.http_learn.dto.BulkResponseDto;
+import com.http_learn.dto.BulkResultDto;
+import com.http_learn.dto.ResourceDto;
+import com.http_learn.dto.ResourceRequestDto;
+import com.http_learn.exception.ExpectedException;
+import com.http_learn.exception.PreconditionFailedException;
+import com.http_learn.store.Resource;
+import com.http_learn.store.ResourceKey;
+import com.http_learn.store.ResourceRepository;
+import com.http_learn.store.VersionConflictException;
+import com.http_learn.util.EntityTags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Create, read, replace and delete resources
+ * Validates requests and converts between the wire DTOs and the compact stored records
+ */
+@Slf4j
+@Service
+public class ResourceService {
+
+    private static final int MAX_NAME_LENGTH = 200;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ResourceRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter pageWriter;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final int maxDataBytes;
+    private final int bulkMaxOperations;
+    private final int bulkPartitions;
+    private final int bulkPartitionSize;
+
+    public ResourceService(ResourceRepository repository, ObjectMapper objectMapper, ResourceProperties properties,
+                           BulkheadRegistry bulkheadRegistry) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        // A page is flushed once at the end rather than after every resource
+        this.pageWriter = objectMapper.writerFor(ResourceDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.maxDataBytes = properties.getMaxDataBytes();
+        this.bulkMaxOperations = properties.getBulkMaxOperations();
+        this.bulkPartitions = Math.max(1, properties.getBulkPartitions());
+        this.bulkPartitionSize = Math.max(1, properties.getBulkPartitionSize());
+    }
+
+    /**
+     * Create a resource
+     *
+     * @param request name and data
+     * @return the stored resource
+     * @throws ExpectedException 400 for an invalid request
+     */
+    public ResourceDto create(ResourceRequestDto request) {
+        validate(request);
+        Resource resource = repository.create(request.getName(), serialize(request.getData()));
+        log.debug("Created resource {}", resource.id());
+        return toDto(resource);
+    }
+
+    /**
+     * Get a resource
+     *
+     * @param id the id
+     * @return the resource
+     * @throws ExpectedException 404 if there is no such resource
+     */
+    public ResourceDto get(long id) {
+        return toDto(require(repository.find(id), id));
+    }
+
+    /**
+     * List resources one page at a time
+     * Without a prefix resources are listed in creation order, with one (even an empty one) in name order.
+     * Only the keys of the page are looked up here; the resources themselves are loaded one by one while
+     * the body is written, so the cost of a page depends on its size and not on the size of the store
+     *
+     * @param prefix only names starting with this, or null to list by creation time
+     * @param after cursor returned with the previous page, or null for the first page
+     * @param limit most resources on the page
+     * @return the page
+     * @throws ExpectedException 400 for an invalid limit or cursor
+     */
+    public ResourcePage list(String prefix, String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ExpectedException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        boolean byName = prefix != null;
+        ResourceKey cursor = after != null ? decodeCursor(after, byName) : null;
+        List<ResourceKey> keys = byName
+                ? repository.keysByName(prefix, cursor, limit + 1)
+                : repository.keysByCreation(cursor, limit + 1);
+        String next = null;
+        if (keys.size() > limit) {
+            keys = keys.subList(0, limit);
+            next = encodeCursor(keys.get(limit - 1), byName);
+        }
+        List<ResourceKey> page = keys;
+        return new ResourcePage(next, out -> writePage(page, prefix, out));
+    }
+
+    /**
+     * Replace the name and data of a resource
+     *
+     * @param id the id
+     * @param request the new name and data
+     * @return the new version
+     * @throws ExpectedException 400 for an invalid request, 404 if there is no such resource
+     */
+    public ResourceDto replace(long id, ResourceRequestDto request) {
+        return replace(id, request, null, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Replace the name and data of a resource if it is still at a version the client has seen
+     * The check and the write are one compare-and-set in the store, so of two clients that read the same
+     * version and both send it in If-Match, exactly one succeeds and the other gets 412 instead of
+     * silently overwriting the first update
+     *
+     * @param id the id
+     * @param request the new name and data
+     * @param ifMatch the If-Match header, or null to replace any version
+     * @param representation content type the client negotiated, for the current ETag of a 412
+     * @return the new version
+     * @throws ExpectedException 400 for an invalid request, 404 if there is no such resource and no If-Match,
+     *         412 if the current version does not match or there is no such resource
+     */
+    public ResourceDto replace(long id, ResourceRequestDto request, String ifMatch, MediaType representation) {
+        validate(request);
+        byte[] data = serialize(request.getData());
+        Resource updated;
+        try {
+            updated = repository.update(id, EntityTags.matching(ifMatch), request.getName(), data);
+        } catch (VersionConflictException ex) {
+            throw preconditionFailed(id, ex.getCurrentVersion(), representation);
+        }
+        if (updated == null) {
+            throw missing(id, ifMatch);
+        }
+        return toDto(updated);
+    }
+
+    /**
+     * Delete a resource
+     *
+     * @param id the id
+     * @throws ExpectedException 404 if there is no such resource
+     */
+    public void delete(long id) {
+        delete(id, null, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Delete a resource if it is still at a version the client has seen
+     *
+     * @param id the id
+     * @param ifMatch the If-Match header, or null to delete any version
+     * @param representation content type the client negotiated, for the current ETag of a 412
+     * @throws ExpectedException 404 if there is no such resource and no If-Match,
+     *         412 if the current version does not match or there is no such resource
+     */
+    public void delete(long id, String ifMatch, MediaType representation) {
+        boolean deleted;
+        try {
+            deleted = repository.delete(id, EntityTags.matching(ifMatch));
+        } catch (VersionConflictException ex) {
+            throw preconditionFailed(id, ex.getCurrentVersion(), representation);
+        }
+        if (!deleted) {
+            throw missing(id, ifMatch);
+        }
+        log.debug("Deleted resource {}", id);
+    }
+
+    /**
+     * Run a batch of creates, updates and deletes
+     * The batch is split into partitions that run in parallel on the bulk bulkhead, the calling thread
+     * running the first one itself. Operations on the same id always land in the same partition, which
+     * runs them in request order, so a batch may update a resource and then delete it.
+     * One failed operation does not stop the others
+     *
+     * @param request the operations
+     * @return one result per operation, in request order
+     * @throws ExpectedException 400 without operations, 413 for more than the allowed number
+     */
+    public BulkResponseDto bulk(BulkRequestDto request) {
+        List<BulkOperationDto> operations = request != null ? request.getOperations() : null;
+        if (operations == null || operations.isEmpty()) {
+            throw new ExpectedException(HttpStatus.BAD_REQUEST, "operations must list at least one operation");
+        }
+        int count = operations.size();
+        if (count > bulkMaxOperations) {
+            throw new ExpectedException(HttpStatus.PAYLOAD_TOO_LARGE, "A bulk request may hold at most " + bulkMaxOperations + " operations");
+        }
+
+        int partitions = Math.min(bulkPartitions, (count + bulkPartitionSize - 1) / bulkPartitionSize);
+        int[] partitionOf = new int[count];
+        for (int i = 0; i < count; i++) {
+            BulkOperationDto operation = operations.get(i);
+            Long id = operation != null ? operation.getId() : null;
+            partitionOf[i] = id != null ? Math.floorMod(Long.hashCode(id), partitions) : i % partitions;
+        }
+
+        BulkResultDto[] results = new BulkResultDto[count];
+        CompletableFuture<?>[] running = new CompletableFuture<?>[partitions - 1];
+        if (partitions > 1) {
+            Bulkhead bulkhead = bulkheadRegistry.get("bulk");
+            for (int p = 1; p < partitions; p++) {
+                int partition = p;
+                running[p - 1] = bulkhead.submit(() -> {
+                    runPartition(partition, partitionOf, operations, results);
+                    return null;
+                });
+            }
+        }
+        runPartition(0, partitionOf, operations, results);
+        CompletableFuture.allOf(running).join();
+
+        int succeeded = (int) Arrays.stream(results).filter(result -> result.getStatus() < 400).count();
+        log.debug("Bulk request of {} operations in {} partitions: {} succeeded", count, partitions, succeeded);
+        return BulkResponseDto.builder()
+                .total(count)
+                .succeeded(succeeded)
+                .failed(count - succeeded)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * Convert a stored resource to its wire form
+     *
+     * @param resource the stored resource
+     * @return the DTO sharing the stored data bytes
+     */
+    public static ResourceDto toDto(Resource resource) {
+        return ResourceDto.builder()
+                .id(resource.id())
+                .version(resource.version())
+                .name(resource.name())
+                .data(resource.data())
+                .createdAt(Instant.ofEpochMilli(resource.createdAt()))
+                .updatedAt(Instant.ofEpochMilli(resource.updatedAt()))
+                .build();
+    }
+
+    private void runPartition(int partition, int[] partitionOf, List<BulkOperationDto> operations, BulkResultDto[] results) {
+        for (int i = 0; i < partitionOf.length; i++) {
+            if (partitionOf[i] == partition) {
+                results[i] = apply(i, operations.get(i));
+            }
+        }
+    }
+
+    private BulkResultDto apply(int index, BulkOperationDto operation) {
+        BulkResultDto.BulkResultDtoBuilder result = BulkResultDto.builder().index(index);
+        try {
+            if (operation == null || operation.getOp() == null) {
+                throw new ExpectedException(HttpStatus.BAD_REQUEST, "op must be CREATE, UPDATE or DELETE");
+            }
+            ResourceRequestDto request = new ResourceRequestDto(operation.getName(), operation.getData());
+            return switch (operation.getOp()) {
+                case CREATE -> result.status(HttpStatus.CREATED.value()).resource(create(request)).build();
+                case UPDATE -> result.status(HttpStatus.OK.value()).resource(replace(requireId(operation), request)).build();
+                case DELETE -> {
+                    delete(requireId(operation));
+                    yield result.status(HttpStatus.NO_CONTENT.value()).build();
+                }
+            };
+        } catch (ExpectedException ex) {
+            return result.status(ex.getStatus().value()).error(ex.getMessage()).build();
+        } catch (RuntimeException ex) {
+            log.error("Bulk operation {} failed", index, ex);
+            return result.status(HttpStatus.INTERNAL_SERVER_ERROR.value()).error("Internal error").build();
+        }
+    }
+
+    private static long requireId(BulkOperationDto operation) {
+        if (operation.getId() == null) {
+            throw new ExpectedException(HttpStatus.BAD_REQUEST, "id is required for " + operation.getOp());
+        }
+        return operation.getId();
+    }
+
+    private void writePage(List<ResourceKey> keys, String prefix, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.writeStartArray();
+            for (ResourceKey key : keys) {
+                Resource resource = repository.find(key.id());
+                // Deleted, or renamed, after the keys of the page were read; a renamed resource is listed under
+                // its new name, so a name listing skips it here rather than show it out of order
+                if (resource == null || (prefix != null && !resource.name().equals(key.name()))) {
+                    continue;
+                }
+                pageWriter.writeValue(generator, toDto(resource));
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static String encodeCursor(ResourceKey key, boolean byName) {
+        String position = byName ? "n" + key.id() + "." + key.name() : "c" + key.createdAt() + "." + key.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResourceKey decodeCursor(String cursor, boolean byName) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int dot = position.indexOf('.');
+            if (position.startsWith("n") && byName) {
+                return new ResourceKey(Long.parseLong(position.substring(1, dot)), 0, position.substring(dot + 1));
+            }
+            if (position.startsWith("c") && !byName) {
+                return new ResourceKey(Long.parseLong(position.substring(dot + 1)), Long.parseLong(position.substring(1, dot)), "");
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            // Reported below
+        }
+        throw new ExpectedException(HttpStatus.BAD_REQUEST, "after is not a cursor of this listing");
+    }
+
+    private static void validate(ResourceRequestDto request) {
+        if (request == null) {
+            throw new ExpectedException(HttpStatus.BAD_REQUEST, "A request body with a name is required");
+        }
+        validateName(request.getName());
+    }
+
+    static void validateName(String name) {
+        if (name == null || name.isBlank() || name.length() > MAX_NAME_LENGTH) {
+            throw new ExpectedException(HttpStatus.BAD_REQUEST, "name must be 1 to " + MAX_NAME_LENGTH + " characters");
+        }
+    }
+
+    private byte[] serialize(JsonNode data) {
+        if (data == null || data.isNull()) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(data);
+        } catch (JsonProcessingException ex) {
+            throw new ExpectedException(HttpStatus.BAD_REQUEST, "data is not a valid JSON document");
+        }
+        if (bytes.length > maxDataBytes) {
+            throw new ExpectedException(HttpStatus.PAYLOAD_TOO_LARGE, "data may be at most " + maxDataBytes + " bytes");
+        }
+        return bytes;
+    }
+
+    private static Resource require(Resource resource, long id) {
+        if (resource == null) {
+            throw notFound(id);
+        }
+        return resource;
+    }
+
+    private static PreconditionFailedException preconditionFailed(long id, long currentVersion, MediaType representation) {
+        String current = EntityTags.of(currentVersion, representation);
+        return new PreconditionFailedException("Resource " + id + " has changed; its current ETag is " + current, current);
+    }
+
+    /**
+     * Report a resource that is not there
+     * If-Match is false when there is no current representation (RFC 9110, section 13.1.1), and a failed
+     * precondition takes precedence over the outcome of the request itself
+     */
+    private static ExpectedException missing(long id, String ifMatch) {
+        if (EntityTags.isConditional(ifMatch)) {
+            return new PreconditionFailedException("Resource " + id + " does not exist", null);
+        }
+        return notFound(id);
+    }
+
+    private static ExpectedException notFound(long id) {
+        return new ExpectedException(HttpStatus.NOT_FOUND, "Resource " + id + " does not exist");
+    }
+
+    /**
+     * One page of a resource listing
+     *
+     * @param next cursor of the following page, or null on the last page
+     * @param body writes the resources of the page as a JSON array
+     */
+    public record ResourcePage(String next, StreamingResponseBody body) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.http_learn.service;
+
+import java.util.List;
+
+/**
+ * Source of queue depth samples for the health evaluation
+ * Implemented by components that own work queues, so readiness can drop before a queue overflows
+ */
+public interface SaturationProbe {
+
+    /**
+     * Sample the current depth of every queue owned by this component
+     *
+     * @return one sample per queue
+     */
+    List<QueueSample> sampleQueues();
+
+    /**
+     * Point-in-time queue depth
+     *
+     * @param name queue name
+     * @param depth queued items
+     * @param capacity maximum queued items
+     */
+    record QueueSample(String name, int depth, int capacity) {
+
+        /**
+         * Get how full the queue is
+         *
+         * @return depth divided by capacity, 0 for unbounded or zero-capacity queues
+         */
+        public double saturation() {
+            return capacity > 0 ? (double) depth / capacity : 0.0;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.http_learn.service;
+
+import com.http_learn.exception.ExpectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Service producing large deterministic payloads for throughput testing
+ *
+ * All payloads are slices of one preallocated, read-only direct buffer filled once at startup from a fixed seed.
+ * A request seed only selects the starting offset, so the same (size, seed) pair always yields the same bytes,
+ * and streaming any amount of data costs no heap beyond a few small buffer views
+ */
+@Slf4j
+@Service
+public class SyntheticPayloadService {
+
+    private static final long POOL_SEED = 0x5EED_C0DE_F00DL;
+    private static final int FALLBACK_CHUNK = 64 * 1024;
+
+    private final ByteBuffer pool;
+    private final int poolSize;
+    private final long maxBytes;
+    private final Duration streamTimeout;
+
+    public SyntheticPayloadService(@Value("${http-learn.synthetic.pool-bytes:1048576}") int poolSize,
+                                   @Value("${http-learn.synthetic.max-bytes:107374182400}") long maxBytes,
+                                   @Value("${http-learn.synthetic.stream-timeout-ms:600000}") long streamTimeoutMs) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("http-learn.synthetic.pool-bytes must be positive");
+        }
+        this.poolSize = poolSize;
+        this.maxBytes = maxBytes;
+        this.streamTimeout = Duration.ofMillis(streamTimeoutMs);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(poolSize);
+        SplittableRandom random = new SplittableRandom(POOL_SEED);
+        while (buffer.remaining() >= Long.BYTES) {
+            buffer.putLong(random.nextLong());
+        }
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) random.nextInt());
+        }
+        this.pool = buffer.flip().asReadOnlyBuffer();
+        log.info("Synthetic payload pool ready: {} bytes off-heap", poolSize);
+    }
+
+    /**
+     * How long streaming one payload may take; far above the default async timeout, since payloads reach gigabytes
+     *
+     * @return async timeout for payload requests
+     */
+    public Duration getStreamTimeout() {
+        return streamTimeout;
+    }
+
+    /**
+     * Create a body of exactly n bytes, written in pool-sized slices
+     *
+     * @param n number of bytes
+     * @param seed selects the byte sequence
+     * @return streaming body
+     */
+    public StreamingResponseBody fixedBody(long n, long seed) {
+        validateSize(n);
+        return out -> write(out, n, seed, poolSize, false);
+    }
+
+    /**
+     * Create a body of n bytes that is flushed after every chunk, producing chunked transfer encoding
+     *
+     * @param n number of bytes
+     * @param seed selects the byte sequence
+     * @param chunkSize bytes per flushed chunk
+     * @return streaming body
+     */
+    public StreamingResponseBody chunkedBody(long n, long seed, int chunkSize) {
+        validateSize(n);
+        if (chunkSize < 1 || chunkSize > poolSize) {
+            throw new ExpectedException(HttpStatus.BAD_REQUEST, "chunk must be between 1 and " + poolSize);
+        }
+        return out -> write(out, n, seed, chunkSize, true);
+    }
+
+    /**
+     * Write n bytes of the sequence selected by seed
+     *
+     * @param out the response stream
+     * @param n number of bytes
+     * @param seed selects the starting offset in the pool
+     * @param chunkSize maximum bytes per write
+     * @param flushEachChunk whether to flush after every write
+     * @throws IOException if the client goes away
+     */
+    void write(OutputStream out, long n, long seed, int chunkSize, boolean flushEachChunk) throws IOException {
+        int offset = startOffset(seed);
+        long remaining = n;
+        byte[] fallback = null;
+        while (remaining > 0) {
+            int length = (int) Math.min(Math.min(remaining, chunkSize), poolSize - offset);
+            ByteBuffer slice = pool.slice(offset, length);
+            if (out instanceof CoyoteOutputStream coyote) {
+                // Tomcat copies straight from the direct buffer into its socket buffer
+                coyote.write(slice);
+            } else {
+                if (fallback == null) {
+                    fallback = new byte[Math.min(FALLBACK_CHUNK, chunkSize)];
+                }
+                while (slice.hasRemaining()) {
+                    int part = Math.min(fallback.length, slice.remaining());
+                    slice.get(fallback, 0, part);
+                    out.write(fallback, 0, part);
+                }
+            }
+            remaining -= length;
+            offset += length;
+            if (offset == poolSize) {
+                offset = 0;
+            }
+            if (flushEachChunk) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    private int startOffset(long seed) {
+        long mixed = seed * 0x9E3779B97F4A7C15L;
+        mixed ^= mixed >>> 31;
+        return (int) Math.floorMod(mixed, (long) poolSize);
+    }
+
+    private void validateSize(long n) {
+        if (n < 0 || n > maxBytes) {
+            throw new ExpectedException(HttpStatus.BAD_REQUEST, "n must be between 0 and " + maxBytes);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.http_learn.service;
+
+import com.http_learn.config.WarmupProperties;
+import com.http_learn.dto.HealthCheckDto;
+import com.http_learn.dto.WarmupStatusDto;
+import com.http_learn.filter.InternalTraffic;
+import com.http_learn.util.LocalServerUrl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JIT warm-up phase that keeps the instance out of rotation right after startup
+ *
+ * Once the application is ready, a few local clients replay a weighted mix of synthetic requests
+ * through the full stack (Tomcat, filters, Spring MVC, Jackson, services) while the JIT compilation
+ * counter is sampled. Warm-up ends when the compiler has been quiet for several consecutive windows,
+ * or at the latest after the configured maximum; until then the readiness gate stays closed.
+ * Requests go to the connector as configured (scheme, server.address and context path), like
+ * the response cache revalidation
+ */
+@Slf4j
+@Service
+public class WarmupService implements ReadinessGate {
+
+    private static final int MAX_WEIGHT = 100;
+
+    /**
+     * Warm-up lifecycle; every state after RUNNING opens the readiness gate
+     */
+    public enum State {
+        PENDING, RUNNING, SETTLED, TIMED_OUT, FAILED, DISABLED
+    }
+
+    private final WarmupProperties properties;
+    private final ServerProperties server;
+    private final InternalTraffic internalTraffic;
+    private final CompilationMXBean compiler;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile State state;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile long compilationStartMs;
+    private volatile long compilationEndMs;
+
+    public WarmupService(WarmupProperties properties, ServerProperties server, InternalTraffic internalTraffic) {
+        this.properties = properties;
+        this.server = server;
+        this.internalTraffic = internalTraffic;
+        CompilationMXBean bean = ManagementFactory.getCompilationMXBean();
+        this.compiler = bean != null && bean.isCompilationTimeMonitoringSupported() ? bean : null;
+        this.state = properties.isEnabled() && !properties.getRequests().isEmpty() ? State.PENDING : State.DISABLED;
+    }
+
+    /**
+     * Start warm-up once the web server accepts connections
+     *
+     * @param event the application ready event
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (state != State.PENDING) {
+            return;
+        }
+        if (!(event.getApplicationContext() instanceof WebServerApplicationContext webContext)) {
+            state = State.DISABLED;
+            return;
+        }
+        start(webContext.getWebServer().getPort());
+    }
+
+    /**
+     * Start replaying the request mix against the given port on a background thread
+     *
+     * @param port the port the application's server listens on
+     */
+    void start(int port) {
+        String baseUrl = LocalServerUrl.applicationUrl(server, port);
+        state = State.RUNNING;
+        Thread thread = new Thread(() -> run(baseUrl), "warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public HealthCheckDto readinessCheck() {
+        State current = state;
+        boolean open = current != State.PENDING && current != State.RUNNING;
+        return HealthCheckDto.builder()
+                .name("warmup")
+                .status(open ? "UP" : "DOWN")
+                .observed(durationMs())
+                .threshold(properties.getMaxDurationMs())
+                .detail("JIT warm-up " + current.name().toLowerCase(Locale.ROOT) + ", duration in ms (max)")
+                .build();
+    }
+
+    /**
+     * Get warm-up progress
+     *
+     * @return current state and counters
+     */
+    public WarmupStatusDto status() {
+        long compilationMs = -1;
+        if (compiler != null && startNanos != 0) {
+            compilationMs = (endNanos != 0 ? compilationEndMs : compiler.getTotalCompilationTime()) - compilationStartMs;
+        }
+        return WarmupStatusDto.builder()
+                .state(state.name())
+                .durationMs(durationMs())
+                .requests(requests.sum())
+                .failures(failures.sum())
+                .compilationTimeMs(compilationMs)
+                .build();
+    }
+
+    private long durationMs() {
+        long start = startNanos;
+        if (start == 0) {
+            return 0;
+        }
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - start);
+    }
+
+    private void run(String baseUrl) {
+        compilationStartMs = compiler != null ? compiler.getTotalCompilationTime() : 0;
+        startNanos = System.nanoTime();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(properties.getRequestTimeoutMs()))
+                .build();
+        List<HttpRequest> mix = buildMix(baseUrl);
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getConcurrency(),
+                Thread.ofPlatform().name("warmup-", 0).daemon().factory());
+        for (int i = 0; i < properties.getConcurrency(); i++) {
+            workers.execute(() -> replay(client, mix));
+        }
+
+        State outcome;
+        try {
+            outcome = awaitSettled();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            outcome = State.FAILED;
+        } finally {
+            workers.shutdownNow();
+        }
+
+        compilationEndMs = compiler != null ? compiler.getTotalCompilationTime() : 0;
+        endNanos = System.nanoTime();
+        state = outcome;
+
+        WarmupStatusDto status = status();
+        if (outcome == State.SETTLED) {
+            log.info("JIT warm-up settled after {} ms: {} requests, {} ms compiling",
+                    status.getDurationMs(), status.getRequests(), status.getCompilationTimeMs());
+        } else {
+            log.warn("JIT warm-up ended {} after {} ms: {} requests, {} failures, {} ms compiling",
+                    outcome, status.getDurationMs(), status.getRequests(), status.getFailures(), status.getCompilationTimeMs());
+        }
+    }
+
+    /**
+     * Sample the compilation counter once per window until it stays below the threshold
+     *
+     * @return the terminal state
+     */
+    private State awaitSettled() throws InterruptedException {
+        long minEnd = startNanos + TimeUnit.MILLISECONDS.toNanos(properties.getMinDurationMs());
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(properties.getMaxDurationMs());
+        long last = compilationStartMs;
+        int quietWindows = 0;
+
+        while (true) {
+            Thread.sleep(properties.getSettleWindowMs());
+            long now = System.nanoTime();
+            if (now - deadline >= 0) {
+                return State.TIMED_OUT;
+            }
+            boolean pastMinimum = now - minEnd >= 0;
+            if (pastMinimum && requests.sum() == 0 && failures.sum() > 0) {
+                return State.FAILED;
+            }
+            if (compiler == null) {
+                // Without JIT counters the minimum duration is all we can go by
+                if (pastMinimum) {
+                    return State.SETTLED;
+                }
+                continue;
+            }
+            long current = compiler.getTotalCompilationTime();
+            quietWindows = current - last < properties.getSettleThresholdMs() ? quietWindows + 1 : 0;
+            last = current;
+            if (pastMinimum && quietWindows >= properties.getSettleWindows()) {
+                return State.SETTLED;
+            }
+        }
+    }
+
+    private void replay(HttpClient client, List<HttpRequest> mix) {
+        while (!Thread.currentThread().isInterrupted()) {
+            HttpRequest request = mix.get(ThreadLocalRandom.current().nextInt(mix.size()));
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+                requests.increment();
+            } catch (IOException ex) {
+                failures.increment();
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Build the request mix, repeating each request according to its weight
+     *
+     * @param baseUrl application URL the configured paths are relative to
+     * @return the requests to pick from
+     */
+    List<HttpRequest> buildMix(String baseUrl) {
+        List<HttpRequest> mix = new ArrayList<>();
+        Duration timeout = Duration.ofMillis(properties.getRequestTimeoutMs());
+        for (WarmupProperties.Request spec : properties.getRequests()) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + spec.getPath()))
+                    .timeout(timeout)
+                    .header(InternalTraffic.HEADER, internalTraffic.getToken())
+                    .method(spec.getMethod(), spec.getBody() != null
+                            ? HttpRequest.BodyPublishers.ofString(spec.getBody())
+                            : HttpRequest.BodyPublishers.noBody());
+            if (spec.getAccept() != null) {
+                builder.header("Accept", spec.getAccept());
+            }
+            if (spec.getContentType() != null) {
+                builder.header("Content-Type", spec.getContentType());
+            }
+            HttpRequest request = builder.build();
+            int weight = Math.min(MAX_WEIGHT, Math.max(1, spec.getWeight()));
+            for (int i = 0; i < weight; i++) {
+                mix.add(request);
+            }
+        }
+        return mix;
+    }
+}
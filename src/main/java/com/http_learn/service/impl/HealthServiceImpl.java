@@ -0,0 +1,216 @@
+package com.http_learn.service.impl;
+
+import com.http_learn.config.HealthProperties;
+import com.http_learn.dto.HealthCheckDto;
+import com.http_learn.dto.HealthSnapshot;
+import com.http_learn.service.HealthService;
+import com.http_learn.service.ReadinessGate;
+import com.http_learn.service.SaturationProbe;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of HealthService
+ * Evaluates heap headroom, GC pause ratio, request-thread saturation, job queue depth, disk space
+ * and any readiness gates on the scheduler thread and publishes the result as an immutable snapshot
+ */
+@Slf4j
+@Service
+public class HealthServiceImpl implements HealthService {
+
+    private static final String UP = "UP";
+    private static final String DOWN = "DOWN";
+    private static final String OUT_OF_SERVICE = "OUT_OF_SERVICE";
+
+    private final HealthProperties properties;
+    private final List<SaturationProbe> saturationProbes;
+    private final List<ReadinessGate> readinessGates;
+    private final List<GarbageCollectorMXBean> pauseCollectors;
+    private final MemoryPoolMXBean oldGenerationPool;
+
+    private volatile HealthSnapshot snapshot;
+    private volatile ThreadPoolExecutor requestThreads;
+
+    // Only touched by the evaluating thread
+    private long lastGcTimeMillis = -1;
+    private long lastEvaluationNanos;
+
+    public HealthServiceImpl(HealthProperties properties, List<SaturationProbe> saturationProbes,
+                             List<ReadinessGate> readinessGates) {
+        this.properties = properties;
+        this.saturationProbes = saturationProbes;
+        this.readinessGates = readinessGates;
+        this.pauseCollectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .filter(collector -> !collector.getName().contains("Concurrent"))
+                .toList();
+        this.oldGenerationPool = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported())
+                .filter(pool -> pool.getName().contains("Old") || pool.getName().contains("Tenured"))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @PostConstruct
+    void init() {
+        evaluate();
+    }
+
+    /**
+     * Pick up the Tomcat worker pool once the web server is running
+     *
+     * @param event the web server initialized event
+     */
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if (event.getWebServer() instanceof TomcatWebServer tomcatWebServer) {
+            Connector connector = tomcatWebServer.getTomcat().getConnector();
+            Executor executor = connector.getProtocolHandler().getExecutor();
+            if (executor instanceof ThreadPoolExecutor threadPoolExecutor) {
+                requestThreads = threadPoolExecutor;
+            }
+        }
+    }
+
+    /**
+     * Run all checks and publish a new snapshot
+     */
+    @Scheduled(fixedDelayString = "${http-learn.health.interval-ms:1000}")
+    public void evaluate() {
+        long now = System.nanoTime();
+        List<HealthCheckDto> checks = new ArrayList<>(5 + readinessGates.size());
+
+        double heapHeadroom = heapHeadroom();
+        checks.add(check("heap", heapHeadroom >= properties.getMinHeapHeadroom(), heapHeadroom,
+                properties.getMinHeapHeadroom(), "free share of heap after last GC (min)"));
+
+        double gcPauseRatio = gcPauseRatio(now);
+        checks.add(check("gc", gcPauseRatio <= properties.getMaxGcPauseRatio(), gcPauseRatio,
+                properties.getMaxGcPauseRatio(), "share of wall-clock time spent in GC pauses (max)"));
+
+        double threadSaturation = threadSaturation();
+        checks.add(check("requestThreads", threadSaturation <= properties.getMaxThreadSaturation(), threadSaturation,
+                properties.getMaxThreadSaturation(), "busy share of request threads (max)"));
+
+        double queueSaturation = queueSaturation();
+        checks.add(check("jobQueues", queueSaturation <= properties.getMaxQueueSaturation(), queueSaturation,
+                properties.getMaxQueueSaturation(), "fullest job queue share (max)"));
+
+        long freeDiskMb = new File(properties.getDiskPath()).getUsableSpace() / (1024 * 1024);
+        checks.add(check("disk", freeDiskMb >= properties.getMinFreeDiskMb(), freeDiskMb,
+                properties.getMinFreeDiskMb(), "usable disk space in MB (min)"));
+
+        for (ReadinessGate gate : readinessGates) {
+            checks.add(gate.readinessCheck());
+        }
+
+        boolean live = heapHeadroom >= properties.getCriticalHeapHeadroom();
+        boolean ready = live && checks.stream().allMatch(check -> UP.equals(check.getStatus()));
+        String status = ready ? UP : live ? OUT_OF_SERVICE : DOWN;
+
+        HealthSnapshot previous = snapshot;
+        if (previous != null && !status.equals(previous.getStatus())) {
+            log.warn("Health status changed from {} to {}: {}", previous.getStatus(), status, checks);
+        }
+
+        snapshot = HealthSnapshot.builder()
+                .status(status)
+                .message(ready ? "HTTP Learn API is running" : "HTTP Learn API is not accepting traffic")
+                .timestamp(System.currentTimeMillis())
+                .live(live)
+                .ready(ready)
+                .checks(List.copyOf(checks))
+                .evaluatedAtNanos(now)
+                .build();
+    }
+
+    @Override
+    public HealthSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public boolean isLive() {
+        HealthSnapshot current = snapshot;
+        long ageNanos = System.nanoTime() - current.getEvaluatedAtNanos();
+        return current.isLive() && ageNanos <= TimeUnit.MILLISECONDS.toNanos(properties.getMaxSnapshotAgeMs());
+    }
+
+    @Override
+    public boolean isReady() {
+        return snapshot.isReady() && isLive();
+    }
+
+    /**
+     * Free share of the heap, preferring old-generation occupancy after the last collection
+     * since raw heap usage swings with every young-generation cycle
+     */
+    private double heapHeadroom() {
+        MemoryUsage usage = oldGenerationPool != null ? oldGenerationPool.getCollectionUsage() : null;
+        if (usage == null || usage.getMax() <= 0) {
+            usage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        }
+        long max = usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+        return max > 0 ? 1.0 - (double) usage.getUsed() / max : 1.0;
+    }
+
+    private double gcPauseRatio(long now) {
+        long gcTimeMillis = 0;
+        for (GarbageCollectorMXBean collector : pauseCollectors) {
+            gcTimeMillis += Math.max(0, collector.getCollectionTime());
+        }
+        double ratio = 0.0;
+        if (lastGcTimeMillis >= 0 && now > lastEvaluationNanos) {
+            double elapsedMillis = (now - lastEvaluationNanos) / 1_000_000.0;
+            ratio = Math.min(1.0, (gcTimeMillis - lastGcTimeMillis) / elapsedMillis);
+        }
+        lastGcTimeMillis = gcTimeMillis;
+        lastEvaluationNanos = now;
+        return ratio;
+    }
+
+    private double threadSaturation() {
+        ThreadPoolExecutor executor = requestThreads;
+        if (executor == null || executor.getMaximumPoolSize() <= 0) {
+            return 0.0;
+        }
+        return (double) executor.getActiveCount() / executor.getMaximumPoolSize();
+    }
+
+    private double queueSaturation() {
+        double max = 0.0;
+        for (SaturationProbe probe : saturationProbes) {
+            for (SaturationProbe.QueueSample sample : probe.sampleQueues()) {
+                max = Math.max(max, sample.saturation());
+            }
+        }
+        return max;
+    }
+
+    private static HealthCheckDto check(String name, boolean up, double observed, double threshold, String detail) {
+        return HealthCheckDto.builder()
+                .name(name)
+                .status(up ? UP : DOWN)
+                .observed(observed)
+                .threshold(threshold)
+                .detail(detail)
+                .build();
+    }
+}
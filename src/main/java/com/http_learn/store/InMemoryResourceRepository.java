@@ -0,0 +1,125 @@
+package com.http_learn.store;
+
+import com.http_learn.config.ResourceProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+/**
+ * Heap-resident resource store
+ *
+ * Ids come from one atomic sequence; resources live in a ConcurrentHashMap, whose reads take no lock
+ * and whose writes lock a single bin, so readers and writers on different ids never contend.
+ * Resources are immutable: an update builds the next version from the one it read and swaps it in with
+ * a compare-and-set on the map entry, retrying on the newer version if another writer won. No lock is
+ * held while a version is built, every read sees a complete version, and no update is lost.
+ * The swap moves the resource's index keys while it holds the bin lock of the id, so the keys of one
+ * resource change in the same order as its versions
+ */
+@Repository
+@ConditionalOnProperty(prefix = "http-learn.resources", name = "storage", havingValue = "memory", matchIfMissing = true)
+public class InMemoryResourceRepository implements ResourceRepository {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<Long, Resource> resources;
+    private final ResourceIndexes indexes = new ResourceIndexes();
+
+    public InMemoryResourceRepository(ResourceProperties properties) {
+        this.resources = new ConcurrentHashMap<>(Math.max(16, properties.getInitialCapacity()));
+    }
+
+    @Override
+    public Resource create(String name, byte[] data) {
+        long now = System.currentTimeMillis();
+        Resource resource = new Resource(sequence.incrementAndGet(), 1, name, data, now, now);
+        // Indexed before it becomes visible, so a delete always finds the keys to remove
+        indexes.add(ResourceKey.of(resource));
+        resources.put(resource.id(), resource);
+        return resource;
+    }
+
+    @Override
+    public List<Resource> createAll(List<NewResource> batch) {
+        long now = System.currentTimeMillis();
+        // One sequence update reserves the ids of the whole batch
+        long id = sequence.getAndAdd(batch.size());
+        List<Resource> created = new ArrayList<>(batch.size());
+        for (NewResource resource : batch) {
+            Resource stored = new Resource(++id, 1, resource.name(), resource.data(), now, now);
+            indexes.add(ResourceKey.of(stored));
+            resources.put(stored.id(), stored);
+            created.add(stored);
+        }
+        return created;
+    }
+
+    @Override
+    public Resource find(long id) {
+        return resources.get(id);
+    }
+
+    @Override
+    public Resource update(long id, LongPredicate expectedVersion, String name, byte[] data) {
+        long now = System.currentTimeMillis();
+        while (true) {
+            Resource current = resources.get(id);
+            if (current == null) {
+                return null;
+            }
+            if (!expectedVersion.test(current.version())) {
+                throw new VersionConflictException(id, current.version());
+            }
+            Resource next = current.next(name, data, now);
+            // Succeeds only if no other writer replaced current meanwhile; otherwise re-check against the winner.
+            // The keys move before next becomes visible, so a delete of next always finds them
+            Resource stored = resources.computeIfPresent(id, (key, latest) -> {
+                if (latest != current) {
+                    return latest;
+                }
+                indexes.update(ResourceKey.of(current), ResourceKey.of(next));
+                return next;
+            });
+            if (stored == next) {
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public boolean delete(long id, LongPredicate expectedVersion) {
+        while (true) {
+            Resource current = resources.get(id);
+            if (current == null) {
+                return false;
+            }
+            if (!expectedVersion.test(current.version())) {
+                throw new VersionConflictException(id, current.version());
+            }
+            if (resources.remove(id, current)) {
+                // current can no longer be renamed, and its keys were indexed before it became visible
+                indexes.remove(ResourceKey.of(current));
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public List<ResourceKey> keysByCreation(ResourceKey after, int limit) {
+        return indexes.byCreation(after, limit);
+    }
+
+    @Override
+    public List<ResourceKey> keysByName(String prefix, ResourceKey after, int limit) {
+        return indexes.byName(prefix, after, limit);
+    }
+
+    @Override
+    public long size() {
+        return resources.mappingCount();
+    }
+}
@@ -0,0 +1,632 @@
+package com.http_learn.store;
+
+import com.http_learn.config.ResourceProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Resource store persisted in append-only, memory-mapped segment files
+ *
+ * Every write appends a record to the active segment: a put with the whole resource, or a delete
+ * tombstone. Only the indexes live on the heap: offsets by id, and the creation time and name keys of
+ * the secondary indexes. Data documents stay in the mapped files, i.e. in the page cache, and are copied
+ * out per read, so the size of the stored data does not add to GC work.
+ * Writes are serialized by one lock; reads take none and read through absolute positions of the
+ * mapped buffer, which stays valid even after its segment was compacted away.
+ *
+ * Record layout: int length, int CRC32C of the body, then the body: byte type, long id, long version,
+ * long createdAt, long updatedAt, int name length, int data length (-1 for none), name, data.
+ * On startup all segments are scanned in parallel and for each id the record with the highest version wins;
+ * the secondary indexes are then filled from the live records, again in parallel. Only the newest segment
+ * can end in a write torn by a crash: there a record whose CRC does not match ends the segment and the rest
+ * is cleared. Sealed segments were complete when the next one was started, so an invalid record in one
+ * is damage to the file and startup fails, leaving the file untouched for the operator.
+ *
+ * Sealed segments whose share of dead records crosses the threshold are compacted in the background:
+ * live records are copied to the active segment and the file is deleted. Tombstones are copied along
+ * until their segment is the oldest, since only then can no older put of the same id remain
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(prefix = "http-learn.resources", name = "storage", havingValue = "mapped")
+public class MappedResourceRepository implements ResourceRepository, AutoCloseable {
+
+    static final int FILE_HEADER_BYTES = 16;
+    static final int RECORD_PREFIX_BYTES = 8;
+
+    private static final int FILE_MAGIC = 0x484C5253;
+    private static final int FORMAT = 1;
+    private static final int RECORD_FIXED_BYTES = 41;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final double compactionThreshold;
+    private final long compactionIntervalMs;
+    private final ConcurrentHashMap<Long, Location> index;
+    private final ResourceIndexes secondaryIndexes = new ResourceIndexes();
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "resource-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Segment active;
+    private boolean closed;
+
+    public MappedResourceRepository(ResourceProperties properties) throws IOException {
+        this.directory = Path.of(properties.getDirectory());
+        this.segmentBytes = properties.getSegmentBytes();
+        this.compactionThreshold = properties.getCompactionThreshold();
+        this.compactionIntervalMs = properties.getCompactionIntervalMs();
+        this.index = new ConcurrentHashMap<>(Math.max(16, properties.getInitialCapacity()));
+        if (segmentBytes < FILE_HEADER_BYTES + RECORD_PREFIX_BYTES + RECORD_FIXED_BYTES + properties.getMaxDataBytes() + 1024) {
+            throw new IllegalStateException("http-learn.resources.segment-bytes must leave room for max-data-bytes plus 1 KiB");
+        }
+        Files.createDirectories(directory);
+        try {
+            recover();
+        } catch (IOException | RuntimeException ex) {
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+            throw ex;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        compactor.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (RuntimeException ex) {
+                log.warn("Resource segment compaction failed", ex);
+            }
+        }, compactionIntervalMs, compactionIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Resource create(String name, byte[] data) {
+        long now = System.currentTimeMillis();
+        writeLock.lock();
+        try {
+            ensureOpen();
+            Resource resource = new Resource(sequence.incrementAndGet(), 1, name, data, now, now);
+            index.put(resource.id(), append(PUT, resource));
+            secondaryIndexes.add(ResourceKey.of(resource));
+            return resource;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Resource> createAll(List<NewResource> resources) {
+        long now = System.currentTimeMillis();
+        List<Resource> created = new ArrayList<>(resources.size());
+        writeLock.lock();
+        try {
+            ensureOpen();
+            for (NewResource resource : resources) {
+                Resource stored = new Resource(sequence.incrementAndGet(), 1, resource.name(), resource.data(), now, now);
+                index.put(stored.id(), append(PUT, stored));
+                secondaryIndexes.add(ResourceKey.of(stored));
+                created.add(stored);
+            }
+            return created;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Resource find(long id) {
+        Location location = index.get(id);
+        return location != null ? read(location.segment(), location.offset()) : null;
+    }
+
+    @Override
+    public Resource update(long id, LongPredicate expectedVersion, String name, byte[] data) {
+        long now = System.currentTimeMillis();
+        writeLock.lock();
+        try {
+            ensureOpen();
+            Location current = index.get(id);
+            if (current == null) {
+                return null;
+            }
+            Resource previous = read(current.segment(), current.offset());
+            if (!expectedVersion.test(previous.version())) {
+                throw new VersionConflictException(id, previous.version());
+            }
+            Resource next = previous.next(name, data, now);
+            index.put(id, append(PUT, next));
+            secondaryIndexes.update(ResourceKey.of(previous), ResourceKey.of(next));
+            current.segment().dead(current.offset());
+            return next;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(long id, LongPredicate expectedVersion) {
+        writeLock.lock();
+        try {
+            ensureOpen();
+            Location current = index.get(id);
+            if (current == null) {
+                return false;
+            }
+            long version = current.segment().buffer.getLong(current.offset() + RECORD_PREFIX_BYTES + 9);
+            if (!expectedVersion.test(version)) {
+                throw new VersionConflictException(id, version);
+            }
+            Location tombstone = append(DELETE, new Resource(id, version + 1, "", null, 0, 0));
+            index.remove(id);
+            secondaryIndexes.remove(readKey(current.segment(), current.offset()));
+            current.segment().dead(current.offset());
+            // A tombstone is never read, only kept until compaction may drop it
+            tombstone.segment().dead(tombstone.offset());
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<ResourceKey> keysByCreation(ResourceKey after, int limit) {
+        return secondaryIndexes.byCreation(after, limit);
+    }
+
+    @Override
+    public List<ResourceKey> keysByName(String prefix, ResourceKey after, int limit) {
+        return secondaryIndexes.byName(prefix, after, limit);
+    }
+
+    @Override
+    public long size() {
+        return index.mappingCount();
+    }
+
+    /**
+     * Compact every sealed segment whose share of dead bytes reached the threshold, oldest first
+     *
+     * @return number of segments compacted
+     */
+    int compact() {
+        int compacted = 0;
+        for (Segment segment : segments.values()) {
+            if (segment.sealed && segment.deadRatio() >= compactionThreshold && compact(segment)) {
+                compacted++;
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * Flush the mapped segments and close their files
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        compactor.shutdownNow();
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Number of segment files
+     */
+    int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * End of the appended records in the active segment
+     */
+    int activeEnd() {
+        writeLock.lock();
+        try {
+            return active.end;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Path of the active segment file
+     */
+    Path activePath() {
+        writeLock.lock();
+        try {
+            return active.path;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private boolean compact(Segment segment) {
+        boolean oldest = segments.firstKey() == segment.number;
+        int moved = 0;
+        int position = FILE_HEADER_BYTES;
+        while (position < segment.end) {
+            int recordBytes = RECORD_PREFIX_BYTES + segment.buffer.getInt(position);
+            byte type = segment.buffer.get(position + RECORD_PREFIX_BYTES);
+            long id = segment.buffer.getLong(position + RECORD_PREFIX_BYTES + 1);
+            writeLock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                if (type == PUT) {
+                    Location current = index.get(id);
+                    if (current != null && current.segment() == segment && current.offset() == position) {
+                        index.put(id, copy(segment, position, recordBytes));
+                        moved++;
+                    }
+                } else if (!oldest) {
+                    Location copied = copy(segment, position, recordBytes);
+                    copied.segment().dead(copied.offset());
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            position += recordBytes;
+        }
+
+        segments.remove(segment.number);
+        segment.close();
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException ex) {
+            log.warn("Could not delete compacted segment {}", segment.path, ex);
+        }
+        log.info("Compacted resource segment {}: {} live records moved", segment.path.getFileName(), moved);
+        return true;
+    }
+
+    /**
+     * Append a record to the active segment, rolling to a new segment when it does not fit
+     * Called with the write lock held
+     */
+    private Location append(byte type, Resource resource) {
+        byte[] name = resource.name().getBytes(StandardCharsets.UTF_8);
+        byte[] data = resource.data();
+        int bodyBytes = RECORD_FIXED_BYTES + name.length + (data != null ? data.length : 0);
+        Segment segment = reserve(RECORD_PREFIX_BYTES + bodyBytes);
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = segment.end;
+        int body = offset + RECORD_PREFIX_BYTES;
+        buffer.put(body, type);
+        buffer.putLong(body + 1, resource.id());
+        buffer.putLong(body + 9, resource.version());
+        buffer.putLong(body + 17, resource.createdAt());
+        buffer.putLong(body + 25, resource.updatedAt());
+        buffer.putInt(body + 33, name.length);
+        buffer.putInt(body + 37, data != null ? data.length : -1);
+        buffer.put(body + RECORD_FIXED_BYTES, name);
+        if (data != null) {
+            buffer.put(body + RECORD_FIXED_BYTES + name.length, data);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(body, bodyBytes));
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        // The length goes last: a record without one is treated as never written
+        buffer.putInt(offset, bodyBytes);
+        segment.end = offset + RECORD_PREFIX_BYTES + bodyBytes;
+        return new Location(segment, offset);
+    }
+
+    /**
+     * Append a record copied verbatim from another segment
+     * Called with the write lock held
+     */
+    private Location copy(Segment source, int position, int recordBytes) {
+        Segment segment = reserve(recordBytes);
+        int offset = segment.end;
+        segment.buffer.put(offset + 4, source.buffer, position + 4, recordBytes - 4);
+        segment.buffer.putInt(offset, source.buffer.getInt(position));
+        segment.end = offset + recordBytes;
+        return new Location(segment, offset);
+    }
+
+    /**
+     * Make room for a record in the active segment
+     * Called with the write lock held
+     */
+    private Segment reserve(int recordBytes) {
+        if (recordBytes > segmentBytes - FILE_HEADER_BYTES) {
+            throw new IllegalArgumentException("A record of " + recordBytes + " bytes does not fit a segment");
+        }
+        if (active.end + recordBytes > active.buffer.capacity()) {
+            active.sealed = true;
+            try {
+                active = Segment.create(directory, active.number + 1, segmentBytes, sequence.get());
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not create a resource segment", ex);
+            }
+            segments.put(active.number, active);
+        }
+        return active;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The resource store is closed");
+        }
+    }
+
+    /**
+     * Read the resource stored at a record offset
+     */
+    private static Resource read(Segment segment, int offset) {
+        MappedByteBuffer buffer = segment.buffer;
+        int body = offset + RECORD_PREFIX_BYTES;
+        byte[] name = new byte[buffer.getInt(body + 33)];
+        buffer.get(body + RECORD_FIXED_BYTES, name);
+        int dataLength = buffer.getInt(body + 37);
+        byte[] data = null;
+        if (dataLength >= 0) {
+            data = new byte[dataLength];
+            buffer.get(body + RECORD_FIXED_BYTES + name.length, data);
+        }
+        return new Resource(buffer.getLong(body + 1), buffer.getLong(body + 9),
+                new String(name, StandardCharsets.UTF_8), data, buffer.getLong(body + 17), buffer.getLong(body + 25));
+    }
+
+    /**
+     * Read the secondary index key of the resource stored at a record offset, leaving its data in place
+     */
+    private static ResourceKey readKey(Segment segment, int offset) {
+        MappedByteBuffer buffer = segment.buffer;
+        int body = offset + RECORD_PREFIX_BYTES;
+        byte[] name = new byte[buffer.getInt(body + 33)];
+        buffer.get(body + RECORD_FIXED_BYTES, name);
+        return new ResourceKey(buffer.getLong(body + 1), buffer.getLong(body + 17), new String(name, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Open every segment, rebuild the index with a parallel scan and continue appending to the newest segment
+     */
+    private void recover() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (Path path : paths) {
+            Segment segment = Segment.open(path, segmentBytes);
+            segments.put(segment.number, segment);
+        }
+        if (segments.isEmpty()) {
+            Segment first = Segment.create(directory, 1, segmentBytes, 0);
+            segments.put(first.number, first);
+        }
+
+        Map<Long, Candidate> latest = new ConcurrentHashMap<>();
+        AtomicLong maxId = new AtomicLong();
+        int newest = segments.lastKey();
+        segments.values().parallelStream().forEach(segment -> scan(segment, segment.number == newest, latest, maxId));
+
+        for (Candidate candidate : latest.values()) {
+            if (candidate.type == PUT) {
+                index.put(candidate.id, new Location(candidate.segment, candidate.offset));
+                candidate.segment.liveBytes += candidate.recordBytes;
+            }
+        }
+        index.values().parallelStream().forEach(location -> secondaryIndexes.add(readKey(location.segment(), location.offset())));
+        long baseId = 0;
+        for (Segment segment : segments.values()) {
+            segment.deadBytes.set(segment.end - FILE_HEADER_BYTES - segment.liveBytes);
+            segment.sealed = true;
+            baseId = Math.max(baseId, segment.baseId);
+        }
+        active = segments.lastEntry().getValue();
+        active.sealed = false;
+        sequence.set(Math.max(maxId.get(), baseId));
+        log.info("Recovered {} resources from {} segments in {}", index.size(), segments.size(), directory);
+    }
+
+    /**
+     * Scan one segment up to its first invalid record, offering each record to the index candidates
+     *
+     * @param newest whether this is the segment that was being appended to, the only one a crash can tear
+     * @throws IllegalStateException if a sealed segment holds an invalid record
+     */
+    private static void scan(Segment segment, boolean newest, Map<Long, Candidate> latest, AtomicLong maxId) {
+        MappedByteBuffer buffer = segment.buffer;
+        int capacity = buffer.capacity();
+        int position = FILE_HEADER_BYTES;
+        boolean torn = false;
+        while (position + RECORD_PREFIX_BYTES <= capacity) {
+            int bodyBytes = buffer.getInt(position);
+            if (bodyBytes == 0) {
+                break;
+            }
+            int body = position + RECORD_PREFIX_BYTES;
+            if (bodyBytes < RECORD_FIXED_BYTES || bodyBytes > capacity - body || !crcMatches(buffer, position, bodyBytes)) {
+                torn = true;
+                break;
+            }
+            long id = buffer.getLong(body + 1);
+            Candidate candidate = new Candidate(id, buffer.getLong(body + 9), buffer.get(body), segment, position,
+                    RECORD_PREFIX_BYTES + bodyBytes);
+            latest.merge(id, candidate, (current, offered) -> offered.newerThan(current) ? offered : current);
+            maxId.accumulateAndGet(id, Math::max);
+            position = body + bodyBytes;
+        }
+        if (torn && !newest) {
+            // Records after this one are intact; clearing them would lose them for good
+            throw new IllegalStateException("Resource segment " + segment.path + " is sealed but has an invalid record at offset "
+                    + position + "; restore or remove the file before starting");
+        }
+        segment.end = position;
+        if (!newest) {
+            return;
+        }
+        if (torn) {
+            log.warn("Resource segment {} ends with a torn record at offset {}; discarding it", segment.path.getFileName(), position);
+        }
+        // Clear the remains of a torn or half-written record so a later scan cannot mistake them for records
+        for (int i = position; i < capacity; i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    private static boolean crcMatches(MappedByteBuffer buffer, int position, int bodyBytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + RECORD_PREFIX_BYTES, bodyBytes));
+        return (int) crc.getValue() == buffer.getInt(position + 4);
+    }
+
+    /**
+     * Where the current version of a resource is stored
+     *
+     * @param segment the segment holding the record
+     * @param offset offset of the record in the segment
+     */
+    private record Location(Segment segment, int offset) {
+    }
+
+    /**
+     * A record found during recovery
+     */
+    private record Candidate(long id, long version, byte type, Segment segment, int offset, int recordBytes) {
+
+        /**
+         * Higher versions win; a copy made by compaction has the same version and wins by its later position
+         */
+        boolean newerThan(Candidate other) {
+            if (version != other.version) {
+                return version > other.version;
+            }
+            if (segment.number != other.segment.number) {
+                return segment.number > other.segment.number;
+            }
+            return offset > other.offset;
+        }
+    }
+
+    /**
+     * One mapped segment file
+     */
+    private static final class Segment {
+
+        private final int number;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final long baseId;
+        private final AtomicLong deadBytes = new AtomicLong();
+        private long liveBytes;
+        private volatile int end = FILE_HEADER_BYTES;
+        private volatile boolean sealed;
+
+        private Segment(int number, Path path, FileChannel channel, MappedByteBuffer buffer, long baseId) {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.baseId = baseId;
+        }
+
+        /**
+         * Create a new segment file
+         *
+         * @param baseId last id handed out so far, so ids are never reused even once all their records are compacted away
+         */
+        static Segment create(Path directory, int number, int segmentBytes, long baseId) throws IOException {
+            Path path = directory.resolve(String.format("%010d%s", number, SUFFIX));
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            buffer.putInt(0, FILE_MAGIC);
+            buffer.putInt(4, FORMAT);
+            buffer.putLong(8, baseId);
+            return new Segment(number, path, channel, buffer, baseId);
+        }
+
+        /**
+         * Map an existing segment file; files cut short by a crash are extended with zeros
+         */
+        static Segment open(Path path, int segmentBytes) throws IOException {
+            String fileName = path.getFileName().toString();
+            int number = Integer.parseInt(fileName.substring(0, fileName.length() - SUFFIX.length()));
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.max(channel.size(), segmentBytes);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            int magic = buffer.getInt(0);
+            if (magic == 0) {
+                // Created but the header never made it to disk
+                buffer.putInt(0, FILE_MAGIC);
+                buffer.putInt(4, FORMAT);
+            } else if (magic != FILE_MAGIC || buffer.getInt(4) != FORMAT) {
+                channel.close();
+                throw new IllegalStateException(path + " is not a resource segment of format " + FORMAT);
+            }
+            return new Segment(number, path, channel, buffer, buffer.getLong(8));
+        }
+
+        /**
+         * Account a record that no longer holds a current version
+         */
+        void dead(int offset) {
+            deadBytes.addAndGet(RECORD_PREFIX_BYTES + buffer.getInt(offset));
+        }
+
+        double deadRatio() {
+            int used = end - FILE_HEADER_BYTES;
+            return used == 0 ? 0 : (double) deadBytes.get() / used;
+        }
+
+        void close() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException ex) {
+                log.warn("Could not close resource segment {}", path, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.http_learn.store;
+
+/**
+ * Content of a resource to create in a batch
+ *
+ * @param name display name
+ * @param data UTF-8 JSON document, or null
+ */
+public record NewResource(String name, byte[] data) {
+}
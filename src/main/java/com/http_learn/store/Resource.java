@@ -0,0 +1,29 @@
+package com.http_learn.store;
+
+/**
+ * One stored resource
+ *
+ * Kept as flat fields with the data document in its serialized JSON form, so a resource costs one
+ * object plus two arrays instead of a tree of maps, and reads never re-serialize it
+ *
+ * @param id identifier assigned on creation, never reused
+ * @param version starts at 1 and grows by one with every update
+ * @param name display name
+ * @param data UTF-8 JSON document, or null
+ * @param createdAt creation time (epoch milliseconds)
+ * @param updatedAt time of the last write (epoch milliseconds)
+ */
+public record Resource(long id, long version, String name, byte[] data, long createdAt, long updatedAt) {
+
+    /**
+     * Create the next version of this resource
+     *
+     * @param name the new name
+     * @param data the new data document
+     * @param now the update time (epoch milliseconds)
+     * @return the updated copy
+     */
+    public Resource next(String name, byte[] data, long now) {
+        return new Resource(id, version + 1, name, data, createdAt, now);
+    }
+}
@@ -0,0 +1,64 @@
+package com.http_learn.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary indexes of a resource store: creation time and name
+ *
+ * Both are concurrent skip lists, so listings walk them without locks while writers insert and remove,
+ * and a page costs a seek plus one step per entry, however large the store. update and remove must be
+ * called in the order the versions of a resource change and with the key actually indexed for it, which
+ * the stores guarantee by moving keys under the same lock as the resource itself (the write lock of the
+ * mapped store, the bin lock of the id in the in-memory one); then no key outlives its version. A listing
+ * can still read a key just before its resource is renamed or deleted, so it checks every resource it
+ * loads against its key
+ */
+final class ResourceIndexes {
+
+    private final ConcurrentSkipListSet<ResourceKey> byCreation = new ConcurrentSkipListSet<>(ResourceKey.BY_CREATION);
+    private final ConcurrentSkipListSet<ResourceKey> byName = new ConcurrentSkipListSet<>(ResourceKey.BY_NAME);
+
+    void add(ResourceKey key) {
+        byCreation.add(key);
+        byName.add(key);
+    }
+
+    void update(ResourceKey previous, ResourceKey next) {
+        if (!previous.name().equals(next.name())) {
+            // The creation index keeps the old key: it is ordered by createdAt and id, which never change
+            byName.add(next);
+            byName.remove(previous);
+        }
+    }
+
+    void remove(ResourceKey key) {
+        byName.remove(key);
+        byCreation.remove(key);
+    }
+
+    List<ResourceKey> byCreation(ResourceKey after, int limit) {
+        return take(after == null ? byCreation : byCreation.tailSet(after, false), null, limit);
+    }
+
+    List<ResourceKey> byName(String prefix, ResourceKey after, int limit) {
+        ResourceKey start = new ResourceKey(Long.MIN_VALUE, 0, prefix);
+        NavigableSet<ResourceKey> from = after == null || ResourceKey.BY_NAME.compare(after, start) < 0
+                ? byName.tailSet(start, true)
+                : byName.tailSet(after, false);
+        return take(from, prefix, limit);
+    }
+
+    private static List<ResourceKey> take(NavigableSet<ResourceKey> from, String prefix, int limit) {
+        List<ResourceKey> keys = new ArrayList<>(Math.min(limit, 1024));
+        for (ResourceKey key : from) {
+            if (keys.size() == limit || (prefix != null && !key.name().startsWith(prefix))) {
+                break;
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,37 @@
+package com.http_learn.store;
+
+import java.util.Comparator;
+
+/**
+ * Entry of the secondary indexes, and the position a listing continues after
+ *
+ * A new resource gets one key object shared by both indexes, which order it by different fields
+ *
+ * @param id the resource id
+ * @param createdAt creation time (epoch milliseconds)
+ * @param name display name
+ */
+public record ResourceKey(long id, long createdAt, String name) {
+
+    /**
+     * Creation order; the id breaks ties between resources created in the same millisecond
+     */
+    public static final Comparator<ResourceKey> BY_CREATION =
+            Comparator.comparingLong(ResourceKey::createdAt).thenComparingLong(ResourceKey::id);
+
+    /**
+     * Name order; the id orders resources of the same name
+     */
+    public static final Comparator<ResourceKey> BY_NAME =
+            Comparator.comparing(ResourceKey::name).thenComparingLong(ResourceKey::id);
+
+    /**
+     * Get the key of a resource
+     *
+     * @param resource the resource
+     * @return its key
+     */
+    public static ResourceKey of(Resource resource) {
+        return new ResourceKey(resource.id(), resource.createdAt(), resource.name());
+    }
+}
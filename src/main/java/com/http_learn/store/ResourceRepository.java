@@ -0,0 +1,114 @@
+package com.http_learn.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Storage of resources by id
+ * Implementations are safe for concurrent use; every method is atomic for the resource it touches
+ */
+public interface ResourceRepository {
+
+    /**
+     * Store a new resource under the next id
+     *
+     * @param name display name
+     * @param data UTF-8 JSON document, or null
+     * @return the stored resource, version 1
+     */
+    Resource create(String name, byte[] data);
+
+    /**
+     * Store several new resources, each under the next id
+     * Implementations amortize their per-write costs (id allocation, locking) over the batch
+     *
+     * @param resources names and data documents
+     * @return the stored resources, version 1, in the given order
+     */
+    default List<Resource> createAll(List<NewResource> resources) {
+        List<Resource> created = new ArrayList<>(resources.size());
+        for (NewResource resource : resources) {
+            created.add(create(resource.name(), resource.data()));
+        }
+        return created;
+    }
+
+    /**
+     * Find a resource
+     *
+     * @param id the id
+     * @return the resource, or null if there is none
+     */
+    Resource find(long id);
+
+    /**
+     * Replace the name and data of a resource if its current version is an expected one
+     *
+     * @param id the id
+     * @param expectedVersion accepts the versions the caller's change was based on
+     * @param name the new name
+     * @param data the new data document
+     * @return the new version, or null if there is no such resource
+     * @throws VersionConflictException if the current version is not accepted
+     */
+    Resource update(long id, LongPredicate expectedVersion, String name, byte[] data);
+
+    /**
+     * Replace the name and data of a resource, whatever its version
+     *
+     * @param id the id
+     * @param name the new name
+     * @param data the new data document
+     * @return the new version, or null if there is no such resource
+     */
+    default Resource update(long id, String name, byte[] data) {
+        return update(id, version -> true, name, data);
+    }
+
+    /**
+     * Remove a resource if its current version is an expected one
+     *
+     * @param id the id
+     * @param expectedVersion accepts the versions the caller's decision was based on
+     * @return true if it existed
+     * @throws VersionConflictException if the current version is not accepted
+     */
+    boolean delete(long id, LongPredicate expectedVersion);
+
+    /**
+     * Remove a resource, whatever its version
+     *
+     * @param id the id
+     * @return true if it existed
+     */
+    default boolean delete(long id) {
+        return delete(id, version -> true);
+    }
+
+    /**
+     * Page through the creation time index
+     *
+     * @param after key to continue after, or null to start with the oldest resource
+     * @param limit most keys returned
+     * @return keys in creation order
+     */
+    List<ResourceKey> keysByCreation(ResourceKey after, int limit);
+
+    /**
+     * Page through the name index
+     *
+     * @param prefix only names starting with this; empty for all names
+     * @param after key to continue after, or null to start with the first matching name
+     * @param limit most keys returned
+     * @return keys in name order
+     */
+    List<ResourceKey> keysByName(String prefix, ResourceKey after, int limit);
+
+    /**
+     * Number of stored resources
+     *
+     * @return the count
+     */
+    long size();
+}
@@ -0,0 +1,25 @@
+package com.http_learn.store;
+
+/**
+ * Raised when a conditional write finds a resource at a version the caller did not expect
+ * Stackless: a conflict is the normal outcome of losing an optimistic race, not a bug
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final long currentVersion;
+
+    /**
+     * Create a version conflict
+     *
+     * @param id the resource id
+     * @param currentVersion the version the resource is at
+     */
+    public VersionConflictException(long id, long currentVersion) {
+        super("Resource " + id + " is at version " + currentVersion, null, false, false);
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,199 @@
+package com.http_learn.timing;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.Map;
+
+/**
+ * Phase timestamps of one timed request, taken with System.nanoTime
+ *
+ * Phases: filters (first filter to DispatcherServlet), mapping (handler lookup and interceptors),
+ * handler (controller and services), serialize (message conversion into the response buffer),
+ * write (flushing the rest of the response to the socket) and total. The first three are known before
+ * the body is written and go into the Server-Timing header; the others can only be sent as a trailer
+ */
+public final class ServerTiming {
+
+    /**
+     * Response header and trailer name
+     */
+    public static final String HEADER = "Server-Timing";
+
+    private static final String ATTRIBUTE = ServerTiming.class.getName();
+
+    private final long start;
+    private final boolean reported;
+    private volatile long dispatched;
+    private volatile long mapped;
+    private volatile long handled;
+    private volatile long completed;
+    private volatile long flushed;
+
+    ServerTiming(long start, boolean reported) {
+        this.start = start;
+        this.reported = reported;
+    }
+
+    /**
+     * Start timing a request
+     *
+     * @param request the request
+     * @param reported whether the phases are sent to the client, or only collected for other consumers (JFR)
+     * @return the timing, reachable through {@link #of(ServletRequest)} for the rest of the request
+     */
+    public static ServerTiming start(ServletRequest request, boolean reported) {
+        ServerTiming timing = new ServerTiming(System.nanoTime(), reported);
+        request.setAttribute(ATTRIBUTE, timing);
+        return timing;
+    }
+
+    /**
+     * Get the timing of a request
+     *
+     * @param request the request
+     * @return the timing, or null when the request is not timed
+     */
+    public static ServerTiming of(ServletRequest request) {
+        return request.getAttribute(ATTRIBUTE) instanceof ServerTiming timing ? timing : null;
+    }
+
+    void markDispatched() {
+        if (dispatched == 0) {
+            dispatched = System.nanoTime();
+        }
+    }
+
+    void markMapped() {
+        if (mapped == 0) {
+            mapped = System.nanoTime();
+        }
+    }
+
+    /**
+     * Mark the end of the handler; later calls (e.g. from an async dispatch) move the mark forward
+     */
+    void markHandled() {
+        handled = System.nanoTime();
+    }
+
+    boolean isHandled() {
+        return handled != 0;
+    }
+
+    public void markCompleted() {
+        if (completed == 0) {
+            completed = System.nanoTime();
+        }
+    }
+
+    void markFlushed() {
+        if (flushed == 0) {
+            flushed = System.nanoTime();
+        }
+    }
+
+    /**
+     * Set the Server-Timing header with the phases known so far, unless the response is already committed
+     *
+     * @param response the response
+     */
+    void writeHeader(HttpServletResponse response) {
+        if (!reported || response.isCommitted()) {
+            return;
+        }
+        String value = headerValue();
+        if (!value.isEmpty()) {
+            response.setHeader(HEADER, value);
+        }
+    }
+
+    /**
+     * @return nanoseconds spent in the filter chain, 0 if the request never reached the DispatcherServlet
+     */
+    public long filtersNanos() {
+        return span(start, dispatched);
+    }
+
+    public long mappingNanos() {
+        return span(dispatched, mapped);
+    }
+
+    public long handlerNanos() {
+        return span(mapped, handled);
+    }
+
+    public long serializeNanos() {
+        return span(handled, completed);
+    }
+
+    /**
+     * @return the duration between two marks, or 0 if either was never reached
+     */
+    private static long span(long from, long to) {
+        return from == 0 || to == 0 ? 0 : Math.max(0, to - from);
+    }
+
+    /**
+     * @return the phases before the body: filters, mapping and handler
+     */
+    String headerValue() {
+        StringBuilder value = new StringBuilder(64);
+        append(value, "filters", start, dispatched);
+        append(value, "mapping", dispatched, mapped);
+        append(value, "handler", mapped, handled);
+        return value.toString();
+    }
+
+    /**
+     * @return the phases after the handler, as trailer fields
+     */
+    Map<String, String> trailerFields() {
+        StringBuilder value = new StringBuilder(64);
+        append(value, "serialize", handled, completed);
+        append(value, "write", completed, flushed);
+        append(value, "total", start, flushed != 0 ? flushed : System.nanoTime());
+        return Map.of(HEADER, value.toString());
+    }
+
+    /**
+     * @return every phase, for the trace log
+     */
+    String describe() {
+        StringBuilder value = new StringBuilder(128).append(headerValue());
+        if (value.length() > 0) {
+            value.append(", ");
+        }
+        return value.append(trailerFields().get(HEADER)).toString();
+    }
+
+    /**
+     * Append one metric; phases whose boundaries were never reached are left out
+     */
+    private static void append(StringBuilder value, String name, long from, long to) {
+        if (from == 0 || to == 0) {
+            return;
+        }
+        if (value.length() > 0) {
+            value.append(", ");
+        }
+        value.append(name).append(";dur=");
+        appendMillis(value, Math.max(0, to - from));
+    }
+
+    /**
+     * Append nanoseconds as milliseconds with three decimals, without going through String.format
+     */
+    static void appendMillis(StringBuilder value, long nanos) {
+        long micros = nanos / 1_000;
+        long fraction = micros % 1_000;
+        value.append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            value.append('0');
+        }
+        if (fraction < 10) {
+            value.append('0');
+        }
+        value.append(fraction);
+    }
+}
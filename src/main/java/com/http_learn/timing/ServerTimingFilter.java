@@ -0,0 +1,136 @@
+package com.http_learn.timing;
+
+import com.http_learn.config.ServerTimingProperties;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Locale;
+
+/**
+ * Servlet filter that times requests carrying the debug header
+ *
+ * Runs before every other filter. Requests without the header pay for a single header lookup;
+ * timed requests get a {@link ServerTiming} that the interceptor and the response body advice fill in.
+ * Clients that send TE: trailers also receive the serialize, write and total phases as a trailer,
+ * which is why a timed response is flushed (and therefore chunked) from here
+ */
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final String requestHeader;
+    private final byte[] token;
+    private final boolean trace;
+
+    public ServerTimingFilter(ServerTimingProperties properties) {
+        this.requestHeader = properties.getRequestHeader();
+        this.token = properties.getToken() != null && !properties.getToken().isEmpty()
+                ? properties.getToken().getBytes(StandardCharsets.UTF_8)
+                : null;
+        this.trace = properties.isTrace();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String value = request.getHeader(requestHeader);
+        if (value == null || (token != null && !MessageDigest.isEqual(token, value.getBytes(StandardCharsets.UTF_8)))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ServerTiming timing = ServerTiming.start(request, true);
+        if (acceptsTrailers(request)) {
+            try {
+                response.setTrailerFields(timing::trailerFields);
+                response.setHeader("Trailer", ServerTiming.HEADER);
+            } catch (IllegalStateException ex) {
+                // Trailers are not available over this protocol
+            }
+        }
+
+        filterChain.doFilter(request, response);
+
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new CompletionListener(timing, request, response));
+            return;
+        }
+        // Responses answered before the DispatcherServlet (e.g. cache hits) still get the filter phase
+        timing.markCompleted();
+        timing.writeHeader(response);
+        response.flushBuffer();
+        timing.markFlushed();
+        trace(timing, request, response);
+    }
+
+    private void trace(ServerTiming timing, HttpServletRequest request, HttpServletResponse response) {
+        if (trace) {
+            log.info("{} {} {} {}", request.getMethod(), request.getRequestURI(), response.getStatus(), timing.describe());
+        }
+    }
+
+    private static boolean acceptsTrailers(HttpServletRequest request) {
+        String te = request.getHeader("TE");
+        return te != null && te.toLowerCase(Locale.ROOT).contains("trailers");
+    }
+
+    /**
+     * Closes the timing of an async request once the container has written the whole response
+     */
+    private final class CompletionListener implements AsyncListener {
+
+        private final ServerTiming timing;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+
+        private CompletionListener(ServerTiming timing, HttpServletRequest request, HttpServletResponse response) {
+            this.timing = timing;
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            timing.markCompleted();
+            timing.markFlushed();
+            trace(timing, request, response);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Marks the end of the filter chain; registered after every other filter
+     */
+    public static class DispatchMarker extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            ServerTiming timing = ServerTiming.of(request);
+            if (timing != null) {
+                timing.markDispatched();
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+}
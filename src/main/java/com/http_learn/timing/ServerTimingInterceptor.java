@@ -0,0 +1,52 @@
+package com.http_learn.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Marks the handler boundaries of timed requests
+ *
+ * preHandle closes the mapping phase. For @ResponseBody handlers the handler phase is closed by
+ * {@link ServerTimingAdvice} just before serialization; the hooks here cover handlers that start async
+ * processing (streamed bodies, callables) and those that write no body through a message converter
+ */
+public class ServerTimingInterceptor implements AsyncHandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ServerTiming timing = ServerTiming.of(request);
+        if (timing != null) {
+            timing.markMapped();
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        ServerTiming timing = ServerTiming.of(request);
+        if (timing != null && !timing.isHandled()) {
+            timing.markHandled();
+            timing.writeHeader(response);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ServerTiming timing = ServerTiming.of(request);
+        if (timing != null) {
+            timing.markHandled();
+            timing.writeHeader(response);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ServerTiming timing = ServerTiming.of(request);
+        if (timing != null) {
+            timing.markCompleted();
+        }
+    }
+}
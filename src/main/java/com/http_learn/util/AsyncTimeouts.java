@@ -0,0 +1,52 @@
+package com.http_learn.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Per-request async timeouts
+ *
+ * spring.mvc.async.request-timeout bounds every async request, including the bulkhead hand-offs.
+ * A handler whose async work legitimately runs longer (a streamed multi-gigabyte body, a timed recording)
+ * raises the bound for its own request only; the interceptor applies it to every async phase of that
+ * request, just before the phase starts
+ */
+public final class AsyncTimeouts implements CallableProcessingInterceptor, DeferredResultProcessingInterceptor {
+
+    private static final String ATTRIBUTE = AsyncTimeouts.class.getName() + ".TIMEOUT";
+
+    /**
+     * Set the async timeout of a request
+     *
+     * @param request the request being handled
+     * @param timeout bound for each async phase of the request
+     */
+    public static void set(HttpServletRequest request, Duration timeout) {
+        request.setAttribute(ATTRIBUTE, timeout.toMillis());
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        apply(request);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, DeferredResult<T> deferredResult) {
+        apply(request);
+    }
+
+    private static void apply(NativeWebRequest request) {
+        if (request instanceof AsyncWebRequest asyncRequest
+                && request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Long timeout) {
+            asyncRequest.setTimeout(timeout);
+        }
+    }
+}
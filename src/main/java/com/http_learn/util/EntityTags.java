@@ -0,0 +1,78 @@
+package com.http_learn.util;
+
+import org.springframework.http.MediaType;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Strong entity tags derived from resource versions
+ * A version changes with every write and is never reused, but the same version is served as JSON, CBOR
+ * or Smile, and a strong tag must differ between representations (RFC 9110, section 8.8.3). Tags therefore
+ * combine both, as in "7-cbor"; preconditions on writes only look at the version part
+ */
+public final class EntityTags {
+
+    private static final LongPredicate ANY_VERSION = version -> true;
+    private static final LongPredicate NO_VERSION = version -> false;
+    private static final String JACKSON_SUBTYPE_PREFIX = "x-jackson-";
+
+    private EntityTags() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Build the ETag of a version in one representation
+     *
+     * @param version the resource version
+     * @param representation the content type the version is encoded in
+     * @return the quoted strong entity tag, e.g. "7-json"
+     */
+    public static String of(long version, MediaType representation) {
+        String subtype = representation.getSubtype();
+        if (subtype.startsWith(JACKSON_SUBTYPE_PREFIX)) {
+            subtype = subtype.substring(JACKSON_SUBTYPE_PREFIX.length());
+        }
+        return "\"" + version + "-" + subtype + "\"";
+    }
+
+    /**
+     * Check whether a request carries an If-Match precondition at all
+     * With one, a missing resource fails the precondition instead of being reported as not found
+     *
+     * @param ifMatch the header value, or null if there is none
+     * @return true if the header is present and not blank
+     */
+    public static boolean isConditional(String ifMatch) {
+        return ifMatch != null && !ifMatch.isBlank();
+    }
+
+    /**
+     * Turn an If-Match header into a test on the current version (RFC 9110, section 13.1.1)
+     * Weak tags never match, since If-Match uses strong comparison. A tag matches on its version whatever
+     * representation it was issued for: the write replaces the resource, not one encoding of it
+     *
+     * @param ifMatch the header value, or null if there is none
+     * @return a test accepting every version when the header is absent or *, otherwise only the listed ones
+     */
+    public static LongPredicate matching(String ifMatch) {
+        if (!isConditional(ifMatch) || ifMatch.trim().equals("*")) {
+            return ANY_VERSION;
+        }
+        LongPredicate accepted = NO_VERSION;
+        for (String part : ifMatch.split(",")) {
+            String tag = part.trim();
+            if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+                continue;
+            }
+            String opaque = tag.substring(1, tag.length() - 1);
+            int dash = opaque.indexOf('-');
+            try {
+                long version = Long.parseLong(dash >= 0 ? opaque.substring(0, dash) : opaque);
+                accepted = accepted.or(current -> current == version);
+            } catch (NumberFormatException ex) {
+                // A tag this server never issued matches no version
+            }
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,52 @@
+package com.http_learn.util;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Ssl;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+
+/**
+ * Utility class for calling this server from inside the process
+ * Used by the response cache revalidation and the JIT warm-up, which must reach the connector
+ * the same way external clients do
+ */
+public final class LocalServerUrl {
+
+    private LocalServerUrl() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Base URL of this server as configured: https when server.ssl is enabled, the server.address host,
+     * or loopback when bound to every interface. It ends before the context path
+     *
+     * @param server the server properties
+     * @param port the port the server listens on
+     * @return scheme, host and port
+     */
+    public static String baseUrl(ServerProperties server, int port) {
+        String scheme = Ssl.isEnabled(server.getSsl()) ? "https" : "http";
+        InetAddress address = server.getAddress();
+        if (address == null || address.isAnyLocalAddress()) {
+            address = InetAddress.getLoopbackAddress();
+        }
+        String host = address.getHostAddress();
+        if (address instanceof Inet6Address) {
+            host = "[" + host.replace("%", "%25") + "]";
+        }
+        return scheme + "://" + host + ":" + port;
+    }
+
+    /**
+     * Base URL of the servlet application: the server base URL followed by server.servlet.context-path
+     *
+     * @param server the server properties
+     * @param port the port the server listens on
+     * @return scheme, host, port and context path, without a trailing slash
+     */
+    public static String applicationUrl(ServerProperties server, int port) {
+        String contextPath = server.getServlet().getContextPath();
+        return baseUrl(server, port) + (contextPath != null ? contextPath : "");
+    }
+}
@@ -0,0 +1,37 @@
+package com.http_learn.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a stored UTF-8 JSON document as a nested value instead of a base64 string
+ *
+ * JSON output gets the bytes verbatim, with no parsing or tree building. Binary formats (CBOR, Smile)
+ * cannot take raw JSON, so the document is streamed token by token into them
+ */
+public class RawJsonSerializer extends StdSerializer<byte[]> {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    public RawJsonSerializer() {
+        super(byte[].class);
+    }
+
+    @Override
+    public void serialize(byte[] value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (!generator.canWriteBinaryNatively()) {
+            generator.writeRawValue(new String(value, StandardCharsets.UTF_8));
+            return;
+        }
+        try (JsonParser parser = JSON.createParser(value)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+    }
+}
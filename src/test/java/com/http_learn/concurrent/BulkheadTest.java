@@ -0,0 +1,77 @@
+package com.http_learn.concurrent;
+
+import com.http_learn.config.BulkheadProperties;
+import com.http_learn.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Bulkhead
+ */
+class BulkheadTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Bulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        bulkhead.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should reject new work with ABORT once threads and queue are full")
+    void shouldAbortWhenFull() throws Exception {
+        bulkhead = new Bulkhead("test", spec(BulkheadProperties.RejectionPolicy.ABORT));
+
+        CompletableFuture<String> running = bulkhead.submit(this::blockUntilReleased);
+        CompletableFuture<String> queued = bulkhead.submit(() -> "queued");
+
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class, () -> bulkhead.submit(() -> "rejected"));
+        assertEquals("3", ex.getHeaders().getFirst("Retry-After"));
+        assertEquals(1, bulkhead.stats().getRejected());
+
+        release.countDown();
+        assertEquals("released", running.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should shed the longest waiting request with DISCARD_OLDEST")
+    void shouldDiscardOldestWhenFull() throws Exception {
+        bulkhead = new Bulkhead("test", spec(BulkheadProperties.RejectionPolicy.DISCARD_OLDEST));
+
+        CompletableFuture<String> running = bulkhead.submit(this::blockUntilReleased);
+        CompletableFuture<String> oldest = bulkhead.submit(() -> "oldest");
+        CompletableFuture<String> newest = bulkhead.submit(() -> "newest");
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> oldest.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceOverloadedException.class, ex.getCause());
+
+        release.countDown();
+        assertEquals("released", running.get(5, TimeUnit.SECONDS));
+        assertEquals("newest", newest.get(5, TimeUnit.SECONDS));
+    }
+
+    private String blockUntilReleased() throws InterruptedException {
+        release.await();
+        return "released";
+    }
+
+    private static BulkheadProperties.Spec spec(BulkheadProperties.RejectionPolicy policy) {
+        BulkheadProperties.Spec spec = new BulkheadProperties.Spec();
+        spec.setThreads(1);
+        spec.setQueueCapacity(1);
+        spec.setRejection(policy);
+        spec.setRetryAfterSeconds(3);
+        return spec;
+    }
+}
@@ -0,0 +1,65 @@
+package com.http_learn.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HashedTimingWheel
+ */
+class HashedTimingWheelTest {
+
+    private final HashedTimingWheel wheel = new HashedTimingWheel("test-wheel", 5, TimeUnit.MILLISECONDS, 64);
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    @DisplayName("Should fire many timeouts, spanning several laps, never before their deadline")
+    void shouldFireNoEarlierThanDeadline() throws Exception {
+        int count = 10_000;
+        CountDownLatch fired = new CountDownLatch(count);
+        AtomicInteger early = new AtomicInteger();
+
+        for (int i = 0; i < count; i++) {
+            long delayNanos = TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextInt(700));
+            long deadline = System.nanoTime() + delayNanos;
+            wheel.schedule(() -> {
+                if (System.nanoTime() < deadline) {
+                    early.incrementAndGet();
+                }
+                fired.countDown();
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        assertTrue(fired.await(10, TimeUnit.SECONDS), fired.getCount() + " timeouts never fired");
+        assertEquals(0, early.get());
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    @DisplayName("Should not run a cancelled timeout")
+    void shouldNotRunCancelledTimeout() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch marker = new CountDownLatch(1);
+
+        HashedTimingWheel.Timeout cancelled = wheel.schedule(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        wheel.schedule(marker::countDown, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertTrue(marker.await(5, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+        assertFalse(cancelled.isExpired());
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+}
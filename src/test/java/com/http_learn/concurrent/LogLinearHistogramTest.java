@@ -0,0 +1,45 @@
+package com.http_learn.concurrent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LogLinearHistogram
+ */
+class LogLinearHistogramTest {
+
+    @Test
+    @DisplayName("Should place every value in a bucket whose bounds contain it, within 12.5%")
+    void shouldBucketWithinPrecision() {
+        for (long value : new long[]{0, 1, 7, 8, 15, 16, 17, 1000, 4096, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = LogLinearHistogram.bucket(value);
+            long upper = LogLinearHistogram.bucketUpperBound(bucket);
+            assertTrue(upper >= value, value + " above its bucket bound " + upper);
+            assertTrue(upper - value <= value / 8, value + " too far from its bucket bound " + upper);
+            if (bucket > 0) {
+                assertTrue(LogLinearHistogram.bucketUpperBound(bucket - 1) < value, value + " fits the previous bucket");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should find percentiles across the recorded values and start over after a reset")
+    void shouldFindPercentiles() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        long[] counts = new long[LogLinearHistogram.BUCKETS];
+        long total = histogram.addTo(counts);
+
+        assertEquals(1000, total);
+        long p99 = LogLinearHistogram.percentile(counts, total, 0.99);
+        assertTrue(p99 >= 990 && p99 <= 990 * 9 / 8, "p99 " + p99);
+
+        histogram.reset();
+        assertEquals(0, histogram.addTo(new long[LogLinearHistogram.BUCKETS]));
+    }
+}
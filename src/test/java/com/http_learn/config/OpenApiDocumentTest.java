@@ -0,0 +1,63 @@
+package com.http_learn.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Build-time OpenAPI generation
+ *
+ * Run by the generateOpenApi Gradle task as part of check: renders the document from the controller annotations,
+ * writes it to the build directory, and fails when it drifts from the committed contract, which is what the boot
+ * jar packages. Start the task with -PupdateOpenApi to accept an intended API change
+ */
+@Tag("openapi")
+@SpringBootTest(properties = "http-learn.warmup.enabled=false")
+@AutoConfigureMockMvc
+class OpenApiDocumentTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Should generate the OpenAPI document and match the committed contract")
+    void shouldMatchCommittedContract() throws Exception {
+        byte[] generated = mockMvc.perform(get("/api-docs"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        String document = objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsString(objectMapper.readTree(generated)) + "\n";
+
+        Path output = Path.of(System.getProperty("openapi.output", "build/openapi/openapi.json"));
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, document, StandardCharsets.UTF_8);
+
+        Path contract = Path.of(System.getProperty("openapi.contract", "src/test/resources/openapi/openapi.json"));
+        if (Boolean.getBoolean("openapi.update")) {
+            Files.createDirectories(contract.getParent());
+            Files.writeString(contract, document, StandardCharsets.UTF_8);
+            return;
+        }
+        assertTrue(Files.exists(contract), "No OpenAPI contract at " + contract + "; run ./gradlew generateOpenApi -PupdateOpenApi and commit it");
+        assertEquals(Files.readString(contract, StandardCharsets.UTF_8), document,
+                "OpenAPI document drifted from " + contract + "; review the change and run ./gradlew generateOpenApi -PupdateOpenApi");
+    }
+}
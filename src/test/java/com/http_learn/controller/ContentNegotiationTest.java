@@ -0,0 +1,72 @@
+package com.http_learn.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for Accept-driven content negotiation
+ * Verifies that JSON stays the default and that CBOR and Smile are served on request
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ContentNegotiationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Should default to JSON when no binary format is requested and vary on Accept")
+    void shouldDefaultToJson() throws Exception {
+        mockMvc.perform(get("/api/success/ok"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    @DisplayName("Should encode success responses as CBOR when requested")
+    void shouldEncodeSuccessResponseAsCbor() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/success/ok").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn();
+
+        JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("200 OK", body.get("status").asText());
+    }
+
+    @Test
+    @DisplayName("Should encode informational responses as Smile when requested")
+    void shouldEncodeInformationalResponseAsSmile() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/informational/all").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn();
+
+        ObjectMapper smileMapper = new SmileMapper();
+        JsonNode body = smileMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Informational Status Codes (1xx)", body.get("status").asText());
+        assertEquals(5, body.get("codes").size());
+    }
+}
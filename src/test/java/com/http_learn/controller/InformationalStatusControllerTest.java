@@ -0,0 +1,83 @@
+package com.http_learn.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the upload example and its bulkhead, over real connections
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "http-learn.warmup.enabled=false",
+        "server.tomcat.threads.max=4",
+        "server.tomcat.threads.min-spare=4"
+})
+class InformationalStatusControllerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("Should keep serving other endpoints while every Tomcat worker's worth of uploads stalls mid-body")
+    void shouldNotBlockWorkersOnSlowUploads() throws Exception {
+        List<Socket> uploads = new ArrayList<>();
+        try {
+            // As many stalled uploads as there are Tomcat workers; each sends only part of its body
+            for (int i = 0; i < 4; i++) {
+                Socket socket = new Socket("127.0.0.1", port);
+                socket.setSoTimeout(10_000);
+                OutputStream out = socket.getOutputStream();
+                out.write(("POST /api/informational/upload-example HTTP/1.1\r\n"
+                        + "Host: localhost\r\n"
+                        + "Content-Type: text/plain\r\n"
+                        + "Content-Length: 10\r\n"
+                        + "\r\n"
+                        + "first").getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                uploads.add(socket);
+            }
+
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> catalog = client.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/informational/all"))
+                    .timeout(Duration.ofSeconds(5))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, catalog.statusCode());
+
+            // A stalled upload still completes once the rest of its body arrives
+            Socket first = uploads.get(0);
+            first.getOutputStream().write("-half".getBytes(StandardCharsets.US_ASCII));
+            first.getOutputStream().flush();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(first.getInputStream(), StandardCharsets.US_ASCII));
+            assertEquals("HTTP/1.1 200 ", reader.readLine().substring(0, 13));
+        } finally {
+            for (Socket socket : uploads) {
+                close(socket);
+            }
+        }
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Nothing to clean up on a broken test connection
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.http_learn.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the resource endpoints and the demos backed by them
+ */
+@SpringBootTest(properties = "http-learn.warmup.enabled=false")
+@AutoConfigureMockMvc
+class ResourceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Should create, read, replace and delete a resource")
+    void shouldRoundTripResource() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/resources")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"lamp\",\"data\":{\"color\":\"blue\",\"tags\":[1,2]}}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        JsonNode body = objectMapper.readTree(created.getResponse().getContentAsByteArray());
+        long id = body.get("id").asLong();
+        assertEquals("/api/resources/" + id, created.getResponse().getHeader("Location"));
+        assertEquals("blue", body.get("data").get("color").asText());
+
+        MvcResult cbor = mockMvc.perform(get("/api/resources/" + id).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode decoded = new CBORMapper().readTree(cbor.getResponse().getContentAsByteArray());
+        assertEquals(2, decoded.get("data").get("tags").size());
+
+        mockMvc.perform(put("/api/resources/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"desk lamp\"}"))
+                .andExpect(status().isOk());
+        JsonNode replaced = objectMapper.readTree(mockMvc.perform(get("/api/resources/" + id))
+                .andReturn().getResponse().getContentAsByteArray());
+        assertEquals(2, replaced.get("version").asLong());
+        assertTrue(replaced.get("data").isNull());
+
+        mockMvc.perform(delete("/api/resources/" + id)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/resources/" + id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should back the 201 and 204 demos with real resources")
+    void shouldBackDemos() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/success/created"))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists("Location"))
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsByteArray()).get("data").get("id").asLong();
+
+        mockMvc.perform(get("/api/resources/" + id)).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/success/no-content").param("id", Long.toString(id))).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/resources/" + id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should run mixed bulk operations and answer 207 with a result per operation")
+    void shouldRunBulkOperations() throws Exception {
+        StringBuilder operations = new StringBuilder("{\"operations\":[");
+        for (int i = 0; i < 100; i++) {
+            operations.append("{\"op\":\"CREATE\",\"name\":\"bulk-").append(i).append("\"},");
+        }
+        operations.append("{\"op\":\"CREATE\"},{\"op\":\"DELETE\"},{\"op\":\"UPDATE\",\"id\":-1,\"name\":\"x\"}]}");
+
+        MvcResult result = mockMvc.perform(post("/api/resources/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(operations.toString()))
+                .andExpect(status().isMultiStatus())
+                .andReturn();
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsByteArray());
+
+        assertEquals(103, body.get("total").asInt());
+        assertEquals(100, body.get("succeeded").asInt());
+        JsonNode results = body.get("results");
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, results.get(i).get("index").asInt());
+            assertEquals(201, results.get(i).get("status").asInt());
+            assertEquals("bulk-" + i, results.get(i).get("resource").get("name").asText());
+        }
+        assertEquals(400, results.get(100).get("status").asInt());
+        assertEquals(400, results.get(101).get("status").asInt());
+        assertEquals(404, results.get(102).get("status").asInt());
+        assertTrue(results.get(102).has("error"));
+        assertFalse(results.get(102).has("resource"));
+    }
+
+    @Test
+    @DisplayName("Should run bulk operations on the same id in request order")
+    void shouldOrderBulkOperationsPerId() throws Exception {
+        long id = objectMapper.readTree(mockMvc.perform(post("/api/resources")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"ordered\"}"))
+                .andReturn().getResponse().getContentAsByteArray()).get("id").asLong();
+        StringBuilder operations = new StringBuilder("{\"operations\":[");
+        for (int i = 0; i < 50; i++) {
+            operations.append("{\"op\":\"UPDATE\",\"id\":").append(id).append(",\"name\":\"v").append(i).append("\"},");
+            operations.append("{\"op\":\"CREATE\",\"name\":\"filler\"},");
+        }
+        operations.append("{\"op\":\"DELETE\",\"id\":").append(id).append("}]}");
+
+        MvcResult result = mockMvc.perform(post("/api/success/multi-status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(operations.toString()))
+                .andExpect(status().isMultiStatus())
+                .andReturn();
+        JsonNode results = objectMapper.readTree(result.getResponse().getContentAsByteArray()).get("data").get("results");
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i + 2, results.get(2 * i).get("resource").get("version").asLong());
+        }
+        assertEquals(204, results.get(100).get("status").asInt());
+        mockMvc.perform(get("/api/resources/" + id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should page through resources by name prefix following the Link header")
+    void shouldPageWithCursors() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            mockMvc.perform(post("/api/resources")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\":\"paged-" + i + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        List<String> names = new ArrayList<>();
+        String url = "/api/resources?prefix=paged-&limit=3";
+        int pages = 0;
+        while (url != null) {
+            MvcResult page = mockMvc.perform(asyncDispatch(mockMvc.perform(get(url)).andReturn()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            objectMapper.readTree(page.getResponse().getContentAsByteArray()).forEach(resource -> names.add(resource.get("name").asText()));
+            String link = page.getResponse().getHeader("Link");
+            url = link != null ? link.substring(1, link.indexOf('>')) : null;
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(List.of("paged-0", "paged-1", "paged-2", "paged-3", "paged-4", "paged-5", "paged-6"), names);
+        mockMvc.perform(get("/api/resources").param("after", "bm90LWEtY3Vyc29y")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should expose versions as ETags and enforce If-Match and If-None-Match")
+    void shouldHonourConditionalRequests() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/resources")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"versioned\"}"))
+                .andExpect(header().string("ETag", "\"1-json\""))
+                .andReturn();
+        String url = created.getResponse().getHeader("Location");
+
+        mockMvc.perform(get(url).header("If-None-Match", "\"1-json\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-json\""));
+        mockMvc.perform(put(url)
+                        .header("If-Match", "\"1-json\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"first writer\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2-json\""));
+        mockMvc.perform(put(url)
+                        .header("If-Match", "\"1-json\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"second writer\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"2-json\""));
+        mockMvc.perform(get(url).header("If-None-Match", "\"1-json\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete(url).header("If-Match", "W/\"2-json\"")).andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(url).header("If-Match", "\"7-json\", \"2-json\"")).andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("Should give every representation its own ETag and accept any of them in If-Match")
+    void shouldTagRepresentationsSeparately() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/resources")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"encoded\"}"))
+                .andReturn();
+        String url = created.getResponse().getHeader("Location");
+
+        MvcResult cbor = mockMvc.perform(get(url).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/cbor"))
+                .andExpect(header().string("ETag", "\"1-cbor\""))
+                .andReturn();
+        mockMvc.perform(get(url).accept("application/x-jackson-smile"))
+                .andExpect(header().string("ETag", "\"1-smile\""));
+        mockMvc.perform(get(url).accept("application/json;q=0.5, application/cbor"))
+                .andExpect(header().string("ETag", "\"1-cbor\""));
+        // A cached JSON body must not be revalidated into a CBOR one
+        mockMvc.perform(get(url).accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "\"1-json\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(url).accept("application/xml")).andExpect(status().isNotAcceptable());
+
+        mockMvc.perform(put(url)
+                        .header("If-Match", cbor.getResponse().getHeader("ETag"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"re-encoded\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2-json\""));
+    }
+
+    @Test
+    @DisplayName("Should fail If-Match with 412 rather than 404 when the resource does not exist")
+    void shouldFailPreconditionOnMissingResource() throws Exception {
+        String url = "/api/resources/" + Long.MAX_VALUE;
+
+        mockMvc.perform(put(url)
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"gone\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().doesNotExist("ETag"));
+        mockMvc.perform(delete(url).header("If-Match", "\"1-json\"")).andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(url)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should reject a resource without a name")
+    void shouldRejectMissingName() throws Exception {
+        mockMvc.perform(post("/api/resources")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"data\":{}}"))
+                .andExpect(status().isBadRequest());
+    }
+}
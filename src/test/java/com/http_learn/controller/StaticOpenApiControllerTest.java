@@ -0,0 +1,107 @@
+package com.http_learn.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the packaged OpenAPI document served with runtime scanning off, as in the prod profile
+ * The committed contract on the test classpath stands in for the document bootJar packages
+ */
+@SpringBootTest(properties = {
+        "http-learn.warmup.enabled=false",
+        "springdoc.api-docs.enabled=false",
+        "springdoc.swagger-ui.enabled=false"
+})
+@AutoConfigureMockMvc
+class StaticOpenApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Should serve the packaged document with a strong ETag and answer 304 when it is current")
+    void shouldRevalidateWithETag() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api-docs"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(header().string("Cache-Control", "no-cache, public"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        assertFalse(etag.startsWith("W/"));
+        assertTrue(result.getResponse().getHeaders("Vary").contains("Accept-Encoding"));
+        assertArrayEquals(contract(), result.getResponse().getContentAsByteArray());
+
+        MvcResult notModified = mockMvc.perform(get("/api-docs").header("If-None-Match", "\"0000000000000000\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andReturn();
+        assertEquals(0, notModified.getResponse().getContentLength());
+        mockMvc.perform(get("/api-docs").header("If-None-Match", "\"0000000000000000\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should send the gzip variant only when the client accepts gzip")
+    void shouldNegotiateGzip() throws Exception {
+        MvcResult compressed = mockMvc.perform(get("/api-docs").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+        assertArrayEquals(contract(), gunzip(compressed.getResponse().getContentAsByteArray()));
+
+        mockMvc.perform(get("/api-docs").header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    @DisplayName("Should serve the content-addressed path from Content-Location as immutable and 404 any other version")
+    void shouldServeVersionedPath() throws Exception {
+        String location = mockMvc.perform(get("/api-docs"))
+                .andReturn()
+                .getResponse()
+                .getHeader("Content-Location");
+        assertNotNull(location);
+        assertTrue(location.matches("/api-docs/[0-9a-f]{16}"), location);
+
+        MvcResult versioned = mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+                .andReturn();
+        assertArrayEquals(contract(), versioned.getResponse().getContentAsByteArray());
+
+        mockMvc.perform(get("/api-docs/0000000000000000"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string("Content-Type", "application/problem+json"));
+    }
+
+    private static byte[] contract() throws IOException {
+        try (InputStream in = new ClassPathResource("openapi/openapi.json").getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.http_learn.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for streamed response bodies and the executor they run on, over real connections
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "http-learn.warmup.enabled=false")
+class StreamingResponseTest {
+
+    /**
+     * More than the 8 threads of Spring Boot's default application task executor
+     */
+    private static final int SLOW_READERS = 12;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("Should keep starting streams while more slow readers than the default executor has threads hold theirs open")
+    void shouldNotQueueStreamsBehindSlowReaders() throws Exception {
+        List<Socket> readers = new ArrayList<>();
+        try {
+            for (int i = 0; i < SLOW_READERS; i++) {
+                Socket socket = new Socket();
+                socket.setReceiveBufferSize(4096);
+                socket.connect(new InetSocketAddress("127.0.0.1", port), 5_000);
+                socket.setSoTimeout(10_000);
+                readers.add(socket);
+                socket.getOutputStream().write(("GET /api/success/ok/stream-bytes/1073741824 HTTP/1.1\r\n"
+                        + "Host: localhost\r\n"
+                        + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                socket.getOutputStream().flush();
+                // The status line arrives once the stream runs; reading stops there, so the stream blocks on a full socket
+                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                assertEquals("HTTP/1.1 200 ", reader.readLine().substring(0, 13), "stream " + i);
+            }
+
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<byte[]> bytes = client.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/success/ok/bytes/65536"))
+                    .timeout(Duration.ofSeconds(10))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, bytes.statusCode());
+            assertEquals(65536, bytes.body().length);
+        } finally {
+            for (Socket socket : readers) {
+                close(socket);
+            }
+        }
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Nothing to clean up on a broken test connection
+        }
+    }
+}
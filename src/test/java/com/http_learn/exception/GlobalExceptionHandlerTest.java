@@ -0,0 +1,54 @@
+package com.http_learn.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GlobalExceptionHandler
+ * Checks the RFC 9457 problem bodies rendered from the preallocated templates
+ */
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(10_000);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should not echo the message of unexpected exceptions")
+    void shouldNotEchoUnexpectedExceptionMessage() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/success/ok");
+
+        ResponseEntity<byte[]> response = handler.handleGenericException(new IllegalStateException("db password=secret"), request);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, response.getHeaders().getContentType());
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals("about:blank", body.get("type").asText());
+        assertEquals("Internal Server Error", body.get("title").asText());
+        assertEquals(500, body.get("status").asInt());
+        assertEquals("/api/success/ok", body.get("instance").asText());
+        assertFalse(body.get("detail").asText().contains("secret"));
+    }
+
+    @Test
+    @DisplayName("Should render expected exceptions with their status and escaped detail")
+    void shouldRenderExpectedException() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resources/42");
+        ExpectedException ex = new ExpectedException(HttpStatus.NOT_FOUND, "Resource \"42\" not found");
+
+        ResponseEntity<byte[]> response = handler.handleExpectedException(ex, request);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals(404, body.get("status").asInt());
+        assertEquals("Resource \"42\" not found", body.get("detail").asText());
+        assertEquals(0, ex.getStackTrace().length);
+    }
+}
@@ -0,0 +1,86 @@
+package com.http_learn.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for ThrottledExceptionLogger
+ */
+class ThrottledExceptionLoggerTest {
+
+    private final Logger logger = mock(Logger.class);
+    private final AtomicLong clock = new AtomicLong();
+    private final ThrottledExceptionLogger throttledLog = new ThrottledExceptionLogger(logger, 1_000, clock::get);
+
+    @Test
+    @DisplayName("Should log once per interval and report suppressed occurrences")
+    void shouldSuppressRepeatedSignatures() {
+        assertTrue(throttledLog.error(failure(), "/api/a"));
+        assertFalse(throttledLog.error(failure(), "/api/a"));
+        assertFalse(throttledLog.error(failure(), "/api/a"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(throttledLog.error(failure(), "/api/a"));
+        verify(logger).error(eq("Unhandled {} on {} ({} similar occurrences suppressed)"),
+                eq(IllegalStateException.class.getName()), eq("/api/a"), eq(2L), any(IllegalStateException.class));
+    }
+
+    @Test
+    @DisplayName("Should only mention suppressed warnings when there were any")
+    void shouldReportSuppressedWarningsOnlyWhenPresent() {
+        assertTrue(throttledLog.warn(failure(), "/api/a"));
+        verify(logger).warn("{} on {}: {}", "IllegalStateException", "/api/a", "boom");
+        assertFalse(throttledLog.warn(failure(), "/api/a"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(throttledLog.warn(failure(), "/api/a"));
+        verify(logger).warn("{} on {}: {} ({} similar occurrences suppressed)", "IllegalStateException", "/api/a", "boom", 1L);
+    }
+
+    @Test
+    @DisplayName("Should track different throwing sites separately")
+    void shouldSeparateSignatures() {
+        assertTrue(throttledLog.error(failure(), "/api/a"));
+        assertTrue(throttledLog.error(new IllegalArgumentException("other"), "/api/a"));
+        assertEquals(2, throttledLog.trackedSignatures());
+    }
+
+    @Test
+    @DisplayName("Should evict idle signatures when the table is full instead of sharing the overflow window forever")
+    void shouldEvictIdleSignatures() {
+        for (int i = 0; i < ThrottledExceptionLogger.MAX_SIGNATURES; i++) {
+            assertTrue(throttledLog.error(failureAt(i), "/api/a"));
+        }
+        // Nothing is idle yet, so new signatures share the overflow window
+        assertTrue(throttledLog.error(failureAt(-1), "/api/b"));
+        assertFalse(throttledLog.error(failureAt(-2), "/api/b"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(throttledLog.error(failureAt(-3), "/api/c"));
+        assertTrue(throttledLog.error(failureAt(-4), "/api/c"));
+        assertEquals(2, throttledLog.trackedSignatures());
+    }
+
+    private static IllegalStateException failureAt(int line) {
+        IllegalStateException failure = failure();
+        failure.setStackTrace(new StackTraceElement[] {new StackTraceElement("com.example.Worker", "run", "Worker.java", line)});
+        return failure;
+    }
+
+    private static IllegalStateException failure() {
+        return new IllegalStateException("boom");
+    }
+}
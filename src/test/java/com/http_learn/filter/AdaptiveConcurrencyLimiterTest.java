@@ -0,0 +1,115 @@
+package com.http_learn.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AdaptiveConcurrencyLimiter, including an open-loop overload test in simulated time
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    @DisplayName("Should reject requests above the limit")
+    void shouldRejectAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.2, 2.0, TimeUnit.SECONDS.toNanos(30));
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.releaseWithoutSample();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit when latency grows well beyond the minimum")
+    void shouldShrinkLimitOnLatencyGrowth() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 1, 200, 0.5, 2.0, TimeUnit.SECONDS.toNanos(30));
+        acquireAndRelease(limiter, TimeUnit.MILLISECONDS.toNanos(1));
+
+        for (int i = 0; i < 20; i++) {
+            acquireAndRelease(limiter, TimeUnit.MILLISECONDS.toNanos(50));
+        }
+
+        assertTrue(limiter.getLimit() < 20, "limit was " + limiter.getLimit());
+    }
+
+    /**
+     * Offers three times the capacity of a simulated server (fixed workers, fixed service time, FIFO queue)
+     * and checks that goodput stays close to capacity instead of collapsing under queueing delay.
+     * Runs in simulated time: each completion feeds the limiter the RTT its queueing and service add up to,
+     * so the outcome does not depend on how the machine running the test schedules threads
+     */
+    @Test
+    @DisplayName("Should hold goodput steady at 3x offered load")
+    void shouldHoldGoodputUnderOverload() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 1000, 0.2, 2.0, TimeUnit.SECONDS.toNanos(30));
+        Overload limited = simulateOverload(limiter);
+        // The same load without shedding: the queue grows until every response misses its deadline
+        Overload unlimited = simulateOverload(new AdaptiveConcurrencyLimiter(1_000_000, 1_000_000, 1_000_000, 0.2, 2.0, TimeUnit.SECONDS.toNanos(30)));
+
+        assertTrue(limited.rejected() > 0, "overload should be shed");
+        assertTrue(limited.goodput() >= limited.capacity() * 0.9,
+                "goodput " + limited.goodput() + "/s below 90% of capacity " + limited.capacity() + "/s, limit=" + limiter.getLimit());
+        assertTrue(unlimited.goodput() < limited.capacity() * 0.5, "unlimited goodput " + unlimited.goodput() + "/s");
+    }
+
+    private static Overload simulateOverload(AdaptiveConcurrencyLimiter limiter) {
+        int workers = 4;
+        long serviceNanos = TimeUnit.MILLISECONDS.toNanos(5);
+        long deadlineNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        long durationNanos = TimeUnit.SECONDS.toNanos(3);
+        double capacityPerSecond = workers * (double) TimeUnit.SECONDS.toNanos(1) / serviceNanos;
+        long arrivalIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / (capacityPerSecond * 3));
+
+        long[] workerFreeAt = new long[workers];
+        PriorityQueue<Completion> running = new PriorityQueue<>(Comparator.comparingLong(Completion::at));
+        long good = 0;
+        long rejected = 0;
+        for (long now = 0; now < durationNanos + deadlineNanos || !running.isEmpty(); now += arrivalIntervalNanos) {
+            while (!running.isEmpty() && running.peek().at() <= now) {
+                Completion completion = running.poll();
+                limiter.release(completion.rttNanos());
+                if (completion.rttNanos() <= deadlineNanos) {
+                    good++;
+                }
+            }
+            if (now >= durationNanos) {
+                continue;
+            }
+            if (!limiter.tryAcquire()) {
+                rejected++;
+                continue;
+            }
+            // FIFO with a fixed service time: the request is served by the worker that frees up first
+            int worker = 0;
+            for (int i = 1; i < workers; i++) {
+                if (workerFreeAt[i] < workerFreeAt[worker]) {
+                    worker = i;
+                }
+            }
+            long done = Math.max(now, workerFreeAt[worker]) + serviceNanos;
+            workerFreeAt[worker] = done;
+            running.add(new Completion(done, done - now));
+        }
+        return new Overload(good / (durationNanos / 1e9), rejected, capacityPerSecond);
+    }
+
+    private record Completion(long at, long rttNanos) {
+    }
+
+    private record Overload(double goodput, long rejected, double capacity) {
+    }
+
+    private static void acquireAndRelease(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        assertTrue(limiter.tryAcquire());
+        limiter.release(rttNanos);
+    }
+}
@@ -0,0 +1,53 @@
+package com.http_learn.filter;
+
+import com.http_learn.config.AllocationProperties;
+import com.http_learn.dto.AllocationStatsDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AllocationTracker
+ */
+class AllocationTrackerTest {
+
+    @Test
+    @DisplayName("Should report per-route percentiles, largest total first")
+    void shouldReportDistributions() {
+        AllocationTracker tracker = new AllocationTracker(new AllocationProperties());
+        for (int i = 1; i <= 100; i++) {
+            tracker.record("GET /api/success/ok", i * 1024L);
+        }
+        tracker.record("GET /api/health", 10);
+
+        List<AllocationStatsDto> stats = tracker.stats();
+
+        assertEquals(2, stats.size());
+        AllocationStatsDto ok = stats.get(0);
+        assertEquals("GET /api/success/ok", ok.getRoute());
+        assertEquals(100, ok.getRequests());
+        assertEquals(5050 * 1024L, ok.getTotalBytes());
+        assertEquals(100 * 1024L, ok.getMaxBytes());
+        assertTrue(ok.getP50Bytes() >= 50 * 1024L && ok.getP50Bytes() <= 50 * 1024L * 9 / 8, "p50 " + ok.getP50Bytes());
+        assertTrue(ok.getP99Bytes() >= 99 * 1024L && ok.getP99Bytes() <= ok.getMaxBytes(), "p99 " + ok.getP99Bytes());
+    }
+
+    @Test
+    @DisplayName("Should fold routes beyond the limit into one overflow entry")
+    void shouldBoundRouteCount() {
+        AllocationProperties properties = new AllocationProperties();
+        properties.setMaxRoutes(2);
+        AllocationTracker tracker = new AllocationTracker(properties);
+
+        for (int i = 0; i < 10; i++) {
+            tracker.record("GET /route/" + i, 100);
+        }
+
+        List<AllocationStatsDto> stats = tracker.stats();
+        assertEquals(3, stats.size());
+        assertTrue(stats.stream().anyMatch(s -> s.getRoute().equals(AllocationTracker.OVERFLOW) && s.getRequests() == 8));
+    }
+}
@@ -0,0 +1,67 @@
+package com.http_learn.filter;
+
+import com.http_learn.config.RateLimitProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ClientRateLimiter
+ */
+class ClientRateLimiterTest {
+
+    @Test
+    @DisplayName("Should pick the group with the longest matching prefix and skip bypassed paths")
+    void shouldSelectRouteGroup() {
+        ClientRateLimiter limiter = new ClientRateLimiter(properties());
+
+        assertEquals("uploads", limiter.groupFor("/api/informational/upload-example").getName());
+        assertEquals("api", limiter.groupFor("/api/resources/1").getName());
+        assertNull(limiter.groupFor("/api/health/ready"));
+        assertNull(limiter.groupFor("/index.html"));
+    }
+
+    @Test
+    @DisplayName("Should give each address and each key a bucket of its own")
+    void shouldSeparateClients() {
+        ClientRateLimiter.RouteGroup group = new ClientRateLimiter(properties()).groupFor("/api/resources");
+
+        assertTrue(group.tryConsume("10.0.0.1", false, 0) >= 0);
+        assertTrue(group.tryConsume("10.0.0.1", false, 0) >= 0);
+        assertTrue(group.tryConsume("10.0.0.1", false, 0) < 0);
+        assertTrue(group.tryConsume("10.0.0.2", false, 0) >= 0);
+        // A key that happens to equal an address does not share its bucket
+        assertTrue(group.tryConsume("10.0.0.1", true, 0) >= 0);
+    }
+
+    @Test
+    @DisplayName("Should only accept configured API keys")
+    void shouldRecognizeConfiguredKeys() {
+        ClientRateLimiter limiter = new ClientRateLimiter(properties());
+
+        assertTrue(limiter.isKnownApiKey("partner-key"));
+        assertFalse(limiter.isKnownApiKey("made-up"));
+        assertFalse(limiter.isKnownApiKey(""));
+        assertFalse(limiter.isKnownApiKey(null));
+    }
+
+    static RateLimitProperties properties() {
+        RateLimitProperties.Group uploads = new RateLimitProperties.Group();
+        uploads.setName("uploads");
+        uploads.setPathPrefix("/api/informational/upload-example");
+        uploads.setCapacity(1);
+        uploads.setRefillPerSecond(1);
+        RateLimitProperties.Group api = new RateLimitProperties.Group();
+        api.setName("api");
+        api.setPathPrefix("/api");
+        api.setCapacity(2);
+        api.setRefillPerSecond(1);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGroups(List.of(api, uploads));
+        properties.setApiKeys(List.of("partner-key"));
+        return properties;
+    }
+}
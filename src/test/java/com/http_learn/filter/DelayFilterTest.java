@@ -0,0 +1,165 @@
+package com.http_learn.filter;
+
+import com.http_learn.concurrent.HashedTimingWheel;
+import com.http_learn.config.DelayProperties;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DelayFilter
+ */
+class DelayFilterTest {
+
+    private static final long MAX_DELAY_MS = 100;
+    private static final long ASYNC_TIMEOUT_MARGIN_MS = 30_000;
+
+    private final HashedTimingWheel wheel = new HashedTimingWheel("test-delay", 5, TimeUnit.MILLISECONDS, 64);
+    private final DelayFilter filter = new DelayFilter(wheel, properties());
+    private final AtomicInteger handled = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> {
+        handled.incrementAndGet();
+        ((HttpServletResponse) response).setStatus(200);
+    };
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    @DisplayName("Should parse durations in milliseconds and seconds and find parameters in the raw query")
+    void shouldParseParameters() {
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(250), DelayFilter.parseDuration("250ms"));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1500), DelayFilter.parseDuration("1.5s"));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(40), DelayFilter.parseDuration("40"));
+        assertEquals(-1, DelayFilter.parseDuration("-5ms"));
+        assertEquals(-1, DelayFilter.parseDuration("soon"));
+        assertEquals(-1, DelayFilter.parseDuration("NaNs"));
+
+        String query = "predelay=1&delay=250ms&jitter=&dist=lognormal";
+        assertEquals("250ms", DelayFilter.queryParameter(query, "delay"));
+        assertEquals("lognormal", DelayFilter.queryParameter(query, "dist"));
+        assertEquals("", DelayFilter.queryParameter(query, "jitter"));
+        assertNull(DelayFilter.queryParameter(query, "status"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed delays, unknown distributions and out of range statuses with 400")
+    void shouldRejectMalformedParameters() throws Exception {
+        for (String query : new String[] {"delay=soon", "delay=10ms&jitter=-1", "delay=101ms",
+                "delay=10ms&dist=pareto", "status=199", "status=600", "status=ok"}) {
+            MockHttpServletResponse response = send(request(query));
+
+            assertEquals(400, response.getStatus(), query);
+            assertEquals("application/problem+json", response.getContentType(), query);
+        }
+        assertEquals(0, handled.get());
+    }
+
+    @Test
+    @DisplayName("Should replace successful statuses with the requested one and keep errors")
+    void shouldOverrideSuccessfulStatus() throws Exception {
+        MockHttpServletResponse overridden = send(request("status=503"));
+        assertEquals(503, overridden.getStatus());
+        assertEquals(1, handled.get());
+
+        MockHttpServletResponse failed = new MockHttpServletResponse();
+        filter.doFilter(request("status=202"), failed, (request, response) -> ((HttpServletResponse) response).setStatus(404));
+        assertEquals(404, failed.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should cap sampled delays at max-delay-ms")
+    void shouldClampSampledDelay() throws Exception {
+        // The median is the maximum itself, so about half of the samples land above it
+        int clamped = 0;
+        for (int i = 0; i < 50; i++) {
+            MockHttpServletRequest request = request("delay=" + MAX_DELAY_MS + "ms&jitter=10s&dist=lognormal");
+            send(request);
+            if (request.isAsyncStarted()) {
+                long timeout = request.getAsyncContext().getTimeout();
+                assertTrue(timeout <= MAX_DELAY_MS + ASYNC_TIMEOUT_MARGIN_MS, "async timeout " + timeout);
+                if (timeout == MAX_DELAY_MS + ASYNC_TIMEOUT_MARGIN_MS) {
+                    clamped++;
+                }
+            }
+        }
+        assertTrue(clamped > 0);
+    }
+
+    @Test
+    @DisplayName("Should park a delayed request without running it and resume it through an async dispatch")
+    void shouldResumeAfterDelay() throws Exception {
+        MockHttpServletRequest request = request("delay=50ms&status=202");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CountDownLatch dispatched = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        filter.doFilter(request, response, chain);
+        assertTrue(request.isAsyncStarted());
+        assertEquals(0, handled.get());
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        asyncContext.addDispatchHandler(dispatched::countDown);
+
+        assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, wheel.pendingTimeouts());
+
+        // The container replays the chain on the dispatch; the filter passes it on with the wrapped response
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(asyncContext.getRequest(), asyncContext.getResponse(), chain);
+        assertEquals(1, handled.get());
+        assertEquals(202, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should drop the pending dispatch when the async request times out")
+    void shouldCancelOnTimeout() throws Exception {
+        MockHttpServletRequest request = request("delay=50ms");
+        send(request);
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        assertEquals(1, wheel.pendingTimeouts());
+
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        assertEquals(0, wheel.pendingTimeouts());
+        Thread.sleep(100);
+        assertNull(asyncContext.getDispatchedPath());
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/success/ok");
+        request.setQueryString(query);
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static DelayProperties properties() {
+        DelayProperties properties = new DelayProperties();
+        properties.setMaxDelayMs(MAX_DELAY_MS);
+        return properties;
+    }
+}
@@ -0,0 +1,239 @@
+package com.http_learn.filter;
+
+import com.http_learn.config.IdempotencyProperties;
+import com.http_learn.config.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IdempotencyFilter
+ */
+class IdempotencyFilterTest {
+
+    private static final String PATH = "/api/success/created";
+
+    private final AtomicInteger handled = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should run a keyed request once and replay its response to retries")
+    void shouldReplayStoredResponse() throws Exception {
+        IdempotencyFilter filter = filter(new IdempotencyProperties());
+        FilterChain chain = handler(201);
+
+        MockHttpServletResponse first = post(filter, chain, "key-1", "{\"name\":\"a\"}");
+        MockHttpServletResponse retry = post(filter, chain, "key-1", "{\"name\":\"a\"}");
+
+        assertEquals(1, handled.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("/api/resources/123", retry.getHeader("Location"));
+        assertEquals("application/json", retry.getContentType());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused with a different body with 422")
+    void shouldRejectMismatchedBody() throws Exception {
+        IdempotencyFilter filter = filter(new IdempotencyProperties());
+        FilterChain chain = handler(201);
+
+        post(filter, chain, "key-1", "{\"name\":\"a\"}");
+        MockHttpServletResponse mismatch = post(filter, chain, "key-1", "{\"name\":\"b\"}");
+
+        assertEquals(1, handled.get());
+        assertEquals(422, mismatch.getStatus());
+        assertEquals("application/problem+json", mismatch.getContentType());
+    }
+
+    @Test
+    @DisplayName("Should park a concurrent duplicate until the original completes")
+    void shouldWaitForInFlightOriginal() throws Exception {
+        IdempotencyFilter filter = filter(new IdempotencyProperties());
+        AtomicReference<MockHttpServletResponse> duplicate = new AtomicReference<>();
+        AtomicReference<MockHttpServletRequest> duplicateRequest = new AtomicReference<>();
+        FilterChain chain = (request, response) -> {
+            if (handled.incrementAndGet() == 1) {
+                // The retry arrives while the original is still being handled
+                MockHttpServletRequest retry = request("key-1", "{}");
+                MockHttpServletResponse retryResponse = new MockHttpServletResponse();
+                filter.doFilter(retry, retryResponse, (req, res) -> fail("duplicate must not run"));
+                duplicateRequest.set(retry);
+                duplicate.set(retryResponse);
+                assertTrue(retry.isAsyncStarted());
+            }
+            write((HttpServletResponse) response, 201);
+        };
+
+        MockHttpServletResponse original = post(filter, chain, "key-1", "{}");
+
+        assertEquals(1, handled.get());
+        assertFalse(duplicateRequest.get().isAsyncStarted());
+        assertEquals(201, duplicate.get().getStatus());
+        assertEquals(original.getContentAsString(), duplicate.get().getContentAsString());
+        assertEquals("true", duplicate.get().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should release the key when the original fails so a retry runs again")
+    void shouldReleaseKeyOnFailure() throws Exception {
+        IdempotencyFilter filter = filter(new IdempotencyProperties());
+
+        MockHttpServletResponse failed = post(filter, handler(503), "key-1", "{}");
+        MockHttpServletResponse retried = post(filter, handler(201), "key-1", "{}");
+
+        assertEquals(2, handled.get());
+        assertEquals(503, failed.getStatus());
+        assertEquals(201, retried.getStatus());
+        assertNull(retried.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest keys once the entry limit is reached")
+    void shouldBoundEntries() throws Exception {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setMaxEntries(3);
+        IdempotencyCache cache = new IdempotencyCache(properties);
+        IdempotencyFilter filter = new IdempotencyFilter(cache, properties, new RateLimitProperties());
+        FilterChain chain = handler(201);
+
+        for (int i = 0; i < 10; i++) {
+            post(filter, chain, "key-" + i, "{}");
+        }
+        post(filter, chain, "key-9", "{}");
+        post(filter, chain, "key-0", "{}");
+
+        assertEquals(3, cache.size());
+        assertEquals(11, handled.get());
+    }
+
+    @Test
+    @DisplayName("Should not evict a key while its original still runs, even past the entry limit")
+    void shouldKeepInFlightKeys() throws Exception {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setMaxEntries(2);
+        IdempotencyCache cache = new IdempotencyCache(properties);
+        IdempotencyFilter filter = new IdempotencyFilter(cache, properties, new RateLimitProperties());
+        FilterChain chain = (request, response) -> {
+            if (handled.incrementAndGet() == 1) {
+                // Enough other keys complete meanwhile to push the running one out of a strict FIFO bound
+                for (int i = 0; i < 3; i++) {
+                    filter.doFilter(request("other-" + i, "{}"), new MockHttpServletResponse(), handler(201));
+                }
+                MockHttpServletRequest retry = request("slow", "{}");
+                filter.doFilter(retry, new MockHttpServletResponse(), (req, res) -> fail("duplicate must not run"));
+                assertTrue(retry.isAsyncStarted());
+            }
+            write((HttpServletResponse) response, 201);
+        };
+
+        post(filter, chain, "slow", "{}");
+        assertEquals(4, handled.get());
+
+        MockHttpServletResponse replayed = post(filter, handler(201), "slow", "{}");
+        assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(4, handled.get());
+        // Once finished it is the oldest evictable key again
+        post(filter, handler(201), "after", "{}");
+        assertEquals(2, cache.size());
+        assertNull(post(filter, handler(201), "slow", "{}").getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should scope keys by client: API key when configured, otherwise remote address")
+    void shouldScopeKeysByClient() throws Exception {
+        RateLimitProperties rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.setApiKeys(List.of("partner"));
+        IdempotencyProperties properties = new IdempotencyProperties();
+        IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyCache(properties), properties, rateLimitProperties);
+        FilterChain chain = handler(201);
+
+        MockHttpServletResponse first = send(filter, chain, "10.0.0.1", null);
+        MockHttpServletResponse otherClient = send(filter, chain, "10.0.0.2", null);
+        MockHttpServletResponse retry = send(filter, chain, "10.0.0.1", null);
+        assertEquals(2, handled.get());
+        assertNull(otherClient.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+
+        // A known API key is the same client from any address; an unknown one is just an address
+        send(filter, chain, "10.0.0.3", "partner");
+        MockHttpServletResponse keyRetry = send(filter, chain, "10.0.0.4", "partner");
+        send(filter, chain, "10.0.0.5", "stranger");
+        assertEquals(4, handled.get());
+        assertEquals("true", keyRetry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should pass requests without a key straight through")
+    void shouldIgnoreRequestsWithoutKey() throws Exception {
+        IdempotencyFilter filter = filter(new IdempotencyProperties());
+        FilterChain chain = handler(201);
+
+        post(filter, chain, null, "{}");
+        post(filter, chain, null, "{}");
+
+        assertEquals(2, handled.get());
+    }
+
+    private static IdempotencyFilter filter(IdempotencyProperties properties) {
+        return new IdempotencyFilter(new IdempotencyCache(properties), properties, new RateLimitProperties());
+    }
+
+    private FilterChain handler(int status) {
+        return (request, response) -> {
+            handled.incrementAndGet();
+            // The handler must still be able to read the body the filter fingerprinted
+            assertTrue(request.getInputStream().readAllBytes().length > 0);
+            write((HttpServletResponse) response, status);
+        };
+    }
+
+    private void write(HttpServletResponse response, int status) throws IOException {
+        response.setStatus(status);
+        response.setHeader("Location", "/api/resources/123");
+        response.setContentType("application/json");
+        response.getOutputStream().write(("{\"run\":" + handled.get() + "}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+        request.setAsyncSupported(true);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.KEY_HEADER, key);
+        }
+        return request;
+    }
+
+    private static MockHttpServletResponse send(IdempotencyFilter filter, FilterChain chain, String remoteAddr, String apiKey)
+            throws Exception {
+        MockHttpServletRequest request = request("shared-key", "{}");
+        request.setRemoteAddr(remoteAddr);
+        if (apiKey != null) {
+            request.addHeader(new RateLimitProperties().getApiKeyHeader(), apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletResponse post(IdempotencyFilter filter, FilterChain chain, String key, String body)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(key, body), response, chain);
+        return response;
+    }
+}
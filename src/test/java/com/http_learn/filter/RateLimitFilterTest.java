@@ -0,0 +1,96 @@
+package com.http_learn.filter;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimitFilter
+ */
+class RateLimitFilterTest {
+
+    private final InternalTraffic internalTraffic = new InternalTraffic();
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new ClientRateLimiter(ClientRateLimiterTest.properties()), internalTraffic);
+    private final AtomicInteger handled = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> handled.incrementAndGet();
+
+    @Test
+    @DisplayName("Should describe the remaining budget on allowed requests")
+    void shouldSetRateLimitHeaders() throws Exception {
+        MockHttpServletResponse response = send(request("/api/resources"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, handled.get());
+        assertEquals("2", response.getHeader("RateLimit-Limit"));
+        assertEquals("2;w=2", response.getHeader("RateLimit-Policy"));
+        assertEquals("1", response.getHeader("RateLimit-Remaining"));
+        assertEquals("1", response.getHeader("RateLimit-Reset"));
+    }
+
+    @Test
+    @DisplayName("Should reject an exhausted client with 429, Retry-After and a problem body")
+    void shouldRejectExhaustedClient() throws Exception {
+        send(request("/api/resources"));
+        send(request("/api/resources"));
+        MockHttpServletResponse rejected = send(request("/api/resources"));
+
+        assertEquals(2, handled.get());
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals("0", rejected.getHeader("RateLimit-Remaining"));
+        assertEquals("application/problem+json", rejected.getContentType());
+        assertTrue(rejected.getContentAsString().contains("429"));
+    }
+
+    @Test
+    @DisplayName("Should limit requests with unknown API keys by address instead of giving each key a fresh bucket")
+    void shouldIgnoreUnknownApiKeys() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, send(withKey(UUID.randomUUID().toString())).getStatus());
+        }
+
+        assertEquals(429, send(withKey(UUID.randomUUID().toString())).getStatus());
+        // A configured key has a bucket of its own
+        assertEquals(200, send(withKey("partner-key")).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should not limit bypassed paths, unlimited paths or internal requests")
+    void shouldPassUnlimitedRequests() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest internal = request("/api/resources");
+            internal.addHeader(InternalTraffic.HEADER, internalTraffic.getToken());
+            send(internal);
+            send(request("/api/health"));
+            assertNull(send(request("/index.html")).getHeader("RateLimit-Limit"));
+        }
+
+        assertEquals(15, handled.get());
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest withKey(String key) {
+        MockHttpServletRequest request = request("/api/resources");
+        request.addHeader("X-API-Key", key);
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr("192.0.2.10");
+        return request;
+    }
+}
@@ -0,0 +1,166 @@
+package com.http_learn.filter;
+
+import com.http_learn.config.ResponseCacheProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResponseCacheFilter
+ */
+class ResponseCacheFilterTest {
+
+    private final AtomicInteger handled = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should serve a fresh response from the cache without reaching the handler")
+    void shouldServeHitFromCache() throws Exception {
+        ResponseCacheFilter filter = filter(new ResponseCacheProperties());
+        FilterChain chain = handler("public, max-age=60", null);
+
+        MockHttpServletResponse first = get(filter, chain, "/api/success/all?b=2&a=1", null);
+        MockHttpServletResponse second = get(filter, chain, "/api/success/all?a=1&b=2", null);
+
+        assertEquals(1, handled.get());
+        assertEquals("MISS", first.getHeader("X-Cache"));
+        assertEquals("HIT", second.getHeader("X-Cache"));
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals("application/json", second.getContentType());
+        assertEquals("\"v1\"", second.getHeader("ETag"));
+    }
+
+    @Test
+    @DisplayName("Should not store responses marked no-store or private, or without explicit freshness")
+    void shouldNotStoreUncacheableResponses() throws Exception {
+        for (String cacheControl : new String[]{"no-store", "private, max-age=60", null}) {
+            ResponseCacheFilter filter = filter(new ResponseCacheProperties());
+            handled.set(0);
+            FilterChain chain = handler(cacheControl, null);
+
+            get(filter, chain, "/api/success/ok", null);
+            get(filter, chain, "/api/success/ok", null);
+
+            assertEquals(2, handled.get(), "Cache-Control: " + cacheControl);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep one variant per value of the Vary headers")
+    void shouldHonorVary() throws Exception {
+        ResponseCacheFilter filter = filter(new ResponseCacheProperties());
+        FilterChain chain = handler("max-age=60", "Accept");
+
+        get(filter, chain, "/api/success/ok", "application/json");
+        get(filter, chain, "/api/success/ok", "application/cbor");
+        MockHttpServletResponse json = get(filter, chain, "/api/success/ok", "application/json");
+        MockHttpServletResponse cbor = get(filter, chain, "/api/success/ok", "application/cbor");
+
+        assertEquals(2, handled.get());
+        assertEquals("HIT", json.getHeader("X-Cache"));
+        assertEquals("HIT", cbor.getHeader("X-Cache"));
+    }
+
+    @Test
+    @DisplayName("Should serve stale entries inside the stale-while-revalidate window")
+    void shouldServeStaleWhileRevalidating() throws Exception {
+        ResponseCacheFilter filter = filter(new ResponseCacheProperties());
+        FilterChain chain = handler("max-age=0, stale-while-revalidate=60", null);
+
+        get(filter, chain, "/api/success/ok", null);
+        MockHttpServletResponse stale = get(filter, chain, "/api/success/ok", null);
+
+        assertEquals(1, handled.get());
+        assertEquals("STALE", stale.getHeader("X-Cache"));
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match from the cache with 304")
+    void shouldAnswerConditionalHitWithNotModified() throws Exception {
+        ResponseCacheFilter filter = filter(new ResponseCacheProperties());
+        FilterChain chain = handler("max-age=60", null);
+        get(filter, chain, "/api/success/ok", null);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/success/ok");
+        request.addHeader("If-None-Match", "W/\"v1\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used URLs once the byte budget is exceeded")
+    void shouldEvictByWeight() throws Exception {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setSegments(1);
+        properties.setMaxBytes(2000);
+        ResponseCacheFilter filter = filter(properties);
+        FilterChain chain = handler("max-age=60", null);
+
+        for (int i = 0; i < 10; i++) {
+            get(filter, chain, "/api/success/ok?i=" + i, null);
+        }
+        get(filter, chain, "/api/success/ok?i=9", null);
+        get(filter, chain, "/api/success/ok?i=0", null);
+
+        assertEquals(11, handled.get());
+    }
+
+    @Test
+    @DisplayName("Should invalidate a URL after a successful unsafe request")
+    void shouldInvalidateOnUnsafeMethod() throws Exception {
+        ResponseCacheFilter filter = filter(new ResponseCacheProperties());
+        FilterChain chain = handler("max-age=60", null);
+        get(filter, chain, "/api/success/ok", null);
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/success/ok"), new MockHttpServletResponse(), chain);
+        get(filter, chain, "/api/success/ok", null);
+
+        assertEquals(3, handled.get());
+    }
+
+    private ResponseCacheFilter filter(ResponseCacheProperties properties) {
+        return new ResponseCacheFilter(new ResponseCache(properties, new ServerProperties(), new InternalTraffic()));
+    }
+
+    private FilterChain handler(String cacheControl, String vary) {
+        return (request, response) -> {
+            handled.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            if (cacheControl != null) {
+                httpResponse.setHeader("Cache-Control", cacheControl);
+            }
+            if (vary != null) {
+                httpResponse.setHeader("Vary", vary);
+            }
+            httpResponse.setHeader("ETag", "\"v1\"");
+            httpResponse.setContentType("application/json");
+            httpResponse.getOutputStream().write("{\"status\":\"200 OK\"}".getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletResponse get(ResponseCacheFilter filter, FilterChain chain, String uri, String accept)
+            throws Exception {
+        int query = uri.indexOf('?');
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", query < 0 ? uri : uri.substring(0, query));
+        if (query >= 0) {
+            request.setQueryString(uri.substring(query + 1));
+        }
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
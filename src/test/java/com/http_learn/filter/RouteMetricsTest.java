@@ -0,0 +1,83 @@
+package com.http_learn.filter;
+
+import com.http_learn.config.DashboardProperties;
+import com.http_learn.dto.DashboardSnapshotDto;
+import com.http_learn.dto.RouteMetricsDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RouteMetrics
+ */
+class RouteMetricsTest {
+
+    private static final long START = 1_000;
+
+    private static RouteMetrics metrics(int windowSeconds, int maxRoutes) {
+        DashboardProperties properties = new DashboardProperties();
+        properties.setWindowSeconds(windowSeconds);
+        properties.setMaxRoutes(maxRoutes);
+        return new RouteMetrics(properties);
+    }
+
+    @Test
+    @DisplayName("Should aggregate completed seconds into rate, error rate and percentiles")
+    void shouldAggregateWindow() {
+        RouteMetrics metrics = metrics(10, 200);
+        for (int i = 1; i <= 100; i++) {
+            metrics.record("GET /api/success/ok", i % 10 == 0 ? 503 : 200, TimeUnit.MILLISECONDS.toNanos(i), START);
+        }
+        metrics.record("GET /api/health", 200, TimeUnit.MILLISECONDS.toNanos(1), START);
+
+        // The current second is still filling up and not reported
+        assertTrue(metrics.tick(START, 0).getRoutes().isEmpty());
+
+        DashboardSnapshotDto snapshot = metrics.tick(START + 1, 0);
+        assertEquals(10, snapshot.getWindowSeconds());
+        assertEquals(2, snapshot.getRoutes().size());
+        RouteMetricsDto ok = snapshot.getRoutes().get(0);
+        assertEquals("GET /api/success/ok", ok.getRoute());
+        assertEquals(100, ok.getRequests());
+        assertEquals(10.0, ok.getRequestsPerSecond());
+        assertEquals(0.1, ok.getErrorRate());
+        assertTrue(ok.getP50Ms() >= 50 && ok.getP50Ms() <= 50 * 9 / 8.0, "p50 " + ok.getP50Ms());
+        assertTrue(ok.getP99Ms() >= 99 && ok.getP99Ms() <= 99 * 9 / 8.0, "p99 " + ok.getP99Ms());
+    }
+
+    @Test
+    @DisplayName("Should drop seconds that fell out of the window and reuse their slots")
+    void shouldRollWindow() {
+        RouteMetrics metrics = metrics(3, 200);
+        metrics.record("GET /a", 200, 1_000, START);
+        for (long second = START; second < START + 3; second++) {
+            metrics.tick(second, 0);
+        }
+        assertEquals(1, metrics.tick(START + 3, 0).getRoutes().get(0).getRequests());
+
+        // Second START has left the window and its slot has been cleared for START + 6
+        metrics.tick(START + 4, 0);
+        metrics.record("GET /a", 200, 1_000, START + 5);
+        metrics.record("GET /a", 200, 1_000, START + 5);
+        assertTrue(metrics.tick(START + 5, 0).getRoutes().isEmpty());
+        assertEquals(2, metrics.tick(START + 6, 0).getRoutes().get(0).getRequests());
+    }
+
+    @Test
+    @DisplayName("Should fold routes beyond the limit into one overflow entry")
+    void shouldBoundRouteCount() {
+        RouteMetrics metrics = metrics(10, 2);
+        for (int i = 0; i < 10; i++) {
+            metrics.record("GET /route/" + i, 200, 1_000, START);
+        }
+
+        DashboardSnapshotDto snapshot = metrics.tick(START + 1, 0);
+        assertEquals(3, snapshot.getRoutes().size());
+        RouteMetricsDto busiest = snapshot.getRoutes().get(0);
+        assertEquals(RouteMetrics.OVERFLOW, busiest.getRoute());
+        assertEquals(8, busiest.getRequests());
+    }
+}
@@ -0,0 +1,53 @@
+package com.http_learn.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TokenBucket
+ */
+class TokenBucketTest {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private static final long BURST = 3 * INTERVAL;
+
+    @Test
+    @DisplayName("Should allow a full burst and then reject")
+    void shouldAllowBurstThenReject() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        assertEquals(INTERVAL, bucket.tryConsume(0, INTERVAL, BURST));
+        assertEquals(2 * INTERVAL, bucket.tryConsume(0, INTERVAL, BURST));
+        assertEquals(3 * INTERVAL, bucket.tryConsume(0, INTERVAL, BURST));
+
+        long denied = bucket.tryConsume(0, INTERVAL, BURST);
+        assertTrue(denied < 0);
+        assertEquals(INTERVAL, -1 - denied);
+    }
+
+    @Test
+    @DisplayName("Should refill lazily from elapsed time")
+    void shouldRefillFromElapsedTime() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryConsume(0, INTERVAL, BURST);
+        }
+
+        assertTrue(bucket.tryConsume(INTERVAL, INTERVAL, BURST) >= 0);
+        assertTrue(bucket.tryConsume(INTERVAL, INTERVAL, BURST) < 0);
+    }
+
+    @Test
+    @DisplayName("Should report idle once fully refilled")
+    void shouldReportIdleOnceFull() {
+        TokenBucket bucket = new TokenBucket(0);
+        bucket.tryConsume(0, INTERVAL, BURST);
+
+        assertFalse(bucket.isIdleSince(INTERVAL / 2));
+        assertTrue(bucket.isIdleSince(INTERVAL));
+    }
+}
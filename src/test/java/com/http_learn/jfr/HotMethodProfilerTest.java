@@ -0,0 +1,46 @@
+package com.http_learn.jfr;
+
+import com.http_learn.config.JfrProperties;
+import com.http_learn.dto.HotMethodsDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HotMethodProfiler's rolling windows (the sampling stream itself is not started)
+ */
+class HotMethodProfilerTest {
+
+    private final HotMethodProfiler profiler = new HotMethodProfiler(new JfrProperties());
+
+    @Test
+    @DisplayName("Should rank methods by samples within the rolling period")
+    void shouldRankMethods() {
+        long now = 1_000_000_000L;
+        for (int i = 0; i < 3; i++) {
+            profiler.record(now - 1_000, "java.lang.String.hashCode", "com.http_learn.service.EchoService.copy");
+        }
+        profiler.record(now - 15_000, "java.util.HashMap.get", null);
+
+        HotMethodsDto summary = profiler.summary(now, 10);
+
+        assertEquals(4, summary.getSamples());
+        assertEquals("java.lang.String.hashCode", summary.getTopFrames().get(0).getMethod());
+        assertEquals(75.0, summary.getTopFrames().get(0).getPercent());
+        assertEquals(1, summary.getApplicationFrames().size());
+        assertEquals(3, summary.getApplicationFrames().get(0).getSamples());
+    }
+
+    @Test
+    @DisplayName("Should drop windows older than the rolling period")
+    void shouldForgetOldWindows() {
+        long now = 1_000_000_000L;
+        profiler.record(now - 120_000, "java.util.HashMap.get", null);
+
+        HotMethodsDto summary = profiler.summary(now, 10);
+
+        assertEquals(0, summary.getSamples());
+        assertTrue(summary.getTopFrames().isEmpty());
+    }
+}
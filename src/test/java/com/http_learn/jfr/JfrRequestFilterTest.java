@@ -0,0 +1,78 @@
+package com.http_learn.jfr;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JfrRequestFilter
+ */
+class JfrRequestFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should emit one request event with route, status code and response bytes while recording")
+    void shouldEmitRequestEvent() throws Exception {
+        Path file = tempDir.resolve("requests.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(HttpRequestEvent.class).withoutThreshold();
+            recording.start();
+            handle("POST", "/api/success/created", 201, "{\"created\":true}");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("http_learn.HttpRequest"))
+                .toList();
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("POST", event.getString("method"));
+        assertEquals("/api/success/created", event.getString("route"));
+        assertEquals(201, event.getInt("status"));
+        assertEquals("CREATED", event.getString("statusCode"));
+        assertEquals(16, event.getLong("responseBytes"));
+    }
+
+    @Test
+    @DisplayName("Should pass the response through untouched when no recording is running")
+    void shouldPassThroughWithoutRecording() throws Exception {
+        MockHttpServletResponse response = handle("GET", "/api/success/ok", 200, "{}");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("{}", response.getContentAsString());
+    }
+
+    private MockHttpServletResponse handle(String method, String path, int status, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new JfrRequestFilter().doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, path);
+                res.setStatus(status);
+                res.getOutputStream().write(body.getBytes());
+            }
+        }));
+        return response;
+    }
+}
@@ -0,0 +1,86 @@
+package com.http_learn.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.http_learn.config.DashboardProperties;
+import com.http_learn.filter.RouteMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DashboardService
+ */
+class DashboardServiceTest {
+
+    private final DashboardProperties properties = new DashboardProperties();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private DashboardService dashboard;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        dashboard.stop();
+    }
+
+    @Test
+    @DisplayName("Should keep ticking and feeding other dashboards while one subscriber stalls, then drop it")
+    void shouldIsolateStalledSubscriber() throws Exception {
+        properties.setMaxLagSeconds(2);
+        dashboard = new DashboardService(new RouteMetrics(properties), new ObjectMapper(), properties);
+        BlockingQueue<Set<DataWithMediaType>> received = new LinkedBlockingQueue<>();
+        dashboard.subscribe(new StalledEmitter());
+        dashboard.subscribe(new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) {
+                received.add(items);
+            }
+        });
+        assertNotNull(received.poll());
+
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            dashboard.tick();
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "tick " + i + " waited for a subscriber");
+            assertNotNull(received.poll(5, TimeUnit.SECONDS), "tick " + i + " never reached the healthy subscriber");
+            // Let the push thread mark the healthy subscriber idle again
+            Thread.sleep(20);
+        }
+
+        // The stalled write began on the first tick; the next max-lag-seconds ticks skip it, the one after drops it
+        assertEquals(1, dashboard.subscriberCount());
+    }
+
+    /**
+     * Buffers the initial event like an emitter not yet handed to the container, then hangs on every write
+     * like a client that stopped reading
+     */
+    private final class StalledEmitter extends SseEmitter {
+
+        private int sends;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (sends++ == 0) {
+                return;
+            }
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.http_learn.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EchoService
+ */
+class EchoServiceTest {
+
+    private final EchoService service = new EchoService(1024, 4, 60_000);
+
+    @Test
+    @DisplayName("Should echo the body byte for byte and return the buffer to the pool")
+    void shouldEchoBody() throws Exception {
+        byte[] body = new byte[10_000];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) (i * 31);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.echoBody(new ByteArrayInputStream(body)).writeTo(out);
+
+        assertArrayEquals(body, out.toByteArray());
+        assertEquals(1, service.getBufferPool().idle());
+    }
+
+    @Test
+    @DisplayName("Should flush echoed bytes before the input ends")
+    void shouldFlushBeforeInputEnds() throws Exception {
+        BlockingQueue<Integer> flushed = new LinkedBlockingQueue<>();
+        SynchronousQueue<byte[]> chunks = new SynchronousQueue<>();
+        InputStream in = new InputStream() {
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                try {
+                    byte[] chunk = chunks.take();
+                    System.arraycopy(chunk, 0, b, off, chunk.length);
+                    return chunk.length == 0 ? -1 : chunk.length;
+                } catch (InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+            }
+        };
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                written.write(b);
+            }
+
+            @Override
+            public void flush() {
+                flushed.offer(written.size());
+            }
+        };
+
+        Thread copier = new Thread(() -> {
+            try {
+                service.echoBody(in).writeTo(out);
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        copier.start();
+
+        chunks.put(new byte[]{1, 2, 3});
+        assertEquals(3, flushed.poll(5, TimeUnit.SECONDS));
+        chunks.put(new byte[0]);
+        copier.join(5000);
+        assertFalse(copier.isAlive());
+    }
+}
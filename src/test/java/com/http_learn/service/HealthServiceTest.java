@@ -0,0 +1,78 @@
+package com.http_learn.service;
+
+import com.http_learn.config.HealthProperties;
+import com.http_learn.dto.HealthCheckDto;
+import com.http_learn.dto.HealthSnapshot;
+import com.http_learn.service.impl.HealthServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HealthService
+ */
+class HealthServiceTest {
+
+    @Test
+    @DisplayName("Should be live and ready when every check passes")
+    void shouldBeReadyWhenChecksPass() {
+        HealthServiceImpl healthService = new HealthServiceImpl(new HealthProperties(), List.of(), List.of());
+
+        healthService.evaluate();
+        HealthSnapshot snapshot = healthService.getSnapshot();
+
+        assertEquals("UP", snapshot.getStatus());
+        assertTrue(healthService.isLive());
+        assertTrue(healthService.isReady());
+        assertEquals(5, snapshot.getChecks().size());
+    }
+
+    @Test
+    @DisplayName("Should drop readiness but stay live when a job queue is saturated")
+    void shouldDropReadinessWhenQueueSaturated() {
+        SaturationProbe fullQueue = () -> List.of(new SaturationProbe.QueueSample("uploads", 95, 100));
+        HealthServiceImpl healthService = new HealthServiceImpl(new HealthProperties(), List.of(fullQueue), List.of());
+
+        healthService.evaluate();
+
+        assertEquals("OUT_OF_SERVICE", healthService.getSnapshot().getStatus());
+        assertTrue(healthService.isLive());
+        assertFalse(healthService.isReady());
+    }
+
+    @Test
+    @DisplayName("Should drop readiness when disk space runs low")
+    void shouldDropReadinessWhenDiskIsLow() {
+        HealthProperties properties = new HealthProperties();
+        properties.setMinFreeDiskMb(Long.MAX_VALUE);
+        HealthServiceImpl healthService = new HealthServiceImpl(properties, List.of(), List.of());
+
+        healthService.evaluate();
+
+        assertFalse(healthService.isReady());
+        assertTrue(healthService.getSnapshot().getChecks().stream()
+                .anyMatch(check -> check.getName().equals("disk") && check.getStatus().equals("DOWN")));
+    }
+
+    @Test
+    @DisplayName("Should stay out of service until every readiness gate opens")
+    void shouldWaitForReadinessGates() {
+        boolean[] open = {false};
+        ReadinessGate warmup = () -> HealthCheckDto.builder()
+                .name("warmup")
+                .status(open[0] ? "UP" : "DOWN")
+                .build();
+        HealthServiceImpl healthService = new HealthServiceImpl(new HealthProperties(), List.of(), List.of(warmup));
+
+        healthService.evaluate();
+        assertTrue(healthService.isLive());
+        assertFalse(healthService.isReady());
+
+        open[0] = true;
+        healthService.evaluate();
+        assertTrue(healthService.isReady());
+    }
+}
@@ -0,0 +1,204 @@
+package com.http_learn.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.http_learn.config.ProxyProperties;
+import com.http_learn.exception.ExpectedException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProxyService against a local stand-in upstream
+ */
+class ProxyServiceTest {
+
+    private static final String ITEMS = "[{\"id\":1,\"name\":\"lamp\",\"price\":10},{\"id\":2,\"name\":\"desk\",\"price\":99}]";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService upstreamThreads = Executors.newCachedThreadPool();
+    private HttpServer upstream;
+
+    @BeforeEach
+    void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.setExecutor(upstreamThreads);
+        upstream.createContext("/api/items", exchange -> {
+            upstreamCalls.incrementAndGet();
+            respond(exchange, 200, ITEMS);
+        });
+        upstream.createContext("/api/slow", exchange -> {
+            upstreamCalls.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, ITEMS);
+        });
+        upstream.createContext("/api/missing", exchange -> {
+            upstreamCalls.incrementAndGet();
+            respond(exchange, 404, "{\"error\":\"gone\"}");
+        });
+        upstream.start();
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        release.countDown();
+        upstream.stop(0);
+        upstreamThreads.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should answer concurrent identical requests with one upstream fetch and then serve it from the cache")
+    void shouldCoalesceAndCache() throws Exception {
+        ProxyService proxy = proxy();
+        List<CompletableFuture<ResponseEntity<byte[]>>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            responses.add(proxy.forward("catalog", "/slow", "b=2&a=1", null));
+        }
+        // Reordered parameters name the same upstream URL
+        responses.add(proxy.forward("catalog", "/slow", "a=1&b=2", null));
+        release.countDown();
+
+        for (CompletableFuture<ResponseEntity<byte[]>> response : responses) {
+            ResponseEntity<byte[]> entity = response.get(10, TimeUnit.SECONDS);
+            assertEquals(200, entity.getStatusCode().value());
+            assertEquals(ITEMS, new String(entity.getBody(), StandardCharsets.UTF_8));
+        }
+        ResponseEntity<byte[]> cached = proxy.forward("catalog", "/slow", "a=1&b=2", null).get(10, TimeUnit.SECONDS);
+
+        assertEquals("HIT", cached.getHeaders().getFirst(ProxyService.CACHE_HEADER));
+        assertNotNull(cached.getHeaders().getFirst("Age"));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, proxy.stats().getMisses());
+        assertEquals(20, proxy.stats().getCoalesced());
+    }
+
+    @Test
+    @DisplayName("Should answer 203 with projected fields and with a CBOR transcoding")
+    void shouldTransformWithNonAuthoritativeStatus() throws Exception {
+        ProxyService proxy = proxy();
+
+        ResponseEntity<byte[]> projected = proxy.forward("catalog", "/items", "fields=id,name", null).get(10, TimeUnit.SECONDS);
+        assertEquals(HttpStatus.NON_AUTHORITATIVE_INFORMATION, projected.getStatusCode());
+        assertEquals("[{\"id\":1,\"name\":\"lamp\"},{\"id\":2,\"name\":\"desk\"}]", new String(projected.getBody(), StandardCharsets.UTF_8));
+
+        ResponseEntity<byte[]> cbor = proxy.forward("catalog", "/items", null, "application/cbor").get(10, TimeUnit.SECONDS);
+        assertEquals(HttpStatus.NON_AUTHORITATIVE_INFORMATION, cbor.getStatusCode());
+        assertEquals("application/cbor", cbor.getHeaders().getContentType().toString());
+        assertEquals("Accept", cbor.getHeaders().getFirst("Vary"));
+        JsonNode decoded = new CBORMapper().readTree(cbor.getBody());
+        assertEquals(objectMapper.readTree(ITEMS), decoded);
+
+        ResponseEntity<byte[]> plain = proxy.forward("catalog", "/items", null, "application/json").get(10, TimeUnit.SECONDS);
+        assertEquals(HttpStatus.OK, plain.getStatusCode());
+        assertEquals("Accept", plain.getHeaders().getFirst("Vary"));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(2, proxy.stats().getTransformed());
+    }
+
+    @Test
+    @DisplayName("Should pass upstream errors through without caching them")
+    void shouldNotCacheErrors() throws Exception {
+        ProxyService proxy = proxy();
+
+        for (int i = 0; i < 2; i++) {
+            ResponseEntity<byte[]> missing = proxy.forward("catalog", "/missing", "fields=error", null).get(10, TimeUnit.SECONDS);
+            assertEquals(404, missing.getStatusCode().value());
+            assertEquals("{\"error\":\"gone\"}", new String(missing.getBody(), StandardCharsets.UTF_8));
+        }
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should map unknown routes, path escapes and unreachable upstreams to client and gateway errors")
+    void shouldReportFailures() throws IOException {
+        ProxyService proxy = proxy();
+
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ExpectedException.class,
+                () -> proxy.forward("unknown", "/items", null, null)).getStatus());
+        for (String escape : List.of("/../admin", "/%2e%2e/admin", "/%2E./admin", "/..;/admin", "/items%2f..%2fadmin", "/%5c..")) {
+            assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ExpectedException.class,
+                    () -> proxy.forward("catalog", escape, null, null)).getStatus(), escape);
+        }
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> proxy.forward("offline", "/items", null, null).get(10, TimeUnit.SECONDS));
+        assertEquals(HttpStatus.BAD_GATEWAY, ((ExpectedException) failure.getCause()).getStatus());
+        assertEquals(1, proxy.stats().getUpstreamErrors());
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest cached responses to stay within the weight limit")
+    void shouldBoundCacheByWeight() throws Exception {
+        ProxyProperties properties = new ProxyProperties();
+        // Room for one cached items response (body, URL and content type), not two
+        properties.setMaxBytes(200);
+        ProxyService proxy = proxy(properties);
+
+        proxy.forward("catalog", "/items", "page=1", null).get(10, TimeUnit.SECONDS);
+        proxy.forward("catalog", "/items", "page=2", null).get(10, TimeUnit.SECONDS);
+        ResponseEntity<byte[]> refetched = proxy.forward("catalog", "/items", "page=1", null).get(10, TimeUnit.SECONDS);
+
+        assertEquals("MISS", refetched.getHeaders().getFirst(ProxyService.CACHE_HEADER));
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(2, proxy.stats().getEvictions());
+        assertEquals(1, proxy.stats().getEntries());
+        assertTrue(proxy.stats().getBytes() > 0 && proxy.stats().getBytes() <= 200);
+    }
+
+    private ProxyService proxy() throws IOException {
+        return proxy(new ProxyProperties());
+    }
+
+    private ProxyService proxy(ProxyProperties properties) throws IOException {
+        ProxyProperties.Route route = new ProxyProperties.Route();
+        route.setUpstream("http://127.0.0.1:" + upstream.getAddress().getPort() + "/api/");
+        ProxyProperties.Route offline = new ProxyProperties.Route();
+        // A port that was just free, so nothing accepts connections on it
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            offline.setUpstream("http://127.0.0.1:" + socket.getLocalPort());
+        }
+        properties.getRoutes().put("catalog", route);
+        properties.getRoutes().put("offline", offline);
+        return new ProxyService(properties, objectMapper, new MappingJackson2CborHttpMessageConverter());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.http_learn.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.http_learn.concurrent.BulkheadRegistry;
+import com.http_learn.config.BulkheadProperties;
+import com.http_learn.config.ResourceProperties;
+import com.http_learn.dto.IngestErrorDto;
+import com.http_learn.dto.IngestSummaryDto;
+import com.http_learn.store.InMemoryResourceRepository;
+import com.http_learn.store.NewResource;
+import com.http_learn.store.Resource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResourceIngestService
+ */
+class ResourceIngestServiceTest {
+
+    private final ResourceProperties properties = new ResourceProperties();
+    private final BulkheadRegistry bulkheads = bulkheads();
+
+    @Test
+    @DisplayName("Should create a resource per line and report rejected lines by number")
+    void shouldReportPerLineErrors() throws IOException {
+        InMemoryResourceRepository repository = new InMemoryResourceRepository(properties);
+        String body = """
+                {"name":"first","data":{"color":"blue","tags":[1,2]}}
+
+                {"data":{}}
+                not json
+                {"name":"crlf","extra":[1,{"a":2}]}\r
+                {"name":"a"} {"name":"b"}
+                {"name":"last"}""";
+
+        IngestSummaryDto summary = service(repository).ingest(stream(body));
+
+        assertEquals(6, summary.getLines());
+        assertEquals(3, summary.getCreated());
+        assertEquals(3, summary.getFailed());
+        assertEquals(List.of(3L, 4L, 6L), summary.getErrors().stream().map(IngestErrorDto::getLine).toList());
+        assertEquals("{\"color\":\"blue\",\"tags\":[1,2]}", new String(repository.find(1).data(), StandardCharsets.UTF_8));
+        assertEquals(3, repository.size());
+    }
+
+    @Test
+    @DisplayName("Should skip lines over the length limit without losing the next line")
+    void shouldSkipOverlongLines() throws IOException {
+        properties.setIngestMaxLineBytes(100);
+        InMemoryResourceRepository repository = new InMemoryResourceRepository(properties);
+        String body = "{\"name\":\"" + "x".repeat(200_000) + "\"}\n{\"name\":\"short\"}\n";
+
+        IngestSummaryDto summary = service(repository).ingest(stream(body));
+
+        assertEquals(1, summary.getCreated());
+        assertEquals(1, summary.getErrors().get(0).getLine());
+        assertEquals("short", repository.find(1).name());
+    }
+
+    @Test
+    @DisplayName("Should store every line of a large stream across many parallel batches")
+    void shouldIngestInParallelBatches() throws IOException {
+        properties.setIngestBatchLines(100);
+        properties.setIngestMaxErrors(5);
+        InMemoryResourceRepository repository = new InMemoryResourceRepository(properties);
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 50_000; i++) {
+            body.append(i % 1000 == 0 ? "{}" : "{\"name\":\"r" + i + "\",\"data\":" + i + "}").append('\n');
+        }
+
+        IngestSummaryDto summary = service(repository).ingest(stream(body.toString()));
+
+        assertEquals(50_000, summary.getLines());
+        assertEquals(49_950, summary.getCreated());
+        assertEquals(50, summary.getFailed());
+        assertEquals(List.of(1000L, 2000L, 3000L, 4000L, 5000L), summary.getErrors().stream().map(IngestErrorDto::getLine).toList());
+        assertEquals(49_950, repository.size());
+    }
+
+    @Test
+    @DisplayName("Should stop reading the body while all in-flight batches are unfinished")
+    void shouldApplyBackpressure() throws Exception {
+        properties.setIngestBatchLines(10);
+        properties.setIngestMaxInFlightBatches(2);
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryResourceRepository repository = new InMemoryResourceRepository(properties) {
+            @Override
+            public List<Resource> createAll(List<NewResource> batch) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.createAll(batch);
+            }
+        };
+        byte[] body = "{\"name\":\"r\"}\n".repeat(100_000).getBytes(StandardCharsets.UTF_8);
+        AtomicLong read = new AtomicLong();
+        InputStream input = new ByteArrayInputStream(body) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                int count = super.read(buffer, offset, Math.min(length, 1024));
+                read.addAndGet(Math.max(count, 0));
+                return count;
+            }
+        };
+
+        CompletableFuture<IngestSummaryDto> ingest = CompletableFuture.supplyAsync(() -> {
+            try {
+                return service(repository).ingest(input);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Thread.sleep(200);
+        long readWhileBlocked = read.get();
+        release.countDown();
+
+        assertTrue(readWhileBlocked < body.length / 10, "read " + readWhileBlocked + " bytes while blocked");
+        assertEquals(100_000, ingest.get(10, TimeUnit.SECONDS).getCreated());
+    }
+
+    private ResourceIngestService service(InMemoryResourceRepository repository) {
+        return new ResourceIngestService(repository, bulkheads, new ObjectMapper(), properties);
+    }
+
+    private static BulkheadRegistry bulkheads() {
+        BulkheadProperties.Spec spec = new BulkheadProperties.Spec();
+        spec.setThreads(4);
+        spec.setQueueCapacity(16);
+        spec.setRejection(BulkheadProperties.RejectionPolicy.CALLER_RUNS);
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getBulkheads().put("ingest", spec);
+        return new BulkheadRegistry(properties);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,57 @@
+package com.http_learn.service;
+
+import com.http_learn.exception.ExpectedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SyntheticPayloadService
+ */
+class SyntheticPayloadServiceTest {
+
+    private final SyntheticPayloadService service = new SyntheticPayloadService(4096, 1_000_000, 60_000);
+
+    @Test
+    @DisplayName("Should produce exactly n bytes, wrapping around the pool")
+    void shouldProduceExactLength() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.fixedBody(10_000, 7).writeTo(out);
+
+        assertEquals(10_000, out.size());
+    }
+
+    @Test
+    @DisplayName("Should be deterministic per seed")
+    void shouldBeDeterministicPerSeed() throws Exception {
+        assertArrayEquals(body(5000, 42), body(5000, 42));
+        assertFalse(Arrays.equals(body(5000, 42), body(5000, 43)));
+    }
+
+    @Test
+    @DisplayName("Should produce the same bytes chunked and unchunked")
+    void shouldMatchChunkedAndFixed() throws Exception {
+        ByteArrayOutputStream chunked = new ByteArrayOutputStream();
+        service.chunkedBody(5000, 42, 100).writeTo(chunked);
+
+        assertArrayEquals(body(5000, 42), chunked.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Should reject sizes above the maximum")
+    void shouldRejectOversizedRequests() {
+        assertThrows(ExpectedException.class, () -> service.fixedBody(1_000_001, 0));
+        assertThrows(ExpectedException.class, () -> service.chunkedBody(10, 0, 0));
+    }
+
+    private byte[] body(long n, long seed) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.fixedBody(n, seed).writeTo(out);
+        return out.toByteArray();
+    }
+}
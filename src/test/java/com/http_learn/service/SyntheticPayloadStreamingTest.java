@@ -0,0 +1,57 @@
+package com.http_learn.service;
+
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Integration tests for synthetic payloads served through the full filter chain of the running server
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "http-learn.warmup.enabled=false")
+class SyntheticPayloadStreamingTest {
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoSpyBean
+    private SyntheticPayloadService syntheticPayloadService;
+
+    @Test
+    @DisplayName("Should hand the direct buffer to Tomcat's own output stream with the default filters in place")
+    void shouldWriteDirectBuffersToTomcat() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        for (String path : List.of("/api/success/ok/bytes/65536", "/api/success/ok/stream-bytes/65536")) {
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                    .timeout(Duration.ofSeconds(10))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, response.statusCode(), path);
+            assertEquals(65536, response.body().length, path);
+            assertTrue(response.headers().firstValue("X-Cache").isEmpty(), path);
+        }
+
+        ArgumentCaptor<OutputStream> streams = ArgumentCaptor.forClass(OutputStream.class);
+        verify(syntheticPayloadService, times(2)).write(streams.capture(), anyLong(), anyLong(), anyInt(), anyBoolean());
+        for (OutputStream out : streams.getAllValues()) {
+            assertInstanceOf(CoyoteOutputStream.class, out);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.http_learn.service;
+
+import com.http_learn.config.WarmupProperties;
+import com.http_learn.filter.InternalTraffic;
+import com.http_learn.util.LocalServerUrl;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Ssl;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WarmupService
+ */
+class WarmupServiceTest {
+
+    private final InternalTraffic internalTraffic = new InternalTraffic();
+    private final ServerProperties server = new ServerProperties();
+    private HttpServer target;
+
+    @AfterEach
+    void tearDown() {
+        if (target != null) {
+            target.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should target the configured scheme, address and context path instead of plain http on loopback")
+    void shouldFollowServerConfiguration() throws Exception {
+        server.setSsl(new Ssl());
+        server.setAddress(InetAddress.getByName("10.1.2.3"));
+        server.getServlet().setContextPath("/learn");
+        WarmupService warmup = new WarmupService(properties(), server, internalTraffic);
+
+        String baseUrl = LocalServerUrl.applicationUrl(server, 8443);
+        List<HttpRequest> mix = warmup.buildMix(baseUrl);
+
+        assertEquals("https://10.1.2.3:8443/learn", baseUrl);
+        assertEquals(URI.create("https://10.1.2.3:8443/learn/api/success/ok"), mix.getFirst().uri());
+        assertEquals(internalTraffic.getToken(), mix.getFirst().headers().firstValue(InternalTraffic.HEADER).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should replay the mix under the context path and open the readiness gate once settled")
+    void shouldWarmUpUnderContextPath() throws Exception {
+        Queue<String> paths = new ConcurrentLinkedQueue<>();
+        target = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        target.createContext("/", exchange -> {
+            paths.add(exchange.getRequestURI().getPath());
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        target.start();
+        server.setAddress(InetAddress.getLoopbackAddress());
+        server.getServlet().setContextPath("/learn");
+        WarmupService warmup = new WarmupService(properties(), server, internalTraffic);
+        assertEquals("DOWN", warmup.readinessCheck().getStatus());
+
+        warmup.start(target.getAddress().getPort());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (warmup.readinessCheck().getStatus().equals("DOWN") && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("UP", warmup.readinessCheck().getStatus());
+        assertEquals(WarmupService.State.SETTLED.name(), warmup.status().getState());
+        assertTrue(warmup.status().getRequests() > 0);
+        assertEquals(0, warmup.status().getFailures());
+        assertFalse(paths.isEmpty());
+        assertTrue(paths.stream().allMatch("/learn/api/success/ok"::equals), paths.peek());
+    }
+
+    private static WarmupProperties properties() {
+        WarmupProperties.Request request = new WarmupProperties.Request();
+        request.setPath("/api/success/ok");
+        WarmupProperties properties = new WarmupProperties();
+        properties.setConcurrency(1);
+        properties.setMinDurationMs(100);
+        properties.setSettleWindowMs(50);
+        properties.setSettleWindows(1);
+        // Any amount of compilation counts as quiet, so the minimum duration decides
+        properties.setSettleThresholdMs(Long.MAX_VALUE);
+        properties.setRequests(List.of(request));
+        return properties;
+    }
+}
@@ -0,0 +1,187 @@
+package com.http_learn.store;
+
+import com.http_learn.config.ResourceProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InMemoryResourceRepository
+ */
+class InMemoryResourceRepositoryTest {
+
+    private static final byte[] DATA = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    @DisplayName("Should create, version, and delete resources")
+    void shouldSupportCrud() {
+        ResourceRepository repository = new InMemoryResourceRepository(new ResourceProperties());
+
+        Resource created = repository.create("first", DATA);
+        Resource updated = repository.update(created.id(), "renamed", null);
+
+        assertEquals(1, created.version());
+        assertEquals(2, updated.version());
+        assertEquals("renamed", repository.find(created.id()).name());
+        assertEquals(created.createdAt(), updated.createdAt());
+        assertNull(repository.update(created.id() + 1, "missing", null));
+        assertTrue(repository.delete(created.id()));
+        assertFalse(repository.delete(created.id()));
+        assertNull(repository.find(created.id()));
+        assertEquals(0, repository.size());
+    }
+
+    @Test
+    @DisplayName("Should hand out unique ids and lose no update under contention")
+    void shouldStayConsistentUnderContention() throws Exception {
+        ResourceRepository repository = new InMemoryResourceRepository(new ResourceProperties());
+        Resource shared = repository.create("shared", DATA);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 10_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(repository.create("r", DATA).id());
+                        repository.update(shared.id(), "shared", DATA);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, ids.size());
+        assertEquals(threads * perThread + 1, repository.size());
+        assertEquals(1 + threads * perThread, repository.find(shared.id()).version());
+    }
+
+    @Test
+    @DisplayName("Should page through the name and creation indexes across renames and deletes")
+    void shouldMaintainSecondaryIndexes() {
+        ResourceRepository repository = new InMemoryResourceRepository(new ResourceProperties());
+        for (String name : List.of("pear", "apple", "apricot", "banana", "avocado")) {
+            repository.create(name, null);
+        }
+        repository.update(4, "almond", null);
+        repository.delete(2);
+
+        List<ResourceKey> first = repository.keysByName("a", null, 2);
+        List<ResourceKey> second = repository.keysByName("a", first.get(1), 2);
+
+        assertEquals(List.of("almond", "apricot"), first.stream().map(ResourceKey::name).toList());
+        assertEquals(List.of("avocado"), second.stream().map(ResourceKey::name).toList());
+        assertEquals(List.of(1L, 3L, 4L, 5L), repository.keysByCreation(null, 10).stream().map(ResourceKey::id).toList());
+        assertEquals(List.of(4L, 5L), repository.keysByCreation(repository.keysByCreation(null, 2).get(1), 10)
+                .stream().map(ResourceKey::id).toList());
+        assertTrue(repository.keysByName("b", null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should lose no read-modify-write cycle when writers retry on version conflicts")
+    void shouldApplyConditionalUpdatesOnce() throws Exception {
+        ResourceRepository repository = new InMemoryResourceRepository(new ResourceProperties());
+        long id = repository.create("0", null).id();
+        int threads = 8;
+        int perThread = 2_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        while (true) {
+                            Resource read = repository.find(id);
+                            String incremented = Integer.toString(Integer.parseInt(read.name()) + 1);
+                            try {
+                                repository.update(id, version -> version == read.version(), incremented, null);
+                                break;
+                            } catch (VersionConflictException ex) {
+                                assertTrue(ex.getCurrentVersion() > read.version());
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Resource result = repository.find(id);
+        assertEquals(Integer.toString(threads * perThread), result.name());
+        assertEquals(1 + threads * perThread, result.version());
+        assertThrows(VersionConflictException.class, () -> repository.delete(id, version -> version == 1));
+        assertTrue(repository.delete(id, version -> version == result.version()));
+    }
+
+    @Test
+    @DisplayName("Should keep exactly one index key per resource while renames and deletes race")
+    void shouldKeepIndexesConsistentUnderRacingRenamesAndDeletes() throws Exception {
+        ResourceRepository repository = new InMemoryResourceRepository(new ResourceProperties());
+        int resources = 64;
+        for (int i = 0; i < resources; i++) {
+            repository.create("n0", null);
+        }
+        int threads = 8;
+        int perThread = 20_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perThread; i++) {
+                        long id = 1 + random.nextInt(resources);
+                        if (random.nextInt(4000) == 0) {
+                            repository.delete(id);
+                        } else {
+                            repository.update(id, "n" + random.nextInt(4), null);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<ResourceKey> byName = repository.keysByName("", null, resources * 2);
+        List<ResourceKey> byCreation = repository.keysByCreation(null, resources * 2);
+        assertTrue(repository.size() < resources);
+        assertEquals(repository.size(), byName.size());
+        assertEquals(repository.size(), byCreation.size());
+        for (ResourceKey key : byName) {
+            Resource stored = repository.find(key.id());
+            assertNotNull(stored, "deleted resource " + key.id() + " is still indexed");
+            assertEquals(stored.name(), key.name());
+        }
+        for (ResourceKey key : byCreation) {
+            assertNotNull(repository.find(key.id()));
+        }
+    }
+}
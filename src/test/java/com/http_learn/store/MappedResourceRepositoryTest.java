@@ -0,0 +1,195 @@
+package com.http_learn.store;
+
+import com.http_learn.config.ResourceProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MappedResourceRepository
+ */
+class MappedResourceRepositoryTest {
+
+    private static final byte[] DATA = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should keep resources, versions and deletions across a restart")
+    void shouldPersistAcrossReopen() throws IOException {
+        long kept;
+        long deleted;
+        try (MappedResourceRepository repository = open()) {
+            kept = repository.create("kept", DATA).id();
+            deleted = repository.create("deleted", null).id();
+            repository.update(kept, "renamed", DATA);
+            assertTrue(repository.delete(deleted));
+        }
+
+        try (MappedResourceRepository repository = open()) {
+            Resource resource = repository.find(kept);
+            assertEquals("renamed", resource.name());
+            assertEquals(2, resource.version());
+            assertArrayEquals(DATA, resource.data());
+            assertNull(repository.find(deleted));
+            assertEquals(1, repository.size());
+            assertTrue(repository.create("next", null).id() > deleted);
+            assertEquals(List.of("next", "renamed"), repository.keysByName("", null, 10).stream().map(ResourceKey::name).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop a record torn mid-write and keep appending after the last intact one")
+    void shouldRecoverFromTruncatedSegment() throws IOException {
+        int intactEnd;
+        Path segment;
+        try (MappedResourceRepository repository = open()) {
+            repository.create("first", DATA);
+            repository.create("second", DATA);
+            intactEnd = repository.activeEnd();
+            repository.create("torn", DATA);
+            segment = repository.activePath();
+        }
+        // Simulate a crash in the middle of the third record
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(intactEnd + MappedResourceRepository.RECORD_PREFIX_BYTES + 10);
+        }
+
+        try (MappedResourceRepository repository = open()) {
+            assertEquals(2, repository.size());
+            assertEquals("first", repository.find(1).name());
+            assertEquals("second", repository.find(2).name());
+            assertNull(repository.find(3));
+            assertEquals(intactEnd, repository.activeEnd());
+            repository.create("after", DATA);
+        }
+
+        try (MappedResourceRepository repository = open()) {
+            assertEquals(3, repository.size());
+            assertEquals("after", repository.find(3).name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop at a record whose checksum does not match")
+    void shouldRejectCorruptedRecord() throws IOException {
+        int intactEnd;
+        Path segment;
+        try (MappedResourceRepository repository = open()) {
+            repository.create("first", DATA);
+            intactEnd = repository.activeEnd();
+            repository.create("corrupted", DATA);
+            segment = repository.activePath();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), intactEnd + MappedResourceRepository.RECORD_PREFIX_BYTES + 45);
+        }
+
+        try (MappedResourceRepository repository = open()) {
+            assertEquals(1, repository.size());
+            assertNull(repository.find(2));
+            assertEquals(intactEnd, repository.activeEnd());
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse to start on a corrupted record in a sealed segment and leave the file untouched")
+    void shouldNotTruncateSealedSegment() throws IOException {
+        byte[] data = new byte[200];
+        Arrays.fill(data, (byte) '7');
+        int corruptedAt;
+        Path sealed;
+        try (MappedResourceRepository repository = open()) {
+            repository.create("first", data);
+            corruptedAt = repository.activeEnd();
+            sealed = repository.activePath();
+            while (repository.activePath().equals(sealed)) {
+                repository.create("filler", data);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(sealed, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), corruptedAt + MappedResourceRepository.RECORD_PREFIX_BYTES + 45);
+        }
+        byte[] before = Files.readAllBytes(sealed);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, this::open);
+
+        assertTrue(failure.getMessage().contains(sealed.getFileName().toString()), failure.getMessage());
+        assertArrayEquals(before, Files.readAllBytes(sealed));
+    }
+
+    @Test
+    @DisplayName("Should compact overwritten records into fewer segments without losing live ones")
+    void shouldCompactDeadRecords() throws IOException {
+        byte[] data = new byte[200];
+        Arrays.fill(data, (byte) '7');
+        int segmentsBefore;
+        try (MappedResourceRepository repository = open()) {
+            for (int i = 1; i <= 10; i++) {
+                repository.create("resource-" + i, data);
+            }
+            for (int round = 0; round < 10; round++) {
+                for (int i = 1; i <= 10; i++) {
+                    repository.update(i, "resource-" + i + "-" + round, data);
+                }
+            }
+            repository.delete(5);
+            segmentsBefore = repository.segmentCount();
+
+            assertTrue(repository.compact() > 0);
+            assertTrue(repository.segmentCount() < segmentsBefore);
+            assertEquals("resource-1-9", repository.find(1).name());
+            assertEquals(11, repository.find(1).version());
+            assertNull(repository.find(5));
+        }
+
+        try (MappedResourceRepository repository = open()) {
+            assertTrue(repository.segmentCount() < segmentsBefore);
+            assertEquals(9, repository.size());
+            assertNull(repository.find(5));
+            for (int i = 1; i <= 10; i++) {
+                if (i != 5) {
+                    assertEquals("resource-" + i + "-9", repository.find(i).name());
+                    assertArrayEquals(data, repository.find(i).data());
+                }
+            }
+            assertEquals(11, repository.create("new", null).id());
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse segments too small for the largest record")
+    void shouldValidateSegmentSize() {
+        ResourceProperties properties = properties();
+        properties.setMaxDataBytes(8192);
+
+        assertThrows(IllegalStateException.class, () -> new MappedResourceRepository(properties));
+    }
+
+    private MappedResourceRepository open() throws IOException {
+        return new MappedResourceRepository(properties());
+    }
+
+    private ResourceProperties properties() {
+        ResourceProperties properties = new ResourceProperties();
+        properties.setStorage("mapped");
+        properties.setDirectory(directory.toString());
+        properties.setSegmentBytes(4096);
+        properties.setMaxDataBytes(1024);
+        properties.setInitialCapacity(16);
+        return properties;
+    }
+}
@@ -0,0 +1,91 @@
+package com.http_learn.timing;
+
+import com.http_learn.config.ServerTimingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ServerTimingFilter and the phase hooks it works with
+ */
+class ServerTimingFilterTest {
+
+    private final ServerTimingInterceptor interceptor = new ServerTimingInterceptor();
+
+    @Test
+    @DisplayName("Should leave requests without the debug header untouched")
+    void shouldNotTimeUnmarkedRequests() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/success/ok");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ServerTimingFilter(new ServerTimingProperties()).doFilter(request, response, handler());
+
+        assertNull(ServerTiming.of(request));
+        assertNull(response.getHeader(ServerTiming.HEADER));
+    }
+
+    @Test
+    @DisplayName("Should report the filters, mapping and handler phases in the header")
+    void shouldReportPhasesInHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/success/ok");
+        request.addHeader("X-Debug-Timing", "1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ServerTimingFilter(new ServerTimingProperties()).doFilter(request, response, handler());
+
+        String header = response.getHeader(ServerTiming.HEADER);
+        assertNotNull(header);
+        assertTrue(header.matches("filters;dur=\\d+\\.\\d{3}, mapping;dur=\\d+\\.\\d{3}, handler;dur=\\d+\\.\\d{3}"), header);
+        assertTrue(ServerTiming.of(request).describe().contains("total;dur="));
+    }
+
+    @Test
+    @DisplayName("Should ignore the debug header when it does not carry the configured token")
+    void shouldRequireToken() throws Exception {
+        ServerTimingProperties properties = new ServerTimingProperties();
+        properties.setToken("secret");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/success/ok");
+        request.addHeader("X-Debug-Timing", "guess");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ServerTimingFilter(properties).doFilter(request, response, handler());
+
+        assertNull(response.getHeader(ServerTiming.HEADER));
+    }
+
+    @Test
+    @DisplayName("Should format durations as milliseconds with three decimals")
+    void shouldFormatMillis() {
+        StringBuilder value = new StringBuilder();
+        ServerTiming.appendMillis(value, 1_234_567);
+        value.append(' ');
+        ServerTiming.appendMillis(value, 5_000);
+        value.append(' ');
+        ServerTiming.appendMillis(value, 42_000_000);
+
+        assertEquals("1.234 0.005 42.000", value.toString());
+    }
+
+    /**
+     * Stands in for the rest of the stack: dispatch marker, DispatcherServlet with the interceptor, handler
+     */
+    private FilterChain handler() {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                interceptor.preHandle(request, response, this);
+                response.setContentType("application/json");
+                interceptor.postHandle(request, response, this, null);
+                interceptor.afterCompletion(request, response, this, null);
+            }
+        }, new ServerTimingFilter.DispatchMarker());
+    }
+}